@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd.benchmark;
+
+import java.io.IOException;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks the same as JMH's own main but always with the GC profiler so allocation per parse
+ * (gc.alloc.rate.norm) is reported next to throughput and average time. Takes all the usual JMH command line options,
+ * for example '-h' for help or 'CcdParserSizeBenchmark' to only run the size benchmarks.
+ *
+ * @author Sean Smith
+ */
+public class BenchmarkMain {
+
+  public static void main(final String[] args) throws CommandLineOptionException, IOException, RunnerException {
+    final CommandLineOptions commandLine = new CommandLineOptions(args);
+    if (commandLine.shouldHelp()) {
+      commandLine.showHelp();
+      return;
+    }
+
+    final Options options = new OptionsBuilder()
+            .parent(commandLine)
+            .addProfiler(GCProfiler.class)
+            .build();
+    final Runner runner = new Runner(options);
+    if (commandLine.shouldList()) {
+      runner.list();
+    } else if (commandLine.shouldListWithParams()) {
+      runner.listWithParams(commandLine);
+    } else {
+      runner.run();
+    }
+  }
+}
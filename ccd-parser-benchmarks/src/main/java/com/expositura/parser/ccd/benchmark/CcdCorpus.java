@@ -0,0 +1,148 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd.benchmark;
+
+import com.expositura.parser.ccd.CcdParser;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import org.xml.sax.InputSource;
+
+/**
+ * Loads the CCD samples the benchmarks run against. These are the same CCD's the ccd-parser tests use, found under
+ * ccd-parser/src/test/resources/ccds with one folder per EHR vendor. The folder can be given with the system property
+ * 'ccds.dir', otherwise it is looked for relative to the working directory so running from either the project root or
+ * this module works.
+ *
+ * @author Sean Smith
+ */
+final class CcdCorpus {
+
+  /** Use this as the vendor to run against every vendor's CCD's */
+  static final String ALL_VENDORS = "ALL";
+
+  private static final String CCDS_DIR_PROPERTY = "ccds.dir";
+  private static final String[] CCDS_DIR_CANDIDATES = {
+    "ccd-parser/src/test/resources/ccds",
+    "../ccd-parser/src/test/resources/ccds"
+  };
+
+  /**
+   * Buckets the CCD's by file size, the samples are spread fairly evenly between small and medium with a handful of
+   * large ones.
+   */
+  enum SizeBucket {
+    SMALL(0, 50 * 1024),
+    MEDIUM(50 * 1024, 200 * 1024),
+    LARGE(200 * 1024, Long.MAX_VALUE);
+
+    private final long minBytes;
+    private final long maxBytes;
+
+    SizeBucket(final long minBytes, final long maxBytes) {
+      this.minBytes = minBytes;
+      this.maxBytes = maxBytes;
+    }
+
+    boolean contains(final long size) {
+      return size >= minBytes && size < maxBytes;
+    }
+  }
+
+  private CcdCorpus() {
+  }
+
+  /**
+   * @param vendor The vendor folder name or {@link #ALL_VENDORS}
+   * @return The contents of the vendor's CCD's
+   */
+  static byte[][] forVendor(final String vendor) {
+    final Path root = locate();
+    final Path dir = ALL_VENDORS.equals(vendor) ? root : root.resolve(vendor);
+    if (!Files.isDirectory(dir)) {
+      throw new IllegalArgumentException("No CCD samples for vendor " + vendor + " under " + root);
+    }
+    return load(dir, path -> true);
+  }
+
+  /**
+   * @param bucket The size bucket
+   * @return The contents of every vendor's CCD's that fall in the size bucket
+   */
+  static byte[][] forSize(final SizeBucket bucket) {
+    return load(locate(), path -> {
+      try {
+        return bucket.contains(Files.size(path));
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+  }
+
+  private static Path locate() {
+    final String property = System.getProperty(CCDS_DIR_PROPERTY);
+    if (property != null) {
+      return Path.of(property);
+    }
+
+    for (final String candidate : CCDS_DIR_CANDIDATES) {
+      final Path path = Path.of(candidate);
+      if (Files.isDirectory(path)) {
+        return path;
+      }
+    }
+    throw new IllegalStateException("Unable to find the CCD samples, set the system property " + CCDS_DIR_PROPERTY);
+  }
+
+  /**
+   * Reads all the CCD's under the directory. Any the parser currently fails on are left out so a single bad sample
+   * doesn't abort a benchmark run.
+   */
+  private static byte[][] load(final Path dir, final Predicate<Path> filter) {
+    final List<byte[]> ccds = new ArrayList<>();
+    try (Stream<Path> paths = Files.walk(dir)) {
+      for (final Path path : paths.filter(p -> p.toString().endsWith(".xml")).filter(filter).sorted().toList()) {
+        final byte[] ccd = Files.readAllBytes(path);
+        if (isParseable(ccd)) {
+          ccds.add(ccd);
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    if (ccds.isEmpty()) {
+      throw new IllegalStateException("No parseable CCD samples under " + dir);
+    }
+    return ccds.toArray(byte[][]::new);
+  }
+
+  private static boolean isParseable(final byte[] ccd) {
+    try {
+      CcdParser.parseFromCcd(new InputSource(new ByteArrayInputStream(ccd)));
+      CcdParser.parseStreaming(new ByteArrayInputStream(ccd));
+      return true;
+    } catch (Exception e) {
+      return false;
+    }
+  }
+}
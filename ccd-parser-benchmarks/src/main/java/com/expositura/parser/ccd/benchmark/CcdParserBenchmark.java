@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd.benchmark;
+
+import com.expositura.model.ccd.ClinicalDocument;
+import com.expositura.parser.ccd.CcdParser;
+import com.expositura.parser.ccd.exeption.InvalidCcdException;
+import com.expositura.parser.ccd.util.ParseProfile;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import javax.xml.stream.XMLStreamException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * The benchmarks shared by every way the CCD samples are grouped. Each invocation parses the next CCD of the group,
+ * cycling through them so the numbers are an average over the whole group rather than a single document. Subclasses
+ * only decide which CCD's are in the group.
+ *
+ * @author Sean Smith
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class CcdParserBenchmark {
+
+  private byte[][] ccds;
+  private int next;
+
+  protected void setCcds(final byte[][] ccds) {
+    this.ccds = ccds;
+    this.next = 0;
+  }
+
+  @Benchmark
+  public ClinicalDocument parseDom() throws IOException, InvalidCcdException, SAXException {
+    return CcdParser.parseFromCcd(new InputSource(new ByteArrayInputStream(nextCcd())));
+  }
+
+  @Benchmark
+  public ClinicalDocument parseStreaming() throws InvalidCcdException, XMLStreamException {
+    return CcdParser.parseStreaming(new ByteArrayInputStream(nextCcd()));
+  }
+
+  @Benchmark
+  public ClinicalDocument parseStreamingDemographics() throws InvalidCcdException, XMLStreamException {
+    return CcdParser.parseStreaming(new ByteArrayInputStream(nextCcd()), ParseProfile.DEMOGRAPHICS);
+  }
+
+  @Benchmark
+  public ClinicalDocument parseStreamingFull() throws InvalidCcdException, XMLStreamException {
+    return CcdParser.parseStreaming(new ByteArrayInputStream(nextCcd()), ParseProfile.FULL);
+  }
+
+  private byte[] nextCcd() {
+    final byte[] ccd = ccds[next];
+    next = next + 1 == ccds.length ? 0 : next + 1;
+    return ccd;
+  }
+}
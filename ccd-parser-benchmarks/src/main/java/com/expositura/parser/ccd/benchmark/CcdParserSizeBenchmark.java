@@ -0,0 +1,36 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Parses the CCD samples of every vendor grouped by file size to show how the parser scales with document size.
+ *
+ * @author Sean Smith
+ */
+public class CcdParserSizeBenchmark extends CcdParserBenchmark {
+
+  @Param({"SMALL", "MEDIUM", "LARGE"})
+  public String size;
+
+  @Setup(Level.Trial)
+  public void loadCcds() {
+    setCcds(CcdCorpus.forSize(CcdCorpus.SizeBucket.valueOf(size)));
+  }
+}
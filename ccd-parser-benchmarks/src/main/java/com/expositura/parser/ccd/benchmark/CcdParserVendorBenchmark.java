@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Parses the CCD samples one vendor at a time since each EHR vendor structures their CCD's a little differently. Runs
+ * every vendor by default, use '-p vendor=NextGen,Practice_Fusion' to pick some or '-p vendor=ALL' for all of them
+ * mixed together.
+ *
+ * @author Sean Smith
+ */
+public class CcdParserVendorBenchmark extends CcdParserBenchmark {
+
+  @Param({"360_Oncology", "Advanced_Technologies_Group", "Afoundria", "Agastha", "Allscripts_FollowMyHealth",
+    "Allscripts_Professional", "Allscripts_Sunrise", "Allscripts_TouchWorks", "Amrita", "Atos_Pulse",
+    "Bizmatics_PrognoCIS", "CareEvolution", "Carefluence", "ChartLogic", "CompuLink", "EHealthPartners", "EMR_Direct",
+    "EchoMan", "Edaris_Forerun", "Equicare", "Freedom_Medical", "Get_Real_Health", "HealthGrid", "Health_Companion",
+    "Henry_Schein", "Intellichart", "Key_Chart", "MDIntellisys_IntelleChart", "MDLogic", "MDOffice", "McKesson_Paragon",
+    "MedConnect", "MedHost_Enterprise", "Medflow_RCP", "Medfusion", "Medical_Office_Technologies", "Meditech_Magic",
+    "ModuleMD_Wise", "Navigating_Cancer", "Netsmart_myEvolv", "NextGen", "NextGen_MediTouch", "NextTech",
+    "OpenVista_CareVue", "Practice_Fusion", "SocialCare", "Sophrona_Solutions", "SuccessEHS", "YourCareUniverse", "eRAD",
+    "iPatientCare", "ioPracticeWare"})
+  public String vendor;
+
+  @Setup(Level.Trial)
+  public void loadCcds() {
+    setCcds(CcdCorpus.forVendor(vendor));
+  }
+}
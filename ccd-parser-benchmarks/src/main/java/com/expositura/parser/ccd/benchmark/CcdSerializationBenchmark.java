@@ -0,0 +1,123 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd.benchmark;
+
+import com.expositura.model.ccd.ClinicalDocument;
+import com.expositura.parser.ccd.CcdBinaryReader;
+import com.expositura.parser.ccd.CcdBinaryWriter;
+import com.expositura.parser.ccd.CcdParser;
+import com.expositura.parser.ccd.util.CcdObjectMappers;
+import com.expositura.parser.ccd.util.ParseProfile;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the formats a parsed CCD can be handed between pipeline stages in: the intake connectors' current JSON
+ * mapper, the same JSON with Blackbird, Smile, CBOR and Expositura's own binary format. Each invocation writes or reads
+ * the next document of the whole sample set. How big the set is in each format is left to CcdBinaryCodecTest, which
+ * checks the formats come out in the expected order of size.
+ *
+ * @author Sean Smith
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CcdSerializationBenchmark {
+
+  @Param({"JSON", "JSON_BLACKBIRD", "SMILE", "CBOR", "BINARY"})
+  public String format;
+
+  private ObjectMapper mapper;
+  private ClinicalDocument[] documents;
+  private byte[][] encoded;
+  private int next;
+
+  @Setup(Level.Trial)
+  public void loadCcds() throws Exception {
+    mapper = switch (format) {
+      case "JSON" -> currentJsonMapper();
+      case "JSON_BLACKBIRD" -> CcdObjectMappers.json();
+      case "SMILE" -> CcdObjectMappers.smile();
+      case "CBOR" -> CcdObjectMappers.cbor();
+      default -> null;
+    };
+
+    final byte[][] ccds = CcdCorpus.forVendor(CcdCorpus.ALL_VENDORS);
+    documents = new ClinicalDocument[ccds.length];
+    encoded = new byte[ccds.length][];
+    for (int i = 0; i < ccds.length; i++) {
+      documents[i] = CcdParser.parseStreaming(new ByteArrayInputStream(ccds[i]), ParseProfile.FULL);
+      encoded[i] = write(documents[i]);
+    }
+  }
+
+  @Benchmark
+  public byte[] serialize() throws IOException {
+    final byte[] ccd = write(documents[next]);
+    advance();
+    return ccd;
+  }
+
+  @Benchmark
+  public ClinicalDocument deserialize() throws IOException {
+    final byte[] ccd = encoded[next];
+    advance();
+    return mapper == null ? CcdBinaryReader.decode(ccd) : mapper.readValue(ccd, ClinicalDocument.class);
+  }
+
+  private byte[] write(final ClinicalDocument document) throws IOException {
+    return mapper == null ? CcdBinaryWriter.encode(document) : mapper.writeValueAsBytes(document);
+  }
+
+  private void advance() {
+    next = next + 1 == documents.length ? 0 : next + 1;
+  }
+
+  /**
+   * The same as the rest-api-connector's Config.objectMapper()
+   */
+  private static ObjectMapper currentJsonMapper() {
+    return new ObjectMapper(new JsonFactoryBuilder()
+            .streamReadConstraints(StreamReadConstraints.builder().maxStringLength(Integer.MAX_VALUE).build()).build())
+        .registerModule(new JavaTimeModule())
+        .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false)
+        .setSerializationInclusion(JsonInclude.Include.NON_EMPTY)
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
+  }
+}
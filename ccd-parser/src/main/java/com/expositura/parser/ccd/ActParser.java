@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd;
+
+import com.expositura.model.ccd.Act;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Parses the Act XML element to the java object. The clinical body is only read by the streaming parser
+ * 
+ * @author Sean Smith
+ */
+public class ActParser {
+  
+  public static Act fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Act act = new Act();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        act.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        act.setClassCode(classCode);
+      }
+      
+      // moodCode
+      final String moodCode = reader.getAttributeValue("moodCode");
+      if (moodCode != null) {
+        act.setMoodCode(moodCode);
+      }
+      
+      // negationInd
+      final String negationInd = reader.getAttributeValue("negationInd");
+      if (negationInd != null) {
+        act.setNegationInd(Boolean.valueOf(negationInd));
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> act.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> act.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> act.addTemplateId(IiParser.fromXml(reader));
+          case ID -> act.addId(IiParser.fromXml(reader));
+          case CODE -> act.setCode(CdParser.fromXml(reader));
+          case TEXT -> act.setText(EdParser.fromXml(reader));
+          case STATUS_CODE -> act.setStatusCode(CsParser.fromXml(reader));
+          case EFFECTIVE_TIME -> act.setEffectiveTime(IvlTsParser.fromXml(reader));
+          case PRIORITY_CODE -> act.setPriorityCode(CeParser.fromXml(reader));
+          case LANGUAGE_CODE -> act.setLanguageCode(CsParser.fromXml(reader));
+          case SPECIMEN -> act.addSpecimen(SpecimenParser.fromXml(reader));
+          case PERFORMER -> act.addPerformer(Performer2Parser.fromXml(reader));
+          case AUTHOR -> act.addAuthor(AuthorParser.fromXml(reader));
+          case INFORMANT -> act.addInformant(InformantParser.fromXml(reader));
+          case PARTICIPANT -> act.addParticipant(Participant2Parser.fromXml(reader));
+          case ENTRY_RELATIONSHIP -> act.addEntryRelationship(EntryRelationshipParser.fromXml(reader));
+          default -> reader.skipElement();
+        }
+      }
+    }
+    
+    return Act.isEmpty(act) ? null : act;
+  }
+          
+}
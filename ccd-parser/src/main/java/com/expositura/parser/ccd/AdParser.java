@@ -16,8 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.Ad;
-import java.util.ArrayList;
-import java.util.List;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.apache.commons.lang3.StringUtils;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
@@ -70,79 +71,35 @@ public class AdParser {
       
       // This datatype can have text which means it's just a string for the address
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|delimiter" -> ad.setDelimiter(AdxpParser.fromXml(child));
-          case "urn:hl7-org:v3|country" -> ad.setCountry(AdxpParser.fromXml(child));
-          case "urn:hl7-org:v3|state" -> ad.setState(AdxpParser.fromXml(child));
-          case "urn:hl7-org:v3|county" -> ad.setCounty(AdxpParser.fromXml(child));
-          case "urn:hl7-org:v3|city" -> ad.setCity(AdxpParser.fromXml(child));
-          case "urn:hl7-org:v3|postalCode" -> ad.setPostalCode(AdxpParser.fromXml(child));
-          case "urn:hl7-org:v3|streetAddressLine" -> ad.addStreetAddressLine(AdxpParser.fromXml(child));
-          case "urn:hl7-org:v3|houseNumber" -> ad.setHouseNumber(AdxpParser.fromXml(child));
-          case "urn:hl7-org:v3|houseNumberNumeric" -> ad.setHouseNumberNumeric(AdxpParser.fromXml(child));
-          case "urn:hl7-org:v3|direction" -> ad.setDirection(AdxpParser.fromXml(child));
-          case "urn:hl7-org:v3|streetName" -> ad.setStreetName(AdxpParser.fromXml(child));
-          case "urn:hl7-org:v3|streetNameBase" -> ad.setStreetNameBase(AdxpParser.fromXml(child));
-          case "urn:hl7-org:v3|streetNameType" -> ad.setStreetNameType(AdxpParser.fromXml(child));
-          case "urn:hl7-org:v3|additionalLocator" -> ad.setAdditionalLocator(AdxpParser.fromXml(child));
-          case "urn:hl7-org:v3|unitID" -> ad.setUnitId(AdxpParser.fromXml(child));
-          case "urn:hl7-org:v3|unitType" -> ad.setUnitType(AdxpParser.fromXml(child));
-          case "urn:hl7-org:v3|careOf" -> ad.setCareOf(AdxpParser.fromXml(child));
-          case "urn:hl7-org:v3|censusTract" -> ad.setCensusTract(AdxpParser.fromXml(child));
-          case "urn:hl7-org:v3|deliveryAddressLine" -> ad.setDeliveryAddressLine(AdxpParser.fromXml(child));
-          case "urn:hl7-org:v3|deliveryInstallationType" -> ad.setDeliveryInstallationType(AdxpParser.fromXml(child));
-          case "urn:hl7-org:v3|deliveryInstallationArea" -> ad.setDeliveryInstallationArea(AdxpParser.fromXml(child));
-          case "urn:hl7-org:v3|deliveryInstallationQualifier" -> ad.setDeliveryInstallationQualifier(AdxpParser.fromXml(child));
-          case "urn:hl7-org:v3|deliveryMode" -> ad.setDeliveryMode(AdxpParser.fromXml(child));
-          case "urn:hl7-org:v3|deliveryModeIdentifier" -> ad.setDeliveryModeIdentifier(AdxpParser.fromXml(child));
-          case "urn:hl7-org:v3|buildingNumberSuffix" -> ad.setBuildingNumberSuffix(AdxpParser.fromXml(child));
-          case "urn:hl7-org:v3|postBox" -> ad.setPostBox(AdxpParser.fromXml(child));
-          case "urn:hl7-org:v3|precinct" -> ad.setPrecinct(AdxpParser.fromXml(child));
-          case "urn:hl7-org:v3|useablePeriod" -> {
-            // This element may be one of four different datatypes, determine which one
-            final NamedNodeMap childAttributes = child.getAttributes();
-            
-            // These are the possible child nodes for the five different datatypes
-            Node event = null;
-            Node offset = null;
-            Node phase = null;
-            Node period = null;
-            List<Node> comp = new ArrayList<>();          
-            
-            // Figure out which children are present
-            if (child.hasChildNodes()) {
-              final NodeList subNodes = child.getChildNodes();
-              for (int j = 0; j < subNodes.getLength(); j++) {
-                switch (subNodes.item(j).getLocalName()) {
-                  case "event" -> event = subNodes.item(j);
-                  case "offset" -> offset = subNodes.item(j);
-                  case "phase" -> phase = subNodes.item(j);
-                  case "period" -> period = subNodes.item(j);
-                  case "comp" -> comp.add(subNodes.item(j));
-                }
-              }
-            }
-            
-            // First look for SXPR_TS type which MUST have 'comp' child element(s)
-            if (!comp.isEmpty()) {
-              SxprTsParser.fromXml(child);
-            }
-            // Next look for event or offset as either shows it's a EIVL_TS
-            else if (event != null || offset != null) {
-              ad.addUseablePeriodAsEivlTs(EivlTsParser.fromXml(child));
-            }
-            // Next look for phase, period, alignment, or institution specified which means it's a PIVL_TS
-            else if (phase != null 
-                    || period != null 
-                    || childAttributes.getNamedItem("alignment") != null 
-                    || childAttributes.getNamedItem("institution") != null) {
-              ad.addUseablePeriodAsPivlTs(PivlTsParser.fromXml(child));
-            }
-            // Catch all is IVL_TS
-            else {
-              ad.addUseablePeriodAsIvlTs(IvlTsParser.fromXml(child));
-            }
-          }
+        switch (CcdElement.of(child)) {
+          case DELIMITER -> ad.setDelimiter(AdxpParser.fromXml(child));
+          case COUNTRY -> ad.setCountry(AdxpParser.fromXml(child));
+          case STATE -> ad.setState(AdxpParser.fromXml(child));
+          case COUNTY -> ad.setCounty(AdxpParser.fromXml(child));
+          case CITY -> ad.setCity(AdxpParser.fromXml(child));
+          case POSTAL_CODE -> ad.setPostalCode(AdxpParser.fromXml(child));
+          case STREET_ADDRESS_LINE -> ad.addStreetAddressLine(AdxpParser.fromXml(child));
+          case HOUSE_NUMBER -> ad.setHouseNumber(AdxpParser.fromXml(child));
+          case HOUSE_NUMBER_NUMERIC -> ad.setHouseNumberNumeric(AdxpParser.fromXml(child));
+          case DIRECTION -> ad.setDirection(AdxpParser.fromXml(child));
+          case STREET_NAME -> ad.setStreetName(AdxpParser.fromXml(child));
+          case STREET_NAME_BASE -> ad.setStreetNameBase(AdxpParser.fromXml(child));
+          case STREET_NAME_TYPE -> ad.setStreetNameType(AdxpParser.fromXml(child));
+          case ADDITIONAL_LOCATOR -> ad.setAdditionalLocator(AdxpParser.fromXml(child));
+          case UNIT_ID -> ad.setUnitId(AdxpParser.fromXml(child));
+          case UNIT_TYPE -> ad.setUnitType(AdxpParser.fromXml(child));
+          case CARE_OF -> ad.setCareOf(AdxpParser.fromXml(child));
+          case CENSUS_TRACT -> ad.setCensusTract(AdxpParser.fromXml(child));
+          case DELIVERY_ADDRESS_LINE -> ad.setDeliveryAddressLine(AdxpParser.fromXml(child));
+          case DELIVERY_INSTALLATION_TYPE -> ad.setDeliveryInstallationType(AdxpParser.fromXml(child));
+          case DELIVERY_INSTALLATION_AREA -> ad.setDeliveryInstallationArea(AdxpParser.fromXml(child));
+          case DELIVERY_INSTALLATION_QUALIFIER -> ad.setDeliveryInstallationQualifier(AdxpParser.fromXml(child));
+          case DELIVERY_MODE -> ad.setDeliveryMode(AdxpParser.fromXml(child));
+          case DELIVERY_MODE_IDENTIFIER -> ad.setDeliveryModeIdentifier(AdxpParser.fromXml(child));
+          case BUILDING_NUMBER_SUFFIX -> ad.setBuildingNumberSuffix(AdxpParser.fromXml(child));
+          case POST_BOX -> ad.setPostBox(AdxpParser.fromXml(child));
+          case PRECINCT -> ad.setPrecinct(AdxpParser.fromXml(child));
+          case USEABLE_PERIOD -> addUseablePeriod(ad, GtsParser.fromXml(child, false));
         }
       } else {
         ad.setXmlText(child.getNodeValue());
@@ -151,5 +108,89 @@ public class AdParser {
     
     return Ad.isEmpty(ad) ? null : ad;
   }
+
+  public static Ad fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Ad ad = new Ad();
+    
+    // Start by getting the attributes
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        ad.setNullFlavor(nullFlavor);
+      }
+      
+      // isNotOrdered
+      final String isNotOrdered = reader.getAttributeValue("isNotOrdered");
+      if (isNotOrdered != null) {
+        ad.setIsNotOrdered(Boolean.valueOf(isNotOrdered));
+      }
+      
+      // use (special case, use can have multiple values with space seperator
+      final String use = reader.getAttributeValue("use");
+      if (use != null) {
+        for (final String singleUse : StringUtils.split(use)) {
+          ad.addUse(singleUse);
+        }
+      }
+      
+    }
+    
+    // Now work thru children
+    while (reader.nextChild()) {
+      
+      // This datatype can have text which means it's just a string for the address
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case DELIMITER -> ad.setDelimiter(AdxpParser.fromXml(reader));
+          case COUNTRY -> ad.setCountry(AdxpParser.fromXml(reader));
+          case STATE -> ad.setState(AdxpParser.fromXml(reader));
+          case COUNTY -> ad.setCounty(AdxpParser.fromXml(reader));
+          case CITY -> ad.setCity(AdxpParser.fromXml(reader));
+          case POSTAL_CODE -> ad.setPostalCode(AdxpParser.fromXml(reader));
+          case STREET_ADDRESS_LINE -> ad.addStreetAddressLine(AdxpParser.fromXml(reader));
+          case HOUSE_NUMBER -> ad.setHouseNumber(AdxpParser.fromXml(reader));
+          case HOUSE_NUMBER_NUMERIC -> ad.setHouseNumberNumeric(AdxpParser.fromXml(reader));
+          case DIRECTION -> ad.setDirection(AdxpParser.fromXml(reader));
+          case STREET_NAME -> ad.setStreetName(AdxpParser.fromXml(reader));
+          case STREET_NAME_BASE -> ad.setStreetNameBase(AdxpParser.fromXml(reader));
+          case STREET_NAME_TYPE -> ad.setStreetNameType(AdxpParser.fromXml(reader));
+          case ADDITIONAL_LOCATOR -> ad.setAdditionalLocator(AdxpParser.fromXml(reader));
+          case UNIT_ID -> ad.setUnitId(AdxpParser.fromXml(reader));
+          case UNIT_TYPE -> ad.setUnitType(AdxpParser.fromXml(reader));
+          case CARE_OF -> ad.setCareOf(AdxpParser.fromXml(reader));
+          case CENSUS_TRACT -> ad.setCensusTract(AdxpParser.fromXml(reader));
+          case DELIVERY_ADDRESS_LINE -> ad.setDeliveryAddressLine(AdxpParser.fromXml(reader));
+          case DELIVERY_INSTALLATION_TYPE -> ad.setDeliveryInstallationType(AdxpParser.fromXml(reader));
+          case DELIVERY_INSTALLATION_AREA -> ad.setDeliveryInstallationArea(AdxpParser.fromXml(reader));
+          case DELIVERY_INSTALLATION_QUALIFIER -> ad.setDeliveryInstallationQualifier(AdxpParser.fromXml(reader));
+          case DELIVERY_MODE -> ad.setDeliveryMode(AdxpParser.fromXml(reader));
+          case DELIVERY_MODE_IDENTIFIER -> ad.setDeliveryModeIdentifier(AdxpParser.fromXml(reader));
+          case BUILDING_NUMBER_SUFFIX -> ad.setBuildingNumberSuffix(AdxpParser.fromXml(reader));
+          case POST_BOX -> ad.setPostBox(AdxpParser.fromXml(reader));
+          case PRECINCT -> ad.setPrecinct(AdxpParser.fromXml(reader));
+          case USEABLE_PERIOD -> addUseablePeriod(ad, GtsParser.fromXml(reader, false));
+          default -> reader.skipElement();
+        }
+      } else {
+        ad.setXmlText(reader.getText());
+      } 
+    }
+    
+    return Ad.isEmpty(ad) ? null : ad;
+  }
+
+  /**
+   * Adds the useablePeriod as whichever of the four datatypes it turned out to be.
+   */
+  private static void addUseablePeriod(final Ad ad, final GtsParser useablePeriod) {
+    switch (useablePeriod.getType()) {
+      case SXPR_TS -> ad.addUseablePeriodAsSxprTs(useablePeriod.toSxprTs());
+      case EIVL_TS -> ad.addUseablePeriodAsEivlTs(useablePeriod.toEivlTs());
+      case PIVL_TS -> ad.addUseablePeriodAsPivlTs(useablePeriod.toPivlTs());
+      default -> ad.addUseablePeriodAsIvlTs(useablePeriod.toIvlTs());
+    }
+  }
           
 }
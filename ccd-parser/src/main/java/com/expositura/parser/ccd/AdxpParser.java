@@ -16,6 +16,8 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.Adxp;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -82,5 +84,58 @@ public class AdxpParser {
     
     return Adxp.isEmpty(adxp) ? null : adxp;
   }
+
+  public static Adxp fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Adxp adxp = new Adxp();
+    
+    // Start by getting the attributes
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        adxp.setNullFlavor(nullFlavor);
+      }
+      
+      // representation
+      final String representation = reader.getAttributeValue("representation");
+      if (representation != null) {
+        adxp.setRepresentation(representation);
+      }
+      
+      // mediaType
+      final String mediaType = reader.getAttributeValue("mediaType");
+      if (mediaType != null) {
+        adxp.setMediaType(mediaType);
+      }
+      
+      // language
+      final String language = reader.getAttributeValue("language");
+      if (language != null) {
+        adxp.setLanguage(language);
+      }
+      
+      // partType
+      final String partType = reader.getAttributeValue("partType");
+      if (partType != null) {
+        adxp.setPartType(partType);
+      }
+      
+    }
+    
+    // Now work thru children, only expecting a text node
+    while (reader.nextChild()) {
+      
+      // Expecting no children with attributes or sub elements
+      if (reader.isElement()) {
+        // Not expecting any of these so ignore
+        reader.skipElement();
+      } else {
+        adxp.setXmlText(reader.getText());
+      }
+    }
+    
+    return Adxp.isEmpty(adxp) ? null : adxp;
+  }
           
 }
@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.AlternateIdentification;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -49,11 +52,42 @@ public class AlternateIdentificationParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|id" -> alternateIdentification.setId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|code" -> alternateIdentification.setCode(CdParser.fromXml(child));
-          case "urn:hl7-org:v3|statusCode" -> alternateIdentification.setStatusCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|effectiveTime" -> alternateIdentification.setEffectiveTime(IvlTsParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case ID -> alternateIdentification.setId(IiParser.fromXml(child));
+          case CODE -> alternateIdentification.setCode(CdParser.fromXml(child));
+          case STATUS_CODE -> alternateIdentification.setStatusCode(CsParser.fromXml(child));
+          case EFFECTIVE_TIME -> alternateIdentification.setEffectiveTime(IvlTsParser.fromXml(child));
+        }
+      }
+    }
+    
+    return AlternateIdentification.isEmpty(alternateIdentification) ? null : alternateIdentification;
+  }
+
+  public static AlternateIdentification fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final AlternateIdentification alternateIdentification = new AlternateIdentification();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        alternateIdentification.setClassCode(classCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case ID -> alternateIdentification.setId(IiParser.fromXml(reader));
+          case CODE -> alternateIdentification.setCode(CdParser.fromXml(reader));
+          case STATUS_CODE -> alternateIdentification.setStatusCode(CsParser.fromXml(reader));
+          case EFFECTIVE_TIME -> alternateIdentification.setEffectiveTime(IvlTsParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.AsPatientRelationship;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -61,11 +64,54 @@ public class AsPatientRelationshipParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> asPatientRelationship.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> asPatientRelationship.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> asPatientRelationship.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:sdtc|code" -> asPatientRelationship.setCode(CeParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> asPatientRelationship.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> asPatientRelationship.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> asPatientRelationship.addTemplateId(IiParser.fromXml(child));
+          case SDTC_CODE -> asPatientRelationship.setCode(CeParser.fromXml(child));
+        }
+      }
+    }
+    
+    return AsPatientRelationship.isEmpty(asPatientRelationship) ? null : asPatientRelationship;
+  }
+
+  public static AsPatientRelationship fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final AsPatientRelationship asPatientRelationship = new AsPatientRelationship();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        asPatientRelationship.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        asPatientRelationship.setClassCode(classCode);
+      }
+      
+      // determinerCode
+      final String determinerCode = reader.getAttributeValue("determinerCode");
+      if (determinerCode != null) {
+        asPatientRelationship.setDeterminerCode(determinerCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> asPatientRelationship.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> asPatientRelationship.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> asPatientRelationship.addTemplateId(IiParser.fromXml(reader));
+          case SDTC_CODE -> asPatientRelationship.setCode(CeParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
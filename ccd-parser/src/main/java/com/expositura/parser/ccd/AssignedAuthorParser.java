@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.AssignedAuthor;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -55,18 +58,62 @@ public class AssignedAuthorParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> assignedAuthor.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> assignedAuthor.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> assignedAuthor.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|id" -> assignedAuthor.addId(IiParser.fromXml(child));
-          case "urn:hl7-org:sdtc|identifiedBy" -> assignedAuthor.addIdentifiedBy(IdentifiedByParser.fromXml(child));
-          case "urn:hl7-org:v3|code" -> assignedAuthor.setCode(CeParser.fromXml(child));
-          case "urn:hl7-org:v3|addr" -> assignedAuthor.addAddr(AdParser.fromXml(child));
-          case "urn:hl7-org:v3|telecom" -> assignedAuthor.addTelecom(TelParser.fromXml(child));
-          case "urn:hl7-org:v3|assignedPerson" -> assignedAuthor.setAssignedPerson(PersonParser.fromXml(child));
-          case "urn:hl7-org:v3|assignedAuthoringDevice" -> assignedAuthor.setAssignedAuthoringDevice(AuthoringDeviceParser.fromXml(child));
-          case "urn:hl7-org:v3|representedOrganization" -> assignedAuthor.setRepresentedOrganization(OrganizationParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> assignedAuthor.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> assignedAuthor.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> assignedAuthor.addTemplateId(IiParser.fromXml(child));
+          case ID -> assignedAuthor.addId(IiParser.fromXml(child));
+          case SDTC_IDENTIFIED_BY -> assignedAuthor.addIdentifiedBy(IdentifiedByParser.fromXml(child));
+          case CODE -> assignedAuthor.setCode(CeParser.fromXml(child));
+          case ADDR -> assignedAuthor.addAddr(AdParser.fromXml(child));
+          case TELECOM -> assignedAuthor.addTelecom(TelParser.fromXml(child));
+          case ASSIGNED_PERSON -> assignedAuthor.setAssignedPerson(PersonParser.fromXml(child));
+          case ASSIGNED_AUTHORING_DEVICE -> assignedAuthor.setAssignedAuthoringDevice(AuthoringDeviceParser.fromXml(child));
+          case REPRESENTED_ORGANIZATION -> assignedAuthor.setRepresentedOrganization(OrganizationParser.fromXml(child));
+        }
+      }
+    }
+    
+    return AssignedAuthor.isEmpty(assignedAuthor) ? null : assignedAuthor;
+  }
+
+  public static AssignedAuthor fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final AssignedAuthor assignedAuthor = new AssignedAuthor();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        assignedAuthor.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        assignedAuthor.setClassCode(classCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> assignedAuthor.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> assignedAuthor.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> assignedAuthor.addTemplateId(IiParser.fromXml(reader));
+          case ID -> assignedAuthor.addId(IiParser.fromXml(reader));
+          case SDTC_IDENTIFIED_BY -> assignedAuthor.addIdentifiedBy(IdentifiedByParser.fromXml(reader));
+          case CODE -> assignedAuthor.setCode(CeParser.fromXml(reader));
+          case ADDR -> assignedAuthor.addAddr(AdParser.fromXml(reader));
+          case TELECOM -> assignedAuthor.addTelecom(TelParser.fromXml(reader));
+          case ASSIGNED_PERSON -> assignedAuthor.setAssignedPerson(PersonParser.fromXml(reader));
+          case ASSIGNED_AUTHORING_DEVICE -> assignedAuthor.setAssignedAuthoringDevice(AuthoringDeviceParser.fromXml(reader));
+          case REPRESENTED_ORGANIZATION -> assignedAuthor.setRepresentedOrganization(OrganizationParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
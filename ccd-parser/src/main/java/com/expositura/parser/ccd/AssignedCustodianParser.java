@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.AssignedCustodian;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -55,11 +58,48 @@ public class AssignedCustodianParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> assignedCustodian.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> assignedCustodian.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> assignedCustodian.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|representedCustodianOrganization" -> assignedCustodian.setRepresentedCustodianOrganization(CustodianOrganizationParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> assignedCustodian.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> assignedCustodian.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> assignedCustodian.addTemplateId(IiParser.fromXml(child));
+          case REPRESENTED_CUSTODIAN_ORGANIZATION -> assignedCustodian.setRepresentedCustodianOrganization(CustodianOrganizationParser.fromXml(child));
+        }
+      }
+    }
+    
+    return AssignedCustodian.isEmpty(assignedCustodian) ? null : assignedCustodian;
+  }
+
+  public static AssignedCustodian fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final AssignedCustodian assignedCustodian = new AssignedCustodian();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        assignedCustodian.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        assignedCustodian.setClassCode(classCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> assignedCustodian.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> assignedCustodian.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> assignedCustodian.addTemplateId(IiParser.fromXml(reader));
+          case REPRESENTED_CUSTODIAN_ORGANIZATION -> assignedCustodian.setRepresentedCustodianOrganization(CustodianOrganizationParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.AssignedEntity;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -55,18 +58,62 @@ public class AssignedEntityParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> assignedEntity.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> assignedEntity.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> assignedEntity.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|id" -> assignedEntity.addId(IiParser.fromXml(child));
-          case "urn:hl7-org:sdtc|identifiedBy" -> assignedEntity.addIdentifiedBy(IdentifiedByParser.fromXml(child));
-          case "urn:hl7-org:v3|code" -> assignedEntity.setCode(CeParser.fromXml(child));
-          case "urn:hl7-org:v3|addr" -> assignedEntity.addAddr(AdParser.fromXml(child));
-          case "urn:hl7-org:v3|telecom" -> assignedEntity.addTelecom(TelParser.fromXml(child));
-          case "urn:hl7-org:v3|assignedPerson" -> assignedEntity.setAssignedPerson(PersonParser.fromXml(child));
-          case "urn:hl7-org:v3|representedOrganization" -> assignedEntity.setRepresentedOrganization(OrganizationParser.fromXml(child));
-          case "urn:hl7-org:sdtc|patient" -> assignedEntity.setAssignedEntityPatient(AssignedEntityPatientParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> assignedEntity.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> assignedEntity.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> assignedEntity.addTemplateId(IiParser.fromXml(child));
+          case ID -> assignedEntity.addId(IiParser.fromXml(child));
+          case SDTC_IDENTIFIED_BY -> assignedEntity.addIdentifiedBy(IdentifiedByParser.fromXml(child));
+          case CODE -> assignedEntity.setCode(CeParser.fromXml(child));
+          case ADDR -> assignedEntity.addAddr(AdParser.fromXml(child));
+          case TELECOM -> assignedEntity.addTelecom(TelParser.fromXml(child));
+          case ASSIGNED_PERSON -> assignedEntity.setAssignedPerson(PersonParser.fromXml(child));
+          case REPRESENTED_ORGANIZATION -> assignedEntity.setRepresentedOrganization(OrganizationParser.fromXml(child));
+          case SDTC_PATIENT -> assignedEntity.setAssignedEntityPatient(AssignedEntityPatientParser.fromXml(child));
+        }
+      }
+    }
+    
+    return AssignedEntity.isEmpty(assignedEntity) ? null : assignedEntity;
+  }
+
+  public static AssignedEntity fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final AssignedEntity assignedEntity = new AssignedEntity();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        assignedEntity.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        assignedEntity.setClassCode(classCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> assignedEntity.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> assignedEntity.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> assignedEntity.addTemplateId(IiParser.fromXml(reader));
+          case ID -> assignedEntity.addId(IiParser.fromXml(reader));
+          case SDTC_IDENTIFIED_BY -> assignedEntity.addIdentifiedBy(IdentifiedByParser.fromXml(reader));
+          case CODE -> assignedEntity.setCode(CeParser.fromXml(reader));
+          case ADDR -> assignedEntity.addAddr(AdParser.fromXml(reader));
+          case TELECOM -> assignedEntity.addTelecom(TelParser.fromXml(reader));
+          case ASSIGNED_PERSON -> assignedEntity.setAssignedPerson(PersonParser.fromXml(reader));
+          case REPRESENTED_ORGANIZATION -> assignedEntity.setRepresentedOrganization(OrganizationParser.fromXml(reader));
+          case SDTC_PATIENT -> assignedEntity.setAssignedEntityPatient(AssignedEntityPatientParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
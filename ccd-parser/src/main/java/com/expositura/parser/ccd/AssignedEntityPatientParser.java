@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.AssignedEntityPatient;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -37,8 +40,25 @@ public class AssignedEntityPatientParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:sdtc|id" -> assignedEntityPatient.setId(IiParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case SDTC_ID -> assignedEntityPatient.setId(IiParser.fromXml(child));
+        }
+      }
+    }
+    
+    return AssignedEntityPatient.isEmpty(assignedEntityPatient) ? null : assignedEntityPatient;
+  }
+
+  public static AssignedEntityPatient fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final AssignedEntityPatient assignedEntityPatient = new AssignedEntityPatient();
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case SDTC_ID -> assignedEntityPatient.setId(IiParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.AssociatedEntity;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -55,18 +58,62 @@ public class AssociatedEntityParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> associatedEntity.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> associatedEntity.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> associatedEntity.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|id" -> associatedEntity.addId(IiParser.fromXml(child));
-          case "urn:hl7-org:sdtc|identifiedBy" -> associatedEntity.addIdentifiedBy(IdentifiedByParser.fromXml(child));
-          case "urn:hl7-org:v3|code" -> associatedEntity.setCode(CeParser.fromXml(child));
-          case "urn:hl7-org:sdtc|specialty" -> associatedEntity.addSpecialty(CeParser.fromXml(child));
-          case "urn:hl7-org:v3|addr" -> associatedEntity.addAddr(AdParser.fromXml(child));
-          case "urn:hl7-org:v3|telecom" -> associatedEntity.addTelecom(TelParser.fromXml(child));
-          case "urn:hl7-org:v3|associatedPerson" -> associatedEntity.setAssociatedPerson(PersonParser.fromXml(child));
-          case "urn:hl7-org:v3|scopingOrganization" -> associatedEntity.setScopingOrganization(OrganizationParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> associatedEntity.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> associatedEntity.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> associatedEntity.addTemplateId(IiParser.fromXml(child));
+          case ID -> associatedEntity.addId(IiParser.fromXml(child));
+          case SDTC_IDENTIFIED_BY -> associatedEntity.addIdentifiedBy(IdentifiedByParser.fromXml(child));
+          case CODE -> associatedEntity.setCode(CeParser.fromXml(child));
+          case SDTC_SPECIALTY -> associatedEntity.addSpecialty(CeParser.fromXml(child));
+          case ADDR -> associatedEntity.addAddr(AdParser.fromXml(child));
+          case TELECOM -> associatedEntity.addTelecom(TelParser.fromXml(child));
+          case ASSOCIATED_PERSON -> associatedEntity.setAssociatedPerson(PersonParser.fromXml(child));
+          case SCOPING_ORGANIZATION -> associatedEntity.setScopingOrganization(OrganizationParser.fromXml(child));
+        }
+      }
+    }
+    
+    return AssociatedEntity.isEmpty(associatedEntity) ? null : associatedEntity;
+  }
+
+  public static AssociatedEntity fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final AssociatedEntity associatedEntity = new AssociatedEntity();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        associatedEntity.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        associatedEntity.setClassCode(classCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> associatedEntity.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> associatedEntity.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> associatedEntity.addTemplateId(IiParser.fromXml(reader));
+          case ID -> associatedEntity.addId(IiParser.fromXml(reader));
+          case SDTC_IDENTIFIED_BY -> associatedEntity.addIdentifiedBy(IdentifiedByParser.fromXml(reader));
+          case CODE -> associatedEntity.setCode(CeParser.fromXml(reader));
+          case SDTC_SPECIALTY -> associatedEntity.addSpecialty(CeParser.fromXml(reader));
+          case ADDR -> associatedEntity.addAddr(AdParser.fromXml(reader));
+          case TELECOM -> associatedEntity.addTelecom(TelParser.fromXml(reader));
+          case ASSOCIATED_PERSON -> associatedEntity.setAssociatedPerson(PersonParser.fromXml(reader));
+          case SCOPING_ORGANIZATION -> associatedEntity.setScopingOrganization(OrganizationParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.Authenticator;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -55,14 +58,54 @@ public class AuthenticatorParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> authenticator.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> authenticator.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> authenticator.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|time" -> authenticator.setTime(TsParser.fromXml(child));
-          case "urn:hl7-org:v3|signatureCode" -> authenticator.setSignatureCode(CsParser.fromXml(child));
-          case "urn:hl7-org:sdtc|signatureText" -> authenticator.setSignatureText(EdParser.fromXml(child));
-          case "urn:hl7-org:v3|assignedEntity" -> authenticator.setAssignedEntity(AssignedEntityParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> authenticator.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> authenticator.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> authenticator.addTemplateId(IiParser.fromXml(child));
+          case TIME -> authenticator.setTime(TsParser.fromXml(child));
+          case SIGNATURE_CODE -> authenticator.setSignatureCode(CsParser.fromXml(child));
+          case SDTC_SIGNATURE_TEXT -> authenticator.setSignatureText(EdParser.fromXml(child));
+          case ASSIGNED_ENTITY -> authenticator.setAssignedEntity(AssignedEntityParser.fromXml(child));
+        }
+      }
+    }
+    
+    return Authenticator.isEmpty(authenticator) ? null : authenticator;
+  }
+
+  public static Authenticator fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Authenticator authenticator = new Authenticator();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        authenticator.setNullFlavor(nullFlavor);
+      }
+      
+      // typeCode
+      final String typeCode = reader.getAttributeValue("typeCode");
+      if (typeCode != null) {
+        authenticator.setTypeCode(typeCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> authenticator.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> authenticator.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> authenticator.addTemplateId(IiParser.fromXml(reader));
+          case TIME -> authenticator.setTime(TsParser.fromXml(reader));
+          case SIGNATURE_CODE -> authenticator.setSignatureCode(CsParser.fromXml(reader));
+          case SDTC_SIGNATURE_TEXT -> authenticator.setSignatureText(EdParser.fromXml(reader));
+          case ASSIGNED_ENTITY -> authenticator.setAssignedEntity(AssignedEntityParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.Author;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -61,13 +64,58 @@ public class AuthorParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> author.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> author.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> author.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|functionCode" -> author.setFunctionCode(CeParser.fromXml(child));
-          case "urn:hl7-org:v3|time" -> author.setTime(TsParser.fromXml(child));
-          case "urn:hl7-org:v3|assignedAuthor" -> author.setAssignedAuthor(AssignedAuthorParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> author.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> author.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> author.addTemplateId(IiParser.fromXml(child));
+          case FUNCTION_CODE -> author.setFunctionCode(CeParser.fromXml(child));
+          case TIME -> author.setTime(TsParser.fromXml(child));
+          case ASSIGNED_AUTHOR -> author.setAssignedAuthor(AssignedAuthorParser.fromXml(child));
+        }
+      }
+    }
+    
+    return Author.isEmpty(author) ? null : author;
+  }
+
+  public static Author fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Author author = new Author();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        author.setNullFlavor(nullFlavor);
+      }
+      
+      // typeCode
+      final String typeCode = reader.getAttributeValue("typeCode");
+      if (typeCode != null) {
+        author.setTypeCode(typeCode);
+      }
+      
+      // contextControlCode
+      final String contextControlCode = reader.getAttributeValue("contextControlCode");
+      if (contextControlCode != null) {
+        author.setContextControlCode(contextControlCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> author.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> author.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> author.addTemplateId(IiParser.fromXml(reader));
+          case FUNCTION_CODE -> author.setFunctionCode(CeParser.fromXml(reader));
+          case TIME -> author.setTime(TsParser.fromXml(reader));
+          case ASSIGNED_AUTHOR -> author.setAssignedAuthor(AssignedAuthorParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.AuthoringDevice;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -61,14 +64,60 @@ public class AuthoringDeviceParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> authoringDevice.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> authoringDevice.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> authoringDevice.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|code" -> authoringDevice.setCode(CeParser.fromXml(child));
-          case "urn:hl7-org:v3|manufacturerModelName" -> authoringDevice.setManufacturerModelName(ScParser.fromXml(child));
-          case "urn:hl7-org:v3|softwareName" -> authoringDevice.setSoftwareName(ScParser.fromXml(child));
-          case "urn:hl7-org:v3|asMaintainedEntity" -> authoringDevice.addAsMaintedEntity(MaintainedEntityParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> authoringDevice.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> authoringDevice.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> authoringDevice.addTemplateId(IiParser.fromXml(child));
+          case CODE -> authoringDevice.setCode(CeParser.fromXml(child));
+          case MANUFACTURER_MODEL_NAME -> authoringDevice.setManufacturerModelName(ScParser.fromXml(child));
+          case SOFTWARE_NAME -> authoringDevice.setSoftwareName(ScParser.fromXml(child));
+          case AS_MAINTAINED_ENTITY -> authoringDevice.addAsMaintedEntity(MaintainedEntityParser.fromXml(child));
+        }
+      }
+    }
+    
+    return AuthoringDevice.isEmpty(authoringDevice) ? null : authoringDevice;
+  }
+
+  public static AuthoringDevice fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final AuthoringDevice authoringDevice = new AuthoringDevice();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        authoringDevice.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        authoringDevice.setClassCode(classCode);
+      }
+      
+      // determinerCode
+      final String determinerCode = reader.getAttributeValue("determinerCode");
+      if (determinerCode != null) {
+        authoringDevice.setDeterminerCode(determinerCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> authoringDevice.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> authoringDevice.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> authoringDevice.addTemplateId(IiParser.fromXml(reader));
+          case CODE -> authoringDevice.setCode(CeParser.fromXml(reader));
+          case MANUFACTURER_MODEL_NAME -> authoringDevice.setManufacturerModelName(ScParser.fromXml(reader));
+          case SOFTWARE_NAME -> authoringDevice.setSoftwareName(ScParser.fromXml(reader));
+          case AS_MAINTAINED_ENTITY -> authoringDevice.addAsMaintedEntity(MaintainedEntityParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
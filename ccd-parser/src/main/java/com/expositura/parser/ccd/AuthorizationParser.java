@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.Authorization;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -55,11 +58,48 @@ public class AuthorizationParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> authorization.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> authorization.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> authorization.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|consent" -> authorization.setConsent(ConsentParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> authorization.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> authorization.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> authorization.addTemplateId(IiParser.fromXml(child));
+          case CONSENT -> authorization.setConsent(ConsentParser.fromXml(child));
+        }
+      }
+    }
+    
+    return Authorization.isEmpty(authorization) ? null : authorization;
+  }
+
+  public static Authorization fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Authorization authorization = new Authorization();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        authorization.setNullFlavor(nullFlavor);
+      }
+      
+      // typeCode
+      final String typeCode = reader.getAttributeValue("typeCode");
+      if (typeCode != null) {
+        authorization.setTypeCode(typeCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> authorization.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> authorization.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> authorization.addTemplateId(IiParser.fromXml(reader));
+          case CONSENT -> authorization.setConsent(ConsentParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
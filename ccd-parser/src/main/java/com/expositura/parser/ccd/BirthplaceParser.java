@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.Birthplace;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -55,11 +58,48 @@ public class BirthplaceParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> birthplace.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> birthplace.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> birthplace.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|place" -> birthplace.setPlace(PlaceParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> birthplace.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> birthplace.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> birthplace.addTemplateId(IiParser.fromXml(child));
+          case PLACE -> birthplace.setPlace(PlaceParser.fromXml(child));
+        }
+      }
+    }
+    
+    return Birthplace.isEmpty(birthplace) ? null : birthplace;
+  }
+
+  public static Birthplace fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Birthplace birthplace = new Birthplace();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        birthplace.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        birthplace.setClassCode(classCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> birthplace.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> birthplace.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> birthplace.addTemplateId(IiParser.fromXml(reader));
+          case PLACE -> birthplace.setPlace(PlaceParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
@@ -16,6 +16,8 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.Bl;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 
@@ -49,5 +51,31 @@ public class BlParser {
     
     return Bl.isEmpty(bl) ? null : bl;
   }
+
+  public static Bl fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Bl bl = new Bl();
+    
+    // Start by getting the attributes
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        bl.setNullFlavor(nullFlavor);
+      }
+      
+      // value
+      final String value = reader.getAttributeValue("value");
+      if (value != null) {
+        bl.setValue(Boolean.valueOf(value));
+      }
+      
+    }
+    
+    // Not expecting any child elements
+    reader.skipElement();
+    
+    return Bl.isEmpty(bl) ? null : bl;
+  }
           
 }
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd;
+
+import com.expositura.model.ccd.ClinicalDocument;
+import com.expositura.parser.ccd.util.ParseProfile;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.xml.sax.InputSource;
+
+/**
+ * Parses many CCD's in parallel, such as when backfilling from an archive. The CCD's are read lazily from the given
+ * Stream or Iterator and only a bounded number are parsed ahead of the caller so memory stays flat no matter how many
+ * CCD's are in the batch. A CCD that fails to parse is reported in its {@link CcdBatchResult} and the rest of the batch
+ * carries on.
+ * <pre>
+ * try (CcdBatchParser parser = CcdBatchParser.builder().virtualThreads().parallelism(32).build();
+ *     Stream&lt;Path&gt; files = Files.list(dir)) {
+ *   parser.parse(files.map(CcdSource::of)).forEach(result -&gt; ...);
+ * }
+ * </pre>
+ * The parser owns its threads, close it when done.
+ *
+ * @author Sean Smith
+ */
+public class CcdBatchParser implements AutoCloseable {
+
+  private final ExecutorService executor;
+  private final int maxInFlight;
+  private final boolean ordered;
+  private final ParseProfile profile;
+
+  private CcdBatchParser(final Builder builder) {
+    if (builder.virtualThreads) {
+      executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ccd-batch-parser-", 0).factory());
+    } else {
+      executor = Executors.newFixedThreadPool(builder.parallelism,
+              Thread.ofPlatform().name("ccd-batch-parser-", 0).daemon(true).factory());
+    }
+
+    // With virtual threads this is what limits how many CCD's are parsed at once
+    maxInFlight = builder.virtualThreads ? builder.parallelism : builder.parallelism * 2;
+    ordered = builder.ordered;
+    profile = builder.profile;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Parses the CCD's as the returned Stream is consumed. Closing the returned Stream closes the sources.
+   *
+   * @param sources The CCD's to parse
+   * @return The result of each CCD, in the same order as the sources unless the parser is unordered
+   */
+  public Stream<CcdBatchResult> parse(final Stream<? extends CcdSource> sources) {
+    final Iterator<CcdBatchResult> results = parse(sources.iterator());
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(results, Spliterator.ORDERED | Spliterator.NONNULL),
+            false).onClose(sources::close);
+  }
+
+  /**
+   * Parses the CCD's as the returned Iterator is consumed.
+   *
+   * @param sources The CCD's to parse
+   * @return The result of each CCD, in the same order as the sources unless the parser is unordered
+   */
+  public Iterator<CcdBatchResult> parse(final Iterator<? extends CcdSource> sources) {
+    return new ResultIterator(sources);
+  }
+
+  /**
+   * Waits for the CCD's already being parsed to finish and stops the threads.
+   */
+  @Override
+  public void close() {
+    executor.close();
+  }
+
+  private CcdBatchResult parse(final long index, final CcdSource source) {
+    try (InputStream ccdStream = source.open()) {
+      final ClinicalDocument ccd = profile == null
+              ? CcdParser.parseFromCcd(new InputSource(ccdStream))
+              : CcdParser.parseStreaming(ccdStream, profile);
+      return CcdBatchResult.success(index, source, ccd);
+    } catch (Exception e) {
+      return CcdBatchResult.failure(index, source, e);
+    }
+  }
+
+  /**
+   * Keeps up to maxInFlight CCD's submitted for parsing ahead of the caller, refilling as each result is taken.
+   */
+  private final class ResultIterator implements Iterator<CcdBatchResult> {
+
+    private final Iterator<? extends CcdSource> sources;
+
+    // Ordered results are taken in submission order, unordered as they complete
+    private final Deque<Future<CcdBatchResult>> submitted = new ArrayDeque<>();
+    private final CompletionService<CcdBatchResult> completed = new ExecutorCompletionService<>(executor);
+    private int inFlight;
+    private long nextIndex;
+
+    private ResultIterator(final Iterator<? extends CcdSource> sources) {
+      this.sources = sources;
+    }
+
+    @Override
+    public boolean hasNext() {
+      fill();
+      return inFlight > 0;
+    }
+
+    @Override
+    public CcdBatchResult next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+
+      try {
+        final Future<CcdBatchResult> result = ordered ? submitted.removeFirst() : completed.take();
+        inFlight--;
+        return result.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while waiting for a CCD to be parsed", e);
+      } catch (ExecutionException e) {
+        // Exceptions are caught by the parse so this is an Error such as running out of memory
+        if (e.getCause() instanceof Error error) {
+          throw error;
+        }
+        throw new IllegalStateException(e.getCause());
+      }
+    }
+
+    private void fill() {
+      while (inFlight < maxInFlight && sources.hasNext()) {
+        final CcdSource source = sources.next();
+        final long index = nextIndex++;
+        if (ordered) {
+          submitted.addLast(executor.submit(() -> parse(index, source)));
+        } else {
+          completed.submit(() -> parse(index, source));
+        }
+        inFlight++;
+      }
+    }
+  }
+
+  public static class Builder {
+
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private boolean virtualThreads;
+    private boolean ordered = true;
+    private ParseProfile profile;
+
+    private Builder() {
+    }
+
+    /**
+     * @param parallelism How many CCD's are parsed at the same time, defaults to the number of processors
+     * @return This builder
+     */
+    public Builder parallelism(final int parallelism) {
+      if (parallelism < 1) {
+        throw new IllegalArgumentException("parallelism must be at least 1");
+      }
+      this.parallelism = parallelism;
+      return this;
+    }
+
+    /**
+     * Parses each CCD on its own virtual thread instead of a pool of platform threads. Worthwhile when the sources block
+     * on I/O such as reading from S3, parallelism still limits how many are parsed at once.
+     *
+     * @return This builder
+     */
+    public Builder virtualThreads() {
+      this.virtualThreads = true;
+      return this;
+    }
+
+    /**
+     * @param ordered True (the default) to return results in the same order as the sources, false to return them as
+     * soon as they are parsed so one slow CCD doesn't hold up the rest
+     * @return This builder
+     */
+    public Builder ordered(final boolean ordered) {
+      this.ordered = ordered;
+      return this;
+    }
+
+    /**
+     * @param profile Parse with the streaming parser reading only what's in the profile, by default the DOM parser is
+     * used the same as {@link CcdParser#parseFromCcd(InputSource)}
+     * @return This builder
+     */
+    public Builder profile(final ParseProfile profile) {
+      this.profile = profile;
+      return this;
+    }
+
+    public CcdBatchParser build() {
+      return new CcdBatchParser(this);
+    }
+  }
+}
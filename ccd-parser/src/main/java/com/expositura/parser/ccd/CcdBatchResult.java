@@ -0,0 +1,82 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd;
+
+import com.expositura.model.ccd.ClinicalDocument;
+
+/**
+ * The outcome of parsing one CCD of a batch, either the ClinicalDocument or the exception that stopped it being parsed.
+ *
+ * @author Sean Smith
+ */
+public final class CcdBatchResult {
+
+  private final long index;
+  private final CcdSource source;
+  private final ClinicalDocument document;
+  private final Exception exception;
+
+  private CcdBatchResult(final long index, final CcdSource source, final ClinicalDocument document,
+          final Exception exception) {
+    this.index = index;
+    this.source = source;
+    this.document = document;
+    this.exception = exception;
+  }
+
+  static CcdBatchResult success(final long index, final CcdSource source, final ClinicalDocument document) {
+    return new CcdBatchResult(index, source, document, null);
+  }
+
+  static CcdBatchResult failure(final long index, final CcdSource source, final Exception exception) {
+    return new CcdBatchResult(index, source, null, exception);
+  }
+
+  /**
+   * @return The position of the CCD in the batch, starting at 0
+   */
+  public long getIndex() {
+    return index;
+  }
+
+  public CcdSource getSource() {
+    return source;
+  }
+
+  /**
+   * @return The parsed CCD, null if it failed to parse or had no data
+   */
+  public ClinicalDocument getDocument() {
+    return document;
+  }
+
+  /**
+   * @return Why the CCD failed to parse (such as an InvalidCcdException, SAXException or IOException), null if it
+   * parsed
+   */
+  public Exception getException() {
+    return exception;
+  }
+
+  public boolean isSuccess() {
+    return exception == null;
+  }
+
+  @Override
+  public String toString() {
+    return "CcdBatchResult{index=" + index + ", source=" + source + ", success=" + isSuccess() + "}";
+  }
+}
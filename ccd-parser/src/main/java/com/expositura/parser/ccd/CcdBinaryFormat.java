@@ -0,0 +1,192 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What {@link CcdBinaryWriter} and {@link CcdBinaryReader} share: the layout of the binary format and how each java
+ * bean in the CCD model maps on to it.
+ * <p>
+ * A stream starts with the magic bytes "CCDB" and the format version, then holds one or more documents. Each bean is
+ * written as its non-null properties, each as a one byte type, the property name and the value, ended by an END byte.
+ * Lists are a count then each element with its own type byte. Whole numbers are zig-zag varints, decimals are 8 byte
+ * doubles. Every string, property names included, goes through a string table that is built up as the stream is
+ * written and read: the first time a short string is written it is given the next index in the table and after that
+ * only the index is written, so repeated OIDs, codes and property names cost a byte or two.
+ * <p>
+ * Property names rather than numbers identify the properties, and every value carries its type, so a stream written
+ * before or after a property was added to or removed from the model can still be read, anything unknown is skipped.
+ *
+ * @author Sean Smith
+ */
+final class CcdBinaryFormat {
+
+  static final byte[] MAGIC = {'C', 'C', 'D', 'B'};
+  static final int VERSION = 1;
+
+  // Value types
+  static final int END = 0;
+  static final int NULL = 1;
+  static final int FALSE = 2;
+  static final int TRUE = 3;
+  static final int LONG = 4;
+  static final int DOUBLE = 5;
+  static final int STRING = 6;
+  static final int BEAN = 7;
+  static final int LIST = 8;
+
+  /** Strings up to this many UTF-8 bytes go into the string table, longer ones are free text and written in full */
+  static final int MAX_TABLE_STRING = 64;
+
+  /** The most strings the table holds, after that new strings are written in full */
+  static final int MAX_TABLE_SIZE = 1 << 16;
+
+  /** The longest string or list read, anything longer means the stream is corrupt */
+  static final int MAX_LENGTH = 1 << 28;
+
+  private static final String MODEL_PACKAGE = "com.expositura.model.ccd";
+
+  private static final ClassValue<Bean> BEANS = new ClassValue<>() {
+    @Override
+    protected Bean computeValue(final Class<?> type) {
+      return new Bean(type);
+    }
+  };
+
+  private CcdBinaryFormat() {
+  }
+
+  static Bean bean(final Class<?> type) {
+    return BEANS.get(type);
+  }
+
+  static boolean isModel(final Class<?> type) {
+    return type.getPackageName().equals(MODEL_PACKAGE) && !type.isEnum();
+  }
+
+  /**
+   * How a value of a property or list element is held in the java bean.
+   */
+  enum Kind {
+    STRING, BOOLEAN, LONG, INTEGER, DOUBLE, FLOAT, DECIMAL, BEAN, LIST;
+
+    static Kind of(final Class<?> type) {
+      if (type == String.class) {
+        return STRING;
+      } else if (type == Boolean.class || type == boolean.class) {
+        return BOOLEAN;
+      } else if (type == Long.class || type == long.class) {
+        return LONG;
+      } else if (type == Integer.class || type == int.class) {
+        return INTEGER;
+      } else if (type == Double.class || type == double.class) {
+        return DOUBLE;
+      } else if (type == Float.class || type == float.class) {
+        return FLOAT;
+      } else if (type == BigDecimal.class) {
+        return DECIMAL;
+      } else if (List.class.isAssignableFrom(type)) {
+        return LIST;
+      } else if (isModel(type)) {
+        return BEAN;
+      }
+      return null;
+    }
+  }
+
+  /**
+   * A property of a java bean, for a list the element kind and type are what the list holds.
+   */
+  record Property(String name, Field field, Kind kind, Kind elementKind, Class<?> elementType) {
+  }
+
+  /**
+   * The properties of one java bean class.
+   */
+  static final class Bean {
+
+    private final Constructor<?> constructor;
+    private final Property[] properties;
+    private final Map<String, Property> byName = new HashMap<>();
+
+    private Bean(final Class<?> type) {
+      try {
+        constructor = type.getDeclaredConstructor();
+        constructor.setAccessible(true);
+      } catch (NoSuchMethodException e) {
+        throw new IllegalStateException(type.getName() + " has no no-arg constructor", e);
+      }
+
+      final List<Property> found = new ArrayList<>();
+      for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+        for (final Field field : c.getDeclaredFields()) {
+          if (Modifier.isStatic(field.getModifiers()) || byName.containsKey(field.getName())) {
+            continue;
+          }
+
+          final Kind kind = Kind.of(field.getType());
+          Kind elementKind = null;
+          Class<?> elementType = null;
+          if (kind == Kind.LIST) {
+            final Type generic = field.getGenericType();
+            if (generic instanceof ParameterizedType parameterized
+                    && parameterized.getActualTypeArguments()[0] instanceof Class<?> element) {
+              elementType = element;
+              elementKind = Kind.of(element);
+            }
+            if (elementKind == null || elementKind == Kind.LIST) {
+              continue;
+            }
+          } else if (kind == null) {
+            continue;
+          }
+
+          field.setAccessible(true);
+          final Property property = new Property(field.getName(), field, kind, elementKind, elementType);
+          found.add(property);
+          byName.put(property.name(), property);
+        }
+      }
+      properties = found.toArray(Property[]::new);
+    }
+
+    Property[] properties() {
+      return properties;
+    }
+
+    Property property(final String name) {
+      return byName.get(name);
+    }
+
+    Object newInstance() {
+      try {
+        return constructor.newInstance();
+      } catch (ReflectiveOperationException e) {
+        throw new IllegalStateException("Can't create " + constructor.getDeclaringClass().getName(), e);
+      }
+    }
+  }
+}
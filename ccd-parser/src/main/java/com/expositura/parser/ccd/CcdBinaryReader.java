@@ -0,0 +1,379 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd;
+
+import com.expositura.model.ccd.ClinicalDocument;
+import com.expositura.parser.ccd.CcdBinaryFormat.Bean;
+import com.expositura.parser.ccd.CcdBinaryFormat.Kind;
+import com.expositura.parser.ccd.CcdBinaryFormat.Property;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads back the CCD's written by {@link CcdBinaryWriter}, one at a time as they are needed.
+ * <pre>
+ * try (CcdBinaryReader reader = new CcdBinaryReader(in)) {
+ *   for (ClinicalDocument ccd = reader.read(); ccd != null; ccd = reader.read()) {
+ *     ...
+ *   }
+ * }
+ * </pre>
+ * Properties the model no longer has, or whose type has changed, are skipped. Not thread safe.
+ *
+ * @author Sean Smith
+ */
+public class CcdBinaryReader implements Closeable {
+
+  private final InputStream in;
+  private final byte[] buffer = new byte[8192];
+  private int position;
+  private int limit;
+
+  private String[] strings = new String[256];
+  private int stringCount;
+  private boolean started;
+
+  /**
+   * @param in What to read, closed when the reader is closed
+   */
+  public CcdBinaryReader(final InputStream in) {
+    this.in = in;
+  }
+
+  /**
+   * @param bytes A CCD written by {@link CcdBinaryWriter#encode(ClinicalDocument)}
+   * @return The CCD
+   * @throws IOException If the bytes are not in the binary format
+   */
+  public static ClinicalDocument decode(final byte[] bytes) throws IOException {
+    try (CcdBinaryReader reader = new CcdBinaryReader(new ByteArrayInputStream(bytes))) {
+      final ClinicalDocument ccd = reader.read();
+      if (ccd == null) {
+        throw new EOFException("No CCD in the bytes");
+      }
+      return ccd;
+    }
+  }
+
+  /**
+   * Reads the next document.
+   *
+   * @return The next CCD, or null at the end of the stream
+   * @throws IOException If the stream can't be read, is not in the binary format or is a version this can't read
+   */
+  public ClinicalDocument read() throws IOException {
+    if (!started) {
+      if (!fill(1)) {
+        return null;
+      }
+      final byte[] magic = readBytes(CcdBinaryFormat.MAGIC.length);
+      if (!Arrays.equals(magic, CcdBinaryFormat.MAGIC)) {
+        throw new StreamCorruptedException("Not a binary CCD stream");
+      }
+      final int version = readVarint();
+      if (version > CcdBinaryFormat.VERSION) {
+        throw new StreamCorruptedException("Binary CCD version " + version + " is newer than this reader ("
+                + CcdBinaryFormat.VERSION + ")");
+      }
+      started = true;
+    }
+
+    if (!fill(1)) {
+      return null;
+    }
+    return (ClinicalDocument) readBean(ClinicalDocument.class);
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+
+  private Object readBean(final Class<?> type) throws IOException {
+    final Bean bean = CcdBinaryFormat.bean(type);
+    final Object instance = bean.newInstance();
+
+    for (int valueType = readByte(); valueType != CcdBinaryFormat.END; valueType = readByte()) {
+      final Property property = bean.property(readString());
+      if (property == null) {
+        skip(valueType);
+      } else if (valueType == CcdBinaryFormat.LIST) {
+        if (property.kind() == Kind.LIST) {
+          set(property, instance, readList(property));
+        } else {
+          skip(valueType);
+        }
+      } else {
+        set(property, instance, readValue(valueType, property.kind(), property.field().getType()));
+      }
+    }
+    return instance;
+  }
+
+  private List<Object> readList(final Property property) throws IOException {
+    final int size = readLength();
+    final List<Object> list = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      final int valueType = readByte();
+      if (valueType == CcdBinaryFormat.NULL) {
+        list.add(null);
+      } else {
+        final Object element = readValue(valueType, property.elementKind(), property.elementType());
+        if (element != Skipped.VALUE) {
+          list.add(element);
+        }
+      }
+    }
+    return list;
+  }
+
+  /**
+   * Reads a value as the kind the model expects, a value of some other type is skipped.
+   */
+  private Object readValue(final int valueType, final Kind kind, final Class<?> type) throws IOException {
+    switch (valueType) {
+      case CcdBinaryFormat.TRUE, CcdBinaryFormat.FALSE -> {
+        if (kind == Kind.BOOLEAN) {
+          return valueType == CcdBinaryFormat.TRUE;
+        }
+      }
+      case CcdBinaryFormat.LONG -> {
+        final long value = unZigZag(readVarLong());
+        switch (kind) {
+          case LONG -> {
+            return value;
+          }
+          case INTEGER -> {
+            return (int) value;
+          }
+          case DOUBLE -> {
+            return (double) value;
+          }
+          case FLOAT -> {
+            return (float) value;
+          }
+          case DECIMAL -> {
+            return BigDecimal.valueOf(value);
+          }
+          default -> {
+            return Skipped.VALUE;
+          }
+        }
+      }
+      case CcdBinaryFormat.DOUBLE -> {
+        final double value = Double.longBitsToDouble(readLong());
+        switch (kind) {
+          case DOUBLE -> {
+            return value;
+          }
+          case FLOAT -> {
+            return (float) value;
+          }
+          case DECIMAL -> {
+            return BigDecimal.valueOf(value);
+          }
+          default -> {
+            return Skipped.VALUE;
+          }
+        }
+      }
+      case CcdBinaryFormat.STRING -> {
+        final String value = readString();
+        if (kind == Kind.STRING) {
+          return value;
+        } else if (kind == Kind.DECIMAL) {
+          return new BigDecimal(value);
+        }
+        return Skipped.VALUE;
+      }
+      case CcdBinaryFormat.BEAN -> {
+        if (kind == Kind.BEAN) {
+          return readBean(type);
+        }
+      }
+      default -> {
+        // Other types are skipped below
+      }
+    }
+    skip(valueType);
+    return Skipped.VALUE;
+  }
+
+  private void skip(final int valueType) throws IOException {
+    switch (valueType) {
+      case CcdBinaryFormat.NULL, CcdBinaryFormat.TRUE, CcdBinaryFormat.FALSE -> {
+        // Nothing follows the type
+      }
+      case CcdBinaryFormat.LONG -> readVarLong();
+      case CcdBinaryFormat.DOUBLE -> readLong();
+      case CcdBinaryFormat.STRING -> readString();
+      case CcdBinaryFormat.BEAN -> {
+        for (int type = readByte(); type != CcdBinaryFormat.END; type = readByte()) {
+          readString();
+          skip(type);
+        }
+      }
+      case CcdBinaryFormat.LIST -> {
+        final int size = readLength();
+        for (int i = 0; i < size; i++) {
+          skip(readByte());
+        }
+      }
+      default -> throw new StreamCorruptedException("Unknown value type " + valueType);
+    }
+  }
+
+  private static void set(final Property property, final Object bean, final Object value) {
+    if (value == Skipped.VALUE) {
+      return;
+    }
+    try {
+      property.field().set(bean, value);
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException("Can't set " + property.name(), e);
+    }
+  }
+
+  private String readString() throws IOException {
+    final int header = readVarint();
+    if ((header & 1) == 0) {
+      final int index = header >>> 1;
+      if (index >= stringCount) {
+        throw new StreamCorruptedException("String index " + index + " is not in the table");
+      }
+      return strings[index];
+    }
+
+    final int length = header >>> 1;
+    if (length > CcdBinaryFormat.MAX_LENGTH) {
+      throw new StreamCorruptedException("String of " + length + " bytes is too long");
+    }
+    final String value;
+    if (fill(length) && length <= buffer.length) {
+      value = new String(buffer, position, length, StandardCharsets.UTF_8);
+      position += length;
+    } else {
+      value = new String(readBytes(length), StandardCharsets.UTF_8);
+    }
+
+    if (length <= CcdBinaryFormat.MAX_TABLE_STRING && stringCount < CcdBinaryFormat.MAX_TABLE_SIZE) {
+      if (stringCount == strings.length) {
+        strings = Arrays.copyOf(strings, stringCount * 2);
+      }
+      strings[stringCount++] = value;
+    }
+    return value;
+  }
+
+  private static long unZigZag(final long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private int readLength() throws IOException {
+    final int length = readVarint();
+    if (length < 0 || length > CcdBinaryFormat.MAX_LENGTH) {
+      throw new StreamCorruptedException("Length " + length + " is too long");
+    }
+    return length;
+  }
+
+  private int readVarint() throws IOException {
+    return (int) readVarLong();
+  }
+
+  private long readVarLong() throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      final int b = readByte();
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new StreamCorruptedException("Varint is too long");
+  }
+
+  private long readLong() throws IOException {
+    long value = 0;
+    for (int i = 0; i < 8; i++) {
+      value |= (long) readByte() << (i * 8);
+    }
+    return value;
+  }
+
+  private int readByte() throws IOException {
+    if (position == limit && !fill(1)) {
+      throw new EOFException("Binary CCD stream ended part way thru a document");
+    }
+    return buffer[position++] & 0xFF;
+  }
+
+  private byte[] readBytes(final int length) throws IOException {
+    final byte[] bytes = new byte[length];
+    int copied = Math.min(length, limit - position);
+    System.arraycopy(buffer, position, bytes, 0, copied);
+    position += copied;
+    while (copied < length) {
+      final int read = in.read(bytes, copied, length - copied);
+      if (read < 0) {
+        throw new EOFException("Binary CCD stream ended part way thru a document");
+      }
+      copied += read;
+    }
+    return bytes;
+  }
+
+  /**
+   * Makes sure the buffer holds at least the given number of bytes, if the buffer is big enough for them.
+   *
+   * @return False if the stream ended before that many bytes could be buffered
+   */
+  private boolean fill(final int count) throws IOException {
+    if (limit - position >= count) {
+      return true;
+    }
+    if (count > buffer.length) {
+      return false;
+    }
+    System.arraycopy(buffer, position, buffer, 0, limit - position);
+    limit -= position;
+    position = 0;
+    while (limit < count) {
+      final int read = in.read(buffer, limit, buffer.length - limit);
+      if (read < 0) {
+        return false;
+      }
+      limit += read;
+    }
+    return true;
+  }
+
+  /**
+   * Stands in for a value that didn't match what the model expects
+   */
+  private enum Skipped {
+    VALUE
+  }
+}
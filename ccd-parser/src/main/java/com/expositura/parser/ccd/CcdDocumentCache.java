@@ -0,0 +1,300 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd;
+
+import com.expositura.model.ccd.ClinicalDocument;
+import com.expositura.parser.ccd.exeption.InvalidCcdException;
+import com.expositura.parser.ccd.util.ModelFreezer;
+import com.expositura.parser.ccd.util.ParseProfile;
+import com.expositura.parser.ccd.util.XxHash64;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import javax.xml.stream.XMLStreamException;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Remembers recently parsed CCD's so a byte for byte identical CCD, such as a sender's retry or the RAW and PROCESSED
+ * copies of the same message, is returned from memory instead of being parsed again. CCD's are recognized by the
+ * xxHash64 of their bytes plus their length, the bytes themselves are not kept.
+ * <p>
+ * The cache is bounded by both the number of documents and their weight, the total size in bytes of the CCD's they
+ * were parsed from, and evicts the least recently used document first. When several threads ask for the same CCD at
+ * once it is only parsed by one of them and the rest wait for its result.
+ * <p>
+ * The same ClinicalDocument instance is handed to every caller so the cached documents are frozen with
+ * {@link ModelFreezer}, their lists can't be changed and the rest must be treated as read only.
+ * <pre>
+ * CcdDocumentCache cache = CcdDocumentCache.builder().maximumWeight(256 * 1024 * 1024).build();
+ * ClinicalDocument ccd = cache.parse(bytes);
+ * </pre>
+ *
+ * @author Sean Smith
+ */
+public class CcdDocumentCache {
+
+  private final long maximumSize;
+  private final long maximumWeight;
+  private final ParseProfile profile;
+
+  // Guarded by itself, in access order so the first entry is the least recently used
+  private final LinkedHashMap<Key, ClinicalDocument> documents = new LinkedHashMap<>(64, 0.75f, true);
+  private long weight;
+
+  private final Map<Key, CompletableFuture<ClinicalDocument>> parsing = new ConcurrentHashMap<>();
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  private CcdDocumentCache(final Builder builder) {
+    this.maximumSize = builder.maximumSize;
+    this.maximumWeight = builder.maximumWeight;
+    this.profile = builder.profile;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Returns the document already parsed from identical bytes, otherwise parses the CCD and caches it.
+   *
+   * @param ccd The bytes of the CCD, not kept
+   * @return The ClinicalDocument java bean with data parsed from the CCD. Returns null if no data can be parsed.
+   * @throws IOException If interrupted while waiting for a DocumentBuilder or another thread's parse of the same CCD
+   * @throws InvalidCcdException If the XML is not a CCD
+   * @throws SAXException If the XML is not well formed and the DOM parser is used
+   * @throws XMLStreamException If the XML is not well formed and the streaming parser is used
+   */
+  public ClinicalDocument parse(final byte[] ccd)
+          throws IOException, InvalidCcdException, SAXException, XMLStreamException {
+    return parse(ByteBuffer.wrap(ccd));
+  }
+
+  /**
+   * Returns the document already parsed from identical bytes, otherwise parses the CCD and caches it.
+   *
+   * @param ccd The bytes of the CCD from the buffer's position to its limit, not kept. The buffer's position and limit
+   * are not changed.
+   * @return The ClinicalDocument java bean with data parsed from the CCD. Returns null if no data can be parsed.
+   * @throws IOException If interrupted while waiting for a DocumentBuilder or another thread's parse of the same CCD
+   * @throws InvalidCcdException If the XML is not a CCD
+   * @throws SAXException If the XML is not well formed and the DOM parser is used
+   * @throws XMLStreamException If the XML is not well formed and the streaming parser is used
+   */
+  public ClinicalDocument parse(final ByteBuffer ccd)
+          throws IOException, InvalidCcdException, SAXException, XMLStreamException {
+    final Key key = new Key(XxHash64.hash(ccd, 0), ccd.remaining());
+
+    final ClinicalDocument cached = get(key);
+    if (cached != null) {
+      hits.increment();
+      return cached;
+    }
+
+    // If another thread is already parsing the same CCD wait for it rather than parsing it twice
+    final CompletableFuture<ClinicalDocument> parse = new CompletableFuture<>();
+    final CompletableFuture<ClinicalDocument> inProgress = parsing.putIfAbsent(key, parse);
+    if (inProgress != null) {
+      try {
+        final ClinicalDocument document = inProgress.get();
+        hits.increment();
+        return document;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted waiting for the CCD to be parsed", e);
+      } catch (ExecutionException e) {
+        // It failed for the other thread, parse it here so the exception is thrown the usual way
+        misses.increment();
+        return parseNow(ccd);
+      }
+    }
+
+    try {
+      // Another thread may have finished parsing it between the first look and now
+      ClinicalDocument document = get(key);
+      if (document != null) {
+        hits.increment();
+      } else {
+        misses.increment();
+        document = ModelFreezer.freeze(parseNow(ccd));
+        if (document != null) {
+          put(key, document, ccd.remaining());
+        }
+      }
+      parse.complete(document);
+      return document;
+    } catch (final Throwable t) {
+      parse.completeExceptionally(t);
+      throw t;
+    } finally {
+      parsing.remove(key);
+    }
+  }
+
+  /**
+   * Removes every document from the cache, the statistics are kept.
+   */
+  public void clear() {
+    synchronized (documents) {
+      documents.clear();
+      weight = 0;
+    }
+  }
+
+  /**
+   * @return The number of documents in the cache
+   */
+  public long getSize() {
+    synchronized (documents) {
+      return documents.size();
+    }
+  }
+
+  /**
+   * @return The total size in bytes of the CCD's the cached documents were parsed from
+   */
+  public long getWeight() {
+    synchronized (documents) {
+      return weight;
+    }
+  }
+
+  /**
+   * @return The number of times a document was returned without parsing it
+   */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * @return The number of times a CCD had to be parsed
+   */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /**
+   * @return The number of documents evicted to stay within the bounds
+   */
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  /**
+   * @return The fraction of requests that were hits, 1 if there haven't been any requests
+   */
+  public double getHitRate() {
+    final long hitCount = hits.sum();
+    final long requests = hitCount + misses.sum();
+    return requests == 0 ? 1.0 : (double) hitCount / requests;
+  }
+
+  private ClinicalDocument parseNow(final ByteBuffer ccd)
+          throws IOException, InvalidCcdException, SAXException, XMLStreamException {
+    return profile == null ? CcdParser.parseFromCcd(ccd) : CcdParser.parseStreaming(ccd, profile);
+  }
+
+  private ClinicalDocument get(final Key key) {
+    synchronized (documents) {
+      return documents.get(key);
+    }
+  }
+
+  private void put(final Key key, final ClinicalDocument document, final int ccdWeight) {
+    // Something bigger than the whole cache would only push everything else out
+    if (ccdWeight > maximumWeight) {
+      return;
+    }
+
+    synchronized (documents) {
+      if (documents.put(key, document) == null) {
+        weight += ccdWeight;
+      }
+
+      final Iterator<Map.Entry<Key, ClinicalDocument>> eldest = documents.entrySet().iterator();
+      while ((documents.size() > maximumSize || weight > maximumWeight) && eldest.hasNext()) {
+        final Key evicted = eldest.next().getKey();
+        eldest.remove();
+        weight -= evicted.length();
+        evictions.increment();
+      }
+    }
+  }
+
+  /**
+   * Identifies a CCD, the length makes a collision of the 64 bit hash even less likely than it already is
+   */
+  private record Key(long hash, int length) {
+  }
+
+  public static class Builder {
+
+    private long maximumSize = 10_000;
+    private long maximumWeight = 256L * 1024 * 1024;
+    private ParseProfile profile;
+
+    private Builder() {
+    }
+
+    /**
+     * @param maximumSize The most documents kept, defaults to 10,000
+     * @return This builder
+     */
+    public Builder maximumSize(final long maximumSize) {
+      if (maximumSize < 1) {
+        throw new IllegalArgumentException("maximumSize must be at least 1");
+      }
+      this.maximumSize = maximumSize;
+      return this;
+    }
+
+    /**
+     * @param maximumWeight The most bytes of CCD's whose documents are kept, defaults to 256MB. The documents take a
+     * few times more heap than the CCD's they were parsed from.
+     * @return This builder
+     */
+    public Builder maximumWeight(final long maximumWeight) {
+      if (maximumWeight < 1) {
+        throw new IllegalArgumentException("maximumWeight must be at least 1");
+      }
+      this.maximumWeight = maximumWeight;
+      return this;
+    }
+
+    /**
+     * @param profile Parse with the streaming parser reading only what's in the profile, by default the DOM parser is
+     * used the same as {@link CcdParser#parseFromCcd(InputSource)}
+     * @return This builder
+     */
+    public Builder profile(final ParseProfile profile) {
+      this.profile = profile;
+      return this;
+    }
+
+    public CcdDocumentCache build() {
+      return new CcdDocumentCache(this);
+    }
+  }
+}
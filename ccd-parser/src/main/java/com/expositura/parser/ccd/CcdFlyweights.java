@@ -0,0 +1,456 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd;
+
+import com.expositura.model.ccd.Cd;
+import com.expositura.model.ccd.Ce;
+import com.expositura.model.ccd.Cs;
+import com.expositura.model.ccd.Ed;
+import com.expositura.model.ccd.Ii;
+import com.expositura.parser.ccd.util.StringInterner;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Shared, unchangeable II, CS and CE instances for the identifiers and codes that show up on nearly every CCD, such
+ * as C-CDA templateId's, LOINC section codes and statusCode's. When turned on with
+ * {@link CcdParserOptions.Builder#flyweights(boolean)} the parsers hand back the registered instance instead of a new
+ * one whenever the parsed values are exactly the same, so documents kept in memory share them rather than each
+ * holding their own copies.
+ * <p>
+ * Only values that have been registered are shared, either one at a time or by {@link #warm(Iterable, int)} which
+ * registers whatever repeats across a set of sample CCD's. A CE with originalText or translations is never shared.
+ * <p>
+ * The shared instances throw UnsupportedOperationException from their setters, so code that changes a parsed CCD
+ * must copy them first or leave flyweights off.
+ *
+ * @author Sean Smith
+ */
+public final class CcdFlyweights {
+
+  /** The most instances registered, further registrations are ignored */
+  public static final int MAX_SIZE = 16384;
+
+  private static final String SDTC_NAMESPACE = "urn:hl7-org:sdtc";
+
+  private static final Map<IiKey, Ii> IIS = new ConcurrentHashMap<>();
+  private static final Map<CsKey, Cs> CSS = new ConcurrentHashMap<>();
+  private static final Map<CeKey, Ce> CES = new ConcurrentHashMap<>();
+
+  private static volatile boolean enabled;
+
+  private CcdFlyweights() {
+  }
+
+  /**
+   * Registers an II to be shared.
+   *
+   * @param ii The II, copied so it can be reused
+   * @return The shared instance, null if the registry is full
+   */
+  public static Ii register(final Ii ii) {
+    if (Ii.isEmpty(ii) || size() >= MAX_SIZE) {
+      return null;
+    }
+    return IIS.computeIfAbsent(IiKey.of(ii), FrozenIi::new);
+  }
+
+  /**
+   * Registers a CS to be shared.
+   *
+   * @param cs The CS, copied so it can be reused
+   * @return The shared instance, null if the registry is full
+   */
+  public static Cs register(final Cs cs) {
+    if (Cs.isEmpty(cs) || size() >= MAX_SIZE) {
+      return null;
+    }
+    return CSS.computeIfAbsent(CsKey.of(cs), FrozenCs::new);
+  }
+
+  /**
+   * Registers a CE to be shared.
+   *
+   * @param ce The CE, copied so it can be reused
+   * @return The shared instance, null if the registry is full or the CE has originalText or translations
+   */
+  public static Ce register(final Ce ce) {
+    if (Ce.isEmpty(ce) || !isSimple(ce) || size() >= MAX_SIZE) {
+      return null;
+    }
+    return CES.computeIfAbsent(CeKey.of(ce), FrozenCe::new);
+  }
+
+  /**
+   * Scans sample CCD's and registers every II, CS and CE that shows up at least the given number of times. Only the
+   * XML is read, the CCD's are not parsed into java beans.
+   *
+   * @param sources The sample CCD's
+   * @param minOccurrences How many times a value must show up to be registered
+   * @return The number of instances registered
+   * @throws IOException If a CCD can't be read
+   * @throws XMLStreamException If a CCD is not well formed XML
+   */
+  public static int warm(final Iterable<CcdSource> sources, final int minOccurrences)
+          throws IOException, XMLStreamException {
+    final Map<IiKey, Integer> iis = new HashMap<>();
+    final Map<CsKey, Integer> css = new HashMap<>();
+    final Map<CeKey, Integer> ces = new HashMap<>();
+
+    for (final CcdSource source : sources) {
+      try (InputStream ccdStream = source.open()) {
+        count(CcdParser.inputFactory().createXMLStreamReader(ccdStream), iis, css, ces);
+      }
+    }
+
+    int registered = 0;
+    for (final Map.Entry<IiKey, Integer> entry : iis.entrySet()) {
+      if (entry.getValue() >= minOccurrences && register(entry.getKey().toIi()) != null) {
+        registered++;
+      }
+    }
+    for (final Map.Entry<CsKey, Integer> entry : css.entrySet()) {
+      if (entry.getValue() >= minOccurrences && register(entry.getKey().toCs()) != null) {
+        registered++;
+      }
+    }
+    for (final Map.Entry<CeKey, Integer> entry : ces.entrySet()) {
+      if (entry.getValue() >= minOccurrences && register(entry.getKey().toCe()) != null) {
+        registered++;
+      }
+    }
+    return registered;
+  }
+
+  /**
+   * @return The number of instances registered
+   */
+  public static int size() {
+    return IIS.size() + CSS.size() + CES.size();
+  }
+
+  /**
+   * Removes every registered instance, documents already parsed keep theirs.
+   */
+  public static void clear() {
+    IIS.clear();
+    CSS.clear();
+    CES.clear();
+  }
+
+  /**
+   * @return True if the parsers are handing out the registered instances
+   */
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  static void setEnabled(final boolean enabled) {
+    CcdFlyweights.enabled = enabled;
+  }
+
+  /**
+   * @return The registered instance equal to the II, or the II itself
+   */
+  static Ii share(final Ii ii) {
+    if (!enabled || ii == null) {
+      return ii;
+    }
+    final Ii shared = IIS.get(IiKey.of(ii));
+    return shared == null ? ii : shared;
+  }
+
+  /**
+   * @return The registered instance equal to the CS, or the CS itself
+   */
+  static Cs share(final Cs cs) {
+    if (!enabled || cs == null) {
+      return cs;
+    }
+    final Cs shared = CSS.get(CsKey.of(cs));
+    return shared == null ? cs : shared;
+  }
+
+  /**
+   * @return The registered instance equal to the CE, or the CE itself
+   */
+  static Ce share(final Ce ce) {
+    if (!enabled || ce == null || !isSimple(ce)) {
+      return ce;
+    }
+    final Ce shared = CES.get(CeKey.of(ce));
+    return shared == null ? ce : shared;
+  }
+
+  private static boolean isSimple(final Ce ce) {
+    return ce.getOriginalText() == null && (ce.getTranslation() == null || ce.getTranslation().isEmpty());
+  }
+
+  /**
+   * Counts the attributes of every element without child elements, which are the ones that can be shared.
+   */
+  private static void count(final XMLStreamReader reader, final Map<IiKey, Integer> iis,
+          final Map<CsKey, Integer> css, final Map<CeKey, Integer> ces) throws XMLStreamException {
+    try {
+      Object pending = null;
+      while (reader.hasNext()) {
+        switch (reader.next()) {
+          case XMLStreamConstants.START_ELEMENT -> pending = candidate(reader);
+          case XMLStreamConstants.END_ELEMENT -> {
+            switch (pending) {
+              case IiKey key -> iis.merge(key, 1, Integer::sum);
+              case CsKey key -> css.merge(key, 1, Integer::sum);
+              case CeKey key -> ces.merge(key, 1, Integer::sum);
+              case null, default -> {
+              }
+            }
+            pending = null;
+          }
+          default -> {
+          }
+        }
+      }
+    } finally {
+      reader.close();
+    }
+  }
+
+  private static Object candidate(final XMLStreamReader reader) {
+    final String root = reader.getAttributeValue(null, "root");
+    final String code = reader.getAttributeValue(null, "code");
+    final String codeSystem = reader.getAttributeValue(null, "codeSystem");
+    if (root != null) {
+      final String displayable = reader.getAttributeValue(null, "displayable");
+      return new IiKey(reader.getAttributeValue(null, "nullFlavor"),
+              reader.getAttributeValue(null, "assigningAuthorityName"),
+              displayable == null ? null : Boolean.valueOf(displayable), root,
+              reader.getAttributeValue(null, "extension"));
+    } else if (code != null && codeSystem == null) {
+      return new CsKey(reader.getAttributeValue(null, "nullFlavor"), code,
+              reader.getAttributeValue(SDTC_NAMESPACE, "valueSet"),
+              reader.getAttributeValue(SDTC_NAMESPACE, "valueSetVersion"));
+    } else if (code != null) {
+      return new CeKey(reader.getAttributeValue(null, "nullFlavor"), code, codeSystem,
+              reader.getAttributeValue(null, "codeSystemName"), reader.getAttributeValue(null, "codeSystemVersion"),
+              reader.getAttributeValue(null, "displayName"), reader.getAttributeValue(SDTC_NAMESPACE, "valueSet"),
+              reader.getAttributeValue(SDTC_NAMESPACE, "valueSetVersion"));
+    }
+    return null;
+  }
+
+  private record IiKey(String nullFlavor, String assigningAuthorityName, Boolean displayable, String root,
+          String extension) {
+
+    static IiKey of(final Ii ii) {
+      return new IiKey(ii.getNullFlavor(), ii.getAssigningAuthorityName(), ii.getDisplayable(), ii.getRoot(),
+              ii.getExtension());
+    }
+
+    Ii toIi() {
+      final Ii ii = new Ii();
+      ii.setNullFlavor(StringInterner.intern(nullFlavor));
+      ii.setAssigningAuthorityName(StringInterner.intern(assigningAuthorityName));
+      ii.setDisplayable(displayable);
+      ii.setRoot(StringInterner.intern(root));
+      ii.setExtension(extension);
+      return ii;
+    }
+  }
+
+  private record CsKey(String nullFlavor, String code, String valueSet, String valueSetVersion) {
+
+    static CsKey of(final Cs cs) {
+      return new CsKey(cs.getNullFlavor(), cs.getCode(), cs.getValueSet(), cs.getValueSetVersion());
+    }
+
+    Cs toCs() {
+      final Cs cs = new Cs();
+      cs.setNullFlavor(StringInterner.intern(nullFlavor));
+      cs.setCode(StringInterner.intern(code));
+      cs.setValueSet(StringInterner.intern(valueSet));
+      cs.setValueSetVersion(StringInterner.intern(valueSetVersion));
+      return cs;
+    }
+  }
+
+  private record CeKey(String nullFlavor, String code, String codeSystem, String codeSystemName,
+          String codeSystemVersion, String displayName, String valueSet, String valueSetVersion) {
+
+    static CeKey of(final Ce ce) {
+      return new CeKey(ce.getNullFlavor(), ce.getCode(), ce.getCodeSystem(), ce.getCodeSystemName(),
+              ce.getCodeSystemVersion(), ce.getDisplayName(), ce.getValueSet(), ce.getValueSetVersion());
+    }
+
+    Ce toCe() {
+      final Ce ce = new Ce();
+      ce.setNullFlavor(StringInterner.intern(nullFlavor));
+      ce.setCode(StringInterner.intern(code));
+      ce.setCodeSystem(StringInterner.intern(codeSystem));
+      ce.setCodeSystemName(StringInterner.intern(codeSystemName));
+      ce.setCodeSystemVersion(StringInterner.intern(codeSystemVersion));
+      ce.setDisplayName(StringInterner.intern(displayName));
+      ce.setValueSet(StringInterner.intern(valueSet));
+      ce.setValueSetVersion(StringInterner.intern(valueSetVersion));
+      return ce;
+    }
+  }
+
+  private static UnsupportedOperationException frozen() {
+    return new UnsupportedOperationException("Shared flyweight instances can't be changed, copy it first");
+  }
+
+  private static final class FrozenIi extends Ii {
+
+    private FrozenIi(final IiKey key) {
+      super.setNullFlavor(key.nullFlavor());
+      super.setAssigningAuthorityName(key.assigningAuthorityName());
+      super.setDisplayable(key.displayable());
+      super.setRoot(key.root());
+      super.setExtension(key.extension());
+    }
+
+    @Override
+    public void setNullFlavor(final String nullFlavor) {
+      throw frozen();
+    }
+
+    @Override
+    public void setAssigningAuthorityName(final String assigningAuthorityName) {
+      throw frozen();
+    }
+
+    @Override
+    public void setDisplayable(final Boolean displayable) {
+      throw frozen();
+    }
+
+    @Override
+    public void setRoot(final String root) {
+      throw frozen();
+    }
+
+    @Override
+    public void setExtension(final String extension) {
+      throw frozen();
+    }
+  }
+
+  private static final class FrozenCs extends Cs {
+
+    private FrozenCs(final CsKey key) {
+      super.setNullFlavor(key.nullFlavor());
+      super.setCode(key.code());
+      super.setValueSet(key.valueSet());
+      super.setValueSetVersion(key.valueSetVersion());
+    }
+
+    @Override
+    public void setNullFlavor(final String nullFlavor) {
+      throw frozen();
+    }
+
+    @Override
+    public void setCode(final String code) {
+      throw frozen();
+    }
+
+    @Override
+    public void setValueSet(final String valueSet) {
+      throw frozen();
+    }
+
+    @Override
+    public void setValueSetVersion(final String valueSetVersion) {
+      throw frozen();
+    }
+  }
+
+  private static final class FrozenCe extends Ce {
+
+    private FrozenCe(final CeKey key) {
+      super.setNullFlavor(key.nullFlavor());
+      super.setCode(key.code());
+      super.setCodeSystem(key.codeSystem());
+      super.setCodeSystemName(key.codeSystemName());
+      super.setCodeSystemVersion(key.codeSystemVersion());
+      super.setDisplayName(key.displayName());
+      super.setValueSet(key.valueSet());
+      super.setValueSetVersion(key.valueSetVersion());
+    }
+
+    @Override
+    public void setNullFlavor(final String nullFlavor) {
+      throw frozen();
+    }
+
+    @Override
+    public void setCode(final String code) {
+      throw frozen();
+    }
+
+    @Override
+    public void setCodeSystem(final String codeSystem) {
+      throw frozen();
+    }
+
+    @Override
+    public void setCodeSystemName(final String codeSystemName) {
+      throw frozen();
+    }
+
+    @Override
+    public void setCodeSystemVersion(final String codeSystemVersion) {
+      throw frozen();
+    }
+
+    @Override
+    public void setDisplayName(final String displayName) {
+      throw frozen();
+    }
+
+    @Override
+    public void setValueSet(final String valueSet) {
+      throw frozen();
+    }
+
+    @Override
+    public void setValueSetVersion(final String valueSetVersion) {
+      throw frozen();
+    }
+
+    @Override
+    public void setOriginalText(final Ed originalText) {
+      throw frozen();
+    }
+
+    @Override
+    public void setTranslation(final List<Cd> translation) {
+      throw frozen();
+    }
+
+    @Override
+    public void addTranslation(final Cd translation) {
+      throw frozen();
+    }
+  }
+}
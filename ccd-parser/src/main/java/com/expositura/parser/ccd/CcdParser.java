@@ -17,10 +17,21 @@ package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.ClinicalDocument;
 import com.expositura.parser.ccd.exeption.InvalidCcdException;
+import com.expositura.parser.ccd.util.ByteBufferInputStream;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import com.expositura.parser.ccd.util.CharSequenceReader;
+import com.expositura.parser.ccd.util.DocumentBuilderPool;
+import com.expositura.parser.ccd.util.ModelFreezer;
+import com.expositura.parser.ccd.util.ParseProfile;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 import org.xml.sax.InputSource;
@@ -33,53 +44,226 @@ import org.xml.sax.SAXException;
  */
 public class CcdParser {
 
-  private static final DocumentBuilderFactory FACTORY;
-  private static final ThreadLocal<DocumentBuilder> BUILDER;
   private static final String HL7_NAMESPACE = "urn:hl7-org:v3";
   private static final String SDTC_NAMESPACE = "urn:hl7-org:sdtc";
-  
-  static {
-    FACTORY = DocumentBuilderFactory.newInstance();
-    FACTORY.setNamespaceAware(true);
-    FACTORY.setIgnoringComments(true);
-    BUILDER = ThreadLocal.withInitial(() -> {
-            try {
-                return FACTORY.newDocumentBuilder();
-            } catch (ParserConfigurationException e) {
-                throw new RuntimeException(e);
-            }
-        });
+
+  private static volatile Engine engine = new Engine(CcdParserOptions.defaults());
+
+  /**
+   * Replaces the options the XML parsers are configured with, parses already running finish with the old options.
+   *
+   * @param options The new options
+   */
+  public static void configure(final CcdParserOptions options) {
+    if (options == null) {
+      throw new IllegalArgumentException("options can't be null");
+    }
+    engine = new Engine(options);
+    CcdFlyweights.setEnabled(options.isFlyweights());
   }
-  
+
+  /**
+   * @return The options the XML parsers are currently configured with
+   */
+  public static CcdParserOptions getOptions() {
+    return engine.options;
+  }
+
   /**
-   * Parses a CCD (as a String) into a ClinicalDocument java bean. If null is provided or there is no data in the CCD a
-   * null value is returned.
+   * Parses a CCD (as a String) into a ClinicalDocument java bean. The characters are read directly, the String is not
+   * encoded back into bytes first, so any encoding in the XML declaration is ignored. If null is provided or there is
+   * no data in the CCD a null value is returned.
    *
    * @param ccdAsString The CCD as a String.
    * @return The ClinicalDocument java bean with data parsed from the CCD. Returns null if null is passed in or no data
    * can be parsed.
+   * @throws IOException If interrupted while waiting for a DocumentBuilder
+   * @throws InvalidCcdException If the XML is not a CCD
+   * @throws SAXException If the XML is not well formed
    */
-  public static ClinicalDocument parseFromCcd(String ccdAsString) {
-    if (ccdAsString == null) {
+  public static ClinicalDocument parseFromCcd(final String ccdAsString)
+          throws IOException, InvalidCcdException, SAXException {
+    if (ccdAsString == null || ccdAsString.isEmpty()) {
       return null;
     }
+    return parseFromCcd(new InputSource(new StringReader(ccdAsString)));
+  }
 
-    final ClinicalDocument ccd = new ClinicalDocument();
-
-    // Return null if the ccd has no data
-    return ClinicalDocument.isEmpty(ccd) ? null : ccd;
+  /**
+   * Parses a CCD held in part of a larger CharSequence, such as a StringBuilder or a decoded message, without copying
+   * the slice out or encoding it back into bytes. The encoding in the XML declaration is ignored.
+   *
+   * @param ccdAsChars The characters holding the CCD
+   * @param start The index of the CCD's first character
+   * @param end The index after the CCD's last character
+   * @return The ClinicalDocument java bean with data parsed from the CCD. Returns null if the slice is empty or no data
+   * can be parsed.
+   * @throws IOException If interrupted while waiting for a DocumentBuilder
+   * @throws InvalidCcdException If the XML is not a CCD
+   * @throws SAXException If the XML is not well formed
+   * @throws NullPointerException If ccdAsChars is null
+   * @throws IndexOutOfBoundsException If start and end aren't a range within ccdAsChars
+   */
+  public static ClinicalDocument parseFromCcd(final CharSequence ccdAsChars, final int start, final int end)
+          throws IOException, InvalidCcdException, SAXException {
+    // The reader checks the range, even an empty one
+    final CharSequenceReader reader = new CharSequenceReader(ccdAsChars, start, end);
+    if (start == end) {
+      return null;
+    }
+    return parseFromCcd(new InputSource(reader));
   }
 
   public static ClinicalDocument parseFromCcd(final InputSource ccdAsInputSource)
           throws IOException, InvalidCcdException, SAXException {
-    final DocumentBuilder builder = BUILDER.get();
-    final Document doc = builder.parse(ccdAsInputSource);
+    final DocumentBuilderPool builders = engine.builders;
+    final Document doc;
+    final DocumentBuilder builder = builders.acquire();
+    try {
+      doc = builder.parse(ccdAsInputSource);
+    } finally {
+      builders.release(builder);
+    }
 
     final Node clinicalDocumentNode = validateCcdDocument(doc);
     
     final ClinicalDocument ccd = ClinicalDocumentParser.fromXml(clinicalDocumentNode);
     
-    return ClinicalDocument.isEmpty(ccd) ? null : ccd;
+    return finish(ccd, engine.options);
+  }
+
+  /**
+   * Parses a CCD straight out of a ByteBuffer, heap or direct, without copying it into a byte array first.
+   *
+   * @param ccdAsBuffer The bytes of the CCD from the buffer's position to its limit, the encoding is taken from the
+   * XML declaration. The buffer's position and limit are not changed.
+   * @return The ClinicalDocument java bean with data parsed from the CCD. Returns null if no data can be parsed.
+   * @throws IOException If interrupted while waiting for a DocumentBuilder
+   * @throws InvalidCcdException If the XML is not a CCD
+   * @throws SAXException If the XML is not well formed
+   */
+  public static ClinicalDocument parseFromCcd(final ByteBuffer ccdAsBuffer)
+          throws IOException, InvalidCcdException, SAXException {
+    return parseFromCcd(new InputSource(new ByteBufferInputStream(ccdAsBuffer)));
+  }
+
+  /**
+   * Parses a CCD file by memory mapping it, the file is read by the parser directly from the page cache rather than
+   * being copied into the heap first.
+   *
+   * @param ccdFile The CCD file
+   * @return The ClinicalDocument java bean with data parsed from the CCD. Returns null if no data can be parsed.
+   * @throws IOException If the file can't be mapped
+   * @throws InvalidCcdException If the XML is not a CCD
+   * @throws SAXException If the XML is not well formed
+   */
+  public static ClinicalDocument parseFromCcd(final Path ccdFile)
+          throws IOException, InvalidCcdException, SAXException {
+    final InputSource source = new InputSource(ByteBufferInputStream.mapped(ccdFile));
+    source.setSystemId(ccdFile.toUri().toString());
+    return parseFromCcd(source);
+  }
+
+  /**
+   * Parses a CCD into a ClinicalDocument java bean using a streaming (StAX) parser. The XML is read in a single pass
+   * and no DOM is built, so the memory used while parsing stays close to the size of the resulting java bean. Produces
+   * the same ClinicalDocument as {@link #parseFromCcd(InputSource)}.
+   *
+   * @param ccdAsStream The CCD as a stream of bytes, the encoding is taken from the XML declaration. The stream is not
+   * closed.
+   * @return The ClinicalDocument java bean with data parsed from the CCD. Returns null if no data can be parsed.
+   * @throws InvalidCcdException If the XML is not a CCD
+   * @throws XMLStreamException If the XML is not well formed or the stream could not be read
+   */
+  public static ClinicalDocument parseStreaming(final InputStream ccdAsStream)
+          throws InvalidCcdException, XMLStreamException {
+    return parseStreaming(ccdAsStream, ParseProfile.HEADER);
+  }
+
+  /**
+   * Parses the parts of a CCD given by the profile into a ClinicalDocument java bean using a streaming (StAX) parser.
+   * Whatever the profile leaves out is skipped over without creating any java beans for it, use
+   * {@link ParseProfile#FULL} to also parse the clinical body (the structuredBody's sections and their entries such as
+   * problems, medications, allergies and results) in the same single pass over the XML.
+   *
+   * @param ccdAsStream The CCD as a stream of bytes, the encoding is taken from the XML declaration. The stream is not
+   * closed.
+   * @param profile Which parts of the CCD to parse
+   * @return The ClinicalDocument java bean with data parsed from the CCD. Returns null if no data can be parsed.
+   * @throws InvalidCcdException If the XML is not a CCD
+   * @throws XMLStreamException If the XML is not well formed or the stream could not be read
+   */
+  public static ClinicalDocument parseStreaming(final InputStream ccdAsStream, final ParseProfile profile)
+          throws InvalidCcdException, XMLStreamException {
+    final Engine current = engine;
+    final XMLStreamReader xmlReader = current.inputFactory.createXMLStreamReader(ccdAsStream);
+    try {
+      final CcdStreamReader reader = new CcdStreamReader(xmlReader, profile, current.options.isAllowDoctype());
+      validateCcdDocument(reader);
+
+      final ClinicalDocument ccd = ClinicalDocumentParser.fromXml(reader);
+      reader.finishDocument();
+
+      return finish(ccd, current.options);
+    } finally {
+      xmlReader.close();
+    }
+  }
+
+  /**
+   * Parses the parts of a CCD given by the profile straight out of a ByteBuffer, heap or direct, using a streaming
+   * (StAX) parser without copying the CCD into a byte array first.
+   *
+   * @param ccdAsBuffer The bytes of the CCD from the buffer's position to its limit, the encoding is taken from the
+   * XML declaration. The buffer's position and limit are not changed.
+   * @param profile Which parts of the CCD to parse
+   * @return The ClinicalDocument java bean with data parsed from the CCD. Returns null if no data can be parsed.
+   * @throws InvalidCcdException If the XML is not a CCD
+   * @throws XMLStreamException If the XML is not well formed
+   */
+  public static ClinicalDocument parseStreaming(final ByteBuffer ccdAsBuffer, final ParseProfile profile)
+          throws InvalidCcdException, XMLStreamException {
+    return parseStreaming(new ByteBufferInputStream(ccdAsBuffer), profile);
+  }
+
+  /**
+   * Parses the parts of a CCD file given by the profile by memory mapping it and streaming (StAX) the mapped bytes,
+   * neither the file nor a DOM is ever held in the heap.
+   *
+   * @param ccdFile The CCD file
+   * @param profile Which parts of the CCD to parse
+   * @return The ClinicalDocument java bean with data parsed from the CCD. Returns null if no data can be parsed.
+   * @throws IOException If the file can't be mapped
+   * @throws InvalidCcdException If the XML is not a CCD
+   * @throws XMLStreamException If the XML is not well formed
+   */
+  public static ClinicalDocument parseStreaming(final Path ccdFile, final ParseProfile profile)
+          throws IOException, InvalidCcdException, XMLStreamException {
+    return parseStreaming(ByteBufferInputStream.mapped(ccdFile), profile);
+  }
+
+  /**
+   * @return The streaming parser factory for the current options
+   */
+  static XMLInputFactory inputFactory() {
+    return engine.inputFactory;
+  }
+
+  /**
+   * @return The pool of DocumentBuilders used by {@link #parseFromCcd(InputSource)}, for its wait metrics
+   */
+  public static DocumentBuilderPool getDocumentBuilderPool() {
+    return engine.builders;
+  }
+
+  /**
+   * Hands back null for a CCD with no data, otherwise the document frozen if the options ask for it.
+   */
+  private static ClinicalDocument finish(final ClinicalDocument ccd, final CcdParserOptions options) {
+    if (ClinicalDocument.isEmpty(ccd)) {
+      return null;
+    }
+    return options.isFreeze() ? ModelFreezer.freeze(ccd) : ccd;
   }
 
   /**
@@ -119,4 +303,41 @@ public class CcdParser {
     
     return clinicalDocNode;
   }
+  
+  /**
+   * Validate that the streamed document is a CCD Document, leaves the reader positioned on the top level element.
+   */
+  static void validateCcdDocument(final CcdStreamReader reader) throws InvalidCcdException, XMLStreamException {
+    
+    // Validate that there are any XML elements in the document, well formed XML can only have one top level element
+    if (!reader.nextRootElement()) {
+      throw new InvalidCcdException("CCD does not have any XML elements to parse");
+    }
+    
+    if (!HL7_NAMESPACE.equals(reader.getNamespaceURI())) {
+      throw new InvalidCcdException("Top level element must have namespace of '" + HL7_NAMESPACE + "'. Instead found '" 
+              + reader.getNamespaceURI() + "'");
+    }
+    
+    if (!"ClinicalDocument".equals(reader.getLocalName())) {
+      throw new InvalidCcdException("Top level element must be 'ClinicalDocument'. Instead found '" 
+              + reader.getLocalName() + "'");
+    }
+  }
+
+  /**
+   * The parser factories built from one set of options, swapped as a whole so a parse never sees a mix of options.
+   */
+  private static final class Engine {
+
+    private final CcdParserOptions options;
+    private final DocumentBuilderPool builders;
+    private final XMLInputFactory inputFactory;
+
+    private Engine(final CcdParserOptions options) {
+      this.options = options;
+      this.builders = new DocumentBuilderPool(options.newDocumentBuilderFactory(), options.getDocumentBuilderPoolSize());
+      this.inputFactory = options.newXMLInputFactory();
+    }
+  }
 }
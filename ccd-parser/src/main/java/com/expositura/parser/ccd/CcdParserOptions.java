@@ -0,0 +1,248 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd;
+
+import com.expositura.parser.ccd.util.ModelFreezer;
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+
+/**
+ * How the XML parsers under {@link CcdParser} are configured. The defaults are locked down for parsing CCD's from
+ * untrusted sources: no DTD's, no external entities or schemas are ever fetched (so a parse never blocks on the
+ * network), no validation or XInclude, and limits on entity expansion and element nesting so a hostile document can't
+ * use up the memory or stack. A CCD never needs any of these so nothing is lost.
+ * <p>
+ * The JDK's built in XML parsers are always used since the limits are JDK properties.
+ *
+ * @author Sean Smith
+ */
+public final class CcdParserOptions {
+
+  /** System property for the default documentBuilderPoolSize */
+  public static final String POOL_SIZE_PROPERTY = "com.expositura.parser.ccd.documentBuilderPoolSize";
+
+  private static final String DISALLOW_DOCTYPE = "http://apache.org/xml/features/disallow-doctype-decl";
+  private static final String LOAD_EXTERNAL_DTD = "http://apache.org/xml/features/nonvalidating/load-external-dtd";
+  private static final String EXTERNAL_GENERAL_ENTITIES = "http://xml.org/sax/features/external-general-entities";
+  private static final String EXTERNAL_PARAMETER_ENTITIES = "http://xml.org/sax/features/external-parameter-entities";
+  private static final String DEFER_NODE_EXPANSION = "http://apache.org/xml/features/dom/defer-node-expansion";
+  private static final String ENTITY_EXPANSION_LIMIT = "jdk.xml.entityExpansionLimit";
+  private static final String MAX_ELEMENT_DEPTH = "jdk.xml.maxElementDepth";
+
+  private final boolean allowDoctype;
+  private final boolean deferNodeExpansion;
+  private final int entityExpansionLimit;
+  private final int maxElementDepth;
+  private final int documentBuilderPoolSize;
+  private final boolean flyweights;
+  private final boolean freeze;
+
+  private CcdParserOptions(final Builder builder) {
+    this.allowDoctype = builder.allowDoctype;
+    this.deferNodeExpansion = builder.deferNodeExpansion;
+    this.entityExpansionLimit = builder.entityExpansionLimit;
+    this.maxElementDepth = builder.maxElementDepth;
+    this.documentBuilderPoolSize = builder.documentBuilderPoolSize;
+    this.flyweights = builder.flyweights;
+    this.freeze = builder.freeze;
+  }
+
+  /**
+   * @return The locked down defaults
+   */
+  public static CcdParserOptions defaults() {
+    return builder().build();
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public boolean isAllowDoctype() {
+    return allowDoctype;
+  }
+
+  public boolean isDeferNodeExpansion() {
+    return deferNodeExpansion;
+  }
+
+  public int getEntityExpansionLimit() {
+    return entityExpansionLimit;
+  }
+
+  public int getMaxElementDepth() {
+    return maxElementDepth;
+  }
+
+  public int getDocumentBuilderPoolSize() {
+    return documentBuilderPoolSize;
+  }
+
+  public boolean isFlyweights() {
+    return flyweights;
+  }
+
+  public boolean isFreeze() {
+    return freeze;
+  }
+
+  /**
+   * @return A new DOM parser factory configured with these options
+   */
+  public DocumentBuilderFactory newDocumentBuilderFactory() {
+    final DocumentBuilderFactory factory = DocumentBuilderFactory.newDefaultInstance();
+    factory.setNamespaceAware(true);
+    factory.setIgnoringComments(true);
+    factory.setValidating(false);
+    factory.setXIncludeAware(false);
+
+    try {
+      factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+      factory.setFeature(DISALLOW_DOCTYPE, !allowDoctype);
+      factory.setFeature(LOAD_EXTERNAL_DTD, false);
+      factory.setFeature(EXTERNAL_GENERAL_ENTITIES, false);
+      factory.setFeature(EXTERNAL_PARAMETER_ENTITIES, false);
+      factory.setFeature(DEFER_NODE_EXPANSION, deferNodeExpansion);
+    } catch (ParserConfigurationException e) {
+      throw new IllegalStateException("The XML parser does not support a required feature", e);
+    }
+    factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+    factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+    factory.setAttribute(ENTITY_EXPANSION_LIMIT, String.valueOf(entityExpansionLimit));
+    factory.setAttribute(MAX_ELEMENT_DEPTH, String.valueOf(maxElementDepth));
+
+    return factory;
+  }
+
+  /**
+   * @return A new streaming parser factory configured with these options
+   */
+  public XMLInputFactory newXMLInputFactory() {
+    final XMLInputFactory factory = XMLInputFactory.newDefaultFactory();
+
+    // Character data is not coalesced so CDATA sections are seen separately, the same as they are in the DOM
+    factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+    factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+    factory.setProperty(XMLInputFactory.IS_VALIDATING, false);
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, allowDoctype);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    factory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+    factory.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+    factory.setProperty(ENTITY_EXPANSION_LIMIT, String.valueOf(entityExpansionLimit));
+    factory.setProperty(MAX_ELEMENT_DEPTH, String.valueOf(maxElementDepth));
+
+    return factory;
+  }
+
+  public static class Builder {
+
+    private boolean allowDoctype;
+    private boolean deferNodeExpansion = true;
+    private int entityExpansionLimit = 64000;
+    private int maxElementDepth = 256;
+    private int documentBuilderPoolSize = Integer.getInteger(POOL_SIZE_PROPERTY,
+            Runtime.getRuntime().availableProcessors());
+    private boolean flyweights;
+    private boolean freeze;
+
+    private Builder() {
+    }
+
+    /**
+     * @param allowDoctype True to allow a DOCTYPE with internal entity declarations, by default a CCD with a DOCTYPE is
+     * rejected. External DTD's and entities are never loaded either way.
+     * @return This builder
+     */
+    public Builder allowDoctype(final boolean allowDoctype) {
+      this.allowDoctype = allowDoctype;
+      return this;
+    }
+
+    /**
+     * @param deferNodeExpansion True (the default) to let the DOM parser build nodes lazily as they are first visited.
+     * The DOM parser visits every node anyway so false can be faster for small CCD's, benchmark before changing it.
+     * @return This builder
+     */
+    public Builder deferNodeExpansion(final boolean deferNodeExpansion) {
+      this.deferNodeExpansion = deferNodeExpansion;
+      return this;
+    }
+
+    /**
+     * @param entityExpansionLimit The most entity expansions allowed in one CCD, 0 for no limit. Defaults to 64000.
+     * @return This builder
+     */
+    public Builder entityExpansionLimit(final int entityExpansionLimit) {
+      if (entityExpansionLimit < 0) {
+        throw new IllegalArgumentException("entityExpansionLimit can't be negative");
+      }
+      this.entityExpansionLimit = entityExpansionLimit;
+      return this;
+    }
+
+    /**
+     * @param maxElementDepth The deepest elements can be nested, 0 for no limit. Defaults to 256 which is several times
+     * deeper than any real CCD.
+     * @return This builder
+     */
+    public Builder maxElementDepth(final int maxElementDepth) {
+      if (maxElementDepth < 0) {
+        throw new IllegalArgumentException("maxElementDepth can't be negative");
+      }
+      this.maxElementDepth = maxElementDepth;
+      return this;
+    }
+
+    /**
+     * @param documentBuilderPoolSize The most DocumentBuilders kept and so DOM parses run at once. Defaults to the
+     * {@value CcdParserOptions#POOL_SIZE_PROPERTY} system property or the number of processors.
+     * @return This builder
+     */
+    public Builder documentBuilderPoolSize(final int documentBuilderPoolSize) {
+      if (documentBuilderPoolSize < 1) {
+        throw new IllegalArgumentException("documentBuilderPoolSize must be at least 1");
+      }
+      this.documentBuilderPoolSize = documentBuilderPoolSize;
+      return this;
+    }
+
+    /**
+     * @param flyweights True to have the parsers return the shared instances registered with {@link CcdFlyweights}
+     * for recurring identifiers and codes, off by default since the shared instances can't be changed
+     * @return This builder
+     */
+    public Builder flyweights(final boolean flyweights) {
+      this.flyweights = flyweights;
+      return this;
+    }
+
+    /**
+     * @param freeze True to freeze every parsed document with {@link ModelFreezer} so its lists can't be changed and
+     * it can be shared between threads without copying, off by default
+     * @return This builder
+     */
+    public Builder freeze(final boolean freeze) {
+      this.freeze = freeze;
+      return this;
+    }
+
+    public CcdParserOptions build() {
+      return new CcdParserOptions(this);
+    }
+  }
+}
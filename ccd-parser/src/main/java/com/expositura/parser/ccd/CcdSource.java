@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd;
+
+import com.expositura.parser.ccd.util.ByteBufferInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * Where to read a CCD from when parsing in bulk with {@link CcdBatchParser}. The CCD is only opened when it's about to
+ * be parsed so a batch of millions of CCD's doesn't hold millions of open files or byte arrays.
+ *
+ * @author Sean Smith
+ */
+@FunctionalInterface
+public interface CcdSource {
+
+  /**
+   * @return A new stream of the CCD's bytes, closed by the caller once parsed
+   * @throws IOException If the CCD can't be read
+   */
+  InputStream open() throws IOException;
+
+  /**
+   * @param path A CCD file
+   * @return A source that reads the file by memory mapping it
+   */
+  static CcdSource of(final Path path) {
+    return new CcdSource() {
+      @Override
+      public InputStream open() throws IOException {
+        return ByteBufferInputStream.mapped(path);
+      }
+
+      @Override
+      public String toString() {
+        return path.toString();
+      }
+    };
+  }
+
+  /**
+   * @param ccd The bytes of a CCD, not copied so it must not be changed while the batch is running
+   * @return A source that reads the bytes
+   */
+  static CcdSource of(final byte[] ccd) {
+    return new CcdSource() {
+      @Override
+      public InputStream open() {
+        return new ByteArrayInputStream(ccd);
+      }
+
+      @Override
+      public String toString() {
+        return "byte[" + ccd.length + "]";
+      }
+    };
+  }
+}
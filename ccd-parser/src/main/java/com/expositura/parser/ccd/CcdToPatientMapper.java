@@ -0,0 +1,471 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd;
+
+import com.expositura.model.Patient;
+import com.expositura.model.ccd.Ad;
+import com.expositura.model.ccd.Adxp;
+import com.expositura.model.ccd.Ce;
+import com.expositura.model.ccd.ClinicalDocument;
+import com.expositura.model.ccd.Enxp;
+import com.expositura.model.ccd.Ii;
+import com.expositura.model.ccd.IvlTs;
+import com.expositura.model.ccd.PatientRole;
+import com.expositura.model.ccd.Pn;
+import com.expositura.model.ccd.RecordTarget;
+import com.expositura.model.ccd.Tel;
+import com.expositura.model.ccd.Ts;
+import com.expositura.model.datatype.Address;
+import com.expositura.model.datatype.CodeableConcept;
+import com.expositura.model.datatype.Coding;
+import com.expositura.model.datatype.ContactPoint;
+import com.expositura.model.datatype.DateTime;
+import com.expositura.model.datatype.HumanName;
+import com.expositura.model.datatype.Identifier;
+import com.expositura.model.datatype.Period;
+import com.expositura.parser.ccd.exeption.InvalidCcdException;
+import com.expositura.parser.ccd.util.ByteBufferInputStream;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import com.expositura.parser.ccd.util.Hl7Timestamp;
+import com.expositura.parser.ccd.util.ParseProfile;
+import com.expositura.parser.ccd.util.ParserUtils;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Maps who a CCD is about, the recordTarget/patientRole, to the patient data model's {@link Patient}. The mapping
+ * follows HL7's C-CDA to FHIR Patient mapping: ids become identifiers, names, addresses and telecoms keep their use and
+ * useable period, and the coded values (gender, marital status) are translated to their FHIR equivalents.
+ * <p>
+ * Use {@link #mapStreaming(InputStream)} when only the Patient is needed. It reads the recordTargets straight off the
+ * XML, maps each one as soon as it's read and stops at the first element after them, so no ClinicalDocument is built
+ * and the rest of the CCD is never read.
+ *
+ * @author Sean Smith
+ */
+public final class CcdToPatientMapper {
+
+  private static final String OID_PREFIX = "urn:oid:";
+  private static final String UUID_PREFIX = "urn:uuid:";
+
+  // HL7 EntityNameUse, PostalAddressUse and TelecommunicationAddressUse codes to their FHIR use
+  private static final Map<String, String> NAME_USES = Map.of(
+          "L", "usual", "OR", "official", "C", "official", "P", "nickname", "A", "nickname", "ASGN", "temp");
+  private static final Map<String, String> ADDRESS_USES = Map.of(
+          "H", "home", "HP", "home", "HV", "home", "WP", "work", "DIR", "work", "PUB", "work", "TMP", "temp",
+          "OLD", "old", "BAD", "old");
+  private static final Map<String, String> TELECOM_USES = Map.ofEntries(
+          Map.entry("H", "home"), Map.entry("HP", "home"), Map.entry("HV", "home"), Map.entry("WP", "work"),
+          Map.entry("DIR", "work"), Map.entry("PUB", "work"), Map.entry("MC", "mobile"), Map.entry("PG", "mobile"),
+          Map.entry("TMP", "temp"), Map.entry("OLD", "old"), Map.entry("BAD", "old"));
+
+  // Only the recordTargets are parsed, the author is included so the end of the recordTargets can be seen (C-CDA
+  // requires an author and it's the next element allowed after the recordTargets)
+  private static final ParseProfile RECORD_TARGETS = ParseProfile.builder()
+          .include(CcdElement.RECORD_TARGET)
+          .include(CcdElement.AUTHOR)
+          .build();
+
+  private CcdToPatientMapper() {
+  }
+
+  /**
+   * Maps the patient of each recordTarget in a parsed CCD.
+   *
+   * @param ccd A parsed CCD, any profile that includes the recordTargets such as {@link ParseProfile#DEMOGRAPHICS}
+   * @return A Patient for each recordTarget with a patientRole, empty if there are none
+   */
+  public static List<Patient> map(final ClinicalDocument ccd) {
+    final List<Patient> patients = new ArrayList<>(1);
+    if (ccd != null && ccd.getRecordTarget() != null) {
+      for (final RecordTarget recordTarget : ccd.getRecordTarget()) {
+        add(patients, recordTarget);
+      }
+    }
+    return patients;
+  }
+
+  /**
+   * Maps a recordTarget's patientRole.
+   *
+   * @param patientRole The patientRole
+   * @return The Patient, null if the patientRole has nothing that maps to a Patient
+   */
+  public static Patient map(final PatientRole patientRole) {
+    if (patientRole == null) {
+      return null;
+    }
+
+    final Patient patient = new Patient();
+
+    if (patientRole.getId() != null) {
+      for (final Ii id : patientRole.getId()) {
+        final Identifier identifier = toIdentifier(id);
+        if (identifier != null) {
+          patient.addIdentifier(identifier);
+        }
+      }
+    }
+    if (patientRole.getAddr() != null) {
+      for (final Ad addr : patientRole.getAddr()) {
+        final Address address = toAddress(addr);
+        if (address != null) {
+          patient.addAddress(address);
+        }
+      }
+    }
+    if (patientRole.getTelecom() != null) {
+      for (final Tel tel : patientRole.getTelecom()) {
+        final ContactPoint contactPoint = toContactPoint(tel);
+        if (contactPoint != null) {
+          patient.addTelecom(contactPoint);
+        }
+      }
+    }
+
+    final com.expositura.model.ccd.Patient ccdPatient = patientRole.getPatient();
+    if (ccdPatient != null) {
+      if (ccdPatient.getName() != null) {
+        for (final Pn pn : ccdPatient.getName()) {
+          final HumanName name = toHumanName(pn);
+          if (name != null) {
+            patient.addName(name);
+          }
+        }
+      }
+
+      patient.setGender(toGender(ccdPatient.getAdministrativeGenderCode()));
+      patient.setBirthDate(toDateTime(ccdPatient.getBirthTime()));
+      patient.setMaritalStatus(toCodeableConcept(ccdPatient.getMaritalStatusCode()));
+
+      // A time of death means deceased even when the indicator is left out
+      patient.setDeceasedDateTime(toDateTime(ccdPatient.getDeceasedTime()));
+      if (ccdPatient.getDeceasedInd() != null && ccdPatient.getDeceasedInd().getValue() != null) {
+        patient.setDeceased(ccdPatient.getDeceasedInd().getValue());
+      } else if (patient.getDeceasedDateTime() != null) {
+        patient.setDeceased(Boolean.TRUE);
+      }
+
+      if (ccdPatient.getMultipleBirthInd() != null) {
+        patient.setMultipleBirth(ccdPatient.getMultipleBirthInd().getValue());
+      }
+      if (ccdPatient.getMultipleBirthOrderNumber() != null) {
+        patient.setMultipleBirthOrder(ccdPatient.getMultipleBirthOrderNumber().getValue());
+      }
+    }
+
+    return Patient.isEmpty(patient) ? null : patient;
+  }
+
+  /**
+   * Maps the patient of each recordTarget in a CCD while it's being read, without building a ClinicalDocument.
+   *
+   * @param ccdAsStream The CCD as a stream of bytes, the encoding is taken from the XML declaration. The stream is not
+   * closed and is left part way thru the CCD.
+   * @return A Patient for each recordTarget with a patientRole, empty if there are none
+   * @throws InvalidCcdException If the XML is not a CCD
+   * @throws XMLStreamException If the XML up to the end of the recordTargets is not well formed or the stream could not
+   * be read
+   */
+  public static List<Patient> mapStreaming(final InputStream ccdAsStream)
+          throws InvalidCcdException, XMLStreamException {
+    final XMLStreamReader xmlReader = CcdParser.inputFactory().createXMLStreamReader(ccdAsStream);
+    try {
+      final CcdStreamReader reader = new CcdStreamReader(xmlReader, RECORD_TARGETS,
+              CcdParser.getOptions().isAllowDoctype());
+      CcdParser.validateCcdDocument(reader);
+
+      final List<Patient> patients = new ArrayList<>(1);
+      while (reader.nextChild()) {
+        if (reader.isElement()) {
+          // Everything after the recordTargets is of no interest so stop reading
+          if (reader.getElement() != CcdElement.RECORD_TARGET) {
+            break;
+          }
+          add(patients, RecordTargetParser.fromXml(reader));
+        }
+      }
+      return patients;
+    } finally {
+      xmlReader.close();
+    }
+  }
+
+  /**
+   * Maps the patient of each recordTarget in a CCD file while it's being read, the file is memory mapped the same as
+   * {@link CcdParser#parseStreaming(Path, ParseProfile)}.
+   *
+   * @param ccdFile The CCD file
+   * @return A Patient for each recordTarget with a patientRole, empty if there are none
+   * @throws IOException If the file can't be mapped
+   * @throws InvalidCcdException If the XML is not a CCD
+   * @throws XMLStreamException If the XML up to the end of the recordTargets is not well formed
+   */
+  public static List<Patient> mapStreaming(final Path ccdFile)
+          throws IOException, InvalidCcdException, XMLStreamException {
+    return mapStreaming(ByteBufferInputStream.mapped(ccdFile));
+  }
+
+  private static void add(final List<Patient> patients, final RecordTarget recordTarget) {
+    if (recordTarget != null) {
+      final Patient patient = map(recordTarget.getPatientRole());
+      if (patient != null) {
+        patients.add(patient);
+      }
+    }
+  }
+
+  private static Identifier toIdentifier(final Ii ii) {
+    if (ii == null || ii.getNullFlavor() != null) {
+      return null;
+    }
+
+    final Identifier identifier = new Identifier();
+
+    // With no extension the root alone is the identifier
+    if (ii.getExtension() == null) {
+      identifier.setSystem("urn:ietf:rfc:3986");
+      identifier.setValue(toUri(ii.getRoot()));
+    } else {
+      identifier.setSystem(toUri(ii.getRoot()));
+      identifier.setValue(ii.getExtension());
+    }
+    return identifier.getValue() == null ? null : identifier;
+  }
+
+  private static HumanName toHumanName(final Pn pn) {
+    if (pn == null || pn.getNullFlavor() != null) {
+      return null;
+    }
+
+    final HumanName name = new HumanName();
+    name.setUse(toUse(pn.getUse(), NAME_USES));
+    name.setFamily(joined(pn.getFamily()));
+    name.setGiven(texts(pn.getGiven()));
+    name.setPrefix(texts(pn.getPrefix()));
+    name.setSuffix(texts(pn.getSuffix()));
+    name.setPeriod(toPeriod(pn.getValidTime()));
+
+    // A name that's just text has no parts
+    final String text = ParserUtils.parsePnToString(pn);
+    if (text != null && !text.isBlank()) {
+      name.setText(text.trim());
+    }
+    return HumanName.isEmpty(name) ? null : name;
+  }
+
+  private static Address toAddress(final Ad ad) {
+    if (ad == null || ad.getNullFlavor() != null) {
+      return null;
+    }
+
+    final Address address = new Address();
+    address.setUse(toUse(ad.getUse(), ADDRESS_USES));
+    address.setLine(lines(ad.getStreetAddressLine()));
+    address.setCity(text(ad.getCity()));
+    address.setDistrict(text(ad.getCounty()));
+    address.setState(text(ad.getState()));
+    address.setPostalCode(text(ad.getPostalCode()));
+    address.setCountry(text(ad.getCountry()));
+    if (ad.getUseablePeriodAsIvlTs() != null && !ad.getUseablePeriodAsIvlTs().isEmpty()) {
+      address.setPeriod(toPeriod(ad.getUseablePeriodAsIvlTs().get(0)));
+    }
+
+    // Unstructured addresses are only text
+    if (ad.getXmlText() != null && !ad.getXmlText().isBlank()) {
+      address.setText(ad.getXmlText().trim());
+    }
+    return Address.isEmpty(address) ? null : address;
+  }
+
+  private static ContactPoint toContactPoint(final Tel tel) {
+    if (tel == null || tel.getNullFlavor() != null || tel.getValue() == null) {
+      return null;
+    }
+
+    final ContactPoint contactPoint = new ContactPoint();
+    contactPoint.setUse(toUse(tel.getUse(), TELECOM_USES));
+    if (tel.getUseablePeriodAsIvlTs() != null && !tel.getUseablePeriodAsIvlTs().isEmpty()) {
+      contactPoint.setPeriod(toPeriod(tel.getUseablePeriodAsIvlTs().get(0)));
+    }
+
+    // The URL scheme of the value says what kind of contact point it is
+    final String value = tel.getValue().trim();
+    final int colon = value.indexOf(':');
+    final String scheme = colon < 0 ? "" : value.substring(0, colon).toLowerCase();
+    switch (scheme) {
+      case "tel" -> contactPoint.setSystem("phone");
+      case "fax" -> contactPoint.setSystem("fax");
+      case "mailto" -> contactPoint.setSystem("email");
+      case "http", "https" -> contactPoint.setSystem("url");
+      default -> contactPoint.setSystem("other");
+    }
+    contactPoint.setValue(scheme.equals("http") || scheme.equals("https") || colon < 0 ? value
+            : value.substring(colon + 1).trim());
+    return contactPoint;
+  }
+
+  private static String toGender(final Ce ce) {
+    if (ce == null) {
+      return null;
+    }
+    if (ce.getCode() == null) {
+      return ce.getNullFlavor() == null ? null : "unknown";
+    }
+
+    return switch (ce.getCode()) {
+      case "M" -> "male";
+      case "F" -> "female";
+      case "UN" -> "other";
+      default -> "unknown";
+    };
+  }
+
+  private static CodeableConcept toCodeableConcept(final Ce ce) {
+    if (ce == null || ce.getCode() == null) {
+      return null;
+    }
+
+    final Coding coding = new Coding();
+    coding.setCode(ce.getCode());
+    coding.setSystem(toUri(ce.getCodeSystem()));
+    coding.setDisplay(ce.getDisplayName());
+
+    final CodeableConcept concept = new CodeableConcept();
+    concept.addCoding(coding);
+    concept.setText(ce.getDisplayName());
+    return concept;
+  }
+
+  /**
+   * Keeps the precision the HL7 timestamp was sent with, a year of birth stays just a year.
+   */
+  private static DateTime toDateTime(final Ts ts) {
+    if (ts == null) {
+      return null;
+    }
+
+    final String value = Hl7Timestamp.toIsoString(Hl7Timestamp.parse(ts.getValue()));
+    if (value == null) {
+      return null;
+    }
+
+    final DateTime dateTime = new DateTime();
+    dateTime.setOriginalText(ts.getValue());
+    dateTime.setValue(value);
+    return dateTime;
+  }
+
+  private static Period toPeriod(final IvlTs ivlTs) {
+    if (ivlTs == null) {
+      return null;
+    }
+
+    final Period period = new Period();
+    if (ivlTs.getLow() != null) {
+      period.setStart(Hl7Timestamp.toIsoString(Hl7Timestamp.parse(ivlTs.getLow().getValue())));
+    }
+    if (ivlTs.getHigh() != null) {
+      period.setEnd(Hl7Timestamp.toIsoString(Hl7Timestamp.parse(ivlTs.getHigh().getValue())));
+    }
+    return Period.isEmpty(period) ? null : period;
+  }
+
+  /**
+   * OIDs and UUIDs are written as URIs the way FHIR expects identifier systems to be.
+   */
+  private static String toUri(final String root) {
+    if (root == null || root.isEmpty()) {
+      return null;
+    }
+    if (Character.isDigit(root.charAt(0)) && root.chars().allMatch(c -> c == '.' || Character.isDigit(c))) {
+      return OID_PREFIX + root;
+    }
+    if (root.length() == 36 && root.charAt(8) == '-' && root.charAt(13) == '-') {
+      return UUID_PREFIX + root.toLowerCase();
+    }
+    return root;
+  }
+
+  /**
+   * @return The FHIR use of the first HL7 use code that has one
+   */
+  private static String toUse(final List<String> uses, final Map<String, String> fhirUses) {
+    if (uses != null) {
+      for (final String use : uses) {
+        final String fhirUse = fhirUses.get(use);
+        if (fhirUse != null) {
+          return fhirUse;
+        }
+      }
+    }
+    return null;
+  }
+
+  private static String text(final Adxp part) {
+    return part == null ? null : trimmed(part.getXmlText());
+  }
+
+  private static List<String> texts(final List<Enxp> parts) {
+    if (parts == null || parts.isEmpty()) {
+      return null;
+    }
+
+    final List<String> texts = new ArrayList<>(parts.size());
+    for (final Enxp part : parts) {
+      final String text = part == null ? null : trimmed(part.getXmlText());
+      if (text != null) {
+        texts.add(text);
+      }
+    }
+    return texts.isEmpty() ? null : texts;
+  }
+
+  private static List<String> lines(final List<Adxp> parts) {
+    if (parts == null || parts.isEmpty()) {
+      return null;
+    }
+
+    final List<String> lines = new ArrayList<>(parts.size());
+    for (final Adxp part : parts) {
+      final String line = text(part);
+      if (line != null) {
+        lines.add(line);
+      }
+    }
+    return lines.isEmpty() ? null : lines;
+  }
+
+  private static String joined(final List<Enxp> parts) {
+    final List<String> texts = texts(parts);
+    return texts == null ? null : String.join(" ", texts);
+  }
+
+  private static String trimmed(final String text) {
+    if (text == null) {
+      return null;
+    }
+    final String trimmed = text.trim();
+    return trimmed.isEmpty() ? null : trimmed;
+  }
+}
@@ -16,6 +16,10 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.Cd;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import com.expositura.parser.ccd.util.StringInterner;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -37,49 +41,49 @@ public class CdParser {
       // nullFlavor
       final Node nullFlavor = attributes.getNamedItem("nullFlavor");
       if (nullFlavor != null) {
-        cd.setNullFlavor(nullFlavor.getNodeValue());
+        cd.setNullFlavor(StringInterner.intern(nullFlavor.getNodeValue()));
       }
       
       // code
       final Node code = attributes.getNamedItem("code");
       if (code != null) {
-        cd.setCode(code.getNodeValue());
+        cd.setCode(StringInterner.intern(code.getNodeValue()));
       }
       
       // codeSystem
       final Node codeSystem = attributes.getNamedItem("codeSystem");
       if (codeSystem != null) {
-        cd.setCodeSystem(codeSystem.getNodeValue());
+        cd.setCodeSystem(StringInterner.intern(codeSystem.getNodeValue()));
       }
       
       // codeSystemName
       final Node codeSystemName = attributes.getNamedItem("codeSystemName");
       if (codeSystemName != null) {
-        cd.setCodeSystemName(codeSystemName.getNodeValue());
+        cd.setCodeSystemName(StringInterner.intern(codeSystemName.getNodeValue()));
       }
       
       // codeSystemVersion
       final Node codeSystemVersion = attributes.getNamedItem("codeSystemVersion");
       if (codeSystemVersion != null) {
-        cd.setCodeSystemVersion(codeSystemVersion.getNodeValue());
+        cd.setCodeSystemVersion(StringInterner.intern(codeSystemVersion.getNodeValue()));
       }
       
       // displayName
       final Node displayName = attributes.getNamedItem("displayName");
       if (displayName != null) {
-        cd.setDisplayName(displayName.getNodeValue());
+        cd.setDisplayName(StringInterner.intern(displayName.getNodeValue()));
       }
       
       // sdtcValueSet
       final Node valueSet = attributes.getNamedItemNS("urn:hl7-org:sdtc","valueSet");
       if (valueSet != null) {
-        cd.setValueSet(valueSet.getNodeValue());
+        cd.setValueSet(StringInterner.intern(valueSet.getNodeValue()));
       }
       
       // valueSetVersion
       final Node valueSetVersion = attributes.getNamedItemNS("urn:hl7-org:sdtc","valueSetVersion");
       if (valueSetVersion != null) {
-        cd.setValueSetVersion(valueSetVersion.getNodeValue());
+        cd.setValueSetVersion(StringInterner.intern(valueSetVersion.getNodeValue()));
       }
     }
     
@@ -91,10 +95,82 @@ public class CdParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|originalText" -> cd.setOriginalText(EdParser.fromXml(child));
-          case "urn:hl7-org:v3|qualifier" -> cd.addQualifier(CrParser.fromXml(child));
-          case "urn:hl7-org:v3|translation" -> cd.addTranslation(CdParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case ORIGINAL_TEXT -> cd.setOriginalText(EdParser.fromXml(child));
+          case QUALIFIER -> cd.addQualifier(CrParser.fromXml(child));
+          case TRANSLATION -> cd.addTranslation(CdParser.fromXml(child));
+        }
+      }
+    }
+    
+    return Cd.isEmpty(cd) ? null : cd;
+  }
+
+  public static Cd fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Cd cd = new Cd();
+    
+    // Start by getting the attributes
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        cd.setNullFlavor(StringInterner.intern(nullFlavor));
+      }
+      
+      // code
+      final String code = reader.getAttributeValue("code");
+      if (code != null) {
+        cd.setCode(StringInterner.intern(code));
+      }
+      
+      // codeSystem
+      final String codeSystem = reader.getAttributeValue("codeSystem");
+      if (codeSystem != null) {
+        cd.setCodeSystem(StringInterner.intern(codeSystem));
+      }
+      
+      // codeSystemName
+      final String codeSystemName = reader.getAttributeValue("codeSystemName");
+      if (codeSystemName != null) {
+        cd.setCodeSystemName(StringInterner.intern(codeSystemName));
+      }
+      
+      // codeSystemVersion
+      final String codeSystemVersion = reader.getAttributeValue("codeSystemVersion");
+      if (codeSystemVersion != null) {
+        cd.setCodeSystemVersion(StringInterner.intern(codeSystemVersion));
+      }
+      
+      // displayName
+      final String displayName = reader.getAttributeValue("displayName");
+      if (displayName != null) {
+        cd.setDisplayName(StringInterner.intern(displayName));
+      }
+      
+      // sdtcValueSet
+      final String valueSet = reader.getAttributeValue("urn:hl7-org:sdtc", "valueSet");
+      if (valueSet != null) {
+        cd.setValueSet(StringInterner.intern(valueSet));
+      }
+      
+      // valueSetVersion
+      final String valueSetVersion = reader.getAttributeValue("urn:hl7-org:sdtc", "valueSetVersion");
+      if (valueSetVersion != null) {
+        cd.setValueSetVersion(StringInterner.intern(valueSetVersion));
+      }
+    }
+    
+    // Now work thru children
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case ORIGINAL_TEXT -> cd.setOriginalText(EdParser.fromXml(reader));
+          case QUALIFIER -> cd.addQualifier(CrParser.fromXml(reader));
+          case TRANSLATION -> cd.addTranslation(CdParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
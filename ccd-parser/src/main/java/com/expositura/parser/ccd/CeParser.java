@@ -16,6 +16,10 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.Ce;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import com.expositura.parser.ccd.util.StringInterner;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -37,49 +41,49 @@ public class CeParser {
       // nullFlavor
       final Node nullFlavor = attributes.getNamedItem("nullFlavor");
       if (nullFlavor != null) {
-        ce.setNullFlavor(nullFlavor.getNodeValue());
+        ce.setNullFlavor(StringInterner.intern(nullFlavor.getNodeValue()));
       }
       
       // code
       final Node code = attributes.getNamedItem("code");
       if (code != null) {
-        ce.setCode(code.getNodeValue());
+        ce.setCode(StringInterner.intern(code.getNodeValue()));
       }
       
       // codeSystem
       final Node codeSystem = attributes.getNamedItem("codeSystem");
       if (codeSystem != null) {
-        ce.setCodeSystem(codeSystem.getNodeValue());
+        ce.setCodeSystem(StringInterner.intern(codeSystem.getNodeValue()));
       }
       
       // codeSystemName
       final Node codeSystemName = attributes.getNamedItem("codeSystemName");
       if (codeSystemName != null) {
-        ce.setCodeSystemName(codeSystemName.getNodeValue());
+        ce.setCodeSystemName(StringInterner.intern(codeSystemName.getNodeValue()));
       }
       
       // codeSystemVersion
       final Node codeSystemVersion = attributes.getNamedItem("codeSystemVersion");
       if (codeSystemVersion != null) {
-        ce.setCodeSystemVersion(codeSystemVersion.getNodeValue());
+        ce.setCodeSystemVersion(StringInterner.intern(codeSystemVersion.getNodeValue()));
       }
       
       // displayName
       final Node displayName = attributes.getNamedItem("displayName");
       if (displayName != null) {
-        ce.setDisplayName(displayName.getNodeValue());
+        ce.setDisplayName(StringInterner.intern(displayName.getNodeValue()));
       }
       
       // sdtcValueSet
       final Node valueSet = attributes.getNamedItemNS("urn:hl7-org:sdtc","valueSet");
       if (valueSet != null) {
-        ce.setValueSet(valueSet.getNodeValue());
+        ce.setValueSet(StringInterner.intern(valueSet.getNodeValue()));
       }
       
       // sdtcValueSetVersion
       final Node valueSetVersion = attributes.getNamedItemNS("urn:hl7-org:sdtc","valueSetVersion");
       if (valueSetVersion != null) {
-        ce.setValueSetVersion(valueSetVersion.getNodeValue());
+        ce.setValueSetVersion(StringInterner.intern(valueSetVersion.getNodeValue()));
       }
     }
     
@@ -91,14 +95,85 @@ public class CeParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|originalText" -> ce.setOriginalText(EdParser.fromXml(child));
-          case "urn:hl7-org:v3|translation" -> ce.addTranslation(CdParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case ORIGINAL_TEXT -> ce.setOriginalText(EdParser.fromXml(child));
+          case TRANSLATION -> ce.addTranslation(CdParser.fromXml(child));
         }
       }
     }
     
-    return Ce.isEmpty(ce) ? null : ce;
+    return Ce.isEmpty(ce) ? null : CcdFlyweights.share(ce);
+  }
+
+  public static Ce fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Ce ce = new Ce();
+    
+    // Start by getting the attributes
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        ce.setNullFlavor(StringInterner.intern(nullFlavor));
+      }
+      
+      // code
+      final String code = reader.getAttributeValue("code");
+      if (code != null) {
+        ce.setCode(StringInterner.intern(code));
+      }
+      
+      // codeSystem
+      final String codeSystem = reader.getAttributeValue("codeSystem");
+      if (codeSystem != null) {
+        ce.setCodeSystem(StringInterner.intern(codeSystem));
+      }
+      
+      // codeSystemName
+      final String codeSystemName = reader.getAttributeValue("codeSystemName");
+      if (codeSystemName != null) {
+        ce.setCodeSystemName(StringInterner.intern(codeSystemName));
+      }
+      
+      // codeSystemVersion
+      final String codeSystemVersion = reader.getAttributeValue("codeSystemVersion");
+      if (codeSystemVersion != null) {
+        ce.setCodeSystemVersion(StringInterner.intern(codeSystemVersion));
+      }
+      
+      // displayName
+      final String displayName = reader.getAttributeValue("displayName");
+      if (displayName != null) {
+        ce.setDisplayName(StringInterner.intern(displayName));
+      }
+      
+      // sdtcValueSet
+      final String valueSet = reader.getAttributeValue("urn:hl7-org:sdtc", "valueSet");
+      if (valueSet != null) {
+        ce.setValueSet(StringInterner.intern(valueSet));
+      }
+      
+      // sdtcValueSetVersion
+      final String valueSetVersion = reader.getAttributeValue("urn:hl7-org:sdtc", "valueSetVersion");
+      if (valueSetVersion != null) {
+        ce.setValueSetVersion(StringInterner.intern(valueSetVersion));
+      }
+    }
+    
+    // Now work thru children
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case ORIGINAL_TEXT -> ce.setOriginalText(EdParser.fromXml(reader));
+          case TRANSLATION -> ce.addTranslation(CdParser.fromXml(reader));
+          default -> reader.skipElement();
+        }
+      }
+    }
+    
+    return Ce.isEmpty(ce) ? null : CcdFlyweights.share(ce);
   }
           
 }
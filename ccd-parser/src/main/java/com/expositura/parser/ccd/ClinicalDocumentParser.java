@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.ClinicalDocument;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -60,35 +63,102 @@ public class ClinicalDocumentParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> ccd.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> ccd.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> ccd.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|id" -> ccd.setId(IiParser.fromXml(child));
-          case "urn:hl7-org:sdtc|category" -> ccd.addCategory(CdParser.fromXml(child));
-          case "urn:hl7-org:v3|code" -> ccd.setCode(CeParser.fromXml(child));
-          case "urn:hl7-org:v3|title" -> ccd.setTitle(StParser.fromXml(child));
-          case "urn:hl7-org:sdtc|statusCode" -> ccd.setStatusCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|effectiveTime" -> ccd.setEffectiveTime(TsParser.fromXml(child));
-          case "urn:hl7-org:v3|confidentialityCode" -> ccd.setConfidentialityCode(CeParser.fromXml(child));
-          case "urn:hl7-org:v3|languageCode" -> ccd.setLanguageCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|setId" -> ccd.setSettId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|versionNumber" -> ccd.setVersionNumber(IntParser.fromXml(child));
-          case "urn:hl7-org:v3|copyTime" -> ccd.setCopyTime(TsParser.fromXml(child));
-          case "urn:hl7-org:v3|recordTarget" -> ccd.addRecordTarget(RecordTargetParser.fromXml(child));
-          case "urn:hl7-org:v3|author" -> ccd.addAuthor(AuthorParser.fromXml(child));
-          case "urn:hl7-org:v3|dataEnterer" -> ccd.setDataEnterer(DataEntererParser.fromXml(child));
-          case "urn:hl7-org:v3|informant" -> ccd.addInformant(InformantParser.fromXml(child));
-          case "urn:hl7-org:v3|custodian" -> ccd.setCustodian(CustodianParser.fromXml(child));
-          case "urn:hl7-org:v3|informationRecipient" -> ccd.addInformationRecipient(InformationRecipientParser.fromXml(child));
-          case "urn:hl7-org:v3|legalAuthenticator" -> ccd.setLegalAuthenticator(LegalAuthenticatorParser.fromXml(child));
-          case "urn:hl7-org:v3|authenticator" -> ccd.addAuthenticator(AuthenticatorParser.fromXml(child));
-          case "urn:hl7-org:v3|participant" -> ccd.addParticipant(Participant1Parser.fromXml(child));
-          case "urn:hl7-org:v3|inFulfillmentOf" -> ccd.addInFulfillmentOf(InFulfillmentOfParser.fromXml(child));
-          case "urn:hl7-org:v3|documentationOf" -> ccd.addDocumentationOf(DocumentationOfParser.fromXml(child));
-          case "urn:hl7-org:v3|relatedDocument" -> ccd.addRelatedDocument(RelatedDocumentParser.fromXml(child));
-          case "urn:hl7-org:v3|authorization" -> ccd.addAuthorization(AuthorizationParser.fromXml(child));
-          case "urn:hl7-org:v3|componentOf" -> ccd.setComponentOf(ComponentOfParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> ccd.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> ccd.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> ccd.addTemplateId(IiParser.fromXml(child));
+          case ID -> ccd.setId(IiParser.fromXml(child));
+          case SDTC_CATEGORY -> ccd.addCategory(CdParser.fromXml(child));
+          case CODE -> ccd.setCode(CeParser.fromXml(child));
+          case TITLE -> ccd.setTitle(StParser.fromXml(child));
+          case SDTC_STATUS_CODE -> ccd.setStatusCode(CsParser.fromXml(child));
+          case EFFECTIVE_TIME -> ccd.setEffectiveTime(TsParser.fromXml(child));
+          case CONFIDENTIALITY_CODE -> ccd.setConfidentialityCode(CeParser.fromXml(child));
+          case LANGUAGE_CODE -> ccd.setLanguageCode(CsParser.fromXml(child));
+          case SET_ID -> ccd.setSettId(IiParser.fromXml(child));
+          case VERSION_NUMBER -> ccd.setVersionNumber(IntParser.fromXml(child));
+          case COPY_TIME -> ccd.setCopyTime(TsParser.fromXml(child));
+          case RECORD_TARGET -> ccd.addRecordTarget(RecordTargetParser.fromXml(child));
+          case AUTHOR -> ccd.addAuthor(AuthorParser.fromXml(child));
+          case DATA_ENTERER -> ccd.setDataEnterer(DataEntererParser.fromXml(child));
+          case INFORMANT -> ccd.addInformant(InformantParser.fromXml(child));
+          case CUSTODIAN -> ccd.setCustodian(CustodianParser.fromXml(child));
+          case INFORMATION_RECIPIENT -> ccd.addInformationRecipient(InformationRecipientParser.fromXml(child));
+          case LEGAL_AUTHENTICATOR -> ccd.setLegalAuthenticator(LegalAuthenticatorParser.fromXml(child));
+          case AUTHENTICATOR -> ccd.addAuthenticator(AuthenticatorParser.fromXml(child));
+          case PARTICIPANT -> ccd.addParticipant(Participant1Parser.fromXml(child));
+          case IN_FULFILLMENT_OF -> ccd.addInFulfillmentOf(InFulfillmentOfParser.fromXml(child));
+          case DOCUMENTATION_OF -> ccd.addDocumentationOf(DocumentationOfParser.fromXml(child));
+          case RELATED_DOCUMENT -> ccd.addRelatedDocument(RelatedDocumentParser.fromXml(child));
+          case AUTHORIZATION -> ccd.addAuthorization(AuthorizationParser.fromXml(child));
+          case COMPONENT_OF -> ccd.setComponentOf(ComponentOfParser.fromXml(child));
+        }
+      }
+    }
+    
+    return ClinicalDocument.isEmpty(ccd) ? null : ccd;
+  }
+
+  public static ClinicalDocument fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final ClinicalDocument ccd = new ClinicalDocument();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        ccd.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        ccd.setClassCode(classCode);
+      }
+      
+      // moodCode
+      final String moodCode = reader.getAttributeValue("moodCode");
+      if (moodCode != null) {
+        ccd.setMoodCode(moodCode);
+      }
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> ccd.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> ccd.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> ccd.addTemplateId(IiParser.fromXml(reader));
+          case ID -> ccd.setId(IiParser.fromXml(reader));
+          case SDTC_CATEGORY -> ccd.addCategory(CdParser.fromXml(reader));
+          case CODE -> ccd.setCode(CeParser.fromXml(reader));
+          case TITLE -> ccd.setTitle(StParser.fromXml(reader));
+          case SDTC_STATUS_CODE -> ccd.setStatusCode(CsParser.fromXml(reader));
+          case EFFECTIVE_TIME -> ccd.setEffectiveTime(TsParser.fromXml(reader));
+          case CONFIDENTIALITY_CODE -> ccd.setConfidentialityCode(CeParser.fromXml(reader));
+          case LANGUAGE_CODE -> ccd.setLanguageCode(CsParser.fromXml(reader));
+          case SET_ID -> ccd.setSettId(IiParser.fromXml(reader));
+          case VERSION_NUMBER -> ccd.setVersionNumber(IntParser.fromXml(reader));
+          case COPY_TIME -> ccd.setCopyTime(TsParser.fromXml(reader));
+          case RECORD_TARGET -> ccd.addRecordTarget(RecordTargetParser.fromXml(reader));
+          case AUTHOR -> ccd.addAuthor(AuthorParser.fromXml(reader));
+          case DATA_ENTERER -> ccd.setDataEnterer(DataEntererParser.fromXml(reader));
+          case INFORMANT -> ccd.addInformant(InformantParser.fromXml(reader));
+          case CUSTODIAN -> ccd.setCustodian(CustodianParser.fromXml(reader));
+          case INFORMATION_RECIPIENT -> ccd.addInformationRecipient(InformationRecipientParser.fromXml(reader));
+          case LEGAL_AUTHENTICATOR -> ccd.setLegalAuthenticator(LegalAuthenticatorParser.fromXml(reader));
+          case AUTHENTICATOR -> ccd.addAuthenticator(AuthenticatorParser.fromXml(reader));
+          case PARTICIPANT -> ccd.addParticipant(Participant1Parser.fromXml(reader));
+          case IN_FULFILLMENT_OF -> ccd.addInFulfillmentOf(InFulfillmentOfParser.fromXml(reader));
+          case DOCUMENTATION_OF -> ccd.addDocumentationOf(DocumentationOfParser.fromXml(reader));
+          case RELATED_DOCUMENT -> ccd.addRelatedDocument(RelatedDocumentParser.fromXml(reader));
+          case AUTHORIZATION -> ccd.addAuthorization(AuthorizationParser.fromXml(reader));
+          case COMPONENT_OF -> ccd.setComponentOf(ComponentOfParser.fromXml(reader));
+          case COMPONENT -> ccd.setComponent(Component2Parser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
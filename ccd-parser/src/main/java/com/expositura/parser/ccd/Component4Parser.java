@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd;
+
+import com.expositura.model.ccd.Component4;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Parses the Component4 XML element to the java object. The clinical body is only read by the streaming parser
+ * 
+ * @author Sean Smith
+ */
+public class Component4Parser {
+  
+  public static Component4 fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Component4 component4 = new Component4();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        component4.setNullFlavor(nullFlavor);
+      }
+      
+      // typeCode
+      final String typeCode = reader.getAttributeValue("typeCode");
+      if (typeCode != null) {
+        component4.setTypeCode(typeCode);
+      }
+      
+      // contextConductionInd
+      final String contextConductionInd = reader.getAttributeValue("contextConductionInd");
+      if (contextConductionInd != null) {
+        component4.setContextConductionInd(Boolean.valueOf(contextConductionInd));
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> component4.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> component4.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> component4.addTemplateId(IiParser.fromXml(reader));
+          case SEQUENCE_NUMBER -> component4.setSequenceNumber(IntParser.fromXml(reader));
+          case SEPERATABLE_IND -> component4.setSeperatableInd(BlParser.fromXml(reader));
+          case ACT -> component4.setAct(ActParser.fromXml(reader));
+          case ENCOUNTER -> component4.setEncounter(EncounterParser.fromXml(reader));
+          case OBSERVATION -> component4.setObservation(ObservationParser.fromXml(reader));
+          case ORGANIZER -> component4.setOrganizer(OrganizerParser.fromXml(reader));
+          case PROCEDURE -> component4.setProcedure(ProcedureParser.fromXml(reader));
+          case SUBSTANCE_ADMINISTRATION -> component4.setSubstanceAdministration(SubstanceAdministrationParser.fromXml(reader));
+          case SUPPLY -> component4.setSupply(SupplyParser.fromXml(reader));
+          default -> reader.skipElement();
+        }
+      }
+    }
+    
+    return Component4.isEmpty(component4) ? null : component4;
+  }
+          
+}
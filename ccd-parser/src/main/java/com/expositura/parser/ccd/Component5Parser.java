@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd;
+
+import com.expositura.model.ccd.Component5;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Parses the Component5 XML element to the java object. The clinical body is only read by the streaming parser
+ * 
+ * @author Sean Smith
+ */
+public class Component5Parser {
+  
+  public static Component5 fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Component5 component5 = new Component5();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        component5.setNullFlavor(nullFlavor);
+      }
+      
+      // typeCode
+      final String typeCode = reader.getAttributeValue("typeCode");
+      if (typeCode != null) {
+        component5.setTypeCode(typeCode);
+      }
+      
+      // contextConductionInd
+      final String contextConductionInd = reader.getAttributeValue("contextConductionInd");
+      if (contextConductionInd != null) {
+        component5.setContextConductionInd(Boolean.valueOf(contextConductionInd));
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> component5.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> component5.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> component5.addTemplateId(IiParser.fromXml(reader));
+          case SECTION -> component5.setSection(SectionParser.fromXml(reader));
+          default -> reader.skipElement();
+        }
+      }
+    }
+    
+    return Component5.isEmpty(component5) ? null : component5;
+  }
+          
+}
@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.ComponentOf;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -55,11 +58,48 @@ public class ComponentOfParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> componentOf.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> componentOf.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> componentOf.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|encompassingEncounter" -> componentOf.setEncompassingEncounter(EncompassingEncounterParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> componentOf.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> componentOf.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> componentOf.addTemplateId(IiParser.fromXml(child));
+          case ENCOMPASSING_ENCOUNTER -> componentOf.setEncompassingEncounter(EncompassingEncounterParser.fromXml(child));
+        }
+      }
+    }
+    
+    return ComponentOf.isEmpty(componentOf) ? null : componentOf;
+  }
+
+  public static ComponentOf fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final ComponentOf componentOf = new ComponentOf();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        componentOf.setNullFlavor(nullFlavor);
+      }
+      
+      // typeCode
+      final String typeCode = reader.getAttributeValue("typeCode");
+      if (typeCode != null) {
+        componentOf.setTypeCode(typeCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> componentOf.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> componentOf.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> componentOf.addTemplateId(IiParser.fromXml(reader));
+          case ENCOMPASSING_ENCOUNTER -> componentOf.setEncompassingEncounter(EncompassingEncounterParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.Consent;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -61,13 +64,58 @@ public class ConsentParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> consent.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> consent.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> consent.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|id" -> consent.addId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|code" -> consent.setCode(CeParser.fromXml(child));
-          case "urn:hl7-org:v3|statusCode" -> consent.setStatusCode(CsParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> consent.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> consent.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> consent.addTemplateId(IiParser.fromXml(child));
+          case ID -> consent.addId(IiParser.fromXml(child));
+          case CODE -> consent.setCode(CeParser.fromXml(child));
+          case STATUS_CODE -> consent.setStatusCode(CsParser.fromXml(child));
+        }
+      }
+    }
+    
+    return Consent.isEmpty(consent) ? null : consent;
+  }
+
+  public static Consent fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Consent consent = new Consent();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        consent.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        consent.setClassCode(classCode);
+      }
+      
+      // moodCode
+      final String moodCode = reader.getAttributeValue("moodCode");
+      if (moodCode != null) {
+        consent.setMoodCode(moodCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> consent.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> consent.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> consent.addTemplateId(IiParser.fromXml(reader));
+          case ID -> consent.addId(IiParser.fromXml(reader));
+          case CODE -> consent.setCode(CeParser.fromXml(reader));
+          case STATUS_CODE -> consent.setStatusCode(CsParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
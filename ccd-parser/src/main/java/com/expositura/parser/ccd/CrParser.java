@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.Cr;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -56,9 +59,45 @@ public class CrParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|name" -> cr.setName(CvParser.fromXml(child));
-          case "urn:hl7-org:v3|value" -> cr.setValue(CdParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case NAME -> cr.setName(CvParser.fromXml(child));
+          case VALUE -> cr.setValue(CdParser.fromXml(child));
+        }
+      }
+    }
+    
+    return Cr.isEmpty(cr) ? null : cr;
+  }
+
+  public static Cr fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Cr cr = new Cr();
+    
+    // Start by getting the attributes
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        cr.setNullFlavor(nullFlavor);
+      }
+      
+      // inverted
+      final String inverted = reader.getAttributeValue("inverted");
+      if (inverted != null) {
+        cr.setInverted(Boolean.valueOf(inverted));
+      }
+      
+    }
+    
+    // Now work thru children
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case NAME -> cr.setName(CvParser.fromXml(reader));
+          case VALUE -> cr.setValue(CdParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.Cs;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import com.expositura.parser.ccd.util.StringInterner;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 
@@ -36,29 +39,66 @@ public class CsParser {
       // nullFlavor
       final Node nullFlavor = attributes.getNamedItem("nullFlavor");
       if (nullFlavor != null) {
-        cs.setNullFlavor(nullFlavor.getNodeValue());
+        cs.setNullFlavor(StringInterner.intern(nullFlavor.getNodeValue()));
       }
       
       // code
       final Node code = attributes.getNamedItem("code");
       if (code != null) {
-        cs.setCode(code.getNodeValue());
+        cs.setCode(StringInterner.intern(code.getNodeValue()));
       }
       
       // sdtcValueSet
       final Node valueSet = attributes.getNamedItemNS("urn:hl7-org:sdtc","valueSet");
       if (valueSet != null) {
-        cs.setValueSet(valueSet.getNodeValue());
+        cs.setValueSet(StringInterner.intern(valueSet.getNodeValue()));
       }
       
       // sdtcValueSetVersion
       final Node valueSetVersion = attributes.getNamedItemNS("urn:hl7-org:sdtc","valueSetVersion");
       if (valueSetVersion != null) {
-        cs.setValueSetVersion(valueSetVersion.getNodeValue());
+        cs.setValueSetVersion(StringInterner.intern(valueSetVersion.getNodeValue()));
       }
     }
     
-    return Cs.isEmpty(cs) ? null : cs;
+    return Cs.isEmpty(cs) ? null : CcdFlyweights.share(cs);
+  }
+
+  public static Cs fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Cs cs = new Cs();
+    
+    // All CS has is attributes
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        cs.setNullFlavor(StringInterner.intern(nullFlavor));
+      }
+      
+      // code
+      final String code = reader.getAttributeValue("code");
+      if (code != null) {
+        cs.setCode(StringInterner.intern(code));
+      }
+      
+      // sdtcValueSet
+      final String valueSet = reader.getAttributeValue("urn:hl7-org:sdtc", "valueSet");
+      if (valueSet != null) {
+        cs.setValueSet(StringInterner.intern(valueSet));
+      }
+      
+      // sdtcValueSetVersion
+      final String valueSetVersion = reader.getAttributeValue("urn:hl7-org:sdtc", "valueSetVersion");
+      if (valueSetVersion != null) {
+        cs.setValueSetVersion(StringInterner.intern(valueSetVersion));
+      }
+    }
+    
+    // Not expecting any child elements
+    reader.skipElement();
+    
+    return Cs.isEmpty(cs) ? null : CcdFlyweights.share(cs);
   }
           
 }
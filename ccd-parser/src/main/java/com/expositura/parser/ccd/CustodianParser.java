@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.Custodian;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -55,11 +58,48 @@ public class CustodianParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> custodian.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> custodian.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> custodian.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|assignedCustodian" -> custodian.setAssignedCustodian(AssignedCustodianParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> custodian.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> custodian.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> custodian.addTemplateId(IiParser.fromXml(child));
+          case ASSIGNED_CUSTODIAN -> custodian.setAssignedCustodian(AssignedCustodianParser.fromXml(child));
+        }
+      }
+    }
+    
+    return Custodian.isEmpty(custodian) ? null : custodian;
+  }
+
+  public static Custodian fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Custodian custodian = new Custodian();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        custodian.setNullFlavor(nullFlavor);
+      }
+      
+      // typeCode
+      final String typeCode = reader.getAttributeValue("typeCode");
+      if (typeCode != null) {
+        custodian.setTypeCode(typeCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> custodian.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> custodian.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> custodian.addTemplateId(IiParser.fromXml(reader));
+          case ASSIGNED_CUSTODIAN -> custodian.setAssignedCustodian(AssignedCustodianParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.Cv;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -91,8 +94,78 @@ public class CvParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|originalText" -> cv.setOriginalText(EdParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case ORIGINAL_TEXT -> cv.setOriginalText(EdParser.fromXml(child));
+        }
+      }
+    }
+    
+    return Cv.isEmpty(cv) ? null : cv;
+  }
+
+  public static Cv fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Cv cv = new Cv();
+    
+    // Start by getting the attributes
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        cv.setNullFlavor(nullFlavor);
+      }
+      
+      // code
+      final String code = reader.getAttributeValue("code");
+      if (code != null) {
+        cv.setCode(code);
+      }
+      
+      // codeSystem
+      final String codeSystem = reader.getAttributeValue("codeSystem");
+      if (codeSystem != null) {
+        cv.setCodeSystem(codeSystem);
+      }
+      
+      // codeSystemName
+      final String codeSystemName = reader.getAttributeValue("codeSystemName");
+      if (codeSystemName != null) {
+        cv.setCodeSystemName(codeSystemName);
+      }
+      
+      // codeSystemVersion
+      final String codeSystemVersion = reader.getAttributeValue("codeSystemVersion");
+      if (codeSystemVersion != null) {
+        cv.setCodeSystemVersion(codeSystemVersion);
+      }
+      
+      // displayName
+      final String displayName = reader.getAttributeValue("displayName");
+      if (displayName != null) {
+        cv.setDisplayName(displayName);
+      }
+      
+      // sdtcValueSet
+      final String valueSet = reader.getAttributeValue("urn:hl7-org:sdtc", "valueSet");
+      if (valueSet != null) {
+        cv.setValueSet(valueSet);
+      }
+      
+      // sdtcValueSetVersion
+      final String valueSetVersion = reader.getAttributeValue("urn:hl7-org:sdtc", "valueSetVersion");
+      if (valueSetVersion != null) {
+        cv.setValueSetVersion(valueSetVersion);
+      }
+    }
+    
+    // Now work thru children
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case ORIGINAL_TEXT -> cv.setOriginalText(EdParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.DataEnterer;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -61,12 +64,56 @@ public class DataEntererParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> dataEnterer.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> dataEnterer.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> dataEnterer.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|time" -> dataEnterer.setTime(TsParser.fromXml(child));
-          case "urn:hl7-org:v3|assignedEntity" -> dataEnterer.setAssignedEntity(AssignedEntityParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> dataEnterer.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> dataEnterer.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> dataEnterer.addTemplateId(IiParser.fromXml(child));
+          case TIME -> dataEnterer.setTime(TsParser.fromXml(child));
+          case ASSIGNED_ENTITY -> dataEnterer.setAssignedEntity(AssignedEntityParser.fromXml(child));
+        }
+      }
+    }
+    
+    return DataEnterer.isEmpty(dataEnterer) ? null : dataEnterer;
+  }
+
+  public static DataEnterer fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final DataEnterer dataEnterer = new DataEnterer();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        dataEnterer.setNullFlavor(nullFlavor);
+      }
+      
+      // typeCode
+      final String typeCode = reader.getAttributeValue("typeCode");
+      if (typeCode != null) {
+        dataEnterer.setTypeCode(typeCode);
+      }
+      
+      // contextControlCode
+      final String contextControlCode = reader.getAttributeValue("contextControlCode");
+      if (contextControlCode != null) {
+        dataEnterer.setContextControlCode(contextControlCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> dataEnterer.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> dataEnterer.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> dataEnterer.addTemplateId(IiParser.fromXml(reader));
+          case TIME -> dataEnterer.setTime(TsParser.fromXml(reader));
+          case ASSIGNED_ENTITY -> dataEnterer.setAssignedEntity(AssignedEntityParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
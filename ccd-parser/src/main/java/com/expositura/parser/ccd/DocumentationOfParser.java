@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.DocumentationOf;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -55,11 +58,48 @@ public class DocumentationOfParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> documentationOf.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> documentationOf.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> documentationOf.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|serviceEvent" -> documentationOf.setServiceEvent(ServiceEventParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> documentationOf.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> documentationOf.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> documentationOf.addTemplateId(IiParser.fromXml(child));
+          case SERVICE_EVENT -> documentationOf.setServiceEvent(ServiceEventParser.fromXml(child));
+        }
+      }
+    }
+    
+    return DocumentationOf.isEmpty(documentationOf) ? null : documentationOf;
+  }
+
+  public static DocumentationOf fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final DocumentationOf documentationOf = new DocumentationOf();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        documentationOf.setNullFlavor(nullFlavor);
+      }
+      
+      // typeCode
+      final String typeCode = reader.getAttributeValue("typeCode");
+      if (typeCode != null) {
+        documentationOf.setTypeCode(typeCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> documentationOf.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> documentationOf.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> documentationOf.addTemplateId(IiParser.fromXml(reader));
+          case SERVICE_EVENT -> documentationOf.setServiceEvent(ServiceEventParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
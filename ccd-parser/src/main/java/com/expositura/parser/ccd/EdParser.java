@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.Ed;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -86,9 +89,9 @@ public class EdParser {
       
       // This element may have text content (base64 string)
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|reference" -> ed.setReference(TelParser.fromXml(child));
-          case "urn:hl7-org:v3|thumbnail" -> ed.setThumbnail(EdParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REFERENCE -> ed.setReference(TelParser.fromXml(child));
+          case THUMBNAIL -> ed.setThumbnail(EdParser.fromXml(child));
         }
       } else {
         ed.setXmlText(child.getNodeValue());
@@ -97,5 +100,73 @@ public class EdParser {
     
     return Ed.isEmpty(ed) ? null : ed;
   }
+
+  public static Ed fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Ed ed = new Ed();
+    
+    // Start by getting the attributes
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        ed.setNullFlavor(nullFlavor);
+      }
+      
+      // compression
+      final String compression = reader.getAttributeValue("compression");
+      if (compression != null) {
+        ed.setCompression(compression);
+      }
+      
+      // integrityCheck
+      final String integrityCheck = reader.getAttributeValue("integrityCheck");
+      if (integrityCheck != null) {
+        ed.setIntegrityCheck(integrityCheck);
+      }
+      
+      // integrityCheckAlgorithm
+      final String integrityCheckAlgorithm = reader.getAttributeValue("integrityCheckAlgorithm");
+      if (integrityCheckAlgorithm != null) {
+        ed.setIntegrityCheckAlgorithm(integrityCheckAlgorithm);
+      }
+      
+      // language
+      final String language = reader.getAttributeValue("language");
+      if (language != null) {
+        ed.setLanguage(language);
+      }
+      
+      // mediaType
+      final String mediaType = reader.getAttributeValue("mediaType");
+      if (mediaType != null) {
+        ed.setMediaType(mediaType);
+      }
+      
+      // representation
+      final String representation = reader.getAttributeValue("representation");
+      if (representation != null) {
+        ed.setRepresentation(representation);
+      }
+      
+    }
+    
+    // Now work thru children
+    while (reader.nextChild()) {
+      
+      // This element may have text content (base64 string)
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REFERENCE -> ed.setReference(TelParser.fromXml(reader));
+          case THUMBNAIL -> ed.setThumbnail(EdParser.fromXml(reader));
+          default -> reader.skipElement();
+        }
+      } else {
+        ed.setXmlText(reader.getText());
+      }
+    }
+    
+    return Ed.isEmpty(ed) ? null : ed;
+  }
           
 }
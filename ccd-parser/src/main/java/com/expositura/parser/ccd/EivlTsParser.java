@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.EivlTs;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -56,9 +59,45 @@ public class EivlTsParser {
       
       // This element may have text content (base64 string)
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|event" -> eivlTs.setEvent(CeParser.fromXml(child));
-          case "urn:hl7-org:v3|offset" -> eivlTs.setOffset(IvlPqParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case EVENT -> eivlTs.setEvent(CeParser.fromXml(child));
+          case OFFSET -> eivlTs.setOffset(IvlPqParser.fromXml(child));
+        }
+      } 
+    }
+    
+    return EivlTs.isEmpty(eivlTs) ? null : eivlTs;
+  }
+
+  public static EivlTs fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final EivlTs eivlTs = new EivlTs();
+    
+    // Start by getting the attributes
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        eivlTs.setNullFlavor(nullFlavor);
+      }
+      
+      // operator
+      final String operator = reader.getAttributeValue("operator");
+      if (operator != null) {
+        eivlTs.setOperator(operator);
+      }
+      
+    }
+    
+    // Now work thru children
+    while (reader.nextChild()) {
+      
+      // This element may have text content (base64 string)
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case EVENT -> eivlTs.setEvent(CeParser.fromXml(reader));
+          case OFFSET -> eivlTs.setOffset(IvlPqParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       } 
     }
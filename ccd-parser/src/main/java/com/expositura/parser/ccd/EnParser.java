@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.En;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.apache.commons.lang3.StringUtils;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
@@ -62,13 +65,13 @@ public class EnParser {
       
       // This datatype can have text which means it's just a string for the name
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|delimiter" -> en.addDelimiter(EnxpParser.fromXml(child));
-          case "urn:hl7-org:v3|family" -> en.addFamily(EnxpParser.fromXml(child));
-          case "urn:hl7-org:v3|given" -> en.addGiven(EnxpParser.fromXml(child));
-          case "urn:hl7-org:v3|prefix" -> en.addPrefix(EnxpParser.fromXml(child));
-          case "urn:hl7-org:v3|suffix" -> en.addSuffix(EnxpParser.fromXml(child));
-          case "urn:hl7-org:v3|validTime" -> en.setValidTime(IvlTsParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case DELIMITER -> en.addDelimiter(EnxpParser.fromXml(child));
+          case FAMILY -> en.addFamily(EnxpParser.fromXml(child));
+          case GIVEN -> en.addGiven(EnxpParser.fromXml(child));
+          case PREFIX -> en.addPrefix(EnxpParser.fromXml(child));
+          case SUFFIX -> en.addSuffix(EnxpParser.fromXml(child));
+          case VALID_TIME -> en.setValidTime(IvlTsParser.fromXml(child));
         }
       } else {
         en.setXmlText(child.getNodeValue());
@@ -77,5 +80,49 @@ public class EnParser {
     
     return En.isEmpty(en) ? null : en;
   }
+
+  public static En fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final En en = new En();
+    
+    // Start by getting the attributes
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        en.setNullFlavor(nullFlavor);
+      }
+      
+      // use (special case, use can have multiple values with space seperator
+      final String use = reader.getAttributeValue("use");
+      if (use != null) {
+        for (final String singleUse : StringUtils.split(use)) {
+          en.addUse(singleUse);
+        }
+      }
+      
+    }
+    
+    // Now work thru children
+    while (reader.nextChild()) {
+      
+      // This datatype can have text which means it's just a string for the name
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case DELIMITER -> en.addDelimiter(EnxpParser.fromXml(reader));
+          case FAMILY -> en.addFamily(EnxpParser.fromXml(reader));
+          case GIVEN -> en.addGiven(EnxpParser.fromXml(reader));
+          case PREFIX -> en.addPrefix(EnxpParser.fromXml(reader));
+          case SUFFIX -> en.addSuffix(EnxpParser.fromXml(reader));
+          case VALID_TIME -> en.setValidTime(IvlTsParser.fromXml(reader));
+          default -> reader.skipElement();
+        }
+      } else {
+        en.setXmlText(reader.getText());
+      }
+    }
+    
+    return En.isEmpty(en) ? null : en;
+  }
           
 }
@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.EncompassingEncounter;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -61,18 +64,68 @@ public class EncompassingEncounterParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> encompassingEncounter.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> encompassingEncounter.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> encompassingEncounter.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|id" -> encompassingEncounter.addId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|code" -> encompassingEncounter.setCode(CeParser.fromXml(child));
-          case "urn:hl7-org:v3|effectiveTime" -> encompassingEncounter.setEffectiveTime(IvlTsParser.fromXml(child));
-          case "urn:hl7-org:sdtc|admissionReferralSourceCode" -> encompassingEncounter.setAdmissionReferralSourceCode(CeParser.fromXml(child));
-          case "urn:hl7-org:v3|dischargeDispositionCode" -> encompassingEncounter.setDischargeDispositionCode(CeParser.fromXml(child));
-          case "urn:hl7-org:v3|responsibleParty" -> encompassingEncounter.setResponsibleParty(ResponsiblePartyParser.fromXml(child));
-          case "urn:hl7-org:v3|encounterParticipant" -> encompassingEncounter.addEncounterParticipant(EncounterParticipantParser.fromXml(child));
-          case "urn:hl7-org:v3|location" -> encompassingEncounter.setLocation(LocationParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> encompassingEncounter.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> encompassingEncounter.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> encompassingEncounter.addTemplateId(IiParser.fromXml(child));
+          case ID -> encompassingEncounter.addId(IiParser.fromXml(child));
+          case CODE -> encompassingEncounter.setCode(CeParser.fromXml(child));
+          case EFFECTIVE_TIME -> encompassingEncounter.setEffectiveTime(IvlTsParser.fromXml(child));
+          case SDTC_ADMISSION_REFERRAL_SOURCE_CODE -> encompassingEncounter.setAdmissionReferralSourceCode(CeParser.fromXml(child));
+          case DISCHARGE_DISPOSITION_CODE -> encompassingEncounter.setDischargeDispositionCode(CeParser.fromXml(child));
+          case RESPONSIBLE_PARTY -> encompassingEncounter.setResponsibleParty(ResponsiblePartyParser.fromXml(child));
+          case ENCOUNTER_PARTICIPANT -> encompassingEncounter.addEncounterParticipant(EncounterParticipantParser.fromXml(child));
+          case LOCATION -> encompassingEncounter.setLocation(LocationParser.fromXml(child));
+        }
+      }
+    }
+    
+    return EncompassingEncounter.isEmpty(encompassingEncounter) ? null : encompassingEncounter;
+  }
+
+  public static EncompassingEncounter fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final EncompassingEncounter encompassingEncounter = new EncompassingEncounter();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        encompassingEncounter.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        encompassingEncounter.setClassCode(classCode);
+      }
+      
+      // moodCode
+      final String moodCode = reader.getAttributeValue("moodCode");
+      if (moodCode != null) {
+        encompassingEncounter.setMoodCode(moodCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> encompassingEncounter.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> encompassingEncounter.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> encompassingEncounter.addTemplateId(IiParser.fromXml(reader));
+          case ID -> encompassingEncounter.addId(IiParser.fromXml(reader));
+          case CODE -> encompassingEncounter.setCode(CeParser.fromXml(reader));
+          case EFFECTIVE_TIME -> encompassingEncounter.setEffectiveTime(IvlTsParser.fromXml(reader));
+          case SDTC_ADMISSION_REFERRAL_SOURCE_CODE -> encompassingEncounter.setAdmissionReferralSourceCode(CeParser.fromXml(reader));
+          case DISCHARGE_DISPOSITION_CODE -> encompassingEncounter.setDischargeDispositionCode(CeParser.fromXml(reader));
+          case RESPONSIBLE_PARTY -> encompassingEncounter.setResponsibleParty(ResponsiblePartyParser.fromXml(reader));
+          case ENCOUNTER_PARTICIPANT -> encompassingEncounter.addEncounterParticipant(EncounterParticipantParser.fromXml(reader));
+          case LOCATION -> encompassingEncounter.setLocation(LocationParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd;
+
+import com.expositura.model.ccd.Encounter;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Parses the Encounter XML element to the java object. The clinical body is only read by the streaming parser
+ * 
+ * @author Sean Smith
+ */
+public class EncounterParser {
+  
+  public static Encounter fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Encounter encounter = new Encounter();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        encounter.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        encounter.setClassCode(classCode);
+      }
+      
+      // moodCode
+      final String moodCode = reader.getAttributeValue("moodCode");
+      if (moodCode != null) {
+        encounter.setMoodCode(moodCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> encounter.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> encounter.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> encounter.addTemplateId(IiParser.fromXml(reader));
+          case ID -> encounter.addId(IiParser.fromXml(reader));
+          case CODE -> encounter.setCode(CdParser.fromXml(reader));
+          case TEXT -> encounter.setText(EdParser.fromXml(reader));
+          case STATUS_CODE -> encounter.setStatusCode(CsParser.fromXml(reader));
+          case EFFECTIVE_TIME -> encounter.setEffectiveTime(IvlTsParser.fromXml(reader));
+          case PRIORITY_CODE -> encounter.setPriorityCode(CeParser.fromXml(reader));
+          case SPECIMEN -> encounter.addSpecimen(SpecimenParser.fromXml(reader));
+          case PERFORMER -> encounter.addPerformer(Performer2Parser.fromXml(reader));
+          case AUTHOR -> encounter.addAuthor(AuthorParser.fromXml(reader));
+          case INFORMANT -> encounter.addInformant(InformantParser.fromXml(reader));
+          case PARTICIPANT -> encounter.addParticipant(Participant2Parser.fromXml(reader));
+          case ENTRY_RELATIONSHIP -> encounter.addEntryRelationship(EntryRelationshipParser.fromXml(reader));
+          default -> reader.skipElement();
+        }
+      }
+    }
+    
+    return Encounter.isEmpty(encounter) ? null : encounter;
+  }
+          
+}
@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.EncounterParticipant;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -55,12 +58,50 @@ public class EncounterParticipantParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> encounterParticipant.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> encounterParticipant.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> encounterParticipant.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|time" -> encounterParticipant.setTime(IvlTsParser.fromXml(child));
-          case "urn:hl7-org:v3|assignedEntity" -> encounterParticipant.setAssignedEntity(AssignedEntityParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> encounterParticipant.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> encounterParticipant.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> encounterParticipant.addTemplateId(IiParser.fromXml(child));
+          case TIME -> encounterParticipant.setTime(IvlTsParser.fromXml(child));
+          case ASSIGNED_ENTITY -> encounterParticipant.setAssignedEntity(AssignedEntityParser.fromXml(child));
+        }
+      }
+    }
+    
+    return EncounterParticipant.isEmpty(encounterParticipant) ? null : encounterParticipant;
+  }
+
+  public static EncounterParticipant fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final EncounterParticipant encounterParticipant = new EncounterParticipant();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        encounterParticipant.setNullFlavor(nullFlavor);
+      }
+      
+      // typeCode
+      final String typeCode = reader.getAttributeValue("typeCode");
+      if (typeCode != null) {
+        encounterParticipant.setTypeCode(typeCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> encounterParticipant.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> encounterParticipant.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> encounterParticipant.addTemplateId(IiParser.fromXml(reader));
+          case TIME -> encounterParticipant.setTime(IvlTsParser.fromXml(reader));
+          case ASSIGNED_ENTITY -> encounterParticipant.setAssignedEntity(AssignedEntityParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
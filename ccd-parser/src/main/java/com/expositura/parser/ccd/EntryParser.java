@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd;
+
+import com.expositura.model.ccd.Entry;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Parses the Entry XML element to the java object. The clinical body is only read by the streaming parser
+ * 
+ * @author Sean Smith
+ */
+public class EntryParser {
+  
+  public static Entry fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Entry entry = new Entry();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        entry.setNullFlavor(nullFlavor);
+      }
+      
+      // typeCode
+      final String typeCode = reader.getAttributeValue("typeCode");
+      if (typeCode != null) {
+        entry.setTypeCode(typeCode);
+      }
+      
+      // contextConductionInd
+      final String contextConductionInd = reader.getAttributeValue("contextConductionInd");
+      if (contextConductionInd != null) {
+        entry.setContextConductionInd(Boolean.valueOf(contextConductionInd));
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> entry.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> entry.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> entry.addTemplateId(IiParser.fromXml(reader));
+          case ACT -> entry.setAct(ActParser.fromXml(reader));
+          case ENCOUNTER -> entry.setEncounter(EncounterParser.fromXml(reader));
+          case OBSERVATION -> entry.setObservation(ObservationParser.fromXml(reader));
+          case ORGANIZER -> entry.setOrganizer(OrganizerParser.fromXml(reader));
+          case PROCEDURE -> entry.setProcedure(ProcedureParser.fromXml(reader));
+          case SUBSTANCE_ADMINISTRATION -> entry.setSubstanceAdministration(SubstanceAdministrationParser.fromXml(reader));
+          case SUPPLY -> entry.setSupply(SupplyParser.fromXml(reader));
+          default -> reader.skipElement();
+        }
+      }
+    }
+    
+    return Entry.isEmpty(entry) ? null : entry;
+  }
+          
+}
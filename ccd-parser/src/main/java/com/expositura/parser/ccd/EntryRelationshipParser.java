@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd;
+
+import com.expositura.model.ccd.EntryRelationship;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Parses the EntryRelationship XML element to the java object. The clinical body is only read by the streaming parser
+ * 
+ * @author Sean Smith
+ */
+public class EntryRelationshipParser {
+  
+  public static EntryRelationship fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final EntryRelationship entryRelationship = new EntryRelationship();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        entryRelationship.setNullFlavor(nullFlavor);
+      }
+      
+      // typeCode
+      final String typeCode = reader.getAttributeValue("typeCode");
+      if (typeCode != null) {
+        entryRelationship.setTypeCode(typeCode);
+      }
+      
+      // inversionInd
+      final String inversionInd = reader.getAttributeValue("inversionInd");
+      if (inversionInd != null) {
+        entryRelationship.setInversionInd(Boolean.valueOf(inversionInd));
+      }
+      
+      // contextConductionInd
+      final String contextConductionInd = reader.getAttributeValue("contextConductionInd");
+      if (contextConductionInd != null) {
+        entryRelationship.setContextConductionInd(Boolean.valueOf(contextConductionInd));
+      }
+      
+      // negationInd
+      final String negationInd = reader.getAttributeValue("negationInd");
+      if (negationInd != null) {
+        entryRelationship.setNegationInd(Boolean.valueOf(negationInd));
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> entryRelationship.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> entryRelationship.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> entryRelationship.addTemplateId(IiParser.fromXml(reader));
+          case SEQUENCE_NUMBER -> entryRelationship.setSequenceNumber(IntParser.fromXml(reader));
+          case SEPERATABLE_IND -> entryRelationship.setSeperatableInd(BlParser.fromXml(reader));
+          case ACT -> entryRelationship.setAct(ActParser.fromXml(reader));
+          case ENCOUNTER -> entryRelationship.setEncounter(EncounterParser.fromXml(reader));
+          case OBSERVATION -> entryRelationship.setObservation(ObservationParser.fromXml(reader));
+          case ORGANIZER -> entryRelationship.setOrganizer(OrganizerParser.fromXml(reader));
+          case PROCEDURE -> entryRelationship.setProcedure(ProcedureParser.fromXml(reader));
+          case SUBSTANCE_ADMINISTRATION -> entryRelationship.setSubstanceAdministration(SubstanceAdministrationParser.fromXml(reader));
+          case SUPPLY -> entryRelationship.setSupply(SupplyParser.fromXml(reader));
+          default -> reader.skipElement();
+        }
+      }
+    }
+    
+    return EntryRelationship.isEmpty(entryRelationship) ? null : entryRelationship;
+  }
+          
+}
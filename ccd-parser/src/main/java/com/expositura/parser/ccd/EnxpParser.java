@@ -17,6 +17,8 @@ package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.Adxp;
 import com.expositura.model.ccd.Enxp;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.apache.commons.lang3.StringUtils;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
@@ -94,5 +96,65 @@ public class EnxpParser {
     
     return Enxp.isEmpty(enxp) ? null : enxp;
   }
+
+  public static Enxp fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Enxp enxp = new Enxp();
+    
+    // Start by getting the attributes
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        enxp.setNullFlavor(nullFlavor);
+      }
+      
+      // representation
+      final String representation = reader.getAttributeValue("representation");
+      if (representation != null) {
+        enxp.setRepresentation(representation);
+      }
+      
+      // mediaType
+      final String mediaType = reader.getAttributeValue("mediaType");
+      if (mediaType != null) {
+        enxp.setMediaType(mediaType);
+      }
+      
+      // language
+      final String language = reader.getAttributeValue("language");
+      if (language != null) {
+        enxp.setLanguage(language);
+      }
+      
+      // partType
+      final String partType = reader.getAttributeValue("partType");
+      if (partType != null) {
+        enxp.setPartType(partType);
+      }
+      
+      // qualifier (special case, can have multiple values with space seperator
+      final String qualifier = reader.getAttributeValue("qualifier");
+      if (qualifier != null) {
+        for (final String singleQualifier : StringUtils.split(qualifier)) {
+          enxp.addQualifier(singleQualifier);
+        }
+      }
+    }
+    
+    // Now work thru children, only expecting a text node
+    while (reader.nextChild()) {
+      
+      // Expecting no children with attributes or sub elements
+      if (reader.isElement()) {
+        // Not expecting any of these so ignore
+        reader.skipElement();
+      } else {
+        enxp.setXmlText(reader.getText());
+      }
+    }
+    
+    return Enxp.isEmpty(enxp) ? null : enxp;
+  }
           
 }
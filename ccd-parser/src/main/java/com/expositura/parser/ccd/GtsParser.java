@@ -0,0 +1,308 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd;
+
+import com.expositura.model.ccd.Ce;
+import com.expositura.model.ccd.EivlTs;
+import com.expositura.model.ccd.IvlPq;
+import com.expositura.model.ccd.IvlTs;
+import com.expositura.model.ccd.IvxbTs;
+import com.expositura.model.ccd.PivlTs;
+import com.expositura.model.ccd.Pq;
+import com.expositura.model.ccd.SxcmTs;
+import com.expositura.model.ccd.SxprTs;
+import com.expositura.model.ccd.Ts;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * Parses an element that may be any of the GTS datatypes (SXPR_TS, EIVL_TS, PIVL_TS, IVL_TS or SXCM_TS) such as
+ * useablePeriod, comp or a substanceAdministration's effectiveTime. The datatype can't be known until all the children
+ * have been seen, so this collects everything any of the datatypes could use in a single pass over the children and
+ * the datatype is decided at the end. The DOM and streaming parsers share it so they always decide the same way.
+ *
+ * @author Sean Smith
+ */
+final class GtsParser {
+
+  enum GtsType {
+    SXPR_TS, EIVL_TS, PIVL_TS, IVL_TS, SXCM_TS
+  }
+
+  private GtsType type;
+
+  // Attributes
+  private String nullFlavor;
+  private String value;
+  private String operator;
+  private String alignment;
+  private String institutionSpecified;
+  private boolean hasInstitution;
+
+  // Which children were present, used to determine the datatype
+  private boolean hasLow;
+  private boolean hasCenter;
+  private boolean hasWidth;
+  private boolean hasHigh;
+  private boolean hasEvent;
+  private boolean hasOffset;
+  private boolean hasPhase;
+  private boolean hasPeriod;
+  private boolean hasComp;
+
+  // Parsed children
+  private IvxbTs low;
+  private Ts center;
+  private Pq width;
+  private IvxbTs high;
+  private Ce event;
+  private IvlPq offset;
+  private IvlTs phase;
+  private Pq period;
+  private SxprTs sxprTs;
+
+  private GtsParser() {
+  }
+
+  /**
+   * Parses the element.
+   *
+   * @param node The element
+   * @param isComp True if this is a 'comp' of a SXPR_TS in which case SXCM_TS is the catch all datatype, otherwise
+   * IVL_TS is
+   * @return The parsed values, use {@link #getType()} to find out which datatype it is
+   */
+  static GtsParser fromXml(final Node node, final boolean isComp) {
+    final GtsParser gts = new GtsParser();
+
+    // Start by getting the attributes
+    final NamedNodeMap attributes = node.getAttributes();
+    if (attributes != null && attributes.getLength() > 0) {
+      gts.nullFlavor = valueOf(attributes.getNamedItem("nullFlavor"));
+      gts.value = valueOf(attributes.getNamedItem("value"));
+      gts.operator = valueOf(attributes.getNamedItem("operator"));
+      gts.alignment = valueOf(attributes.getNamedItem("alignment"));
+      gts.institutionSpecified = valueOf(attributes.getNamedItem("institutionSpecified"));
+      gts.hasInstitution = attributes.getNamedItem("institution") != null;
+    }
+
+    // Now work thru children, noting which are present and parsing the ones any of the datatypes use
+    final NodeList nodeList = node.getChildNodes();
+
+    for (int i = 0; i < nodeList.getLength(); i++) {
+      final Node child = nodeList.item(i);
+      final String localName = child.getLocalName();
+      if (localName == null) {
+        continue;
+      }
+
+      gts.present(localName);
+
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (child.hasAttributes() || child.hasChildNodes()) {
+        switch (CcdElement.of(child)) {
+          case LOW -> gts.low = IvxbTsParser.fromXml(child);
+          case CENTER -> gts.center = TsParser.fromXml(child);
+          case WIDTH -> gts.width = PqParser.fromXml(child);
+          case HIGH -> gts.high = IvxbTsParser.fromXml(child);
+          case EVENT -> gts.event = CeParser.fromXml(child);
+          case OFFSET -> gts.offset = IvlPqParser.fromXml(child);
+          case PHASE -> gts.phase = IvlTsParser.fromXml(child);
+          case PERIOD -> gts.period = PqParser.fromXml(child);
+          case COMP -> gts.addComp(GtsParser.fromXml(child, true));
+        }
+      }
+    }
+
+    gts.classify(isComp);
+    return gts;
+  }
+
+  /**
+   * Parses the current element.
+   *
+   * @param reader The reader positioned on the element
+   * @param isComp True if this is a 'comp' of a SXPR_TS in which case SXCM_TS is the catch all datatype, otherwise
+   * IVL_TS is
+   * @return The parsed values, use {@link #getType()} to find out which datatype it is
+   * @throws XMLStreamException If the XML is not well formed
+   */
+  static GtsParser fromXml(final CcdStreamReader reader, final boolean isComp) throws XMLStreamException {
+    final GtsParser gts = new GtsParser();
+
+    // Start by getting the attributes
+    if (reader.getAttributeCount() > 0) {
+      gts.nullFlavor = reader.getAttributeValue("nullFlavor");
+      gts.value = reader.getAttributeValue("value");
+      gts.operator = reader.getAttributeValue("operator");
+      gts.alignment = reader.getAttributeValue("alignment");
+      gts.institutionSpecified = reader.getAttributeValue("institutionSpecified");
+      gts.hasInstitution = reader.getAttributeValue("institution") != null;
+    }
+
+    // Now work thru children, noting which are present and parsing the ones any of the datatypes use
+    while (reader.nextChild()) {
+      final String localName = reader.getLocalName();
+      if (localName == null) {
+        continue;
+      }
+
+      gts.present(localName);
+
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case LOW -> gts.low = IvxbTsParser.fromXml(reader);
+          case CENTER -> gts.center = TsParser.fromXml(reader);
+          case WIDTH -> gts.width = PqParser.fromXml(reader);
+          case HIGH -> gts.high = IvxbTsParser.fromXml(reader);
+          case EVENT -> gts.event = CeParser.fromXml(reader);
+          case OFFSET -> gts.offset = IvlPqParser.fromXml(reader);
+          case PHASE -> gts.phase = IvlTsParser.fromXml(reader);
+          case PERIOD -> gts.period = PqParser.fromXml(reader);
+          case COMP -> gts.addComp(GtsParser.fromXml(reader, true));
+          default -> reader.skipElement();
+        }
+      }
+    }
+
+    gts.classify(isComp);
+    return gts;
+  }
+
+  /**
+   * Notes that a child with the given local name is present, which is all that's needed to decide the datatype.
+   */
+  private void present(final String localName) {
+    switch (localName) {
+      case "low" -> hasLow = true;
+      case "center" -> hasCenter = true;
+      case "width" -> hasWidth = true;
+      case "high" -> hasHigh = true;
+      case "event" -> hasEvent = true;
+      case "offset" -> hasOffset = true;
+      case "phase" -> hasPhase = true;
+      case "period" -> hasPeriod = true;
+      case "comp" -> hasComp = true;
+    }
+  }
+
+  /**
+   * Decides the datatype from the children and attributes that were present.
+   */
+  private void classify(final boolean isComp) {
+    // First look for SXPR_TS type which MUST have 'comp' child element(s)
+    if (hasComp) {
+      type = GtsType.SXPR_TS;
+    }
+    // Next look for event or offset as either shows it's a EIVL_TS
+    else if (hasEvent || hasOffset) {
+      type = GtsType.EIVL_TS;
+    }
+    // Next look for phase, period, alignment, or institution specified which means it's a PIVL_TS
+    else if (hasPhase || hasPeriod || alignment != null || hasInstitution) {
+      type = GtsType.PIVL_TS;
+    }
+    // Outside of a comp the catch all is IVL_TS, inside a comp it has to have low, center, width, or high
+    else if (!isComp || hasLow || hasCenter || hasWidth || hasHigh) {
+      type = GtsType.IVL_TS;
+    }
+    // If we get here then last resort is SXCM_TS
+    else {
+      type = GtsType.SXCM_TS;
+    }
+  }
+
+  GtsType getType() {
+    return type;
+  }
+
+  SxprTs toSxprTs() {
+    if (sxprTs == null) {
+      sxprTs = new SxprTs();
+    }
+    sxprTs.setNullFlavor(nullFlavor);
+    sxprTs.setValue(value);
+    sxprTs.setOperator(operator);
+    return SxprTs.isEmpty(sxprTs) ? null : sxprTs;
+  }
+
+  EivlTs toEivlTs() {
+    final EivlTs eivlTs = new EivlTs();
+    eivlTs.setNullFlavor(nullFlavor);
+    eivlTs.setOperator(operator);
+    eivlTs.setEvent(event);
+    eivlTs.setOffset(offset);
+    return EivlTs.isEmpty(eivlTs) ? null : eivlTs;
+  }
+
+  PivlTs toPivlTs() {
+    final PivlTs pivlTs = new PivlTs();
+    pivlTs.setNullFlavor(nullFlavor);
+    pivlTs.setOperator(operator);
+    pivlTs.setAlignment(alignment);
+    if (institutionSpecified != null) {
+      pivlTs.setInstitutionSpecified(Boolean.valueOf(institutionSpecified));
+    }
+    pivlTs.setPhase(phase);
+    pivlTs.setPeriod(period);
+    return PivlTs.isEmpty(pivlTs) ? null : pivlTs;
+  }
+
+  IvlTs toIvlTs() {
+    final IvlTs ivlTs = new IvlTs();
+    ivlTs.setNullFlavor(nullFlavor);
+    ivlTs.setValue(value);
+    ivlTs.setOperator(operator);
+    ivlTs.setLow(low);
+    ivlTs.setCenter(center);
+    ivlTs.setWidth(width);
+    ivlTs.setHigh(high);
+    return IvlTs.isEmpty(ivlTs) ? null : ivlTs;
+  }
+
+  SxcmTs toSxcmTs() {
+    final SxcmTs sxcmTs = new SxcmTs();
+    sxcmTs.setNullFlavor(nullFlavor);
+    sxcmTs.setValue(value);
+    sxcmTs.setOperator(operator);
+    return SxcmTs.isEmpty(sxcmTs) ? null : sxcmTs;
+  }
+
+  private static String valueOf(final Node attribute) {
+    return attribute == null ? null : attribute.getNodeValue();
+  }
+
+  /**
+   * Adds a comp to the SXPR_TS this element will be if it turns out to be one.
+   */
+  private void addComp(final GtsParser comp) {
+    if (sxprTs == null) {
+      sxprTs = new SxprTs();
+    }
+
+    switch (comp.getType()) {
+      case SXPR_TS -> sxprTs.addCompAsSxprTs(comp.toSxprTs());
+      case EIVL_TS -> sxprTs.addCompAsEivlTs(comp.toEivlTs());
+      case PIVL_TS -> sxprTs.addCompAsPivlTs(comp.toPivlTs());
+      case IVL_TS -> sxprTs.addCompAsIvlTs(comp.toIvlTs());
+      case SXCM_TS -> sxprTs.addCompAsSxcmTs(comp.toSxcmTs());
+    }
+  }
+}
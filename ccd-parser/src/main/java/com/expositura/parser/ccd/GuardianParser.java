@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.Guardian;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -55,17 +58,60 @@ public class GuardianParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> guardian.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> guardian.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> guardian.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|id" -> guardian.addId(IiParser.fromXml(child));
-          case "urn:hl7-org:sdtc|identifiedBy" -> guardian.addIdentifiedBy(IdentifiedByParser.fromXml(child));
-          case "urn:hl7-org:v3|code" -> guardian.setCode(CeParser.fromXml(child));
-          case "urn:hl7-org:v3|addr" -> guardian.addAddr(AdParser.fromXml(child));
-          case "urn:hl7-org:v3|telecom" -> guardian.addTelecom(TelParser.fromXml(child));
-          case "urn:hl7-org:v3|guardianPerson" -> guardian.setGuardianPerson(PersonParser.fromXml(child));
-          case "urn:hl7-org:v3|guardianOrganization" -> guardian.setGuardianOrganization(OrganizationParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> guardian.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> guardian.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> guardian.addTemplateId(IiParser.fromXml(child));
+          case ID -> guardian.addId(IiParser.fromXml(child));
+          case SDTC_IDENTIFIED_BY -> guardian.addIdentifiedBy(IdentifiedByParser.fromXml(child));
+          case CODE -> guardian.setCode(CeParser.fromXml(child));
+          case ADDR -> guardian.addAddr(AdParser.fromXml(child));
+          case TELECOM -> guardian.addTelecom(TelParser.fromXml(child));
+          case GUARDIAN_PERSON -> guardian.setGuardianPerson(PersonParser.fromXml(child));
+          case GUARDIAN_ORGANIZATION -> guardian.setGuardianOrganization(OrganizationParser.fromXml(child));
+        }
+      }
+    }
+    
+    return Guardian.isEmpty(guardian) ? null : guardian;
+  }
+
+  public static Guardian fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Guardian guardian = new Guardian();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        guardian.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        guardian.setClassCode(classCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> guardian.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> guardian.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> guardian.addTemplateId(IiParser.fromXml(reader));
+          case ID -> guardian.addId(IiParser.fromXml(reader));
+          case SDTC_IDENTIFIED_BY -> guardian.addIdentifiedBy(IdentifiedByParser.fromXml(reader));
+          case CODE -> guardian.setCode(CeParser.fromXml(reader));
+          case ADDR -> guardian.addAddr(AdParser.fromXml(reader));
+          case TELECOM -> guardian.addTelecom(TelParser.fromXml(reader));
+          case GUARDIAN_PERSON -> guardian.setGuardianPerson(PersonParser.fromXml(reader));
+          case GUARDIAN_ORGANIZATION -> guardian.setGuardianOrganization(OrganizationParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.HealthCareFacility;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -55,15 +58,56 @@ public class HealthCareFacilityParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> healthCareFacility.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> healthCareFacility.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> healthCareFacility.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|id" -> healthCareFacility.addId(IiParser.fromXml(child));
-          case "urn:hl7-org:sdtc|identifiedBy" -> healthCareFacility.addIdentifiedBy(IdentifiedByParser.fromXml(child));
-          case "urn:hl7-org:v3|code" -> healthCareFacility.setCode(CeParser.fromXml(child));
-          case "urn:hl7-org:v3|location" -> healthCareFacility.setLocation(PlaceParser.fromXml(child));
-          case "urn:hl7-org:v3|serviceProviderOrganization" -> healthCareFacility.setServiceProviderOrganization(OrganizationParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> healthCareFacility.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> healthCareFacility.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> healthCareFacility.addTemplateId(IiParser.fromXml(child));
+          case ID -> healthCareFacility.addId(IiParser.fromXml(child));
+          case SDTC_IDENTIFIED_BY -> healthCareFacility.addIdentifiedBy(IdentifiedByParser.fromXml(child));
+          case CODE -> healthCareFacility.setCode(CeParser.fromXml(child));
+          case LOCATION -> healthCareFacility.setLocation(PlaceParser.fromXml(child));
+          case SERVICE_PROVIDER_ORGANIZATION -> healthCareFacility.setServiceProviderOrganization(OrganizationParser.fromXml(child));
+        }
+      }
+    }
+    
+    return HealthCareFacility.isEmpty(healthCareFacility) ? null : healthCareFacility;
+  }
+
+  public static HealthCareFacility fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final HealthCareFacility healthCareFacility = new HealthCareFacility();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        healthCareFacility.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        healthCareFacility.setClassCode(classCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> healthCareFacility.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> healthCareFacility.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> healthCareFacility.addTemplateId(IiParser.fromXml(reader));
+          case ID -> healthCareFacility.addId(IiParser.fromXml(reader));
+          case SDTC_IDENTIFIED_BY -> healthCareFacility.addIdentifiedBy(IdentifiedByParser.fromXml(reader));
+          case CODE -> healthCareFacility.setCode(CeParser.fromXml(reader));
+          case LOCATION -> healthCareFacility.setLocation(PlaceParser.fromXml(reader));
+          case SERVICE_PROVIDER_ORGANIZATION -> healthCareFacility.setServiceProviderOrganization(OrganizationParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.IdentifiedBy;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -49,8 +52,36 @@ public class IdentifiedByParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:sdtc|alternateIdentification" -> identifiedBy.setAlternateIdentification(AlternateIdentificationParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case SDTC_ALTERNATE_IDENTIFICATION -> identifiedBy.setAlternateIdentification(AlternateIdentificationParser.fromXml(child));
+        }
+      }
+    }
+    
+    return IdentifiedBy.isEmpty(identifiedBy) ? null : identifiedBy;
+  }
+
+  public static IdentifiedBy fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final IdentifiedBy identifiedBy = new IdentifiedBy();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // typeCode
+      final String typeCode = reader.getAttributeValue("typeCode");
+      if (typeCode != null) {
+        identifiedBy.setTypeCode(typeCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case SDTC_ALTERNATE_IDENTIFICATION -> identifiedBy.setAlternateIdentification(AlternateIdentificationParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.Ii;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import com.expositura.parser.ccd.util.StringInterner;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 
@@ -36,13 +39,13 @@ public class IiParser {
       // nullFlavor
       final Node nullFlavor = attributes.getNamedItem("nullFlavor");
       if (nullFlavor != null) {
-        ii.setNullFlavor(nullFlavor.getNodeValue());
+        ii.setNullFlavor(StringInterner.intern(nullFlavor.getNodeValue()));
       }
       
       // assigningAuthorityName
       final Node assigningAuthorityName = attributes.getNamedItem("assigningAuthorityName");
       if (assigningAuthorityName != null) {
-        ii.setAssigningAuthorityName(assigningAuthorityName.getNodeValue());
+        ii.setAssigningAuthorityName(StringInterner.intern(assigningAuthorityName.getNodeValue()));
       }
       
       // displayable
@@ -54,7 +57,7 @@ public class IiParser {
       // root
       final Node root = attributes.getNamedItem("root");
       if (root != null) {
-        ii.setRoot(root.getNodeValue());
+        ii.setRoot(StringInterner.intern(root.getNodeValue()));
       }
       
       // extension
@@ -64,7 +67,50 @@ public class IiParser {
       }
     }
     
-    return Ii.isEmpty(ii) ? null : ii;
+    return Ii.isEmpty(ii) ? null : CcdFlyweights.share(ii);
+  }
+
+  public static Ii fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Ii ii = new Ii();
+    
+    // All II has is attributes
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        ii.setNullFlavor(StringInterner.intern(nullFlavor));
+      }
+      
+      // assigningAuthorityName
+      final String assigningAuthorityName = reader.getAttributeValue("assigningAuthorityName");
+      if (assigningAuthorityName != null) {
+        ii.setAssigningAuthorityName(StringInterner.intern(assigningAuthorityName));
+      }
+      
+      // displayable
+      final String displayable = reader.getAttributeValue("displayable");
+      if (displayable != null) {
+        ii.setDisplayable(Boolean.valueOf(displayable));
+      }
+      
+      // root
+      final String root = reader.getAttributeValue("root");
+      if (root != null) {
+        ii.setRoot(StringInterner.intern(root));
+      }
+      
+      // extension
+      final String extension = reader.getAttributeValue("extension");
+      if (extension != null) {
+        ii.setExtension(extension);
+      }
+    }
+    
+    // Not expecting any child elements
+    reader.skipElement();
+    
+    return Ii.isEmpty(ii) ? null : CcdFlyweights.share(ii);
   }
           
 }
@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.InFulfillmentOf;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -55,11 +58,48 @@ public class InFulfillmentOfParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> inFulfillmentOf.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> inFulfillmentOf.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> inFulfillmentOf.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|order" -> inFulfillmentOf.setOrder(OrderParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> inFulfillmentOf.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> inFulfillmentOf.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> inFulfillmentOf.addTemplateId(IiParser.fromXml(child));
+          case ORDER -> inFulfillmentOf.setOrder(OrderParser.fromXml(child));
+        }
+      }
+    }
+    
+    return InFulfillmentOf.isEmpty(inFulfillmentOf) ? null : inFulfillmentOf;
+  }
+
+  public static InFulfillmentOf fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final InFulfillmentOf inFulfillmentOf = new InFulfillmentOf();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        inFulfillmentOf.setNullFlavor(nullFlavor);
+      }
+      
+      // typeCode
+      final String typeCode = reader.getAttributeValue("typeCode");
+      if (typeCode != null) {
+        inFulfillmentOf.setTypeCode(typeCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> inFulfillmentOf.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> inFulfillmentOf.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> inFulfillmentOf.addTemplateId(IiParser.fromXml(reader));
+          case ORDER -> inFulfillmentOf.setOrder(OrderParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
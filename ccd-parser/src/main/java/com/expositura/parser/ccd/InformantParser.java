@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.Informant;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -61,12 +64,56 @@ public class InformantParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> informant.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> informant.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> informant.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|assignedEntity" -> informant.setAssignedEntity(AssignedEntityParser.fromXml(child));
-          case "urn:hl7-org:v3|relatedEntity" -> informant.setRelatedEntity(RelatedEntityParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> informant.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> informant.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> informant.addTemplateId(IiParser.fromXml(child));
+          case ASSIGNED_ENTITY -> informant.setAssignedEntity(AssignedEntityParser.fromXml(child));
+          case RELATED_ENTITY -> informant.setRelatedEntity(RelatedEntityParser.fromXml(child));
+        }
+      }
+    }
+    
+    return Informant.isEmpty(informant) ? null : informant;
+  }
+
+  public static Informant fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Informant informant = new Informant();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        informant.setNullFlavor(nullFlavor);
+      }
+      
+      // typeCode
+      final String typeCode = reader.getAttributeValue("typeCode");
+      if (typeCode != null) {
+        informant.setTypeCode(typeCode);
+      }
+      
+      // contextControlCode
+      final String contextControlCode = reader.getAttributeValue("contextControlCode");
+      if (contextControlCode != null) {
+        informant.setContextControlCode(contextControlCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> informant.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> informant.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> informant.addTemplateId(IiParser.fromXml(reader));
+          case ASSIGNED_ENTITY -> informant.setAssignedEntity(AssignedEntityParser.fromXml(reader));
+          case RELATED_ENTITY -> informant.setRelatedEntity(RelatedEntityParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.InformationRecipient;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -55,11 +58,48 @@ public class InformationRecipientParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> informant.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> informant.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> informant.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|intendedRecipient" -> informant.setIntendedRecipient(IntendedRecipientParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> informant.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> informant.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> informant.addTemplateId(IiParser.fromXml(child));
+          case INTENDED_RECIPIENT -> informant.setIntendedRecipient(IntendedRecipientParser.fromXml(child));
+        }
+      }
+    }
+    
+    return InformationRecipient.isEmpty(informant) ? null : informant;
+  }
+
+  public static InformationRecipient fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final InformationRecipient informant = new InformationRecipient();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        informant.setNullFlavor(nullFlavor);
+      }
+      
+      // typeCode
+      final String typeCode = reader.getAttributeValue("typeCode");
+      if (typeCode != null) {
+        informant.setTypeCode(typeCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> informant.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> informant.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> informant.addTemplateId(IiParser.fromXml(reader));
+          case INTENDED_RECIPIENT -> informant.setIntendedRecipient(IntendedRecipientParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
@@ -16,6 +16,8 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.Intt;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 
@@ -49,5 +51,31 @@ public class IntParser {
     
     return Intt.isEmpty(intt) ? null : intt;
   }
+
+  public static Intt fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Intt intt = new Intt();
+    
+    // Start by getting the attributes
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        intt.setNullFlavor(nullFlavor);
+      }
+      
+      // value
+      final String value = reader.getAttributeValue("value");
+      if (value != null) {
+        intt.setValue(Long.valueOf(value));
+      }
+      
+    }
+    
+    // Not expecting any child elements
+    reader.skipElement();
+    
+    return Intt.isEmpty(intt) ? null : intt;
+  }
           
 }
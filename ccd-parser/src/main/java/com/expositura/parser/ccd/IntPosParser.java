@@ -16,6 +16,8 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.IntPos;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 
@@ -49,5 +51,31 @@ public class IntPosParser {
     
     return IntPos.isEmpty(intPos) ? null : intPos;
   }
+
+  public static IntPos fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final IntPos intPos = new IntPos();
+    
+    // Start by getting the attributes
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        intPos.setNullFlavor(nullFlavor);
+      }
+      
+      // value
+      final String value = reader.getAttributeValue("value");
+      if (value != null) {
+        intPos.setValue(Long.valueOf(value));
+      }
+      
+    }
+    
+    // Not expecting any child elements
+    reader.skipElement();
+    
+    return IntPos.isEmpty(intPos) ? null : intPos;
+  }
           
 }
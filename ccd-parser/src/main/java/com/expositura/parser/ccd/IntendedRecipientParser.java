@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.IntendedRecipient;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -55,16 +58,58 @@ public class IntendedRecipientParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> intendedRecipient.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> intendedRecipient.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> intendedRecipient.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|id" -> intendedRecipient.addId(IiParser.fromXml(child));
-          case "urn:hl7-org:sdtc|identifiedBy" -> intendedRecipient.addIdenfifiedBy(IdentifiedByParser.fromXml(child));
-          case "urn:hl7-org:v3|addr" -> intendedRecipient.addAddr(AdParser.fromXml(child));
-          case "urn:hl7-org:v3|telecom" -> intendedRecipient.addTelecom(TelParser.fromXml(child));
-          case "urn:hl7-org:v3|informationRecipient" -> intendedRecipient.setInformationRecipient(PersonParser.fromXml(child));
-          case "urn:hl7-org:v3|receivedOrganization" -> intendedRecipient.setReceivedOrganization(OrganizationParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> intendedRecipient.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> intendedRecipient.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> intendedRecipient.addTemplateId(IiParser.fromXml(child));
+          case ID -> intendedRecipient.addId(IiParser.fromXml(child));
+          case SDTC_IDENTIFIED_BY -> intendedRecipient.addIdenfifiedBy(IdentifiedByParser.fromXml(child));
+          case ADDR -> intendedRecipient.addAddr(AdParser.fromXml(child));
+          case TELECOM -> intendedRecipient.addTelecom(TelParser.fromXml(child));
+          case INFORMATION_RECIPIENT -> intendedRecipient.setInformationRecipient(PersonParser.fromXml(child));
+          case RECEIVED_ORGANIZATION -> intendedRecipient.setReceivedOrganization(OrganizationParser.fromXml(child));
+        }
+      }
+    }
+    
+    return IntendedRecipient.isEmpty(intendedRecipient) ? null : intendedRecipient;
+  }
+
+  public static IntendedRecipient fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final IntendedRecipient intendedRecipient = new IntendedRecipient();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        intendedRecipient.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        intendedRecipient.setClassCode(classCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> intendedRecipient.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> intendedRecipient.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> intendedRecipient.addTemplateId(IiParser.fromXml(reader));
+          case ID -> intendedRecipient.addId(IiParser.fromXml(reader));
+          case SDTC_IDENTIFIED_BY -> intendedRecipient.addIdenfifiedBy(IdentifiedByParser.fromXml(reader));
+          case ADDR -> intendedRecipient.addAddr(AdParser.fromXml(reader));
+          case TELECOM -> intendedRecipient.addTelecom(TelParser.fromXml(reader));
+          case INFORMATION_RECIPIENT -> intendedRecipient.setInformationRecipient(PersonParser.fromXml(reader));
+          case RECEIVED_ORGANIZATION -> intendedRecipient.setReceivedOrganization(OrganizationParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.IvlPq;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -68,12 +71,63 @@ public class IvlPqParser {
       
       // This element may have text content (base64 string)
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|translation" -> ivlPq.addTranslation(PqrParser.fromXml(child));
-          case "urn:hl7-org:v3|low" -> ivlPq.setLow(IvxbPqParser.fromXml(child));
-          case "urn:hl7-org:v3|center" -> ivlPq.setCenter(PqParser.fromXml(child));
-          case "urn:hl7-org:v3|width" -> ivlPq.setWidth(PqParser.fromXml(child));
-          case "urn:hl7-org:v3|high" -> ivlPq.setHigh(IvxbPqParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case TRANSLATION -> ivlPq.addTranslation(PqrParser.fromXml(child));
+          case LOW -> ivlPq.setLow(IvxbPqParser.fromXml(child));
+          case CENTER -> ivlPq.setCenter(PqParser.fromXml(child));
+          case WIDTH -> ivlPq.setWidth(PqParser.fromXml(child));
+          case HIGH -> ivlPq.setHigh(IvxbPqParser.fromXml(child));
+        }
+      } 
+    }
+    
+    return IvlPq.isEmpty(ivlPq) ? null : ivlPq;
+  }
+
+  public static IvlPq fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final IvlPq ivlPq = new IvlPq();
+    
+    // Start by getting the attributes
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        ivlPq.setNullFlavor(nullFlavor);
+      }
+      
+      // unit
+      final String unit = reader.getAttributeValue("unit");
+      if (unit != null) {
+        ivlPq.setUnit(unit);
+      }
+
+      // value
+      final String value = reader.getAttributeValue("value");
+      if (value != null) {
+        ivlPq.setValue(Double.valueOf(value));
+      }
+      
+      // operator
+      final String operator = reader.getAttributeValue("operator");
+      if (operator != null) {
+        ivlPq.setOperator(operator);
+      }
+      
+    }
+    
+    // Now work thru children
+    while (reader.nextChild()) {
+      
+      // This element may have text content (base64 string)
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case TRANSLATION -> ivlPq.addTranslation(PqrParser.fromXml(reader));
+          case LOW -> ivlPq.setLow(IvxbPqParser.fromXml(reader));
+          case CENTER -> ivlPq.setCenter(PqParser.fromXml(reader));
+          case WIDTH -> ivlPq.setWidth(PqParser.fromXml(reader));
+          case HIGH -> ivlPq.setHigh(IvxbPqParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       } 
     }
@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.IvlTs;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -62,11 +65,55 @@ public class IvlTsParser {
       
       // This element may have text content (base64 string)
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|low" -> ivlTs.setLow(IvxbTsParser.fromXml(child));
-          case "urn:hl7-org:v3|center" -> ivlTs.setCenter(TsParser.fromXml(child));
-          case "urn:hl7-org:v3|width" -> ivlTs.setWidth(PqParser.fromXml(child));
-          case "urn:hl7-org:v3|high" -> ivlTs.setHigh(IvxbTsParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case LOW -> ivlTs.setLow(IvxbTsParser.fromXml(child));
+          case CENTER -> ivlTs.setCenter(TsParser.fromXml(child));
+          case WIDTH -> ivlTs.setWidth(PqParser.fromXml(child));
+          case HIGH -> ivlTs.setHigh(IvxbTsParser.fromXml(child));
+        }
+      } 
+    }
+    
+    return IvlTs.isEmpty(ivlTs) ? null : ivlTs;
+  }
+
+  public static IvlTs fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final IvlTs ivlTs = new IvlTs();
+    
+    // Start by getting the attributes
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        ivlTs.setNullFlavor(nullFlavor);
+      }
+      
+      // value
+      final String value = reader.getAttributeValue("value");
+      if (value != null) {
+        ivlTs.setValue(value);
+      }
+      
+      // operator
+      final String operator = reader.getAttributeValue("operator");
+      if (operator != null) {
+        ivlTs.setOperator(operator);
+      }
+      
+    }
+    
+    // Now work thru children
+    while (reader.nextChild()) {
+      
+      // This element may have text content (base64 string)
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case LOW -> ivlTs.setLow(IvxbTsParser.fromXml(reader));
+          case CENTER -> ivlTs.setCenter(TsParser.fromXml(reader));
+          case WIDTH -> ivlTs.setWidth(PqParser.fromXml(reader));
+          case HIGH -> ivlTs.setHigh(IvxbTsParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       } 
     }
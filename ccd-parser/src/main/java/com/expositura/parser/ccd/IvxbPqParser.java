@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.IvxbPq;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -68,8 +71,55 @@ public class IvxbPqParser {
       
       // This element may have text content (base64 string)
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|translation" -> ivxbPq.addTranslation(PqrParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case TRANSLATION -> ivxbPq.addTranslation(PqrParser.fromXml(child));
+        }
+      } 
+    }
+    
+    return IvxbPq.isEmpty(ivxbPq) ? null : ivxbPq;
+  }
+
+  public static IvxbPq fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final IvxbPq ivxbPq = new IvxbPq();
+    
+    // Start by getting the attributes
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        ivxbPq.setNullFlavor(nullFlavor);
+      }
+      
+      // unit
+      final String unit = reader.getAttributeValue("unit");
+      if (unit != null) {
+        ivxbPq.setUnit(unit);
+      }
+
+      // value
+      final String value = reader.getAttributeValue("value");
+      if (value != null) {
+        ivxbPq.setValue(Double.valueOf(value));
+      }
+      
+      // inclusive
+      final String inclusive = reader.getAttributeValue("inclusive");
+      if (inclusive != null) {
+        ivxbPq.setInclusive(Boolean.valueOf(inclusive));
+      }
+      
+    }
+    
+    // Now work thru children
+    while (reader.nextChild()) {
+      
+      // This element may have text content (base64 string)
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case TRANSLATION -> ivxbPq.addTranslation(PqrParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       } 
     }
@@ -16,6 +16,8 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.IvxbTs;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 
@@ -55,5 +57,37 @@ public class IvxbTsParser {
     
     return IvxbTs.isEmpty(ivxbTs) ? null : ivxbTs;
   }
+
+  public static IvxbTs fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final IvxbTs ivxbTs = new IvxbTs();
+    
+    // Start by getting the attributes
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        ivxbTs.setNullFlavor(nullFlavor);
+      }
+      
+      // value
+      final String value = reader.getAttributeValue("value");
+      if (value != null) {
+        ivxbTs.setValue(value);
+      }
+      
+      // inclusive
+      final String inclusive = reader.getAttributeValue("inclusive");
+      if (inclusive != null) {
+        ivxbTs.setInclusive(Boolean.valueOf(inclusive));
+      }
+      
+    }
+    
+    // Not expecting any child elements
+    reader.skipElement();
+    
+    return IvxbTs.isEmpty(ivxbTs) ? null : ivxbTs;
+  }
           
 }
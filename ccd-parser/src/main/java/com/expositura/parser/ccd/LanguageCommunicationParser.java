@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.LanguageCommunication;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -49,14 +52,48 @@ public class LanguageCommunicationParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> languageCommunication.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> languageCommunication.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> languageCommunication.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|languageCode" -> languageCommunication.setLanguageCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|modeCode" -> languageCommunication.setModeCode(CeParser.fromXml(child));
-          case "urn:hl7-org:v3|proficiencyLevelCode" -> languageCommunication.setProficiencyLevelCode(CeParser.fromXml(child));
-          case "urn:hl7-org:v3|preferenceInd" -> languageCommunication.setPreferenceInd(BlParser.fromXml(child));          
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> languageCommunication.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> languageCommunication.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> languageCommunication.addTemplateId(IiParser.fromXml(child));
+          case LANGUAGE_CODE -> languageCommunication.setLanguageCode(CsParser.fromXml(child));
+          case MODE_CODE -> languageCommunication.setModeCode(CeParser.fromXml(child));
+          case PROFICIENCY_LEVEL_CODE -> languageCommunication.setProficiencyLevelCode(CeParser.fromXml(child));
+          case PREFERENCE_IND -> languageCommunication.setPreferenceInd(BlParser.fromXml(child));          
+        }
+      }
+    }
+    
+    return LanguageCommunication.isEmpty(languageCommunication) ? null : languageCommunication;
+  }
+
+  public static LanguageCommunication fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final LanguageCommunication languageCommunication = new LanguageCommunication();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        languageCommunication.setNullFlavor(nullFlavor);
+      }
+            
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> languageCommunication.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> languageCommunication.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> languageCommunication.addTemplateId(IiParser.fromXml(reader));
+          case LANGUAGE_CODE -> languageCommunication.setLanguageCode(CsParser.fromXml(reader));
+          case MODE_CODE -> languageCommunication.setModeCode(CeParser.fromXml(reader));
+          case PROFICIENCY_LEVEL_CODE -> languageCommunication.setProficiencyLevelCode(CeParser.fromXml(reader));
+          case PREFERENCE_IND -> languageCommunication.setPreferenceInd(BlParser.fromXml(reader));          
+          default -> reader.skipElement();
         }
       }
     }
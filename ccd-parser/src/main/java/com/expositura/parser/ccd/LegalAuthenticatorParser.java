@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.LegalAuthenticator;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -61,14 +64,60 @@ public class LegalAuthenticatorParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> legalAuthenticator.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> legalAuthenticator.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> legalAuthenticator.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|time" -> legalAuthenticator.setTime(TsParser.fromXml(child));
-          case "urn:hl7-org:v3|signatureCode" -> legalAuthenticator.setSignatureCode(CsParser.fromXml(child));
-          case "urn:hl7-org:sdtc|signatureText" -> legalAuthenticator.setSignatureText(EdParser.fromXml(child));
-          case "urn:hl7-org:v3|assignedEntity" -> legalAuthenticator.setAssignedEntity(AssignedEntityParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> legalAuthenticator.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> legalAuthenticator.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> legalAuthenticator.addTemplateId(IiParser.fromXml(child));
+          case TIME -> legalAuthenticator.setTime(TsParser.fromXml(child));
+          case SIGNATURE_CODE -> legalAuthenticator.setSignatureCode(CsParser.fromXml(child));
+          case SDTC_SIGNATURE_TEXT -> legalAuthenticator.setSignatureText(EdParser.fromXml(child));
+          case ASSIGNED_ENTITY -> legalAuthenticator.setAssignedEntity(AssignedEntityParser.fromXml(child));
+        }
+      }
+    }
+    
+    return LegalAuthenticator.isEmpty(legalAuthenticator) ? null : legalAuthenticator;
+  }
+
+  public static LegalAuthenticator fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final LegalAuthenticator legalAuthenticator = new LegalAuthenticator();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        legalAuthenticator.setNullFlavor(nullFlavor);
+      }
+      
+      // typeCode
+      final String typeCode = reader.getAttributeValue("typeCode");
+      if (typeCode != null) {
+        legalAuthenticator.setTypeCode(typeCode);
+      }
+      
+      // contextControlCode
+      final String contextControlCode = reader.getAttributeValue("contextControlCode");
+      if (contextControlCode != null) {
+        legalAuthenticator.setContextControlCode(contextControlCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> legalAuthenticator.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> legalAuthenticator.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> legalAuthenticator.addTemplateId(IiParser.fromXml(reader));
+          case TIME -> legalAuthenticator.setTime(TsParser.fromXml(reader));
+          case SIGNATURE_CODE -> legalAuthenticator.setSignatureCode(CsParser.fromXml(reader));
+          case SDTC_SIGNATURE_TEXT -> legalAuthenticator.setSignatureText(EdParser.fromXml(reader));
+          case ASSIGNED_ENTITY -> legalAuthenticator.setAssignedEntity(AssignedEntityParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
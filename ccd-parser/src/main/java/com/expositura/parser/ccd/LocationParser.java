@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.Location;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -55,11 +58,48 @@ public class LocationParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> location.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> location.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> location.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|healthCareFacility" -> location.setHealthCareFacility(HealthCareFacilityParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> location.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> location.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> location.addTemplateId(IiParser.fromXml(child));
+          case HEALTH_CARE_FACILITY -> location.setHealthCareFacility(HealthCareFacilityParser.fromXml(child));
+        }
+      }
+    }
+    
+    return Location.isEmpty(location) ? null : location;
+  }
+
+  public static Location fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Location location = new Location();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        location.setNullFlavor(nullFlavor);
+      }
+      
+      // typeCode
+      final String typeCode = reader.getAttributeValue("typeCode");
+      if (typeCode != null) {
+        location.setTypeCode(typeCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> location.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> location.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> location.addTemplateId(IiParser.fromXml(reader));
+          case HEALTH_CARE_FACILITY -> location.setHealthCareFacility(HealthCareFacilityParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.MaintainedEntity;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -55,12 +58,50 @@ public class MaintainedEntityParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> maintainedEntity.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> maintainedEntity.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> maintainedEntity.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|effectiveTime" -> maintainedEntity.setEffectiveTime(IvlTsParser.fromXml(child));
-          case "urn:hl7-org:v3|maintainingPerson" -> maintainedEntity.setMaintainingPerson(PersonParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> maintainedEntity.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> maintainedEntity.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> maintainedEntity.addTemplateId(IiParser.fromXml(child));
+          case EFFECTIVE_TIME -> maintainedEntity.setEffectiveTime(IvlTsParser.fromXml(child));
+          case MAINTAINING_PERSON -> maintainedEntity.setMaintainingPerson(PersonParser.fromXml(child));
+        }
+      }
+    }
+    
+    return MaintainedEntity.isEmpty(maintainedEntity) ? null : maintainedEntity;
+  }
+
+  public static MaintainedEntity fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final MaintainedEntity maintainedEntity = new MaintainedEntity();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        maintainedEntity.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        maintainedEntity.setClassCode(classCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> maintainedEntity.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> maintainedEntity.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> maintainedEntity.addTemplateId(IiParser.fromXml(reader));
+          case EFFECTIVE_TIME -> maintainedEntity.setEffectiveTime(IvlTsParser.fromXml(reader));
+          case MAINTAINING_PERSON -> maintainedEntity.setMaintainingPerson(PersonParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd;
+
+import com.expositura.model.ccd.Bl;
+import com.expositura.model.ccd.Cd;
+import com.expositura.model.ccd.Cs;
+import com.expositura.model.ccd.Ed;
+import com.expositura.model.ccd.Intt;
+import com.expositura.model.ccd.IvlPq;
+import com.expositura.model.ccd.IvlTs;
+import com.expositura.model.ccd.Observation;
+import com.expositura.model.ccd.Pq;
+import com.expositura.model.ccd.St;
+import com.expositura.model.ccd.Tel;
+import com.expositura.model.ccd.Ts;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Parses the Observation XML element to the java object. The clinical body is only read by the streaming parser
+ * 
+ * @author Sean Smith
+ */
+public class ObservationParser {
+  
+  private static final String XSI_NAMESPACE = "http://www.w3.org/2001/XMLSchema-instance";
+  
+  public static Observation fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Observation observation = new Observation();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        observation.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        observation.setClassCode(classCode);
+      }
+      
+      // moodCode
+      final String moodCode = reader.getAttributeValue("moodCode");
+      if (moodCode != null) {
+        observation.setMoodCode(moodCode);
+      }
+      
+      // negationInd
+      final String negationInd = reader.getAttributeValue("negationInd");
+      if (negationInd != null) {
+        observation.setNegationInd(Boolean.valueOf(negationInd));
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> observation.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> observation.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> observation.addTemplateId(IiParser.fromXml(reader));
+          case ID -> observation.addId(IiParser.fromXml(reader));
+          case CODE -> observation.setCode(CdParser.fromXml(reader));
+          case DERIVATION_EXPR -> observation.setDerivationExpr(StParser.fromXml(reader));
+          case TEXT -> observation.setText(EdParser.fromXml(reader));
+          case STATUS_CODE -> observation.setStatusCode(CsParser.fromXml(reader));
+          case EFFECTIVE_TIME -> observation.setEffectiveTime(IvlTsParser.fromXml(reader));
+          case PRIORITY_CODE -> observation.setPriorityCode(CeParser.fromXml(reader));
+          case LANGUAGE_CODE -> observation.setLanguageCode(CsParser.fromXml(reader));
+          case VALUE -> addValue(observation, reader);
+          case INTERPRETATION_CODE -> observation.addInterpretationCode(CeParser.fromXml(reader));
+          case METHOD_CODE -> observation.addMethodCode(CeParser.fromXml(reader));
+          case TARGET_SITE_CODE -> observation.addTargetSiteCode(CdParser.fromXml(reader));
+          case SPECIMEN -> observation.addSpecimen(SpecimenParser.fromXml(reader));
+          case PERFORMER -> observation.addPerformer(Performer2Parser.fromXml(reader));
+          case AUTHOR -> observation.addAuthor(AuthorParser.fromXml(reader));
+          case INFORMANT -> observation.addInformant(InformantParser.fromXml(reader));
+          case PARTICIPANT -> observation.addParticipant(Participant2Parser.fromXml(reader));
+          case ENTRY_RELATIONSHIP -> observation.addEntryRelationship(EntryRelationshipParser.fromXml(reader));
+          case REFERENCE_RANGE -> observation.addReferenceRange(ReferenceRangeParser.fromXml(reader));
+          default -> reader.skipElement();
+        }
+      }
+    }
+    
+    return Observation.isEmpty(observation) ? null : observation;
+  }
+
+  /**
+   * The value can be any datatype, xsi:type says which one it is. Datatypes that are not modeled are skipped.
+   */
+  private static void addValue(final Observation observation, final CcdStreamReader reader) throws XMLStreamException {
+    switch (xsiType(reader)) {
+      case "PQ" -> observation.addValueAsPq(PqParser.fromXml(reader));
+      case "IVL_PQ" -> observation.addValueAsIvlPq(IvlPqParser.fromXml(reader));
+      case "CD", "CE", "CV", "CO" -> observation.addValueAsCd(CdParser.fromXml(reader));
+      case "CS" -> observation.addValueAsCs(CsParser.fromXml(reader));
+      case "ST" -> observation.addValueAsSt(StParser.fromXml(reader));
+      case "ED" -> observation.addValueAsEd(EdParser.fromXml(reader));
+      case "TS" -> observation.addValueAsTs(TsParser.fromXml(reader));
+      case "IVL_TS" -> observation.addValueAsIvlTs(IvlTsParser.fromXml(reader));
+      case "INT" -> observation.addValueAsInt(IntParser.fromXml(reader));
+      case "BL" -> observation.addValueAsBl(BlParser.fromXml(reader));
+      case "TEL" -> observation.addValueAsTel(TelParser.fromXml(reader));
+      default -> reader.skipElement();
+    }
+  }
+
+  /**
+   * @return The xsi:type of the current element without any namespace prefix, empty if it doesn't have one
+   */
+  static String xsiType(final CcdStreamReader reader) {
+    final String xsiType = reader.getAttributeValue(XSI_NAMESPACE, "type");
+    if (xsiType == null) {
+      return "";
+    }
+    
+    final int colon = xsiType.indexOf(':');
+    return colon < 0 ? xsiType : xsiType.substring(colon + 1);
+  }
+          
+}
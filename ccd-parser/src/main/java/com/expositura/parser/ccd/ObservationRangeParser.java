@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd;
+
+import com.expositura.model.ccd.Bl;
+import com.expositura.model.ccd.Cd;
+import com.expositura.model.ccd.Cs;
+import com.expositura.model.ccd.Ed;
+import com.expositura.model.ccd.Intt;
+import com.expositura.model.ccd.IvlPq;
+import com.expositura.model.ccd.IvlTs;
+import com.expositura.model.ccd.ObservationRange;
+import com.expositura.model.ccd.Pq;
+import com.expositura.model.ccd.St;
+import com.expositura.model.ccd.Tel;
+import com.expositura.model.ccd.Ts;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Parses the ObservationRange XML element to the java object. The clinical body is only read by the streaming parser
+ * 
+ * @author Sean Smith
+ */
+public class ObservationRangeParser {
+  
+  public static ObservationRange fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final ObservationRange observationRange = new ObservationRange();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        observationRange.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        observationRange.setClassCode(classCode);
+      }
+      
+      // moodCode
+      final String moodCode = reader.getAttributeValue("moodCode");
+      if (moodCode != null) {
+        observationRange.setMoodCode(moodCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> observationRange.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> observationRange.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> observationRange.addTemplateId(IiParser.fromXml(reader));
+          case CODE -> observationRange.setCode(CdParser.fromXml(reader));
+          case TEXT -> observationRange.setText(EdParser.fromXml(reader));
+          case VALUE -> addValue(observationRange, reader);
+          case INTERPRETATION_CODE -> observationRange.setInterpretationCode(CeParser.fromXml(reader));
+          default -> reader.skipElement();
+        }
+      }
+    }
+    
+    return ObservationRange.isEmpty(observationRange) ? null : observationRange;
+  }
+
+  /**
+   * The value can be any datatype, xsi:type says which one it is. Datatypes that are not modeled are skipped.
+   */
+  private static void addValue(final ObservationRange observationRange, final CcdStreamReader reader) throws XMLStreamException {
+    switch (ObservationParser.xsiType(reader)) {
+      case "PQ" -> observationRange.addValueAsPq(PqParser.fromXml(reader));
+      case "IVL_PQ" -> observationRange.addValueAsIvlPq(IvlPqParser.fromXml(reader));
+      case "CD", "CE", "CV", "CO" -> observationRange.addValueAsCd(CdParser.fromXml(reader));
+      case "CS" -> observationRange.addValueAsCs(CsParser.fromXml(reader));
+      case "ST" -> observationRange.addValueAsSt(StParser.fromXml(reader));
+      case "ED" -> observationRange.addValueAsEd(EdParser.fromXml(reader));
+      case "TS" -> observationRange.addValueAsTs(TsParser.fromXml(reader));
+      case "IVL_TS" -> observationRange.addValueAsIvlTs(IvlTsParser.fromXml(reader));
+      case "INT" -> observationRange.addValueAsInt(IntParser.fromXml(reader));
+      case "BL" -> observationRange.addValueAsBl(BlParser.fromXml(reader));
+      case "TEL" -> observationRange.addValueAsTel(TelParser.fromXml(reader));
+      default -> reader.skipElement();
+    }
+  }
+          
+}
@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.On;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.apache.commons.lang3.StringUtils;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
@@ -62,11 +65,11 @@ public class OnParser {
       
       // This datatype can have text which means it's just a string for the address
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|delimiter" -> on.addDelimiter(EnxpParser.fromXml(child));
-          case "urn:hl7-org:v3|prefix" -> on.addPrefix(EnxpParser.fromXml(child));
-          case "urn:hl7-org:v3|suffix" -> on.addSuffix(EnxpParser.fromXml(child));
-          case "urn:hl7-org:v3|validTime" -> on.setValidTime(IvlTsParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case DELIMITER -> on.addDelimiter(EnxpParser.fromXml(child));
+          case PREFIX -> on.addPrefix(EnxpParser.fromXml(child));
+          case SUFFIX -> on.addSuffix(EnxpParser.fromXml(child));
+          case VALID_TIME -> on.setValidTime(IvlTsParser.fromXml(child));
         }
       } else {
         on.setXmlText(child.getNodeValue());
@@ -75,5 +78,47 @@ public class OnParser {
     
     return On.isEmpty(on) ? null : on;
   }
+
+  public static On fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final On on = new On();
+    
+    // Start by getting the attributes
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        on.setNullFlavor(nullFlavor);
+      }
+      
+      // use (special case, use can have multiple values with space seperator
+      final String use = reader.getAttributeValue("use");
+      if (use != null) {
+        for (final String singleUse : StringUtils.split(use)) {
+          on.addUse(singleUse);
+        }
+      }
+      
+    }
+    
+    // Now work thru children
+    while (reader.nextChild()) {
+      
+      // This datatype can have text which means it's just a string for the address
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case DELIMITER -> on.addDelimiter(EnxpParser.fromXml(reader));
+          case PREFIX -> on.addPrefix(EnxpParser.fromXml(reader));
+          case SUFFIX -> on.addSuffix(EnxpParser.fromXml(reader));
+          case VALID_TIME -> on.setValidTime(IvlTsParser.fromXml(reader));
+          default -> reader.skipElement();
+        }
+      } else {
+        on.setXmlText(reader.getText());
+      }
+    }
+    
+    return On.isEmpty(on) ? null : on;
+  }
           
 }
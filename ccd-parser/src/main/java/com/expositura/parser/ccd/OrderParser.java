@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.Order;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -61,13 +64,58 @@ public class OrderParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> order.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> order.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> order.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|id" -> order.addId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|code" -> order.setCode(CeParser.fromXml(child));
-          case "urn:hl7-org:v3|priorityCode" -> order.setPriorityCode(CeParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> order.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> order.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> order.addTemplateId(IiParser.fromXml(child));
+          case ID -> order.addId(IiParser.fromXml(child));
+          case CODE -> order.setCode(CeParser.fromXml(child));
+          case PRIORITY_CODE -> order.setPriorityCode(CeParser.fromXml(child));
+        }
+      }
+    }
+    
+    return Order.isEmpty(order) ? null : order;
+  }
+
+  public static Order fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Order order = new Order();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        order.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        order.setClassCode(classCode);
+      }
+      
+      // moodCode
+      final String moodCode = reader.getAttributeValue("moodCode");
+      if (moodCode != null) {
+        order.setMoodCode(moodCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> order.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> order.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> order.addTemplateId(IiParser.fromXml(reader));
+          case ID -> order.addId(IiParser.fromXml(reader));
+          case CODE -> order.setCode(CeParser.fromXml(reader));
+          case PRIORITY_CODE -> order.setPriorityCode(CeParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.Organization;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -61,16 +64,64 @@ public class OrganizationParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> organization.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> organization.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> organization.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|id" -> organization.addId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|name" -> organization.addName(OnParser.fromXml(child));
-          case "urn:hl7-org:v3|telecom" -> organization.addTelecom(TelParser.fromXml(child));
-          case "urn:hl7-org:v3|addr" -> organization.addAddr(AdParser.fromXml(child));
-          case "urn:hl7-org:v3|standardIndustryClassCode" -> organization.setStandardIndustryClassCode(CeParser.fromXml(child));
-          case "urn:hl7-org:v3|asOrganizationPartof" -> organization.setAsOrganizationPartOf(OrganizationPartOfParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> organization.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> organization.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> organization.addTemplateId(IiParser.fromXml(child));
+          case ID -> organization.addId(IiParser.fromXml(child));
+          case NAME -> organization.addName(OnParser.fromXml(child));
+          case TELECOM -> organization.addTelecom(TelParser.fromXml(child));
+          case ADDR -> organization.addAddr(AdParser.fromXml(child));
+          case STANDARD_INDUSTRY_CLASS_CODE -> organization.setStandardIndustryClassCode(CeParser.fromXml(child));
+          case AS_ORGANIZATION_PARTOF -> organization.setAsOrganizationPartOf(OrganizationPartOfParser.fromXml(child));
+        }
+      }
+    }
+    
+    return Organization.isEmpty(organization) ? null : organization;
+  }
+
+  public static Organization fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Organization organization = new Organization();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        organization.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        organization.setClassCode(classCode);
+      }
+      
+      // determinerCode
+      final String determinerCode = reader.getAttributeValue("determinerCode");
+      if (determinerCode != null) {
+        organization.setDeterminerCode(determinerCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> organization.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> organization.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> organization.addTemplateId(IiParser.fromXml(reader));
+          case ID -> organization.addId(IiParser.fromXml(reader));
+          case NAME -> organization.addName(OnParser.fromXml(reader));
+          case TELECOM -> organization.addTelecom(TelParser.fromXml(reader));
+          case ADDR -> organization.addAddr(AdParser.fromXml(reader));
+          case STANDARD_INDUSTRY_CLASS_CODE -> organization.setStandardIndustryClassCode(CeParser.fromXml(reader));
+          case AS_ORGANIZATION_PARTOF -> organization.setAsOrganizationPartOf(OrganizationPartOfParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
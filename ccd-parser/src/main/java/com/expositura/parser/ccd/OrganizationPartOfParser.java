@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.OrganizationPartOf;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -55,16 +58,58 @@ public class OrganizationPartOfParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> organizationPartOf.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> organizationPartOf.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> organizationPartOf.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|id" -> organizationPartOf.addId(IiParser.fromXml(child));
-          case "urn:hl7-org:sdtc|identifiedBy" -> organizationPartOf.addIdentifiedBy(IdentifiedByParser.fromXml(child));
-          case "urn:hl7-org:v3|code" -> organizationPartOf.setCode(CeParser.fromXml(child));
-          case "urn:hl7-org:v3|statusCode" -> organizationPartOf.setStatusCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|effectiveTime" -> organizationPartOf.setEffectiveTime(IvlTsParser.fromXml(child));
-          case "urn:hl7-org:v3|wholeOrganization" -> organizationPartOf.setWholeOrganization(OrganizationParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> organizationPartOf.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> organizationPartOf.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> organizationPartOf.addTemplateId(IiParser.fromXml(child));
+          case ID -> organizationPartOf.addId(IiParser.fromXml(child));
+          case SDTC_IDENTIFIED_BY -> organizationPartOf.addIdentifiedBy(IdentifiedByParser.fromXml(child));
+          case CODE -> organizationPartOf.setCode(CeParser.fromXml(child));
+          case STATUS_CODE -> organizationPartOf.setStatusCode(CsParser.fromXml(child));
+          case EFFECTIVE_TIME -> organizationPartOf.setEffectiveTime(IvlTsParser.fromXml(child));
+          case WHOLE_ORGANIZATION -> organizationPartOf.setWholeOrganization(OrganizationParser.fromXml(child));
+        }
+      }
+    }
+    
+    return OrganizationPartOf.isEmpty(organizationPartOf) ? null : organizationPartOf;
+  }
+
+  public static OrganizationPartOf fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final OrganizationPartOf organizationPartOf = new OrganizationPartOf();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        organizationPartOf.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        organizationPartOf.setClassCode(classCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> organizationPartOf.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> organizationPartOf.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> organizationPartOf.addTemplateId(IiParser.fromXml(reader));
+          case ID -> organizationPartOf.addId(IiParser.fromXml(reader));
+          case SDTC_IDENTIFIED_BY -> organizationPartOf.addIdentifiedBy(IdentifiedByParser.fromXml(reader));
+          case CODE -> organizationPartOf.setCode(CeParser.fromXml(reader));
+          case STATUS_CODE -> organizationPartOf.setStatusCode(CsParser.fromXml(reader));
+          case EFFECTIVE_TIME -> organizationPartOf.setEffectiveTime(IvlTsParser.fromXml(reader));
+          case WHOLE_ORGANIZATION -> organizationPartOf.setWholeOrganization(OrganizationParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd;
+
+import com.expositura.model.ccd.Organizer;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Parses the Organizer XML element to the java object. The clinical body is only read by the streaming parser
+ * 
+ * @author Sean Smith
+ */
+public class OrganizerParser {
+  
+  public static Organizer fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Organizer organizer = new Organizer();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        organizer.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        organizer.setClassCode(classCode);
+      }
+      
+      // moodCode
+      final String moodCode = reader.getAttributeValue("moodCode");
+      if (moodCode != null) {
+        organizer.setMoodCode(moodCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> organizer.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> organizer.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> organizer.addTemplateId(IiParser.fromXml(reader));
+          case ID -> organizer.addId(IiParser.fromXml(reader));
+          case CODE -> organizer.setCode(CdParser.fromXml(reader));
+          case STATUS_CODE -> organizer.setStatusCode(CsParser.fromXml(reader));
+          case EFFECTIVE_TIME -> organizer.setEffectiveTime(IvlTsParser.fromXml(reader));
+          case SPECIMEN -> organizer.addSpecimen(SpecimenParser.fromXml(reader));
+          case PERFORMER -> organizer.addPerformer(Performer2Parser.fromXml(reader));
+          case AUTHOR -> organizer.addAuthor(AuthorParser.fromXml(reader));
+          case INFORMANT -> organizer.addInformant(InformantParser.fromXml(reader));
+          case PARTICIPANT -> organizer.addParticipant(Participant2Parser.fromXml(reader));
+          case COMPONENT -> organizer.addComponent(Component4Parser.fromXml(reader));
+          default -> reader.skipElement();
+        }
+      }
+    }
+    
+    return Organizer.isEmpty(organizer) ? null : organizer;
+  }
+          
+}
@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.ParentDocument;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -61,15 +64,62 @@ public class ParentDocumentParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> parentDocument.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> parentDocument.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> parentDocument.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|id" -> parentDocument.addId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|code" -> parentDocument.setCode(CdParser.fromXml(child));
-          case "urn:hl7-org:v3|text" -> parentDocument.setText(EdParser.fromXml(child));
-          case "urn:hl7-org:v3|setId" -> parentDocument.setSettId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|versionNumber" -> parentDocument.setVersionNumber(IntParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> parentDocument.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> parentDocument.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> parentDocument.addTemplateId(IiParser.fromXml(child));
+          case ID -> parentDocument.addId(IiParser.fromXml(child));
+          case CODE -> parentDocument.setCode(CdParser.fromXml(child));
+          case TEXT -> parentDocument.setText(EdParser.fromXml(child));
+          case SET_ID -> parentDocument.setSettId(IiParser.fromXml(child));
+          case VERSION_NUMBER -> parentDocument.setVersionNumber(IntParser.fromXml(child));
+        }
+      }
+    }
+    
+    return ParentDocument.isEmpty(parentDocument) ? null : parentDocument;
+  }
+
+  public static ParentDocument fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final ParentDocument parentDocument = new ParentDocument();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        parentDocument.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        parentDocument.setClassCode(classCode);
+      }
+      
+      // moodCode
+      final String moodCode = reader.getAttributeValue("moodCode");
+      if (moodCode != null) {
+        parentDocument.setMoodCode(moodCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> parentDocument.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> parentDocument.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> parentDocument.addTemplateId(IiParser.fromXml(reader));
+          case ID -> parentDocument.addId(IiParser.fromXml(reader));
+          case CODE -> parentDocument.setCode(CdParser.fromXml(reader));
+          case TEXT -> parentDocument.setText(EdParser.fromXml(reader));
+          case SET_ID -> parentDocument.setSettId(IiParser.fromXml(reader));
+          case VERSION_NUMBER -> parentDocument.setVersionNumber(IntParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.Participant1;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -61,13 +64,58 @@ public class Participant1Parser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> participant1.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> participant1.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> participant1.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|functionCode" -> participant1.setFunctionCode(CeParser.fromXml(child));
-          case "urn:hl7-org:v3|time" -> participant1.setTime(IvlTsParser.fromXml(child));
-          case "urn:hl7-org:v3|associatedEntity" -> participant1.setAssociatedEntity(AssociatedEntityParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> participant1.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> participant1.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> participant1.addTemplateId(IiParser.fromXml(child));
+          case FUNCTION_CODE -> participant1.setFunctionCode(CeParser.fromXml(child));
+          case TIME -> participant1.setTime(IvlTsParser.fromXml(child));
+          case ASSOCIATED_ENTITY -> participant1.setAssociatedEntity(AssociatedEntityParser.fromXml(child));
+        }
+      }
+    }
+    
+    return Participant1.isEmpty(participant1) ? null : participant1;
+  }
+
+  public static Participant1 fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Participant1 participant1 = new Participant1();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        participant1.setNullFlavor(nullFlavor);
+      }
+      
+      // typeCode
+      final String typeCode = reader.getAttributeValue("typeCode");
+      if (typeCode != null) {
+        participant1.setTypeCode(typeCode);
+      }
+      
+      // contextControlCode
+      final String contextControlCode = reader.getAttributeValue("contextControlCode");
+      if (contextControlCode != null) {
+        participant1.setContextControlCode(contextControlCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> participant1.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> participant1.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> participant1.addTemplateId(IiParser.fromXml(reader));
+          case FUNCTION_CODE -> participant1.setFunctionCode(CeParser.fromXml(reader));
+          case TIME -> participant1.setTime(IvlTsParser.fromXml(reader));
+          case ASSOCIATED_ENTITY -> participant1.setAssociatedEntity(AssociatedEntityParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd;
+
+import com.expositura.model.ccd.ParticipantRole;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Parses the ParticipantRole XML element to the java object. The clinical body is only read by the streaming parser
+ * 
+ * @author Sean Smith
+ */
+public class ParticipantRoleParser {
+  
+  public static ParticipantRole fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final ParticipantRole participantRole = new ParticipantRole();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        participantRole.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        participantRole.setClassCode(classCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> participantRole.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> participantRole.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> participantRole.addTemplateId(IiParser.fromXml(reader));
+          case ID -> participantRole.addId(IiParser.fromXml(reader));
+          case CODE -> participantRole.setCode(CeParser.fromXml(reader));
+          case ADDR -> participantRole.addAddr(AdParser.fromXml(reader));
+          case TELECOM -> participantRole.addTelecom(TelParser.fromXml(reader));
+          case PLAYING_ENTITY -> participantRole.setPlayingEntity(PlayingEntityParser.fromXml(reader));
+          default -> reader.skipElement();
+        }
+      }
+    }
+    
+    return ParticipantRole.isEmpty(participantRole) ? null : participantRole;
+  }
+          
+}
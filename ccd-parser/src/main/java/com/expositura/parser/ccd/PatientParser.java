@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.Patient;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -61,28 +64,88 @@ public class PatientParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> patient.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> patient.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> patient.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|id" -> patient.setId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|name" -> patient.addName(PnParser.fromXml(child));
-          case "urn:hl7-org:sdtc|sdtcDesc" -> patient.setDesc(EdParser.fromXml(child));
-          case "urn:hl7-org:v3|administrativeGenderCode" -> patient.setAdministrativeGenderCode(CeParser.fromXml(child));
-          case "urn:hl7-org:v3|birthTime" -> patient.setBirthTime(TsParser.fromXml(child));
-          case "urn:hl7-org:sdtc|sdtcDeceasedInd" -> patient.setDeceasedInd(BlParser.fromXml(child));
-          case "urn:hl7-org:sdtc|sdtcDeceasedTime" -> patient.setDeceasedTime(TsParser.fromXml(child));
-          case "urn:hl7-org:sdtc|sdtcMultipleBirthInd" -> patient.setMultipleBirthInd(BlParser.fromXml(child));
-          case "urn:hl7-org:sdtc|sdtcMultipleBirthOrderNumber" -> patient.setMultipleBirthOrderNumber(IntPosParser.fromXml(child));
-          case "urn:hl7-org:v3|maritalStatusCode" -> patient.setMaritalStatusCode(CeParser.fromXml(child));
-          case "urn:hl7-org:v3|religiousAffiliationCode" -> patient.setReligiousAffiliationCode(CeParser.fromXml(child));
-          case "urn:hl7-org:v3|raceCode" -> patient.addRaceCode(CeParser.fromXml(child));
-          case "urn:hl7-org:sdtc|sdtcRaceCode" -> patient.addRaceCode(CeParser.fromXml(child));
-          case "urn:hl7-org:v3|ethnicGroupCode" -> patient.addEthnicGroupCode(CeParser.fromXml(child));
-          case "urn:hl7-org:sdtc|sdtcEthnicGroupCode" -> patient.addEthnicGroupCode(CeParser.fromXml(child));
-          case "urn:hl7-org:v3|guardian" -> patient.addGuardian(GuardianParser.fromXml(child));
-          case "urn:hl7-org:v3|birthplace" -> patient.setBirthplace(BirthplaceParser.fromXml(child));
-          case "urn:hl7-org:v3|languageCommunication" -> patient.addLanguageCommunication(LanguageCommunicationParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> patient.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> patient.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> patient.addTemplateId(IiParser.fromXml(child));
+          case ID -> patient.setId(IiParser.fromXml(child));
+          case NAME -> patient.addName(PnParser.fromXml(child));
+          case SDTC_DESC -> patient.setDesc(EdParser.fromXml(child));
+          case ADMINISTRATIVE_GENDER_CODE -> patient.setAdministrativeGenderCode(CeParser.fromXml(child));
+          case BIRTH_TIME -> patient.setBirthTime(TsParser.fromXml(child));
+          case SDTC_DECEASED_IND -> patient.setDeceasedInd(BlParser.fromXml(child));
+          case SDTC_DECEASED_TIME -> patient.setDeceasedTime(TsParser.fromXml(child));
+          case SDTC_MULTIPLE_BIRTH_IND -> patient.setMultipleBirthInd(BlParser.fromXml(child));
+          case SDTC_MULTIPLE_BIRTH_ORDER_NUMBER -> patient.setMultipleBirthOrderNumber(IntPosParser.fromXml(child));
+          case MARITAL_STATUS_CODE -> patient.setMaritalStatusCode(CeParser.fromXml(child));
+          case RELIGIOUS_AFFILIATION_CODE -> patient.setReligiousAffiliationCode(CeParser.fromXml(child));
+          case RACE_CODE -> patient.addRaceCode(CeParser.fromXml(child));
+          case SDTC_RACE_CODE -> patient.addRaceCode(CeParser.fromXml(child));
+          case ETHNIC_GROUP_CODE -> patient.addEthnicGroupCode(CeParser.fromXml(child));
+          case SDTC_ETHNIC_GROUP_CODE -> patient.addEthnicGroupCode(CeParser.fromXml(child));
+          case GUARDIAN -> patient.addGuardian(GuardianParser.fromXml(child));
+          case BIRTHPLACE -> patient.setBirthplace(BirthplaceParser.fromXml(child));
+          case LANGUAGE_COMMUNICATION -> patient.addLanguageCommunication(LanguageCommunicationParser.fromXml(child));
+        }
+      }
+    }
+    
+    return Patient.isEmpty(patient) ? null : patient;
+  }
+
+  public static Patient fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Patient patient = new Patient();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        patient.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        patient.setClassCode(classCode);
+      }
+      
+      // determinerCode
+      final String determinerCode = reader.getAttributeValue("determinerCode");
+      if (determinerCode != null) {
+        patient.setDeterminerCode(determinerCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> patient.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> patient.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> patient.addTemplateId(IiParser.fromXml(reader));
+          case ID -> patient.setId(IiParser.fromXml(reader));
+          case NAME -> patient.addName(PnParser.fromXml(reader));
+          case SDTC_DESC -> patient.setDesc(EdParser.fromXml(reader));
+          case ADMINISTRATIVE_GENDER_CODE -> patient.setAdministrativeGenderCode(CeParser.fromXml(reader));
+          case BIRTH_TIME -> patient.setBirthTime(TsParser.fromXml(reader));
+          case SDTC_DECEASED_IND -> patient.setDeceasedInd(BlParser.fromXml(reader));
+          case SDTC_DECEASED_TIME -> patient.setDeceasedTime(TsParser.fromXml(reader));
+          case SDTC_MULTIPLE_BIRTH_IND -> patient.setMultipleBirthInd(BlParser.fromXml(reader));
+          case SDTC_MULTIPLE_BIRTH_ORDER_NUMBER -> patient.setMultipleBirthOrderNumber(IntPosParser.fromXml(reader));
+          case MARITAL_STATUS_CODE -> patient.setMaritalStatusCode(CeParser.fromXml(reader));
+          case RELIGIOUS_AFFILIATION_CODE -> patient.setReligiousAffiliationCode(CeParser.fromXml(reader));
+          case RACE_CODE -> patient.addRaceCode(CeParser.fromXml(reader));
+          case SDTC_RACE_CODE -> patient.addRaceCode(CeParser.fromXml(reader));
+          case ETHNIC_GROUP_CODE -> patient.addEthnicGroupCode(CeParser.fromXml(reader));
+          case SDTC_ETHNIC_GROUP_CODE -> patient.addEthnicGroupCode(CeParser.fromXml(reader));
+          case GUARDIAN -> patient.addGuardian(GuardianParser.fromXml(reader));
+          case BIRTHPLACE -> patient.setBirthplace(BirthplaceParser.fromXml(reader));
+          case LANGUAGE_COMMUNICATION -> patient.addLanguageCommunication(LanguageCommunicationParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.PatientRole;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -55,16 +58,58 @@ public class PatientRoleParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> patientRole.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> patientRole.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> patientRole.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|id" -> patientRole.addId(IiParser.fromXml(child));
-          case "urn:hl7-org:sdtc|identifiedBy" -> patientRole.addIdentifiedBy(IdentifiedByParser.fromXml(child));
-          case "urn:hl7-org:v3|addr" -> patientRole.addAddr(AdParser.fromXml(child));
-          case "urn:hl7-org:v3|telecom" -> patientRole.addTelecom(TelParser.fromXml(child));
-          case "urn:hl7-org:v3|patient" -> patientRole.setPatient(PatientParser.fromXml(child));
-          case "urn:hl7-org:v3|providerOrganization" -> patientRole.setProviderOrganization(OrganizationParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> patientRole.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> patientRole.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> patientRole.addTemplateId(IiParser.fromXml(child));
+          case ID -> patientRole.addId(IiParser.fromXml(child));
+          case SDTC_IDENTIFIED_BY -> patientRole.addIdentifiedBy(IdentifiedByParser.fromXml(child));
+          case ADDR -> patientRole.addAddr(AdParser.fromXml(child));
+          case TELECOM -> patientRole.addTelecom(TelParser.fromXml(child));
+          case PATIENT -> patientRole.setPatient(PatientParser.fromXml(child));
+          case PROVIDER_ORGANIZATION -> patientRole.setProviderOrganization(OrganizationParser.fromXml(child));
+        }
+      }
+    }
+    
+    return PatientRole.isEmpty(patientRole) ? null : patientRole;
+  }
+
+  public static PatientRole fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final PatientRole patientRole = new PatientRole();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        patientRole.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        patientRole.setClassCode(classCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> patientRole.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> patientRole.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> patientRole.addTemplateId(IiParser.fromXml(reader));
+          case ID -> patientRole.addId(IiParser.fromXml(reader));
+          case SDTC_IDENTIFIED_BY -> patientRole.addIdentifiedBy(IdentifiedByParser.fromXml(reader));
+          case ADDR -> patientRole.addAddr(AdParser.fromXml(reader));
+          case TELECOM -> patientRole.addTelecom(TelParser.fromXml(reader));
+          case PATIENT -> patientRole.setPatient(PatientParser.fromXml(reader));
+          case PROVIDER_ORGANIZATION -> patientRole.setProviderOrganization(OrganizationParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
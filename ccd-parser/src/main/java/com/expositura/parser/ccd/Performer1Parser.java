@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.Performer1;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -55,13 +58,52 @@ public class Performer1Parser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> performer1.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> performer1.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> performer1.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|functionCode" -> performer1.setFunctionCode(CeParser.fromXml(child));
-          case "urn:hl7-org:v3|time" -> performer1.setTime(IvlTsParser.fromXml(child));
-          case "urn:hl7-org:v3|assignedEntity" -> performer1.setAssignedEntity(AssignedEntityParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> performer1.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> performer1.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> performer1.addTemplateId(IiParser.fromXml(child));
+          case FUNCTION_CODE -> performer1.setFunctionCode(CeParser.fromXml(child));
+          case TIME -> performer1.setTime(IvlTsParser.fromXml(child));
+          case ASSIGNED_ENTITY -> performer1.setAssignedEntity(AssignedEntityParser.fromXml(child));
+        }
+      }
+    }
+    
+    return Performer1.isEmpty(performer1) ? null : performer1;
+  }
+
+  public static Performer1 fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Performer1 performer1 = new Performer1();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        performer1.setNullFlavor(nullFlavor);
+      }
+      
+      // typeCode
+      final String typeCode = reader.getAttributeValue("typeCode");
+      if (typeCode != null) {
+        performer1.setTypeCode(typeCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> performer1.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> performer1.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> performer1.addTemplateId(IiParser.fromXml(reader));
+          case FUNCTION_CODE -> performer1.setFunctionCode(CeParser.fromXml(reader));
+          case TIME -> performer1.setTime(IvlTsParser.fromXml(reader));
+          case ASSIGNED_ENTITY -> performer1.setAssignedEntity(AssignedEntityParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
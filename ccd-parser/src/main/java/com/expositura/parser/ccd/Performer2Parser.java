@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd;
+
+import com.expositura.model.ccd.Performer2;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Parses the Performer2 XML element to the java object. The clinical body is only read by the streaming parser
+ * 
+ * @author Sean Smith
+ */
+public class Performer2Parser {
+  
+  public static Performer2 fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Performer2 performer2 = new Performer2();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        performer2.setNullFlavor(nullFlavor);
+      }
+      
+      // typeCode
+      final String typeCode = reader.getAttributeValue("typeCode");
+      if (typeCode != null) {
+        performer2.setTypeCode(typeCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> performer2.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> performer2.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> performer2.addTemplateId(IiParser.fromXml(reader));
+          case TIME -> performer2.setTime(IvlTsParser.fromXml(reader));
+          case MODE_CODE -> performer2.setModeCode(CeParser.fromXml(reader));
+          case ASSIGNED_ENTITY -> performer2.setAssignedEntity(AssignedEntityParser.fromXml(reader));
+          default -> reader.skipElement();
+        }
+      }
+    }
+    
+    return Performer2.isEmpty(performer2) ? null : performer2;
+  }
+          
+}
@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.Person;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -61,13 +64,58 @@ public class PersonParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> person.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> person.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> person.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|name" -> person.addName(PnParser.fromXml(child));
-          case "urn:hl7-org:sdtc|sdtcDesc" -> person.setDesc(EdParser.fromXml(child));
-          case "urn:hl7-org:sdtc|sdtcAsPatientRelationship" -> person.addAsPatientRelationship(AsPatientRelationshipParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> person.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> person.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> person.addTemplateId(IiParser.fromXml(child));
+          case NAME -> person.addName(PnParser.fromXml(child));
+          case SDTC_DESC -> person.setDesc(EdParser.fromXml(child));
+          case SDTC_AS_PATIENT_RELATIONSHIP -> person.addAsPatientRelationship(AsPatientRelationshipParser.fromXml(child));
+        }
+      }
+    }
+    
+    return Person.isEmpty(person) ? null : person;
+  }
+
+  public static Person fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Person person = new Person();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        person.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        person.setClassCode(classCode);
+      }
+      
+      // determinerCode
+      final String determinerCode = reader.getAttributeValue("determinerCode");
+      if (determinerCode != null) {
+        person.setDeterminerCode(determinerCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> person.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> person.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> person.addTemplateId(IiParser.fromXml(reader));
+          case NAME -> person.addName(PnParser.fromXml(reader));
+          case SDTC_DESC -> person.setDesc(EdParser.fromXml(reader));
+          case SDTC_AS_PATIENT_RELATIONSHIP -> person.addAsPatientRelationship(AsPatientRelationshipParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
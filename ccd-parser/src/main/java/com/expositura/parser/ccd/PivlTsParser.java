@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.PivlTs;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -67,9 +70,56 @@ public class PivlTsParser {
       
       // This element may have text content (base64 string)
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|phase" -> eivlTs.setPhase(IvlTsParser.fromXml(child));
-          case "urn:hl7-org:v3|period" -> eivlTs.setPeriod(PqParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case PHASE -> eivlTs.setPhase(IvlTsParser.fromXml(child));
+          case PERIOD -> eivlTs.setPeriod(PqParser.fromXml(child));
+        }
+      } 
+    }
+    
+    return PivlTs.isEmpty(eivlTs) ? null : eivlTs;
+  }
+
+  public static PivlTs fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final PivlTs eivlTs = new PivlTs();
+    
+    // Start by getting the attributes
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        eivlTs.setNullFlavor(nullFlavor);
+      }
+      
+      // operator
+      final String operator = reader.getAttributeValue("operator");
+      if (operator != null) {
+        eivlTs.setOperator(operator);
+      }
+      
+      // alignment
+      final String alignment = reader.getAttributeValue("alignment");
+      if (alignment != null) {
+        eivlTs.setAlignment(alignment);
+      }
+      
+      // institutionSpecified
+      final String institutionSpecified = reader.getAttributeValue("institutionSpecified");
+      if (institutionSpecified != null) {
+        eivlTs.setInstitutionSpecified(Boolean.valueOf(institutionSpecified));
+      }
+    }
+    
+    // Now work thru children
+    while (reader.nextChild()) {
+      
+      // This element may have text content (base64 string)
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case PHASE -> eivlTs.setPhase(IvlTsParser.fromXml(reader));
+          case PERIOD -> eivlTs.setPeriod(PqParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       } 
     }
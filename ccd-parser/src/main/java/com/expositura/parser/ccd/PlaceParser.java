@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.Place;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -61,12 +64,56 @@ public class PlaceParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> birthplace.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> birthplace.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> birthplace.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|name" -> birthplace.setName(EnParser.fromXml(child));
-          case "urn:hl7-org:v3|addr" -> birthplace.setAddr(AdParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> birthplace.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> birthplace.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> birthplace.addTemplateId(IiParser.fromXml(child));
+          case NAME -> birthplace.setName(EnParser.fromXml(child));
+          case ADDR -> birthplace.setAddr(AdParser.fromXml(child));
+        }
+      }
+    }
+    
+    return Place.isEmpty(birthplace) ? null : birthplace;
+  }
+
+  public static Place fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Place birthplace = new Place();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        birthplace.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        birthplace.setClassCode(classCode);
+      }
+      
+      // determinerCode
+      final String determinerCode = reader.getAttributeValue("determinerCode");
+      if (determinerCode != null) {
+        birthplace.setDeterminerCode(determinerCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> birthplace.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> birthplace.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> birthplace.addTemplateId(IiParser.fromXml(reader));
+          case NAME -> birthplace.setName(EnParser.fromXml(reader));
+          case ADDR -> birthplace.setAddr(AdParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
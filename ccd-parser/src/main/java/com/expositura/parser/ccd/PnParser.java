@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.Pn;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.apache.commons.lang3.StringUtils;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
@@ -62,13 +65,13 @@ public class PnParser {
       
       // This datatype can have text which means it's just a string for the name
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|delimiter" -> pn.addDelimiter(EnxpParser.fromXml(child));
-          case "urn:hl7-org:v3|family" -> pn.addFamily(EnxpParser.fromXml(child));
-          case "urn:hl7-org:v3|given" -> pn.addGiven(EnxpParser.fromXml(child));
-          case "urn:hl7-org:v3|prefix" -> pn.addPrefix(EnxpParser.fromXml(child));
-          case "urn:hl7-org:v3|suffix" -> pn.addSuffix(EnxpParser.fromXml(child));
-          case "urn:hl7-org:v3|validTime" -> pn.setValidTime(IvlTsParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case DELIMITER -> pn.addDelimiter(EnxpParser.fromXml(child));
+          case FAMILY -> pn.addFamily(EnxpParser.fromXml(child));
+          case GIVEN -> pn.addGiven(EnxpParser.fromXml(child));
+          case PREFIX -> pn.addPrefix(EnxpParser.fromXml(child));
+          case SUFFIX -> pn.addSuffix(EnxpParser.fromXml(child));
+          case VALID_TIME -> pn.setValidTime(IvlTsParser.fromXml(child));
         }
       } else {
         pn.setXmlText(child.getNodeValue());
@@ -77,5 +80,49 @@ public class PnParser {
     
     return Pn.isEmpty(pn) ? null : pn;
   }
+
+  public static Pn fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Pn pn = new Pn();
+    
+    // Start by getting the attributes
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        pn.setNullFlavor(nullFlavor);
+      }
+      
+      // use (special case, use can have multiple values with space seperator
+      final String use = reader.getAttributeValue("use");
+      if (use != null) {
+        for (final String singleUse : StringUtils.split(use)) {
+          pn.addUse(singleUse);
+        }
+      }
+      
+    }
+    
+    // Now work thru children
+    while (reader.nextChild()) {
+      
+      // This datatype can have text which means it's just a string for the name
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case DELIMITER -> pn.addDelimiter(EnxpParser.fromXml(reader));
+          case FAMILY -> pn.addFamily(EnxpParser.fromXml(reader));
+          case GIVEN -> pn.addGiven(EnxpParser.fromXml(reader));
+          case PREFIX -> pn.addPrefix(EnxpParser.fromXml(reader));
+          case SUFFIX -> pn.addSuffix(EnxpParser.fromXml(reader));
+          case VALID_TIME -> pn.setValidTime(IvlTsParser.fromXml(reader));
+          default -> reader.skipElement();
+        }
+      } else {
+        pn.setXmlText(reader.getText());
+      }
+    }
+    
+    return Pn.isEmpty(pn) ? null : pn;
+  }
           
 }
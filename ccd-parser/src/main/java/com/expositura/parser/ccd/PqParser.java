@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.Pq;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -62,8 +65,49 @@ public class PqParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|translation" -> pq.addTranslation(PqrParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case TRANSLATION -> pq.addTranslation(PqrParser.fromXml(child));
+        }
+      }
+    }
+    
+    return Pq.isEmpty(pq) ? null : pq;
+  }
+
+  public static Pq fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Pq pq = new Pq();
+    
+    // Start by getting the attributes
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        pq.setNullFlavor(nullFlavor);
+      }
+      
+      // unit
+      final String unit = reader.getAttributeValue("unit");
+      if (unit != null) {
+        pq.setUnit(unit);
+      }
+      
+      // value
+      final String value = reader.getAttributeValue("value");
+      if (value != null) {
+        pq.setValue(value);
+      }
+      
+    }
+    
+    // Now work thru children
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case TRANSLATION -> pq.addTranslation(PqrParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.Pqr;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -97,8 +100,84 @@ public class PqrParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|originalText" -> pqr.setOriginalText(EdParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case ORIGINAL_TEXT -> pqr.setOriginalText(EdParser.fromXml(child));
+        }
+      }
+    }
+    
+    return Pqr.isEmpty(pqr) ? null : pqr;
+  }
+
+  public static Pqr fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Pqr pqr = new Pqr();
+    
+    // Start by getting the attributes
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        pqr.setNullFlavor(nullFlavor);
+      }
+      
+      // code
+      final String code = reader.getAttributeValue("code");
+      if (code != null) {
+        pqr.setCode(code);
+      }
+      
+      // codeSystem
+      final String codeSystem = reader.getAttributeValue("codeSystem");
+      if (codeSystem != null) {
+        pqr.setCodeSystem(codeSystem);
+      }
+      
+      // codeSystemName
+      final String codeSystemName = reader.getAttributeValue("codeSystemName");
+      if (codeSystemName != null) {
+        pqr.setCodeSystemName(codeSystemName);
+      }
+      
+      // codeSystemVersion
+      final String codeSystemVersion = reader.getAttributeValue("codeSystemVersion");
+      if (codeSystemVersion != null) {
+        pqr.setCodeSystemVersion(codeSystemVersion);
+      }
+      
+      // displayName
+      final String displayName = reader.getAttributeValue("displayName");
+      if (displayName != null) {
+        pqr.setDisplayName(displayName);
+      }
+      
+      // sdtcValueSet
+      final String valueSet = reader.getAttributeValue("urn:hl7-org:sdtc", "valueSet");
+      if (valueSet != null) {
+        pqr.setValueSet(valueSet);
+      }
+      
+      // sdtcValueSetVersion
+      final String valueSetVersion = reader.getAttributeValue("urn:hl7-org:sdtc", "valueSetVersion");
+      if (valueSetVersion != null) {
+        pqr.setValueSetVersion(valueSetVersion);
+      }
+      
+      // value
+      final String value = reader.getAttributeValue("value");
+      if (value != null) {
+        pqr.setValue(Double.valueOf(value));
+      }
+    }
+    
+    // Now work thru children
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case ORIGINAL_TEXT -> pqr.setOriginalText(EdParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd;
+
+import com.expositura.model.ccd.Procedure;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Parses the Procedure XML element to the java object. The clinical body is only read by the streaming parser
+ * 
+ * @author Sean Smith
+ */
+public class ProcedureParser {
+  
+  public static Procedure fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Procedure procedure = new Procedure();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        procedure.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        procedure.setClassCode(classCode);
+      }
+      
+      // moodCode
+      final String moodCode = reader.getAttributeValue("moodCode");
+      if (moodCode != null) {
+        procedure.setMoodCode(moodCode);
+      }
+      
+      // negationInd
+      final String negationInd = reader.getAttributeValue("negationInd");
+      if (negationInd != null) {
+        procedure.setNegationInd(Boolean.valueOf(negationInd));
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> procedure.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> procedure.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> procedure.addTemplateId(IiParser.fromXml(reader));
+          case ID -> procedure.addId(IiParser.fromXml(reader));
+          case CODE -> procedure.setCode(CdParser.fromXml(reader));
+          case TEXT -> procedure.setText(EdParser.fromXml(reader));
+          case STATUS_CODE -> procedure.setStatusCode(CsParser.fromXml(reader));
+          case EFFECTIVE_TIME -> procedure.setEffectiveTime(IvlTsParser.fromXml(reader));
+          case PRIORITY_CODE -> procedure.setPriorityCode(CeParser.fromXml(reader));
+          case LANGUAGE_CODE -> procedure.setLanguageCode(CsParser.fromXml(reader));
+          case METHOD_CODE -> procedure.addMethodCode(CeParser.fromXml(reader));
+          case APPROACH_SITE_CODE -> procedure.addApproachSiteCode(CdParser.fromXml(reader));
+          case TARGET_SITE_CODE -> procedure.addTargetSiteCode(CdParser.fromXml(reader));
+          case SPECIMEN -> procedure.addSpecimen(SpecimenParser.fromXml(reader));
+          case PERFORMER -> procedure.addPerformer(Performer2Parser.fromXml(reader));
+          case AUTHOR -> procedure.addAuthor(AuthorParser.fromXml(reader));
+          case INFORMANT -> procedure.addInformant(InformantParser.fromXml(reader));
+          case PARTICIPANT -> procedure.addParticipant(Participant2Parser.fromXml(reader));
+          case ENTRY_RELATIONSHIP -> procedure.addEntryRelationship(EntryRelationshipParser.fromXml(reader));
+          default -> reader.skipElement();
+        }
+      }
+    }
+    
+    return Procedure.isEmpty(procedure) ? null : procedure;
+  }
+          
+}
@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.RecordTarget;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -60,11 +63,53 @@ public class RecordTargetParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> recordTarget.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> recordTarget.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> recordTarget.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|patientRole" -> recordTarget.setPatientRole(PatientRoleParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> recordTarget.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> recordTarget.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> recordTarget.addTemplateId(IiParser.fromXml(child));
+          case PATIENT_ROLE -> recordTarget.setPatientRole(PatientRoleParser.fromXml(child));
+        }
+      }
+    }
+    
+    return RecordTarget.isEmpty(recordTarget) ? null : recordTarget;
+  }
+
+  public static RecordTarget fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final RecordTarget recordTarget = new RecordTarget();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        recordTarget.setNullFlavor(nullFlavor);
+      }
+      
+      // typeCode
+      final String typeCode = reader.getAttributeValue("typeCode");
+      if (typeCode != null) {
+        recordTarget.setTypeCode(typeCode);
+      }
+      
+      // contextControlCode
+      final String contextControlCode = reader.getAttributeValue("contextControlCode");
+      if (contextControlCode != null) {
+        recordTarget.setContextControlCode(contextControlCode);
+      }
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> recordTarget.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> recordTarget.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> recordTarget.addTemplateId(IiParser.fromXml(reader));
+          case PATIENT_ROLE -> recordTarget.setPatientRole(PatientRoleParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.RelatedDocument;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -55,11 +58,48 @@ public class RelatedDocumentParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> relatedDocument.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> relatedDocument.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> relatedDocument.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|parentDocument" -> relatedDocument.setParentDocument(ParentDocumentParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> relatedDocument.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> relatedDocument.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> relatedDocument.addTemplateId(IiParser.fromXml(child));
+          case PARENT_DOCUMENT -> relatedDocument.setParentDocument(ParentDocumentParser.fromXml(child));
+        }
+      }
+    }
+    
+    return RelatedDocument.isEmpty(relatedDocument) ? null : relatedDocument;
+  }
+
+  public static RelatedDocument fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final RelatedDocument relatedDocument = new RelatedDocument();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        relatedDocument.setNullFlavor(nullFlavor);
+      }
+      
+      // typeCode
+      final String typeCode = reader.getAttributeValue("typeCode");
+      if (typeCode != null) {
+        relatedDocument.setTypeCode(typeCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> relatedDocument.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> relatedDocument.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> relatedDocument.addTemplateId(IiParser.fromXml(reader));
+          case PARENT_DOCUMENT -> relatedDocument.setParentDocument(ParentDocumentParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
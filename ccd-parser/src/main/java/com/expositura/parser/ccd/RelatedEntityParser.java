@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.RelatedEntity;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -55,15 +58,56 @@ public class RelatedEntityParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> assignedEntity.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> assignedEntity.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> assignedEntity.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|code" -> assignedEntity.setCode(CeParser.fromXml(child));
-          case "urn:hl7-org:v3|addr" -> assignedEntity.addAddr(AdParser.fromXml(child));
-          case "urn:hl7-org:v3|telecom" -> assignedEntity.addTelecom(TelParser.fromXml(child));
-          case "urn:hl7-org:v3|effectiveTime" -> assignedEntity.setEffectiveTime(IvlTsParser.fromXml(child));
-          case "urn:hl7-org:v3|relatedPersion" -> assignedEntity.setRelatedPerson(PersonParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> assignedEntity.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> assignedEntity.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> assignedEntity.addTemplateId(IiParser.fromXml(child));
+          case CODE -> assignedEntity.setCode(CeParser.fromXml(child));
+          case ADDR -> assignedEntity.addAddr(AdParser.fromXml(child));
+          case TELECOM -> assignedEntity.addTelecom(TelParser.fromXml(child));
+          case EFFECTIVE_TIME -> assignedEntity.setEffectiveTime(IvlTsParser.fromXml(child));
+          case RELATED_PERSION -> assignedEntity.setRelatedPerson(PersonParser.fromXml(child));
+        }
+      }
+    }
+    
+    return RelatedEntity.isEmpty(assignedEntity) ? null : assignedEntity;
+  }
+
+  public static RelatedEntity fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final RelatedEntity assignedEntity = new RelatedEntity();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        assignedEntity.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        assignedEntity.setClassCode(classCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> assignedEntity.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> assignedEntity.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> assignedEntity.addTemplateId(IiParser.fromXml(reader));
+          case CODE -> assignedEntity.setCode(CeParser.fromXml(reader));
+          case ADDR -> assignedEntity.addAddr(AdParser.fromXml(reader));
+          case TELECOM -> assignedEntity.addTelecom(TelParser.fromXml(reader));
+          case EFFECTIVE_TIME -> assignedEntity.setEffectiveTime(IvlTsParser.fromXml(reader));
+          case RELATED_PERSION -> assignedEntity.setRelatedPerson(PersonParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
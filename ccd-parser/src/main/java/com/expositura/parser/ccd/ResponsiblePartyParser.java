@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.ResponsibleParty;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -55,11 +58,48 @@ public class ResponsiblePartyParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> responsibleParty.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> responsibleParty.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> responsibleParty.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|assignedEntity" -> responsibleParty.setAssignedEntity(AssignedEntityParser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> responsibleParty.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> responsibleParty.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> responsibleParty.addTemplateId(IiParser.fromXml(child));
+          case ASSIGNED_ENTITY -> responsibleParty.setAssignedEntity(AssignedEntityParser.fromXml(child));
+        }
+      }
+    }
+    
+    return ResponsibleParty.isEmpty(responsibleParty) ? null : responsibleParty;
+  }
+
+  public static ResponsibleParty fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final ResponsibleParty responsibleParty = new ResponsibleParty();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        responsibleParty.setNullFlavor(nullFlavor);
+      }
+      
+      // typeCode
+      final String typeCode = reader.getAttributeValue("typeCode");
+      if (typeCode != null) {
+        responsibleParty.setTypeCode(typeCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> responsibleParty.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> responsibleParty.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> responsibleParty.addTemplateId(IiParser.fromXml(reader));
+          case ASSIGNED_ENTITY -> responsibleParty.setAssignedEntity(AssignedEntityParser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
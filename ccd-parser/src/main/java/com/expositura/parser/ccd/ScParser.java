@@ -16,6 +16,8 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.Sc;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -105,5 +107,81 @@ public class ScParser {
     
     return Sc.isEmpty(sc) ? null : sc;
   }
+
+  public static Sc fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Sc sc = new Sc();
+    
+    // Start by getting the attributes
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        sc.setNullFlavor(nullFlavor);
+      }
+      
+      // representation
+      final String representation = reader.getAttributeValue("representation");
+      if (representation != null) {
+        sc.setRepresentation(representation);
+      }
+      
+      // mediaType
+      final String mediaType = reader.getAttributeValue("mediaType");
+      if (mediaType != null) {
+        sc.setMediaType(mediaType);
+      }
+
+      // language
+      final String language = reader.getAttributeValue("language");
+      if (language != null) {
+        sc.setLanguage(language);
+      }
+      
+      // code
+      final String code = reader.getAttributeValue("code");
+      if (code != null) {
+        sc.setCode(code);
+      }
+      
+      // codeSystem
+      final String codeSystem = reader.getAttributeValue("codeSystem");
+      if (codeSystem != null) {
+        sc.setCodeSystem(codeSystem);
+      }
+      
+      // codeSystemName
+      final String codeSystemName = reader.getAttributeValue("codeSystemName");
+      if (codeSystemName != null) {
+        sc.setCodeSystemName(codeSystemName);
+      }
+      
+      // codeSystemVersion
+      final String codeSystemVersion = reader.getAttributeValue("codeSystemVersion");
+      if (codeSystemVersion != null) {
+        sc.setCodeSystemVersion(codeSystemVersion);
+      }
+      
+      // displayName
+      final String displayName = reader.getAttributeValue("displayName");
+      if (displayName != null) {
+        sc.setDisplayName(displayName);
+      }
+    }
+    
+    // Now work thru children
+    while (reader.nextChild()) {
+      
+      // This element may have text content (base64 string)
+      if (reader.isElement()) {
+        // Not expecting any regular children
+        reader.skipElement();
+      } else {
+        sc.setXmlText(reader.getText());
+      }
+    }
+    
+    return Sc.isEmpty(sc) ? null : sc;
+  }
           
 }
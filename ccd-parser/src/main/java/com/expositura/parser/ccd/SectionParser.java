@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd;
+
+import com.expositura.model.ccd.Ed;
+import com.expositura.model.ccd.Section;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Parses the Section XML element to the java object. The clinical body is only read by the streaming parser
+ * 
+ * @author Sean Smith
+ */
+public class SectionParser {
+  
+  public static Section fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Section section = new Section();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        section.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        section.setClassCode(classCode);
+      }
+      
+      // moodCode
+      final String moodCode = reader.getAttributeValue("moodCode");
+      if (moodCode != null) {
+        section.setMoodCode(moodCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> section.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> section.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> section.addTemplateId(IiParser.fromXml(reader));
+          case ID -> section.setId(IiParser.fromXml(reader));
+          case CODE -> section.setCode(CeParser.fromXml(reader));
+          case TITLE -> section.setTitle(StParser.fromXml(reader));
+          case TEXT -> section.setText(narrativeFromXml(reader));
+          case CONFIDENTIALITY_CODE -> section.setConfidentialityCode(CeParser.fromXml(reader));
+          case LANGUAGE_CODE -> section.setLanguageCode(CsParser.fromXml(reader));
+          case AUTHOR -> section.addAuthor(AuthorParser.fromXml(reader));
+          case INFORMANT -> section.addInformant(InformantParser.fromXml(reader));
+          case ENTRY -> section.addEntry(EntryParser.fromXml(reader));
+          case COMPONENT -> section.addComponent(Component5Parser.fromXml(reader));
+          default -> reader.skipElement();
+        }
+      }
+    }
+    
+    return Section.isEmpty(section) ? null : section;
+  }
+
+  /**
+   * The section text is the human readable narrative block (tables, lists, paragraphs), it's kept as XML in the
+   * xmlText so it can still be displayed.
+   */
+  private static Ed narrativeFromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Ed text = new Ed();
+    text.setMediaType(reader.getAttributeValue("mediaType"));
+    text.setXmlText(reader.readContentAsXml());
+    return Ed.isEmpty(text) ? null : text;
+  }
+          
+}
@@ -16,6 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.ServiceEvent;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -61,14 +64,60 @@ public class ServiceEventParser {
       
       // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|realmCode" -> serviceEvent.addRealmCode(CsParser.fromXml(child));
-          case "urn:hl7-org:v3|typeId" -> serviceEvent.setTypeId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|templateId" -> serviceEvent.addTemplateId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|id" -> serviceEvent.addId(IiParser.fromXml(child));
-          case "urn:hl7-org:v3|code" -> serviceEvent.setCode(CeParser.fromXml(child));
-          case "urn:hl7-org:v3|effectiveTime" -> serviceEvent.setEffectiveTime(IvlTsParser.fromXml(child));
-          case "urn:hl7-org:v3|performer" -> serviceEvent.addPerformer(Performer1Parser.fromXml(child));
+        switch (CcdElement.of(child)) {
+          case REALM_CODE -> serviceEvent.addRealmCode(CsParser.fromXml(child));
+          case TYPE_ID -> serviceEvent.setTypeId(IiParser.fromXml(child));
+          case TEMPLATE_ID -> serviceEvent.addTemplateId(IiParser.fromXml(child));
+          case ID -> serviceEvent.addId(IiParser.fromXml(child));
+          case CODE -> serviceEvent.setCode(CeParser.fromXml(child));
+          case EFFECTIVE_TIME -> serviceEvent.setEffectiveTime(IvlTsParser.fromXml(child));
+          case PERFORMER -> serviceEvent.addPerformer(Performer1Parser.fromXml(child));
+        }
+      }
+    }
+    
+    return ServiceEvent.isEmpty(serviceEvent) ? null : serviceEvent;
+  }
+
+  public static ServiceEvent fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final ServiceEvent serviceEvent = new ServiceEvent();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        serviceEvent.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        serviceEvent.setClassCode(classCode);
+      }
+      
+      // moodCode
+      final String moodCode = reader.getAttributeValue("moodCode");
+      if (moodCode != null) {
+        serviceEvent.setMoodCode(moodCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> serviceEvent.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> serviceEvent.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> serviceEvent.addTemplateId(IiParser.fromXml(reader));
+          case ID -> serviceEvent.addId(IiParser.fromXml(reader));
+          case CODE -> serviceEvent.setCode(CeParser.fromXml(reader));
+          case EFFECTIVE_TIME -> serviceEvent.setEffectiveTime(IvlTsParser.fromXml(reader));
+          case PERFORMER -> serviceEvent.addPerformer(Performer1Parser.fromXml(reader));
+          default -> reader.skipElement();
         }
       }
     }
@@ -16,6 +16,8 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.St;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -76,5 +78,52 @@ public class StParser {
     
     return St.isEmpty(st) ? null : st;
   }
+
+  public static St fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final St st = new St();
+    
+    // Start by getting the attributes
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        st.setNullFlavor(nullFlavor);
+      }
+      
+      // representation
+      final String representation = reader.getAttributeValue("representation");
+      if (representation != null) {
+        st.setRepresentation(representation);
+      }
+      
+      // mediaType
+      final String mediaType = reader.getAttributeValue("mediaType");
+      if (mediaType != null) {
+        st.setMediaType(mediaType);
+      }
+      
+      // language
+      final String language = reader.getAttributeValue("language");
+      if (language != null) {
+        st.setLanguage(language);
+      }
+      
+    }
+    
+    // Now work thru children
+    while (reader.nextChild()) {
+      
+      // No child elements but expect to find in most cases some xml text
+      if (reader.isElement()) {
+        // Ignore, unknown child
+        reader.skipElement();
+      } else {
+        st.setXmlText(reader.getText());
+      }
+    }
+    
+    return St.isEmpty(st) ? null : st;
+  }
           
 }
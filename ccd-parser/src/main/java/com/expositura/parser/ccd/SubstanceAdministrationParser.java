@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd;
+
+import com.expositura.model.ccd.SubstanceAdministration;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Parses the SubstanceAdministration XML element to the java object. The clinical body is only read by the streaming parser
+ * 
+ * @author Sean Smith
+ */
+public class SubstanceAdministrationParser {
+  
+  public static SubstanceAdministration fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final SubstanceAdministration substanceAdministration = new SubstanceAdministration();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        substanceAdministration.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        substanceAdministration.setClassCode(classCode);
+      }
+      
+      // moodCode
+      final String moodCode = reader.getAttributeValue("moodCode");
+      if (moodCode != null) {
+        substanceAdministration.setMoodCode(moodCode);
+      }
+      
+      // negationInd
+      final String negationInd = reader.getAttributeValue("negationInd");
+      if (negationInd != null) {
+        substanceAdministration.setNegationInd(Boolean.valueOf(negationInd));
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> substanceAdministration.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> substanceAdministration.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> substanceAdministration.addTemplateId(IiParser.fromXml(reader));
+          case ID -> substanceAdministration.addId(IiParser.fromXml(reader));
+          case CODE -> substanceAdministration.setCode(CdParser.fromXml(reader));
+          case TEXT -> substanceAdministration.setText(EdParser.fromXml(reader));
+          case STATUS_CODE -> substanceAdministration.setStatusCode(CsParser.fromXml(reader));
+          case EFFECTIVE_TIME -> addEffectiveTime(substanceAdministration, GtsParser.fromXml(reader, false));
+          case PRIORITY_CODE -> substanceAdministration.setPriorityCode(CeParser.fromXml(reader));
+          case ROUTE_CODE -> substanceAdministration.setRouteCode(CeParser.fromXml(reader));
+          case APPROACH_SITE_CODE -> substanceAdministration.addApproachSiteCode(CdParser.fromXml(reader));
+          case DOSE_QUANTITY -> substanceAdministration.setDoseQuantity(IvlPqParser.fromXml(reader));
+          case RATE_QUANTITY -> substanceAdministration.setRateQuantity(IvlPqParser.fromXml(reader));
+          case ADMINISTRATION_UNIT_CODE -> substanceAdministration.setAdministrationUnitCode(CeParser.fromXml(reader));
+          case CONSUMABLE -> substanceAdministration.setConsumable(ConsumableParser.fromXml(reader));
+          case SPECIMEN -> substanceAdministration.addSpecimen(SpecimenParser.fromXml(reader));
+          case PERFORMER -> substanceAdministration.addPerformer(Performer2Parser.fromXml(reader));
+          case AUTHOR -> substanceAdministration.addAuthor(AuthorParser.fromXml(reader));
+          case INFORMANT -> substanceAdministration.addInformant(InformantParser.fromXml(reader));
+          case PARTICIPANT -> substanceAdministration.addParticipant(Participant2Parser.fromXml(reader));
+          case ENTRY_RELATIONSHIP -> substanceAdministration.addEntryRelationship(EntryRelationshipParser.fromXml(reader));
+          default -> reader.skipElement();
+        }
+      }
+    }
+    
+    return SubstanceAdministration.isEmpty(substanceAdministration) ? null : substanceAdministration;
+  }
+
+  /**
+   * The effectiveTime can be any of the GTS datatypes, for example an IVL_TS for when and
+   * a PIVL_TS for how often.
+   */
+  private static void addEffectiveTime(final SubstanceAdministration substanceAdministration, final GtsParser effectiveTime) {
+    switch (effectiveTime.getType()) {
+      case SXPR_TS -> substanceAdministration.addEffectiveTimeAsSxprTs(effectiveTime.toSxprTs());
+      case EIVL_TS -> substanceAdministration.addEffectiveTimeAsEivlTs(effectiveTime.toEivlTs());
+      case PIVL_TS -> substanceAdministration.addEffectiveTimeAsPivlTs(effectiveTime.toPivlTs());
+      default -> substanceAdministration.addEffectiveTimeAsIvlTs(effectiveTime.toIvlTs());
+    }
+  }
+          
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd;
+
+import com.expositura.model.ccd.Supply;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Parses the Supply XML element to the java object. The clinical body is only read by the streaming parser
+ * 
+ * @author Sean Smith
+ */
+public class SupplyParser {
+  
+  public static Supply fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Supply supply = new Supply();
+    
+    // First get the attributes if any
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        supply.setNullFlavor(nullFlavor);
+      }
+      
+      // classCode
+      final String classCode = reader.getAttributeValue("classCode");
+      if (classCode != null) {
+        supply.setClassCode(classCode);
+      }
+      
+      // moodCode
+      final String moodCode = reader.getAttributeValue("moodCode");
+      if (moodCode != null) {
+        supply.setMoodCode(moodCode);
+      }
+      
+    }
+    
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes and no children, they are text such as newlines for formatted XML
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case REALM_CODE -> supply.addRealmCode(CsParser.fromXml(reader));
+          case TYPE_ID -> supply.setTypeId(IiParser.fromXml(reader));
+          case TEMPLATE_ID -> supply.addTemplateId(IiParser.fromXml(reader));
+          case ID -> supply.addId(IiParser.fromXml(reader));
+          case CODE -> supply.setCode(CdParser.fromXml(reader));
+          case TEXT -> supply.setText(EdParser.fromXml(reader));
+          case STATUS_CODE -> supply.setStatusCode(CsParser.fromXml(reader));
+          case EFFECTIVE_TIME -> addEffectiveTime(supply, GtsParser.fromXml(reader, false));
+          case PRIORITY_CODE -> supply.addPriorityCode(CeParser.fromXml(reader));
+          case QUANTITY -> supply.setQuantity(PqParser.fromXml(reader));
+          case EXPECTED_USE_TIME -> supply.setExpectedUseTime(IvlTsParser.fromXml(reader));
+          case PRODUCT -> supply.setProduct(ProductParser.fromXml(reader));
+          case SPECIMEN -> supply.addSpecimen(SpecimenParser.fromXml(reader));
+          case PERFORMER -> supply.addPerformer(Performer2Parser.fromXml(reader));
+          case AUTHOR -> supply.addAuthor(AuthorParser.fromXml(reader));
+          case INFORMANT -> supply.addInformant(InformantParser.fromXml(reader));
+          case PARTICIPANT -> supply.addParticipant(Participant2Parser.fromXml(reader));
+          case ENTRY_RELATIONSHIP -> supply.addEntryRelationship(EntryRelationshipParser.fromXml(reader));
+          default -> reader.skipElement();
+        }
+      }
+    }
+    
+    return Supply.isEmpty(supply) ? null : supply;
+  }
+
+  /**
+   * The effectiveTime can be any of the GTS datatypes, for example an IVL_TS for when and
+   * a PIVL_TS for how often.
+   */
+  private static void addEffectiveTime(final Supply supply, final GtsParser effectiveTime) {
+    switch (effectiveTime.getType()) {
+      case SXPR_TS -> supply.addEffectiveTimeAsSxprTs(effectiveTime.toSxprTs());
+      case EIVL_TS -> supply.addEffectiveTimeAsEivlTs(effectiveTime.toEivlTs());
+      case PIVL_TS -> supply.addEffectiveTimeAsPivlTs(effectiveTime.toPivlTs());
+      default -> supply.addEffectiveTimeAsIvlTs(effectiveTime.toIvlTs());
+    }
+  }
+          
+}
@@ -16,6 +16,8 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.SxcmTs;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 
@@ -55,5 +57,37 @@ public class SxcmTsParser {
     
     return SxcmTs.isEmpty(sxcmTs) ? null : sxcmTs;
   }
+
+  public static SxcmTs fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final SxcmTs sxcmTs = new SxcmTs();
+    
+    // This datatype only has attributes
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        sxcmTs.setNullFlavor(nullFlavor);
+      }
+      
+      // value
+      final String value = reader.getAttributeValue("value");
+      if (value != null) {
+        sxcmTs.setValue(value);
+      }
+      
+      // operator
+      final String operator = reader.getAttributeValue("operator");
+      if (operator != null) {
+        sxcmTs.setOperator(operator);
+      }
+      
+    }
+    
+    // Not expecting any child elements
+    reader.skipElement();
+    
+    return SxcmTs.isEmpty(sxcmTs) ? null : sxcmTs;
+  }
           
 }
@@ -16,8 +16,9 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.Tel;
-import java.util.ArrayList;
-import java.util.List;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.CcdStreamReader;
+import javax.xml.stream.XMLStreamException;
 import org.apache.commons.lang3.StringUtils;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
@@ -70,57 +71,68 @@ public class TelParser {
       
       // Ignore children with no attributes or elements, means it is a text only child, probably whitespace
       if (child.hasAttributes() || child.hasChildNodes()) {
-        switch (child.getNamespaceURI() + "|" + child.getLocalName()) {
-          case "urn:hl7-org:v3|useablePeriod" -> {
-            // This element may be one of four different datatypes, determine which one
-            final NamedNodeMap childAttributes = child.getAttributes();
-            
-            // These are the possible child nodes for the five different datatypes
-            Node event = null;
-            Node offset = null;
-            Node phase = null;
-            Node period = null;
-            List<Node> comp = new ArrayList<>();          
-            
-            // Figure out which children are present
-            if (child.hasChildNodes()) {
-              final NodeList subNodes = child.getChildNodes();
-              for (int j = 0; j < subNodes.getLength(); j++) {
-                switch (subNodes.item(j).getLocalName()) {
-                  case "event" -> event = subNodes.item(j);
-                  case "offset" -> offset = subNodes.item(j);
-                  case "phase" -> phase = subNodes.item(j);
-                  case "period" -> period = subNodes.item(j);
-                  case "comp" -> comp.add(subNodes.item(j));
-                }
-              }
-            }
-            
-            // First look for SXPR_TS type which MUST have 'comp' child element(s)
-            if (!comp.isEmpty()) {
-              SxprTsParser.fromXml(child);
-            }
-            // Next look for event or offset as either shows it's a EIVL_TS
-            else if (event != null || offset != null) {
-              tel.addUseablePeriodAsEivlTs(EivlTsParser.fromXml(child));
-            }
-            // Next look for phase, period, alignment, or institution specified which means it's a PIVL_TS
-            else if (phase != null 
-                    || period != null 
-                    || childAttributes.getNamedItem("alignment") != null 
-                    || childAttributes.getNamedItem("institution") != null) {
-              tel.addUseablePeriodAsPivlTs(PivlTsParser.fromXml(child));
-            }
-            // Catch all is IVL_TS
-            else {
-              tel.addUseablePeriodAsIvlTs(IvlTsParser.fromXml(child));
-            }
-          }
+        switch (CcdElement.of(child)) {
+          case USEABLE_PERIOD -> addUseablePeriod(tel, GtsParser.fromXml(child, false));
         }
       } 
     }
     
     return Tel.isEmpty(tel) ? null : tel;
   }
+
+  public static Tel fromXml(final CcdStreamReader reader) throws XMLStreamException {
+    final Tel tel = new Tel();
+    
+    // Start by getting the attributes
+    if (reader.getAttributeCount() > 0) {
+      
+      // nullFlavor
+      final String nullFlavor = reader.getAttributeValue("nullFlavor");
+      if (nullFlavor != null) {
+        tel.setNullFlavor(nullFlavor);
+      }
+      
+      // value
+      final String value = reader.getAttributeValue("value");
+      if (value != null) {
+        tel.setValue(value);
+      }
+      
+      // use (special case, use can have multiple values with space seperator
+      final String use = reader.getAttributeValue("use");
+      if (use != null) {
+        for (final String singleUse : StringUtils.split(use)) {
+          tel.addUse(singleUse);
+        }
+      }
+      
+    }
+    
+    // Now work thru children, ignore text only nodes (probably white space)
+    while (reader.nextChild()) {
+      
+      // Ignore children with no attributes or elements, means it is a text only child, probably whitespace
+      if (reader.isElement()) {
+        switch (reader.getElement()) {
+          case USEABLE_PERIOD -> addUseablePeriod(tel, GtsParser.fromXml(reader, false));
+          default -> reader.skipElement();
+        }
+      } 
+    }
+    
+    return Tel.isEmpty(tel) ? null : tel;
+  }
+
+  /**
+   * Adds the useablePeriod as whichever of the four datatypes it turned out to be.
+   */
+  private static void addUseablePeriod(final Tel tel, final GtsParser useablePeriod) {
+    switch (useablePeriod.getType()) {
+      case SXPR_TS -> tel.addUseablePeriodAsSxprTs(useablePeriod.toSxprTs());
+      case EIVL_TS -> tel.addUseablePeriodAsEivlTs(useablePeriod.toEivlTs());
+      case PIVL_TS -> tel.addUseablePeriodAsPivlTs(useablePeriod.toPivlTs());
+      default -> tel.addUseablePeriodAsIvlTs(useablePeriod.toIvlTs());
+    }
+  }
           
 }
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the bytes of a ByteBuffer, heap or direct, as an InputStream so the XML parsers can read a CCD straight out of
+ * the buffer (or a memory mapped file) without first copying it into a byte array. The stream reads a duplicate of the
+ * buffer so the position and limit of the buffer passed in are left alone.
+ * <p>
+ * Not thread safe, the same as any other InputStream.
+ *
+ * @author Sean Smith
+ */
+public final class ByteBufferInputStream extends InputStream {
+
+  private final ByteBuffer buffer;
+  private int mark = -1;
+
+  /**
+   * @param buffer The bytes from the buffer's position to its limit are read
+   */
+  public ByteBufferInputStream(final ByteBuffer buffer) {
+    if (buffer == null) {
+      throw new IllegalArgumentException("buffer can't be null");
+    }
+    this.buffer = buffer.duplicate();
+  }
+
+  /**
+   * Memory maps a file read only and reads it. Closing the file doesn't unmap it, the mapping is released once the
+   * stream has been garbage collected.
+   *
+   * @param path The file to read
+   * @return A stream of the file's bytes
+   * @throws IOException If the file can't be opened or mapped, or is 2GB or larger
+   */
+  public static ByteBufferInputStream mapped(final Path path) throws IOException {
+    return new ByteBufferInputStream(map(path));
+  }
+
+  /**
+   * Memory maps a file read only.
+   *
+   * @param path The file to map
+   * @return The mapped file
+   * @throws IOException If the file can't be opened or mapped, or is 2GB or larger
+   */
+  public static MappedByteBuffer map(final Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      final long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException(path + " is too large to map (" + size + " bytes)");
+      }
+      return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+  }
+
+  @Override
+  public int read() {
+    return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+  }
+
+  @Override
+  public int read(final byte[] b, final int off, final int len) {
+    if (len == 0) {
+      return 0;
+    }
+    if (!buffer.hasRemaining()) {
+      return -1;
+    }
+    final int count = Math.min(len, buffer.remaining());
+    buffer.get(b, off, count);
+    return count;
+  }
+
+  @Override
+  public long skip(final long n) {
+    if (n <= 0) {
+      return 0;
+    }
+    final int count = (int) Math.min(n, buffer.remaining());
+    buffer.position(buffer.position() + count);
+    return count;
+  }
+
+  @Override
+  public int available() {
+    return buffer.remaining();
+  }
+
+  @Override
+  public long transferTo(final OutputStream out) throws IOException {
+    final long count = buffer.remaining();
+    if (buffer.hasArray()) {
+      out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+      buffer.position(buffer.limit());
+      return count;
+    }
+    return super.transferTo(out);
+  }
+
+  @Override
+  public boolean markSupported() {
+    return true;
+  }
+
+  @Override
+  public void mark(final int readlimit) {
+    mark = buffer.position();
+  }
+
+  @Override
+  public void reset() throws IOException {
+    if (mark < 0) {
+      throw new IOException("Stream has not been marked");
+    }
+    buffer.position(mark);
+  }
+}
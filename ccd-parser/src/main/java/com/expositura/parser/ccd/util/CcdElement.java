@@ -0,0 +1,302 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.w3c.dom.Node;
+
+/**
+ * The (namespace, local name) of every XML element the parsers know how to handle. The parsers switch on these
+ * instead of building a "namespace|localName" String for each child, the lookup is done against tables built once so
+ * nothing is allocated per element.
+ *
+ * @author Sean Smith
+ */
+public enum CcdElement {
+
+  // Any element the parsers do not handle
+  UNKNOWN(null, null),
+  
+  // Elements in the HL7 V3 namespace
+  ACT(Namespaces.HL7, "act"),
+  ADDITIONAL_LOCATOR(Namespaces.HL7, "additionalLocator"),
+  ADDR(Namespaces.HL7, "addr"),
+  ADMINISTRATION_UNIT_CODE(Namespaces.HL7, "administrationUnitCode"),
+  ADMINISTRATIVE_GENDER_CODE(Namespaces.HL7, "administrativeGenderCode"),
+  APPROACH_SITE_CODE(Namespaces.HL7, "approachSiteCode"),
+  AS_MAINTAINED_ENTITY(Namespaces.HL7, "asMaintainedEntity"),
+  AS_ORGANIZATION_PARTOF(Namespaces.HL7, "asOrganizationPartof"),
+  ASSIGNED_AUTHOR(Namespaces.HL7, "assignedAuthor"),
+  ASSIGNED_AUTHORING_DEVICE(Namespaces.HL7, "assignedAuthoringDevice"),
+  ASSIGNED_CUSTODIAN(Namespaces.HL7, "assignedCustodian"),
+  ASSIGNED_ENTITY(Namespaces.HL7, "assignedEntity"),
+  ASSIGNED_PERSON(Namespaces.HL7, "assignedPerson"),
+  ASSOCIATED_ENTITY(Namespaces.HL7, "associatedEntity"),
+  ASSOCIATED_PERSON(Namespaces.HL7, "associatedPerson"),
+  AUTHENTICATOR(Namespaces.HL7, "authenticator"),
+  AUTHOR(Namespaces.HL7, "author"),
+  AUTHORIZATION(Namespaces.HL7, "authorization"),
+  AWARENESS_CODE(Namespaces.HL7, "awarenessCode"),
+  BIRTHPLACE(Namespaces.HL7, "birthplace"),
+  BIRTH_TIME(Namespaces.HL7, "birthTime"),
+  BUILDING_NUMBER_SUFFIX(Namespaces.HL7, "buildingNumberSuffix"),
+  CARE_OF(Namespaces.HL7, "careOf"),
+  CENSUS_TRACT(Namespaces.HL7, "censusTract"),
+  CENTER(Namespaces.HL7, "center"),
+  CITY(Namespaces.HL7, "city"),
+  CODE(Namespaces.HL7, "code"),
+  COMP(Namespaces.HL7, "comp"),
+  COMPONENT(Namespaces.HL7, "component"),
+  COMPONENT_OF(Namespaces.HL7, "componentOf"),
+  CONFIDENTIALITY_CODE(Namespaces.HL7, "confidentialityCode"),
+  CONSENT(Namespaces.HL7, "consent"),
+  CONSUMABLE(Namespaces.HL7, "consumable"),
+  COPY_TIME(Namespaces.HL7, "copyTime"),
+  COUNTRY(Namespaces.HL7, "country"),
+  COUNTY(Namespaces.HL7, "county"),
+  CUSTODIAN(Namespaces.HL7, "custodian"),
+  DATA_ENTERER(Namespaces.HL7, "dataEnterer"),
+  DELIMITER(Namespaces.HL7, "delimiter"),
+  DELIVERY_ADDRESS_LINE(Namespaces.HL7, "deliveryAddressLine"),
+  DELIVERY_INSTALLATION_AREA(Namespaces.HL7, "deliveryInstallationArea"),
+  DELIVERY_INSTALLATION_QUALIFIER(Namespaces.HL7, "deliveryInstallationQualifier"),
+  DELIVERY_INSTALLATION_TYPE(Namespaces.HL7, "deliveryInstallationType"),
+  DELIVERY_MODE(Namespaces.HL7, "deliveryMode"),
+  DELIVERY_MODE_IDENTIFIER(Namespaces.HL7, "deliveryModeIdentifier"),
+  DERIVATION_EXPR(Namespaces.HL7, "derivationExpr"),
+  DESC(Namespaces.HL7, "desc"),
+  DIRECTION(Namespaces.HL7, "direction"),
+  DISCHARGE_DISPOSITION_CODE(Namespaces.HL7, "dischargeDispositionCode"),
+  DOCUMENTATION_OF(Namespaces.HL7, "documentationOf"),
+  DOSE_QUANTITY(Namespaces.HL7, "doseQuantity"),
+  EFFECTIVE_TIME(Namespaces.HL7, "effectiveTime"),
+  ENCOMPASSING_ENCOUNTER(Namespaces.HL7, "encompassingEncounter"),
+  ENCOUNTER(Namespaces.HL7, "encounter"),
+  ENCOUNTER_PARTICIPANT(Namespaces.HL7, "encounterParticipant"),
+  ENTRY(Namespaces.HL7, "entry"),
+  ENTRY_RELATIONSHIP(Namespaces.HL7, "entryRelationship"),
+  ETHNIC_GROUP_CODE(Namespaces.HL7, "ethnicGroupCode"),
+  EVENT(Namespaces.HL7, "event"),
+  EXPECTED_USE_TIME(Namespaces.HL7, "expectedUseTime"),
+  FAMILY(Namespaces.HL7, "family"),
+  FUNCTION_CODE(Namespaces.HL7, "functionCode"),
+  GIVEN(Namespaces.HL7, "given"),
+  GUARDIAN(Namespaces.HL7, "guardian"),
+  GUARDIAN_ORGANIZATION(Namespaces.HL7, "guardianOrganization"),
+  GUARDIAN_PERSON(Namespaces.HL7, "guardianPerson"),
+  HEALTH_CARE_FACILITY(Namespaces.HL7, "healthCareFacility"),
+  HIGH(Namespaces.HL7, "high"),
+  HOUSE_NUMBER(Namespaces.HL7, "houseNumber"),
+  HOUSE_NUMBER_NUMERIC(Namespaces.HL7, "houseNumberNumeric"),
+  ID(Namespaces.HL7, "id"),
+  INFORMANT(Namespaces.HL7, "informant"),
+  INFORMATION_RECIPIENT(Namespaces.HL7, "informationRecipient"),
+  IN_FULFILLMENT_OF(Namespaces.HL7, "inFulfillmentOf"),
+  INTENDED_RECIPIENT(Namespaces.HL7, "intendedRecipient"),
+  INTERPRETATION_CODE(Namespaces.HL7, "interpretationCode"),
+  LANGUAGE_CODE(Namespaces.HL7, "languageCode"),
+  LANGUAGE_COMMUNICATION(Namespaces.HL7, "languageCommunication"),
+  LEGAL_AUTHENTICATOR(Namespaces.HL7, "legalAuthenticator"),
+  LOCATION(Namespaces.HL7, "location"),
+  LOT_NUMBER_TEXT(Namespaces.HL7, "lotNumberText"),
+  LOW(Namespaces.HL7, "low"),
+  MAINTAINING_PERSON(Namespaces.HL7, "maintainingPerson"),
+  MANUFACTURED_MATERIAL(Namespaces.HL7, "manufacturedMaterial"),
+  MANUFACTURED_PRODUCT(Namespaces.HL7, "manufacturedProduct"),
+  MANUFACTURER_MODEL_NAME(Namespaces.HL7, "manufacturerModelName"),
+  MANUFACTURER_ORGANIZATION(Namespaces.HL7, "manufacturerOrganization"),
+  MARITAL_STATUS_CODE(Namespaces.HL7, "maritalStatusCode"),
+  METHOD_CODE(Namespaces.HL7, "methodCode"),
+  MODE_CODE(Namespaces.HL7, "modeCode"),
+  NAME(Namespaces.HL7, "name"),
+  NON_XML_BODY(Namespaces.HL7, "nonXMLBody"),
+  OBSERVATION(Namespaces.HL7, "observation"),
+  OBSERVATION_RANGE(Namespaces.HL7, "observationRange"),
+  OFFSET(Namespaces.HL7, "offset"),
+  ORDER(Namespaces.HL7, "order"),
+  ORGANIZER(Namespaces.HL7, "organizer"),
+  ORIGINAL_TEXT(Namespaces.HL7, "originalText"),
+  PARENT_DOCUMENT(Namespaces.HL7, "parentDocument"),
+  PARTICIPANT(Namespaces.HL7, "participant"),
+  PARTICIPANT_ROLE(Namespaces.HL7, "participantRole"),
+  PATIENT(Namespaces.HL7, "patient"),
+  PATIENT_ROLE(Namespaces.HL7, "patientRole"),
+  PERFORMER(Namespaces.HL7, "performer"),
+  PERIOD(Namespaces.HL7, "period"),
+  PHASE(Namespaces.HL7, "phase"),
+  PLACE(Namespaces.HL7, "place"),
+  PLAYING_ENTITY(Namespaces.HL7, "playingEntity"),
+  POSTAL_CODE(Namespaces.HL7, "postalCode"),
+  POST_BOX(Namespaces.HL7, "postBox"),
+  PRECINCT(Namespaces.HL7, "precinct"),
+  PREFERENCE_IND(Namespaces.HL7, "preferenceInd"),
+  PREFIX(Namespaces.HL7, "prefix"),
+  PRIORITY_CODE(Namespaces.HL7, "priorityCode"),
+  PROCEDURE(Namespaces.HL7, "procedure"),
+  PRODUCT(Namespaces.HL7, "product"),
+  PROFICIENCY_LEVEL_CODE(Namespaces.HL7, "proficiencyLevelCode"),
+  PROVIDER_ORGANIZATION(Namespaces.HL7, "providerOrganization"),
+  QUALIFIER(Namespaces.HL7, "qualifier"),
+  QUANTITY(Namespaces.HL7, "quantity"),
+  RACE_CODE(Namespaces.HL7, "raceCode"),
+  RATE_QUANTITY(Namespaces.HL7, "rateQuantity"),
+  REALM_CODE(Namespaces.HL7, "realmCode"),
+  RECEIVED_ORGANIZATION(Namespaces.HL7, "receivedOrganization"),
+  RECORD_TARGET(Namespaces.HL7, "recordTarget"),
+  REFERENCE(Namespaces.HL7, "reference"),
+  REFERENCE_RANGE(Namespaces.HL7, "referenceRange"),
+  RELATED_DOCUMENT(Namespaces.HL7, "relatedDocument"),
+  RELATED_ENTITY(Namespaces.HL7, "relatedEntity"),
+  RELATED_PERSION(Namespaces.HL7, "relatedPersion"),
+  RELIGIOUS_AFFILIATION_CODE(Namespaces.HL7, "religiousAffiliationCode"),
+  REPRESENTED_CUSTODIAN_ORGANIZATION(Namespaces.HL7, "representedCustodianOrganization"),
+  REPRESENTED_ORGANIZATION(Namespaces.HL7, "representedOrganization"),
+  RESPONSIBLE_PARTY(Namespaces.HL7, "responsibleParty"),
+  ROUTE_CODE(Namespaces.HL7, "routeCode"),
+  SCOPING_ORGANIZATION(Namespaces.HL7, "scopingOrganization"),
+  SECTION(Namespaces.HL7, "section"),
+  SEPERATABLE_IND(Namespaces.HL7, "seperatableInd"),
+  SEQUENCE_NUMBER(Namespaces.HL7, "sequenceNumber"),
+  SERVICE_EVENT(Namespaces.HL7, "serviceEvent"),
+  SERVICE_PROVIDER_ORGANIZATION(Namespaces.HL7, "serviceProviderOrganization"),
+  SET_ID(Namespaces.HL7, "setId"),
+  SIGNATURE_CODE(Namespaces.HL7, "signatureCode"),
+  SOFTWARE_NAME(Namespaces.HL7, "softwareName"),
+  SPECIMEN(Namespaces.HL7, "specimen"),
+  SPECIMEN_PLAYING_ENTITY(Namespaces.HL7, "specimenPlayingEntity"),
+  SPECIMEN_ROLE(Namespaces.HL7, "specimenRole"),
+  STANDARD_INDUSTRY_CLASS_CODE(Namespaces.HL7, "standardIndustryClassCode"),
+  STATE(Namespaces.HL7, "state"),
+  STATUS_CODE(Namespaces.HL7, "statusCode"),
+  STREET_ADDRESS_LINE(Namespaces.HL7, "streetAddressLine"),
+  STREET_NAME(Namespaces.HL7, "streetName"),
+  STREET_NAME_BASE(Namespaces.HL7, "streetNameBase"),
+  STREET_NAME_TYPE(Namespaces.HL7, "streetNameType"),
+  STRUCTURED_BODY(Namespaces.HL7, "structuredBody"),
+  SUBSTANCE_ADMINISTRATION(Namespaces.HL7, "substanceAdministration"),
+  SUFFIX(Namespaces.HL7, "suffix"),
+  SUPPLY(Namespaces.HL7, "supply"),
+  TARGET_SITE_CODE(Namespaces.HL7, "targetSiteCode"),
+  TELECOM(Namespaces.HL7, "telecom"),
+  TEMPLATE_ID(Namespaces.HL7, "templateId"),
+  TEXT(Namespaces.HL7, "text"),
+  THUMBNAIL(Namespaces.HL7, "thumbnail"),
+  TIME(Namespaces.HL7, "time"),
+  TITLE(Namespaces.HL7, "title"),
+  TRANSLATION(Namespaces.HL7, "translation"),
+  TYPE_ID(Namespaces.HL7, "typeId"),
+  UNIT_ID(Namespaces.HL7, "unitID"),
+  UNIT_TYPE(Namespaces.HL7, "unitType"),
+  USEABLE_PERIOD(Namespaces.HL7, "useablePeriod"),
+  VALID_TIME(Namespaces.HL7, "validTime"),
+  VALUE(Namespaces.HL7, "value"),
+  VERSION_NUMBER(Namespaces.HL7, "versionNumber"),
+  WHOLE_ORGANIZATION(Namespaces.HL7, "wholeOrganization"),
+  WIDTH(Namespaces.HL7, "width"),
+  
+  // Elements in the SDTC extension namespace
+  SDTC_ADMISSION_REFERRAL_SOURCE_CODE(Namespaces.SDTC, "admissionReferralSourceCode"),
+  SDTC_ALTERNATE_IDENTIFICATION(Namespaces.SDTC, "alternateIdentification"),
+  SDTC_CATEGORY(Namespaces.SDTC, "category"),
+  SDTC_CODE(Namespaces.SDTC, "code"),
+  SDTC_ID(Namespaces.SDTC, "id"),
+  SDTC_IDENTIFIED_BY(Namespaces.SDTC, "identifiedBy"),
+  SDTC_PATIENT(Namespaces.SDTC, "patient"),
+  SDTC_AS_PATIENT_RELATIONSHIP(Namespaces.SDTC, "sdtcAsPatientRelationship"),
+  SDTC_DECEASED_IND(Namespaces.SDTC, "sdtcDeceasedInd"),
+  SDTC_DECEASED_TIME(Namespaces.SDTC, "sdtcDeceasedTime"),
+  SDTC_DESC(Namespaces.SDTC, "sdtcDesc"),
+  SDTC_ETHNIC_GROUP_CODE(Namespaces.SDTC, "sdtcEthnicGroupCode"),
+  SDTC_MULTIPLE_BIRTH_IND(Namespaces.SDTC, "sdtcMultipleBirthInd"),
+  SDTC_MULTIPLE_BIRTH_ORDER_NUMBER(Namespaces.SDTC, "sdtcMultipleBirthOrderNumber"),
+  SDTC_RACE_CODE(Namespaces.SDTC, "sdtcRaceCode"),
+  SDTC_SIGNATURE_TEXT(Namespaces.SDTC, "signatureText"),
+  SDTC_SPECIALTY(Namespaces.SDTC, "specialty"),
+  SDTC_STATUS_CODE(Namespaces.SDTC, "statusCode"),
+  SDTC_TELECOM(Namespaces.SDTC, "telecom");
+
+  
+  private static final Map<String, CcdElement> HL7_ELEMENTS = new HashMap<>();
+  private static final Map<String, CcdElement> SDTC_ELEMENTS = new HashMap<>();
+
+  static {
+    for (final CcdElement element : values()) {
+      if (Namespaces.HL7.equals(element.namespaceUri)) {
+        HL7_ELEMENTS.put(element.localName, element);
+      } else if (Namespaces.SDTC.equals(element.namespaceUri)) {
+        SDTC_ELEMENTS.put(element.localName, element);
+      }
+    }
+  }
+
+  private final String namespaceUri;
+  private final String localName;
+
+  private CcdElement(final String namespaceUri, final String localName) {
+    this.namespaceUri = namespaceUri;
+    this.localName = localName;
+  }
+
+  public String getNamespaceUri() {
+    return namespaceUri;
+  }
+
+  public String getLocalName() {
+    return localName;
+  }
+
+  /**
+   * Looks up an element by namespace and local name.
+   *
+   * @param namespaceUri The namespace of the element
+   * @param localName The local name of the element
+   * @return The matching element or UNKNOWN (never null) if the parsers do not handle it
+   */
+  public static CcdElement of(final String namespaceUri, final String localName) {
+    if (localName == null) {
+      return UNKNOWN;
+    }
+
+    final CcdElement element;
+    if (Namespaces.HL7.equals(namespaceUri)) {
+      element = HL7_ELEMENTS.get(localName);
+    } else if (Namespaces.SDTC.equals(namespaceUri)) {
+      element = SDTC_ELEMENTS.get(localName);
+    } else {
+      element = null;
+    }
+
+    return element == null ? UNKNOWN : element;
+  }
+
+  /**
+   * Looks up the element for a DOM node.
+   *
+   * @param node The DOM node
+   * @return The matching element or UNKNOWN (never null) if the parsers do not handle it or the node is not an element
+   */
+  public static CcdElement of(final Node node) {
+    return of(node.getNamespaceURI(), node.getLocalName());
+  }
+
+  // Enum constants can't refer to the enum's own static fields, so the namespaces are held here
+  private static final class Namespaces {
+
+    private static final String HL7 = "urn:hl7-org:v3";
+    private static final String SDTC = "urn:hl7-org:sdtc";
+  }
+}
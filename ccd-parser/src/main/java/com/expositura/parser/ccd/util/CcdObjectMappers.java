@@ -0,0 +1,91 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd.util;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * ObjectMappers for the CCD and patient model java beans, all configured the same way as the intake connectors' JSON
+ * mapper (java.time support, dates as ISO strings, empty values left out, no limit on string length) so a document
+ * looks the same whichever format it's written in.
+ * <p>
+ * The Smile and CBOR mappers write binary JSON that is smaller and cheaper to read and write, for handing documents
+ * between pipeline stages. Both write a repeated string, such as an OID or code, as a back reference to where it was
+ * first written. Every mapper uses the Blackbird module so properties are read and written thru generated lambdas
+ * rather than reflection.
+ * <p>
+ * Creating an ObjectMapper is expensive, create one and share it, they're thread safe once configured.
+ *
+ * @author Sean Smith
+ */
+public final class CcdObjectMappers {
+
+  private CcdObjectMappers() {
+  }
+
+  /**
+   * @return A new JSON mapper
+   */
+  public static ObjectMapper json() {
+    return configure(new ObjectMapper(new JsonFactoryBuilder().streamReadConstraints(constraints()).build()));
+  }
+
+  /**
+   * @return A new Smile mapper, sharing repeated property names and string values
+   */
+  public static ObjectMapper smile() {
+    return configure(new ObjectMapper(SmileFactory.builder()
+            .streamReadConstraints(constraints())
+            .enable(SmileGenerator.Feature.CHECK_SHARED_NAMES)
+            .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+            .build()));
+  }
+
+  /**
+   * @return A new CBOR mapper, sharing repeated strings with the stringref extension
+   */
+  public static ObjectMapper cbor() {
+    return configure(new ObjectMapper(CBORFactory.builder()
+            .streamReadConstraints(constraints())
+            .enable(CBORGenerator.Feature.STRINGREF)
+            .build()));
+  }
+
+  private static StreamReadConstraints constraints() {
+    // A CCD's narrative and attachments can be far longer than Jackson's default limit
+    return StreamReadConstraints.builder().maxStringLength(Integer.MAX_VALUE).build();
+  }
+
+  private static ObjectMapper configure(final ObjectMapper mapper) {
+    return mapper
+            .registerModule(new JavaTimeModule())
+            .registerModule(new BlackbirdModule())
+            .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false)
+            .setSerializationInclusion(JsonInclude.Include.NON_EMPTY)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
+  }
+}
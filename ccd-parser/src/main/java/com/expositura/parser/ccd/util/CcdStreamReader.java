@@ -0,0 +1,440 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd.util;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Wraps an XMLStreamReader so the streaming parsers can walk the children of an element the same way the DOM parsers
+ * walk a NodeList. Each call to {@link #nextChild()} moves to the next child of the current element and reports it as
+ * one of:
+ * <ul>
+ * <li>An element that has attributes or child nodes (the DOM parsers' {@code hasAttributes() || hasChildNodes()})</li>
+ * <li>An element with no attributes and no child nodes, which the DOM parsers treat like a text node with a null
+ * value</li>
+ * <li>A text node (adjacent character data is merged, comments are dropped, CDATA sections stand on their own)</li>
+ * </ul>
+ * This keeps the streaming parsers producing exactly the same java beans as the DOM parsers.
+ * <p>
+ * Children left out by the {@link ParseProfile} are skipped inside {@link #nextChild()}, the parsers never see them.
+ *
+ * @author Sean Smith
+ */
+public class CcdStreamReader {
+
+  private static final int ELEMENT = 1;
+  private static final int EMPTY_ELEMENT = 2;
+  private static final int TEXT = 3;
+  private static final int END = 4;
+
+  private final XMLStreamReader reader;
+  private final boolean allowDoctype;
+
+  // The profile of each element from the top level element down to the element whose children are being read
+  private ParseProfile.Node[] profiles = new ParseProfile.Node[32];
+  private int depth = -1;
+
+  // What the reader is currently positioned on
+  private int kind;
+  private String namespaceUri;
+  private String localName;
+  private CcdElement element;
+  private String text;
+
+  // True when the underlying reader has already been advanced past the current child (we had to look ahead)
+  private boolean pending;
+
+  public CcdStreamReader(final XMLStreamReader reader) {
+    this(reader, ParseProfile.FULL);
+  }
+
+  /**
+   * @param reader The XML to read
+   * @param profile Which elements are read, the rest are skipped
+   */
+  public CcdStreamReader(final XMLStreamReader reader, final ParseProfile profile) {
+    this(reader, profile, true);
+  }
+
+  /**
+   * @param reader The XML to read
+   * @param profile Which elements are read, the rest are skipped
+   * @param allowDoctype False to fail on a DOCTYPE in the prolog the same as the DOM parser does when they're
+   * disallowed
+   */
+  public CcdStreamReader(final XMLStreamReader reader, final ParseProfile profile, final boolean allowDoctype) {
+    this.reader = reader;
+    this.allowDoctype = allowDoctype;
+    this.profiles[0] = profile.getRoot();
+  }
+
+  /**
+   * Moves to the first element of the document, skipping the prolog (comments, processing instructions, DTD).
+   *
+   * @return True if a top level element was found
+   * @throws XMLStreamException If the XML is not well formed or has a DOCTYPE when they're not allowed
+   */
+  public boolean nextRootElement() throws XMLStreamException {
+    int event = reader.getEventType();
+    while (event != XMLStreamConstants.START_ELEMENT) {
+      if (event == XMLStreamConstants.END_DOCUMENT) {
+        kind = END;
+        return false;
+      }
+      if (event == XMLStreamConstants.DTD && !allowDoctype) {
+        throw new XMLStreamException("DOCTYPE is not allowed", reader.getLocation());
+      }
+      event = reader.next();
+    }
+    kind = ELEMENT;
+    namespaceUri = reader.getNamespaceURI();
+    localName = reader.getLocalName();
+    element = CcdElement.of(namespaceUri, localName);
+    depth = 0;
+    return true;
+  }
+
+  /**
+   * Reads the rest of the document after the top level element so malformed trailing content is still reported the
+   * same way the DOM parser would report it.
+   *
+   * @throws XMLStreamException If the XML is not well formed
+   */
+  public void finishDocument() throws XMLStreamException {
+    while (reader.hasNext()) {
+      reader.next();
+    }
+  }
+
+  /**
+   * Moves to the next child of the current element.
+   *
+   * @return True if positioned on a child, false if the end of the current element was reached
+   * @throws XMLStreamException If the XML is not well formed
+   */
+  public boolean nextChild() throws XMLStreamException {
+    int event = pending ? reader.getEventType() : reader.next();
+    pending = false;
+
+    while (true) {
+      switch (event) {
+        case XMLStreamConstants.START_ELEMENT -> {
+          namespaceUri = reader.getNamespaceURI();
+          localName = reader.getLocalName();
+          element = CcdElement.of(namespaceUri, localName);
+          text = null;
+
+          // Skip anything the profile leaves out before the parsers see it
+          final ParseProfile.Node profile = profiles[depth].child(element);
+          if (profile == null) {
+            skipSubtree();
+            event = reader.next();
+            continue;
+          }
+
+          // DOM counts namespace declarations as attributes
+          if (reader.getAttributeCount() > 0 || reader.getNamespaceCount() > 0) {
+            kind = ELEMENT;
+          } else if (reader.next() == XMLStreamConstants.END_ELEMENT) {
+            kind = EMPTY_ELEMENT;
+          } else {
+            // No attributes so nothing is lost by looking ahead, the element's first child is now pending
+            kind = ELEMENT;
+            pending = true;
+          }
+
+          // The parsers read an element's children next so it is now the element being read
+          if (kind == ELEMENT) {
+            push(profile);
+          }
+          return true;
+        }
+        case XMLStreamConstants.CHARACTERS, XMLStreamConstants.SPACE -> {
+          readText();
+          return true;
+        }
+        case XMLStreamConstants.CDATA -> {
+          kind = TEXT;
+          text = reader.getText();
+          return true;
+        }
+        case XMLStreamConstants.PROCESSING_INSTRUCTION -> {
+          kind = TEXT;
+          text = reader.getPIData();
+          return true;
+        }
+        case XMLStreamConstants.END_ELEMENT, XMLStreamConstants.END_DOCUMENT -> {
+          kind = END;
+          depth--;
+          return false;
+        }
+        default -> event = reader.next();
+      }
+    }
+  }
+
+  /**
+   * Skips over the rest of the current element, including all of its children, leaving the reader at the element's
+   * end tag.
+   *
+   * @throws XMLStreamException If the XML is not well formed
+   */
+  public void skipElement() throws XMLStreamException {
+    if (kind != ELEMENT) {
+      return;
+    }
+
+    int open = 1;
+    int event = pending ? reader.getEventType() : reader.next();
+    pending = false;
+
+    while (true) {
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        open++;
+      } else if (event == XMLStreamConstants.END_ELEMENT && --open == 0) {
+        break;
+      }
+      event = reader.next();
+    }
+    kind = END;
+    depth--;
+  }
+
+  /**
+   * Reads everything inside the current element back out as XML, for content that is kept as markup rather than
+   * parsed into java beans such as a section's narrative block. Namespace declarations and element prefixes are
+   * dropped, comments and processing instructions are left out. Attribute prefixes such as xsi: or sdtc: are kept, with
+   * the declaration for each written on the element that uses it so the XML still parses on its own. Leaves the reader
+   * at the element's end tag.
+   *
+   * @return The content of the element as XML, null if not positioned on an element with child nodes
+   * @throws XMLStreamException If the XML is not well formed
+   */
+  public String readContentAsXml() throws XMLStreamException {
+    if (kind != ELEMENT) {
+      return null;
+    }
+
+    final StringBuilder xml = new StringBuilder();
+    int xmlDepth = 1;
+    boolean inStartTag = false;
+    int event = pending ? reader.getEventType() : reader.next();
+    pending = false;
+
+    while (true) {
+      switch (event) {
+        case XMLStreamConstants.START_ELEMENT -> {
+          if (inStartTag) {
+            xml.append('>');
+          }
+          xml.append('<').append(reader.getLocalName());
+          Map<String, String> prefixes = null;
+          for (int i = 0; i < reader.getAttributeCount(); i++) {
+            final String prefix = reader.getAttributePrefix(i);
+            xml.append(' ');
+            if (prefix != null && !prefix.isEmpty()) {
+              xml.append(prefix).append(':');
+              // The xml prefix is bound without a declaration
+              if (!XMLConstants.XML_NS_PREFIX.equals(prefix)) {
+                if (prefixes == null) {
+                  prefixes = new LinkedHashMap<>(2);
+                }
+                prefixes.put(prefix, reader.getAttributeNamespace(i));
+              }
+            }
+            xml.append(reader.getAttributeLocalName(i)).append("=\"");
+            escapeXml(xml, reader.getAttributeValue(i));
+            xml.append('"');
+          }
+          if (prefixes != null) {
+            for (final Map.Entry<String, String> prefix : prefixes.entrySet()) {
+              xml.append(" xmlns:").append(prefix.getKey()).append("=\"");
+              escapeXml(xml, prefix.getValue());
+              xml.append('"');
+            }
+          }
+          inStartTag = true;
+          xmlDepth++;
+        }
+        case XMLStreamConstants.END_ELEMENT -> {
+          if (--xmlDepth == 0) {
+            kind = END;
+            depth--;
+            return xml.toString();
+          }
+          if (inStartTag) {
+            xml.append("/>");
+            inStartTag = false;
+          } else {
+            xml.append("</").append(reader.getLocalName()).append('>');
+          }
+        }
+        case XMLStreamConstants.CHARACTERS, XMLStreamConstants.SPACE, XMLStreamConstants.CDATA -> {
+          if (inStartTag) {
+            xml.append('>');
+            inStartTag = false;
+          }
+          escapeXml(xml, reader.getText());
+        }
+        default -> {
+          // Comments and processing instructions are dropped
+        }
+      }
+      event = reader.next();
+    }
+  }
+
+  /**
+   * @return True if positioned on an element that has attributes or child nodes
+   */
+  public boolean isElement() {
+    return kind == ELEMENT;
+  }
+
+  /**
+   * @return True if positioned on an element that has no attributes and no child nodes
+   */
+  public boolean isEmptyElement() {
+    return kind == EMPTY_ELEMENT;
+  }
+
+  public String getNamespaceURI() {
+    return kind == TEXT ? null : namespaceUri;
+  }
+
+  public String getLocalName() {
+    return kind == TEXT ? null : localName;
+  }
+
+  /**
+   * @return The element the reader is positioned on, UNKNOWN if it is not one the parsers handle or not an element
+   */
+  public CcdElement getElement() {
+    return kind == TEXT ? CcdElement.UNKNOWN : element;
+  }
+
+  /**
+   * @return The text of the current text node, or null if positioned on an element (same as DOM's getNodeValue)
+   */
+  public String getText() {
+    return kind == TEXT ? text : null;
+  }
+
+  public int getAttributeCount() {
+    return kind == ELEMENT && !pending ? reader.getAttributeCount() : 0;
+  }
+
+  /**
+   * Gets an attribute that has no namespace prefix, the equivalent of DOM's getNamedItem.
+   *
+   * @param name The attribute name
+   * @return The attribute value or null if the current element does not have that attribute
+   */
+  public String getAttributeValue(final String name) {
+    final int count = getAttributeCount();
+    for (int i = 0; i < count; i++) {
+      final String prefix = reader.getAttributePrefix(i);
+      if ((prefix == null || prefix.isEmpty()) && name.equals(reader.getAttributeLocalName(i))) {
+        return reader.getAttributeValue(i);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Gets an attribute in the given namespace, the equivalent of DOM's getNamedItemNS.
+   *
+   * @param namespaceUri The namespace of the attribute
+   * @param name The attribute local name
+   * @return The attribute value or null if the current element does not have that attribute
+   */
+  public String getAttributeValue(final String namespaceUri, final String name) {
+    final int count = getAttributeCount();
+    for (int i = 0; i < count; i++) {
+      if (namespaceUri.equals(reader.getAttributeNamespace(i)) && name.equals(reader.getAttributeLocalName(i))) {
+        return reader.getAttributeValue(i);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Reads consecutive character data into a single text value. Comments do not break up the text since the DOM
+   * parser drops them and joins the text on either side.
+   */
+  private void readText() throws XMLStreamException {
+    final String first = reader.getText();
+    StringBuilder sb = null;
+
+    int event = reader.next();
+    while (event == XMLStreamConstants.CHARACTERS
+            || event == XMLStreamConstants.SPACE
+            || event == XMLStreamConstants.COMMENT) {
+      if (event != XMLStreamConstants.COMMENT) {
+        if (sb == null) {
+          sb = new StringBuilder(first);
+        }
+        sb.append(reader.getText());
+      }
+      event = reader.next();
+    }
+
+    kind = TEXT;
+    text = sb == null ? first : sb.toString();
+    pending = true;
+  }
+
+  /**
+   * Skips the element the underlying reader is on, leaving it at the element's end tag.
+   */
+  private void skipSubtree() throws XMLStreamException {
+    int open = 1;
+    while (open > 0) {
+      final int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        open++;
+      } else if (event == XMLStreamConstants.END_ELEMENT) {
+        open--;
+      }
+    }
+  }
+
+  private void push(final ParseProfile.Node profile) {
+    if (++depth == profiles.length) {
+      profiles = Arrays.copyOf(profiles, depth * 2);
+    }
+    profiles[depth] = profile;
+  }
+
+  private static void escapeXml(final StringBuilder xml, final String value) {
+    for (int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      switch (c) {
+        case '&' -> xml.append("&amp;");
+        case '<' -> xml.append("&lt;");
+        case '>' -> xml.append("&gt;");
+        case '"' -> xml.append("&quot;");
+        default -> xml.append(c);
+      }
+    }
+  }
+}
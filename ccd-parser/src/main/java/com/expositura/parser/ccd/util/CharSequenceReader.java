@@ -0,0 +1,119 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd.util;
+
+import java.io.Reader;
+import java.util.Objects;
+
+/**
+ * Reads a slice of a CharSequence as a Reader so text that is already decoded, such as a CCD held as a String or in a
+ * StringBuilder, can be parsed without being encoded back into bytes. Strings, StringBuilders and StringBuffers are
+ * copied out in bulk, any other CharSequence a char at a time.
+ * <p>
+ * Not thread safe, and the CharSequence must not be changed while it is being read.
+ *
+ * @author Sean Smith
+ */
+public final class CharSequenceReader extends Reader {
+
+  private final CharSequence chars;
+  private final int end;
+  private int position;
+  private int mark;
+
+  /**
+   * @param chars The characters to read
+   */
+  public CharSequenceReader(final CharSequence chars) {
+    this(chars, 0, chars.length());
+  }
+
+  /**
+   * @param chars The characters to read
+   * @param start The index of the first character to read
+   * @param end The index after the last character to read
+   * @throws NullPointerException If chars is null
+   * @throws IndexOutOfBoundsException If start and end aren't a range within chars
+   */
+  public CharSequenceReader(final CharSequence chars, final int start, final int end) {
+    Objects.checkFromToIndex(start, end, Objects.requireNonNull(chars, "chars").length());
+    this.chars = chars;
+    this.end = end;
+    this.position = start;
+    this.mark = start;
+  }
+
+  @Override
+  public int read() {
+    return position < end ? chars.charAt(position++) : -1;
+  }
+
+  @Override
+  public int read(final char[] cbuf, final int off, final int len) {
+    if (len == 0) {
+      return 0;
+    }
+    if (position >= end) {
+      return -1;
+    }
+
+    final int count = Math.min(len, end - position);
+    switch (chars) {
+      case String s -> s.getChars(position, position + count, cbuf, off);
+      case StringBuilder sb -> sb.getChars(position, position + count, cbuf, off);
+      case StringBuffer sb -> sb.getChars(position, position + count, cbuf, off);
+      default -> {
+        for (int i = 0; i < count; i++) {
+          cbuf[off + i] = chars.charAt(position + i);
+        }
+      }
+    }
+    position += count;
+    return count;
+  }
+
+  @Override
+  public long skip(final long n) {
+    final int count = (int) Math.max(0, Math.min(n, end - position));
+    position += count;
+    return count;
+  }
+
+  @Override
+  public boolean ready() {
+    return true;
+  }
+
+  @Override
+  public boolean markSupported() {
+    return true;
+  }
+
+  @Override
+  public void mark(final int readAheadLimit) {
+    mark = position;
+  }
+
+  @Override
+  public void reset() {
+    position = mark;
+  }
+
+  @Override
+  public void close() {
+    // Nothing to release
+  }
+}
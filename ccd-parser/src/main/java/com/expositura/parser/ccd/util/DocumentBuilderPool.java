@@ -0,0 +1,167 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd.util;
+
+import java.io.InterruptedIOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+/**
+ * A fixed number of DocumentBuilders shared by all threads. A DocumentBuilder is expensive to create and holds onto
+ * sizable buffers, keeping one per thread doesn't scale to large thread pools or virtual threads so instead a thread
+ * borrows one for each parse and waits if they are all in use. Builders are created as needed up to the pool size and
+ * are reset when given back.
+ * <p>
+ * The wait counts and times show whether the pool is big enough, if threads often wait the pool is the bottleneck.
+ *
+ * @author Sean Smith
+ */
+public class DocumentBuilderPool {
+
+  private final DocumentBuilderFactory factory;
+  private final int size;
+  private final Semaphore permits;
+  private final Queue<DocumentBuilder> idle = new ConcurrentLinkedQueue<>();
+
+  // Metrics
+  private final LongAdder created = new LongAdder();
+  private final LongAdder acquired = new LongAdder();
+  private final LongAdder waits = new LongAdder();
+  private final LongAdder waitNanos = new LongAdder();
+  private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+
+  /**
+   * @param factory Creates the builders, must not be changed once the pool is in use
+   * @param size The most builders that will be created and so the most parses that can run at once
+   */
+  public DocumentBuilderPool(final DocumentBuilderFactory factory, final int size) {
+    if (size < 1) {
+      throw new IllegalArgumentException("The pool size must be at least 1");
+    }
+    this.factory = factory;
+    this.size = size;
+    this.permits = new Semaphore(size);
+  }
+
+  /**
+   * Borrows a builder, waiting for one to be given back if they are all in use. Must be given back with
+   * {@link #release(DocumentBuilder)} once done.
+   *
+   * @return The builder
+   * @throws InterruptedIOException If interrupted while waiting
+   */
+  public DocumentBuilder acquire() throws InterruptedIOException {
+    if (!permits.tryAcquire()) {
+      final long start = System.nanoTime();
+      try {
+        permits.acquire();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for a DocumentBuilder");
+      }
+      final long waited = System.nanoTime() - start;
+      waits.increment();
+      waitNanos.add(waited);
+      maxWaitNanos.accumulate(waited);
+    }
+    acquired.increment();
+
+    final DocumentBuilder builder = idle.poll();
+    if (builder != null) {
+      return builder;
+    }
+
+    try {
+      final DocumentBuilder newBuilder = factory.newDocumentBuilder();
+      created.increment();
+      return newBuilder;
+    } catch (ParserConfigurationException | RuntimeException e) {
+      permits.release();
+      throw new IllegalStateException("Unable to create a DocumentBuilder", e);
+    }
+  }
+
+  /**
+   * Gives back a builder borrowed with {@link #acquire()}, whether or not the parse succeeded.
+   *
+   * @param builder The builder
+   */
+  public void release(final DocumentBuilder builder) {
+    try {
+      builder.reset();
+      idle.offer(builder);
+    } catch (UnsupportedOperationException e) {
+      // Can't be reused, a new one will be created next time
+    } finally {
+      permits.release();
+    }
+  }
+
+  /**
+   * @return The most builders the pool will create
+   */
+  public int getSize() {
+    return size;
+  }
+
+  /**
+   * @return How many builders are currently borrowed
+   */
+  public int getInUse() {
+    return size - permits.availablePermits();
+  }
+
+  /**
+   * @return How many builders have been created
+   */
+  public long getCreatedCount() {
+    return created.sum();
+  }
+
+  /**
+   * @return How many times a builder has been borrowed
+   */
+  public long getAcquiredCount() {
+    return acquired.sum();
+  }
+
+  /**
+   * @return How many times a thread had to wait because all the builders were in use
+   */
+  public long getWaitCount() {
+    return waits.sum();
+  }
+
+  /**
+   * @return The total time threads have spent waiting for a builder in nanoseconds
+   */
+  public long getWaitTimeNanos() {
+    return waitNanos.sum();
+  }
+
+  /**
+   * @return The longest any thread has waited for a builder in nanoseconds
+   */
+  public long getMaxWaitTimeNanos() {
+    return maxWaitNanos.get();
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd.util;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The unmodifiable lists a frozen document holds, shaped by how many elements they have since nearly every list in a
+ * CCD holds one or two things (templateId, realmCode, name, telecom). An empty list is a shared singleton, a single
+ * element is held directly with no array, anything more is held in an array of exactly the right size. Each is one
+ * object plus at most one array, where an unmodifiable view of an ArrayList is three. Null elements are allowed since
+ * the parsers can add them.
+ *
+ * @author Sean Smith
+ */
+abstract class FrozenList<E> extends AbstractList<E> implements RandomAccess {
+
+  /**
+   * @param list The list to copy
+   * @return An unmodifiable copy of the list using the smallest representation
+   */
+  static <E> List<E> of(final List<? extends E> list) {
+    return switch (list.size()) {
+      case 0 -> Collections.emptyList();
+      case 1 -> new Single<>(list.get(0));
+      default -> new Array<>(list.toArray());
+    };
+  }
+
+  /**
+   * @return True if the list is one of these, or the shared empty list
+   */
+  static boolean isFrozen(final List<?> list) {
+    return list instanceof FrozenList || list == Collections.emptyList();
+  }
+
+  private static final class Single<E> extends FrozenList<E> {
+
+    private final E element;
+
+    private Single(final E element) {
+      this.element = element;
+    }
+
+    @Override
+    public E get(final int index) {
+      if (index != 0) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: 1");
+      }
+      return element;
+    }
+
+    @Override
+    public int size() {
+      return 1;
+    }
+  }
+
+  private static final class Array<E> extends FrozenList<E> {
+
+    private final Object[] elements;
+
+    private Array(final Object[] elements) {
+      this.elements = elements;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(final int index) {
+      return (E) elements[index];
+    }
+
+    @Override
+    public int size() {
+      return elements.length;
+    }
+
+    @Override
+    public Object[] toArray() {
+      return elements.clone();
+    }
+  }
+}
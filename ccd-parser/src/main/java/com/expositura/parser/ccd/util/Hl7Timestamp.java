@@ -0,0 +1,476 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd.util;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Decodes HL7 TS values, {@code YYYY[MM[DD[HH[MM[SS[.S+]]]]]][+/-ZZZZ]}, into a single long holding the date and time,
+ * how precise it is and the UTC offset if one was given. Decoding reads the value a character at a time and creates no
+ * objects, the date and time fields are read back out of the long the same way, so the java.time objects are only
+ * created for the values that need them.
+ * <p>
+ * The long is laid out as:
+ * <ul>
+ * <li>bits 0-2: the {@link Precision} (its ordinal plus one, 0 means the value couldn't be decoded)</li>
+ * <li>bits 3-14: the UTC offset in minutes plus 2048, 0 if no offset was given</li>
+ * <li>bits 15-63: milliseconds since 1970-01-01T00:00 in the value's own local time, fields finer than the precision
+ * are at their lowest (January, the 1st, midnight)</li>
+ * </ul>
+ * Fractions of a second finer than milliseconds are dropped.
+ *
+ * @author Sean Smith
+ */
+public final class Hl7Timestamp {
+
+  /** What {@link #parse(CharSequence)} returns for a value that isn't an HL7 TS */
+  public static final long INVALID = 0L;
+
+  /** How much of the timestamp was given */
+  public enum Precision {
+    YEAR, MONTH, DAY, HOUR, MINUTE, SECOND, MILLISECOND
+  }
+
+  private static final Precision[] PRECISIONS = Precision.values();
+
+  private static final int PRECISION_BITS = 3;
+  private static final int OFFSET_BITS = 12;
+  private static final int MILLIS_SHIFT = PRECISION_BITS + OFFSET_BITS;
+  private static final int OFFSET_BIAS = 2048;
+  private static final int MAX_OFFSET_MINUTES = 18 * 60;
+
+  private static final long MILLIS_PER_DAY = 86_400_000L;
+  private static final long DAYS_0000_TO_1970 = 719_528L;
+  private static final long DAYS_PER_400_YEARS = 146_097L;
+
+  private Hl7Timestamp() {
+  }
+
+  /**
+   * @param value An HL7 TS value, leading and trailing whitespace is ignored
+   * @return The packed timestamp, or {@link #INVALID} if the value is null, isn't in the HL7 TS format or isn't a real
+   * date and time (such as February 30th)
+   */
+  public static long parse(final CharSequence value) {
+    if (value == null) {
+      return INVALID;
+    }
+
+    int i = 0;
+    int end = value.length();
+    while (i < end && value.charAt(i) <= ' ') {
+      i++;
+    }
+    while (end > i && value.charAt(end - 1) <= ' ') {
+      end--;
+    }
+
+    final int year = digits(value, i, end, 4);
+    if (year < 0) {
+      return INVALID;
+    }
+    i += 4;
+
+    // Each further field is two digits, the first one missing ends the timestamp
+    int month = 1;
+    int day = 1;
+    int hour = 0;
+    int minute = 0;
+    int second = 0;
+    int millis = 0;
+    int precision = Precision.YEAR.ordinal();
+    while (precision < Precision.SECOND.ordinal()) {
+      final int field = digits(value, i, end, 2);
+      if (field < 0) {
+        break;
+      }
+      i += 2;
+      precision++;
+      switch (precision) {
+        case 1 -> month = field;
+        case 2 -> day = field;
+        case 3 -> hour = field;
+        case 4 -> minute = field;
+        default -> second = field;
+      }
+    }
+
+    if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+            || hour > 23 || minute > 59 || second > 59) {
+      return INVALID;
+    }
+
+    // Fraction of a second, only allowed once there are seconds
+    if (i < end && value.charAt(i) == '.') {
+      if (precision != Precision.SECOND.ordinal()) {
+        return INVALID;
+      }
+      final int start = ++i;
+      while (i < end && isDigit(value.charAt(i))) {
+        if (i - start < 3) {
+          millis = millis * 10 + value.charAt(i) - '0';
+        }
+        i++;
+      }
+      final int fractionDigits = i - start;
+      if (fractionDigits == 0) {
+        return INVALID;
+      }
+      for (int scale = fractionDigits; scale < 3; scale++) {
+        millis *= 10;
+      }
+      precision = Precision.MILLISECOND.ordinal();
+    }
+
+    // UTC offset, +/-HHMM or just +/-HH
+    int offset = 0;
+    if (i < end && (value.charAt(i) == '+' || value.charAt(i) == '-')) {
+      final boolean negative = value.charAt(i++) == '-';
+      final int offsetHours = digits(value, i, end, 2);
+      if (offsetHours < 0) {
+        return INVALID;
+      }
+      i += 2;
+      int offsetMinutes = 0;
+      if (i < end) {
+        offsetMinutes = digits(value, i, end, 2);
+        if (offsetMinutes < 0 || offsetMinutes > 59) {
+          return INVALID;
+        }
+        i += 2;
+      }
+      final int minutes = offsetHours * 60 + offsetMinutes;
+      if (minutes > MAX_OFFSET_MINUTES) {
+        return INVALID;
+      }
+      offset = (negative ? -minutes : minutes) + OFFSET_BIAS;
+    }
+
+    if (i != end) {
+      return INVALID;
+    }
+
+    final long local = epochDay(year, month, day) * MILLIS_PER_DAY
+            + ((hour * 60L + minute) * 60L + second) * 1000L + millis;
+    return local << MILLIS_SHIFT | (long) offset << PRECISION_BITS | (precision + 1);
+  }
+
+  /**
+   * @param packed A packed timestamp
+   * @return True if it's not {@link #INVALID}
+   */
+  public static boolean isValid(final long packed) {
+    return (packed & 0x7) != 0;
+  }
+
+  /**
+   * @param packed A valid packed timestamp
+   * @return How much of the timestamp was given
+   */
+  public static Precision getPrecision(final long packed) {
+    return PRECISIONS[(int) (packed & 0x7) - 1];
+  }
+
+  /**
+   * @param packed A valid packed timestamp
+   * @return True if the timestamp has its day, so it can be used as a date
+   */
+  public static boolean hasDay(final long packed) {
+    return (packed & 0x7) > Precision.MONTH.ordinal() + 1;
+  }
+
+  /**
+   * @param packed A valid packed timestamp
+   * @return True if a UTC offset was given
+   */
+  public static boolean hasOffset(final long packed) {
+    return offsetField(packed) != 0;
+  }
+
+  /**
+   * @param packed A valid packed timestamp
+   * @return The UTC offset in minutes, 0 if none was given
+   */
+  public static int getOffsetMinutes(final long packed) {
+    final int offset = offsetField(packed);
+    return offset == 0 ? 0 : offset - OFFSET_BIAS;
+  }
+
+  /**
+   * @param packed A valid packed timestamp
+   * @return The day of the value's own local date, counted from 1970-01-01
+   */
+  public static long getEpochDay(final long packed) {
+    return Math.floorDiv(localMillis(packed), MILLIS_PER_DAY);
+  }
+
+  /**
+   * @param packed A valid packed timestamp
+   * @return The milliseconds since 1970-01-01T00:00Z, the value is taken as UTC if it has no offset
+   */
+  public static long getEpochMillis(final long packed) {
+    return localMillis(packed) - getOffsetMinutes(packed) * 60_000L;
+  }
+
+  /**
+   * @param packed A valid packed timestamp
+   * @return The year
+   */
+  public static int getYear(final long packed) {
+    return civil(getEpochDay(packed)) >>> 9;
+  }
+
+  /**
+   * @param packed A valid packed timestamp
+   * @return The month, 1 to 12, January if not given
+   */
+  public static int getMonth(final long packed) {
+    return civil(getEpochDay(packed)) >>> 5 & 0xF;
+  }
+
+  /**
+   * @param packed A valid packed timestamp
+   * @return The day of the month, the 1st if not given
+   */
+  public static int getDayOfMonth(final long packed) {
+    return civil(getEpochDay(packed)) & 0x1F;
+  }
+
+  /**
+   * @param packed A valid packed timestamp
+   * @return The milliseconds since the start of the day, 0 if no time was given
+   */
+  public static int getMillisOfDay(final long packed) {
+    return (int) Math.floorMod(localMillis(packed), MILLIS_PER_DAY);
+  }
+
+  /**
+   * @param packed A packed timestamp
+   * @return The date, null if the timestamp is invalid
+   */
+  public static LocalDate toLocalDate(final long packed) {
+    return isValid(packed) ? LocalDate.ofEpochDay(getEpochDay(packed)) : null;
+  }
+
+  /**
+   * @param packed A packed timestamp
+   * @return The date and time in the value's own local time, null if the timestamp is invalid
+   */
+  public static LocalDateTime toLocalDateTime(final long packed) {
+    if (!isValid(packed)) {
+      return null;
+    }
+    return LocalDate.ofEpochDay(getEpochDay(packed)).atStartOfDay().plusNanos(getMillisOfDay(packed) * 1_000_000L);
+  }
+
+  /**
+   * @param packed A packed timestamp
+   * @param defaultOffset The offset to use if the value didn't give one
+   * @return The date and time with its offset, null if the timestamp is invalid
+   */
+  public static OffsetDateTime toOffsetDateTime(final long packed, final ZoneOffset defaultOffset) {
+    if (!isValid(packed)) {
+      return null;
+    }
+    final ZoneOffset offset = hasOffset(packed) ? ZoneOffset.ofTotalSeconds(getOffsetMinutes(packed) * 60)
+            : defaultOffset;
+    return OffsetDateTime.of(toLocalDateTime(packed), offset);
+  }
+
+  /**
+   * @param packed A packed timestamp
+   * @return The date as YYYY-MM-DD with a missing month or day as the 1st, null if the timestamp is invalid
+   */
+  public static String toIsoDateString(final long packed) {
+    if (!isValid(packed)) {
+      return null;
+    }
+    final char[] chars = new char[10];
+    writeDate(chars, civil(getEpochDay(packed)), Precision.DAY);
+    return new String(chars);
+  }
+
+  /**
+   * Formats the timestamp as ISO 8601 to the precision it was given in: YYYY, YYYY-MM, YYYY-MM-DD or, when there is a
+   * time, YYYY-MM-DDThh:mm:ss[.SSS] followed by the offset if one was given.
+   *
+   * @param packed A packed timestamp
+   * @return The ISO 8601 string, null if the timestamp is invalid
+   */
+  public static String toIsoString(final long packed) {
+    if (!isValid(packed)) {
+      return null;
+    }
+
+    final Precision precision = getPrecision(packed);
+    final char[] chars = new char[29];
+    int length = writeDate(chars, civil(getEpochDay(packed)), precision);
+    if (precision.compareTo(Precision.DAY) > 0) {
+      final int millisOfDay = getMillisOfDay(packed);
+      chars[length++] = 'T';
+      length = write2(chars, length, millisOfDay / 3_600_000);
+      chars[length++] = ':';
+      length = write2(chars, length, millisOfDay / 60_000 % 60);
+      chars[length++] = ':';
+      length = write2(chars, length, millisOfDay / 1000 % 60);
+      if (precision == Precision.MILLISECOND) {
+        final int millis = millisOfDay % 1000;
+        chars[length++] = '.';
+        chars[length++] = (char) ('0' + millis / 100);
+        length = write2(chars, length, millis % 100);
+      }
+      if (hasOffset(packed)) {
+        final int offset = getOffsetMinutes(packed);
+        chars[length++] = offset < 0 ? '-' : '+';
+        length = write2(chars, length, Math.abs(offset) / 60);
+        chars[length++] = ':';
+        length = write2(chars, length, Math.abs(offset) % 60);
+      }
+    }
+    return new String(chars, 0, length);
+  }
+
+  /**
+   * Whole years from the timestamp's date to the given date, counted the same as
+   * {@code LocalDate.until(date, ChronoUnit.YEARS)} so a date in the future gives a negative number.
+   *
+   * @param packed A valid packed timestamp that {@link #hasDay(long) has a day}
+   * @param date The date to count to
+   * @return The whole years between
+   */
+  public static long yearsUntil(final long packed, final LocalDate date) {
+    if (!hasDay(packed)) {
+      throw new IllegalArgumentException("The timestamp must have a day to count years from it");
+    }
+    final int civil = civil(getEpochDay(packed));
+    final long from = ((civil >>> 9) * 12L + (civil >>> 5 & 0xF) - 1) * 32L + (civil & 0x1F);
+    final long to = (date.getYear() * 12L + date.getMonthValue() - 1) * 32L + date.getDayOfMonth();
+    return (to - from) / 32 / 12;
+  }
+
+  private static long localMillis(final long packed) {
+    return packed >> MILLIS_SHIFT;
+  }
+
+  private static int offsetField(final long packed) {
+    return (int) (packed >>> PRECISION_BITS) & ((1 << OFFSET_BITS) - 1);
+  }
+
+  /**
+   * @return The number made of count digits starting at i, -1 if there aren't count digits there
+   */
+  private static int digits(final CharSequence value, final int i, final int end, final int count) {
+    if (i + count > end) {
+      return -1;
+    }
+    int number = 0;
+    for (int j = i; j < i + count; j++) {
+      final char c = value.charAt(j);
+      if (!isDigit(c)) {
+        return -1;
+      }
+      number = number * 10 + c - '0';
+    }
+    return number;
+  }
+
+  private static boolean isDigit(final char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isLeapYear(final int year) {
+    return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+  }
+
+  private static int lengthOfMonth(final int year, final int month) {
+    return switch (month) {
+      case 2 -> isLeapYear(year) ? 29 : 28;
+      case 4, 6, 9, 11 -> 30;
+      default -> 31;
+    };
+  }
+
+  /**
+   * The same as LocalDate.toEpochDay() for years 0 to 9999.
+   */
+  private static long epochDay(final int year, final int month, final int day) {
+    long total = 365L * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+    total += (367 * month - 362) / 12 + day - 1;
+    if (month > 2) {
+      total -= isLeapYear(year) ? 1 : 2;
+    }
+    return total - DAYS_0000_TO_1970;
+  }
+
+  /**
+   * The same as LocalDate.ofEpochDay(), packing the year, month and day into an int instead of creating a LocalDate.
+   *
+   * @return year &lt;&lt; 9 | month &lt;&lt; 5 | day
+   */
+  private static int civil(final long epochDay) {
+    long zeroDay = epochDay + DAYS_0000_TO_1970 - 60;
+    long adjust = 0;
+    if (zeroDay < 0) {
+      final long adjustCycles = (zeroDay + 1) / DAYS_PER_400_YEARS - 1;
+      adjust = adjustCycles * 400;
+      zeroDay += -adjustCycles * DAYS_PER_400_YEARS;
+    }
+    long yearEst = (400 * zeroDay + 591) / DAYS_PER_400_YEARS;
+    long dayOfYear = zeroDay - (365 * yearEst + yearEst / 4 - yearEst / 100 + yearEst / 400);
+    if (dayOfYear < 0) {
+      yearEst--;
+      dayOfYear = zeroDay - (365 * yearEst + yearEst / 4 - yearEst / 100 + yearEst / 400);
+    }
+    yearEst += adjust;
+
+    // Days and months are counted from March so the leap day is at the end of the year
+    final int marchDayOfYear = (int) dayOfYear;
+    final int marchMonth = (marchDayOfYear * 5 + 2) / 153;
+    final int month = (marchMonth + 2) % 12 + 1;
+    final int day = marchDayOfYear - (marchMonth * 306 + 5) / 10 + 1;
+    final int year = (int) (yearEst + marchMonth / 10);
+    return year << 9 | month << 5 | day;
+  }
+
+  /**
+   * Writes YYYY, YYYY-MM or YYYY-MM-DD depending on the precision, anything finer than a day writes the whole date.
+   *
+   * @return The length written
+   */
+  private static int writeDate(final char[] chars, final int civil, final Precision precision) {
+    final int year = civil >>> 9;
+    int length = write2(chars, 0, year / 100);
+    length = write2(chars, length, year % 100);
+    if (precision.compareTo(Precision.YEAR) > 0) {
+      chars[length++] = '-';
+      length = write2(chars, length, civil >>> 5 & 0xF);
+    }
+    if (precision.compareTo(Precision.MONTH) > 0) {
+      chars[length++] = '-';
+      length = write2(chars, length, civil & 0x1F);
+    }
+    return length;
+  }
+
+  private static int write2(final char[] chars, final int i, final int number) {
+    chars[i] = (char) ('0' + number / 10);
+    chars[i + 1] = (char) ('0' + number % 10);
+    return i + 2;
+  }
+}
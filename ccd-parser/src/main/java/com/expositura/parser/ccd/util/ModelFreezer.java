@@ -0,0 +1,169 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd.util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Freezes a parsed CCD in place so it can be shared between threads and caches without each holder having to make a
+ * defensive copy. Every list in the object graph is replaced with an unmodifiable list sized exactly to what it holds,
+ * so nothing can be added to or removed from the document and no spare list capacity is kept around. The java beans
+ * themselves are not copied.
+ * <p>
+ * A document that has to stay changeable can be trimmed instead, which only drops the spare capacity of its lists.
+ * <p>
+ * The java beans are generated with setters so a frozen document's single valued properties can still be set, callers
+ * sharing a frozen document must treat it as read only.
+ *
+ * @author Sean Smith
+ */
+public final class ModelFreezer {
+
+  private static final String MODEL_PACKAGE = "com.expositura.model.ccd";
+
+  // The fields of each model class that hold lists or other model beans, worked out once per class
+  private static final ClassValue<Field[]> LIST_FIELDS = new ClassValue<>() {
+    @Override
+    protected Field[] computeValue(final Class<?> type) {
+      return fields(type, true);
+    }
+  };
+  private static final ClassValue<Field[]> BEAN_FIELDS = new ClassValue<>() {
+    @Override
+    protected Field[] computeValue(final Class<?> type) {
+      return fields(type, false);
+    }
+  };
+
+  private ModelFreezer() {
+  }
+
+  /**
+   * Freezes the bean and everything it holds.
+   *
+   * @param <T> The bean type
+   * @param bean A java bean from the CCD model, may be null
+   * @return The same bean, now frozen
+   */
+  public static <T> T freeze(final T bean) {
+    if (bean != null && isModel(bean.getClass())) {
+      try {
+        freezeBean(bean);
+      } catch (IllegalAccessException e) {
+        throw new IllegalStateException("Can't freeze " + bean.getClass().getName(), e);
+      }
+    }
+    return bean;
+  }
+
+  /**
+   * Trims the spare capacity from every list the bean holds, the lists can still be changed.
+   *
+   * @param <T> The bean type
+   * @param bean A java bean from the CCD model, may be null
+   * @return The same bean, now trimmed
+   */
+  public static <T> T trim(final T bean) {
+    if (bean != null && isModel(bean.getClass())) {
+      try {
+        trimBean(bean);
+      } catch (IllegalAccessException e) {
+        throw new IllegalStateException("Can't trim " + bean.getClass().getName(), e);
+      }
+    }
+    return bean;
+  }
+
+  /**
+   * @param list A list from a frozen bean
+   * @return True if the list has been frozen
+   */
+  public static boolean isFrozen(final List<?> list) {
+    return list == null || FrozenList.isFrozen(list);
+  }
+
+  private static void freezeBean(final Object bean) throws IllegalAccessException {
+    final Class<?> type = bean.getClass();
+
+    for (final Field field : BEAN_FIELDS.get(type)) {
+      final Object value = field.get(bean);
+      if (value != null) {
+        freezeBean(value);
+      }
+    }
+
+    for (final Field field : LIST_FIELDS.get(type)) {
+      final List<?> list = (List<?>) field.get(bean);
+      if (list != null && !isFrozen(list)) {
+        for (final Object element : list) {
+          if (element != null && isModel(element.getClass())) {
+            freezeBean(element);
+          }
+        }
+        field.set(bean, FrozenList.of(list));
+      }
+    }
+  }
+
+  private static void trimBean(final Object bean) throws IllegalAccessException {
+    final Class<?> type = bean.getClass();
+
+    for (final Field field : BEAN_FIELDS.get(type)) {
+      final Object value = field.get(bean);
+      if (value != null) {
+        trimBean(value);
+      }
+    }
+
+    for (final Field field : LIST_FIELDS.get(type)) {
+      final List<?> list = (List<?>) field.get(bean);
+      if (list != null) {
+        for (final Object element : list) {
+          if (element != null && isModel(element.getClass())) {
+            trimBean(element);
+          }
+        }
+        if (list instanceof ArrayList<?> arrayList) {
+          arrayList.trimToSize();
+        }
+      }
+    }
+  }
+
+  private static boolean isModel(final Class<?> type) {
+    return !type.isEnum() && type.getPackageName().equals(MODEL_PACKAGE);
+  }
+
+  private static Field[] fields(final Class<?> type, final boolean lists) {
+    final List<Field> fields = new ArrayList<>();
+    for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+      for (final Field field : c.getDeclaredFields()) {
+        if (Modifier.isStatic(field.getModifiers())) {
+          continue;
+        }
+        final boolean isList = List.class.isAssignableFrom(field.getType());
+        if (lists ? isList : !isList && isModel(field.getType())) {
+          field.setAccessible(true);
+          fields.add(field);
+        }
+      }
+    }
+    return fields.toArray(Field[]::new);
+  }
+}
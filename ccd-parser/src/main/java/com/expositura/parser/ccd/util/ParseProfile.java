@@ -0,0 +1,194 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd.util;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Declares which parts of a CCD the streaming parser should turn into java beans. Elements are given as paths of
+ * {@link CcdElement} starting below the ClinicalDocument element, anything the profile leaves out is skipped over
+ * without being parsed so no java beans or Strings are created for it.
+ * <p>
+ * Including a path parses everything under the last element of the path, but only that path is parsed of the elements
+ * leading to it. Excluding a path skips the last element of the path. For example:
+ * <pre>
+ * ParseProfile.builder()
+ *     .include(CcdElement.RECORD_TARGET, CcdElement.PATIENT_ROLE, CcdElement.PATIENT)
+ *     .include(CcdElement.CUSTODIAN)
+ *     .build();
+ * </pre>
+ * parses the custodian and the patient, but not the patientRole's id, addr or telecom or any other part of the CCD.
+ * <pre>
+ * ParseProfile.builder()
+ *     .include()
+ *     .exclude(CcdElement.DOCUMENTATION_OF)
+ *     .build();
+ * </pre>
+ * parses everything but documentationOf.
+ *
+ * @author Sean Smith
+ */
+public final class ParseProfile {
+
+  /** Everything including the clinical body */
+  public static final ParseProfile FULL = builder().include().build();
+
+  /** Everything but the clinical body, this is what the DOM parser reads */
+  public static final ParseProfile HEADER = builder().include().exclude(CcdElement.COMPONENT).build();
+
+  /** Only who the document is about and who wrote and holds it, enough to match the document to a patient */
+  public static final ParseProfile DEMOGRAPHICS = builder()
+          .include(CcdElement.RECORD_TARGET)
+          .include(CcdElement.AUTHOR)
+          .include(CcdElement.CUSTODIAN)
+          .build();
+
+  private final Node root;
+
+  private ParseProfile(final Node root) {
+    this.root = root;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  Node getRoot() {
+    return root;
+  }
+
+  /**
+   * One element of the profile, tells which of the element's children are parsed.
+   */
+  static final class Node {
+
+    /** Parses everything under the element */
+    static final Node ALL = new Node(true);
+
+    /** Marks a child as excluded */
+    private static final Node EXCLUDED = new Node(false);
+
+    // When true children are parsed unless excluded, otherwise only the children in the map are parsed
+    private boolean all;
+    private final Map<CcdElement, Node> children = new EnumMap<>(CcdElement.class);
+
+    private Node(final boolean all) {
+      this.all = all;
+    }
+
+    /**
+     * @param element The child element
+     * @return The profile of the child, null if the child should be skipped
+     */
+    Node child(final CcdElement element) {
+      if (this == ALL) {
+        return ALL;
+      }
+
+      final Node child = children.get(element);
+      if (child == null) {
+        return all ? ALL : null;
+      }
+      return child == EXCLUDED ? null : child;
+    }
+
+    /**
+     * @return A copy of this node and its children so a profile can't be changed once built
+     */
+    private Node copy() {
+      if (this == ALL || this == EXCLUDED) {
+        return this;
+      }
+      if (all && children.isEmpty()) {
+        return ALL;
+      }
+
+      final Node copy = new Node(all);
+      children.forEach((element, child) -> copy.children.put(element, child.copy()));
+      return copy;
+    }
+
+    /**
+     * @return This node's child for the element, created if needed so it can be changed by the builder
+     */
+    private Node editableChild(final CcdElement element) {
+      Node child = children.get(element);
+      if (child == null || child == ALL || child == EXCLUDED) {
+        // A child that was parsed in full is still parsed in full except for what is excluded under it
+        child = new Node(child == ALL || (child == null && all));
+        children.put(element, child);
+      }
+      return child;
+    }
+  }
+
+  public static class Builder {
+
+    private final Node root = new Node(false);
+
+    private Builder() {
+    }
+
+    /**
+     * Parses everything under the path.
+     *
+     * @param path The elements below ClinicalDocument leading to what should be parsed, empty for the whole document
+     * @return This builder
+     */
+    public Builder include(final CcdElement... path) {
+      if (path.length == 0) {
+        root.all = true;
+        return this;
+      }
+
+      final Node parent = walk(path);
+      parent.children.put(path[path.length - 1], Node.ALL);
+      return this;
+    }
+
+    /**
+     * Skips the element at the end of the path.
+     *
+     * @param path The elements below ClinicalDocument leading to what should be skipped, must not be empty
+     * @return This builder
+     */
+    public Builder exclude(final CcdElement... path) {
+      if (path.length == 0) {
+        throw new IllegalArgumentException("The path to exclude must have at least one element");
+      }
+
+      final Node parent = walk(path);
+      parent.children.put(path[path.length - 1], Node.EXCLUDED);
+      return this;
+    }
+
+    public ParseProfile build() {
+      return new ParseProfile(root.copy());
+    }
+
+    /**
+     * @return The node of the next to last element of the path
+     */
+    private Node walk(final CcdElement[] path) {
+      Node node = root;
+      for (int i = 0; i < path.length - 1; i++) {
+        node = node.editableChild(path[i]);
+      }
+      return node;
+    }
+  }
+}
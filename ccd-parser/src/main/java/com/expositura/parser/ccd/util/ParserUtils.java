@@ -20,9 +20,7 @@ import com.expositura.model.ccd.Cs;
 import com.expositura.model.ccd.Ii;
 import com.expositura.model.ccd.Pn;
 import com.expositura.model.ccd.Ts;
-import java.time.DateTimeException;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
 
 /**
  * Holds various parsing utility methods.
@@ -31,87 +29,37 @@ import java.time.temporal.ChronoUnit;
  */
 public class ParserUtils {
 
+  /**
+   * @param ts A TS datatype
+   * @return The date as YYYY-MM-DD with a missing month or day as the 1st, any time is ignored. Null if the value isn't
+   * an HL7 timestamp.
+   */
   public static String parseTsToIsoDateString(final Ts ts) {
     // Check for null
     if (ts == null) {
       return null;
     }
 
-    final String value = ts.getValue();
-
-    // Must be at least 4 characters to parse year, less than that and we cannot parse anything
-    if (value == null || value.length() < 4) {
-      return null;
-    }
-
-    final StringBuilder sb = new StringBuilder(value.substring(0, 4)).append("-");
-
-    // Check if original String contains month, if not set to January
-    if (value.length() >= 6) {
-      sb.append(value.substring(4, 6)).append("-");
-    } else {
-      sb.append("01").append("-");
-    }
-
-    // Check if original String contains day, if not set to the 1st
-    if (value.length() >= 8) {
-      sb.append(value.substring(6, 8));
-    } else {
-      sb.append("01");
-    }
-
-    // Ignore any time value in original string as only date is desired
-    return sb.toString();
+    return Hl7Timestamp.toIsoDateString(Hl7Timestamp.parse(ts.getValue()));
   }
 
+  /**
+   * @param ts The date of birth
+   * @return The age in whole years today, null unless the value is an HL7 timestamp with at least a year, month and day
+   */
   public static Long obtainAgeFromDateOfBirth(final Ts ts) {
     // Check for null
     if (ts == null) {
       return null;
     }
 
-    final String value = ts.getValue();
-
     // We cannot accurately generate age unless year, month, and day exist for date of birth
-    if (value == null || value.length() < 8) {
-      return null;
-    }
-
-    final int year;
-    final int month;
-    final int day;
-
-    try {
-      year = Integer.parseInt(value.substring(0, 4));
-    } catch (final NumberFormatException ex) {
-      // If we cannot parse year then we cannot get age
-      return null;
-    }
-
-    try {
-      month = Integer.parseInt(value.substring(4, 6));
-    } catch (final NumberFormatException ex) {
-      // If we cannot parse month then we cannot get age
-      return null;
-    }
-
-    try {
-      day = Integer.parseInt(value.substring(6, 8));
-    } catch (final NumberFormatException ex) {
-      // If we cannot parse day then we cannot get age
-      return null;
-    }
-
-    final LocalDate dob;
-
-    try {
-      dob = LocalDate.of(year, month, day);
-    } catch (final DateTimeException ex) {
-      // We cannot parse the dob so return null for age
+    final long dob = Hl7Timestamp.parse(ts.getValue());
+    if (!Hl7Timestamp.isValid(dob) || !Hl7Timestamp.hasDay(dob)) {
       return null;
     }
 
-    return dob.until(LocalDate.now(), ChronoUnit.YEARS);
+    return Hl7Timestamp.yearsUntil(dob, LocalDate.now());
   }
 
   /**
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shares the String instances of values that repeat over and over across CCD's, such as code system OIDs, template id
+ * roots, nullFlavors and status codes, so documents kept in memory hold one copy of each rather than one per attribute.
+ * <p>
+ * Well known HL7 OIDs and vocabulary are always shared. Anything else goes into a fixed size table where each value
+ * has one slot, a value replaces whatever was in its slot, so the table never grows and never needs a lock. A value
+ * that loses its slot is still correct, it's just not shared. Values longer than {@link #MAX_LENGTH} are never shared,
+ * they're free text rather than codes.
+ *
+ * @author Sean Smith
+ */
+public final class StringInterner {
+
+  /** System property for the number of slots in the table, rounded up to a power of 2, defaults to 8192 */
+  public static final String TABLE_SIZE_PROPERTY = "com.expositura.parser.ccd.internTableSize";
+
+  /** The longest value that is shared */
+  public static final int MAX_LENGTH = 96;
+
+  private static final String[] WELL_KNOWN = {
+    // Code systems
+    "2.16.840.1.113883.6.1", // LOINC
+    "2.16.840.1.113883.6.96", // SNOMED CT
+    "2.16.840.1.113883.6.88", // RxNorm
+    "2.16.840.1.113883.6.69", // NDC
+    "2.16.840.1.113883.6.101", // NUCC Provider Taxonomy
+    "2.16.840.1.113883.6.103", // ICD-9-CM diagnoses
+    "2.16.840.1.113883.6.104", // ICD-9-CM procedures
+    "2.16.840.1.113883.6.90", // ICD-10-CM
+    "2.16.840.1.113883.6.4", // ICD-10-PCS
+    "2.16.840.1.113883.6.12", // CPT-4
+    "2.16.840.1.113883.6.285", // HCPCS
+    "2.16.840.1.113883.6.238", // CDC Race and Ethnicity
+    "2.16.840.1.113883.6.121", // Language
+    "2.16.840.1.113883.6.8", // UCUM
+    "2.16.840.1.113883.12.292", // CVX
+    "2.16.840.1.113883.3.26.1.1", // NCI Thesaurus
+    "2.16.840.1.113883.3.88.12.3221.8.9", // Medication route
+    "2.16.840.1.113883.5.1", // AdministrativeGender
+    "2.16.840.1.113883.5.2", // MaritalStatus
+    "2.16.840.1.113883.5.4", // ActCode
+    "2.16.840.1.113883.5.6", // ActClass
+    "2.16.840.1.113883.5.14", // ActStatus
+    "2.16.840.1.113883.5.25", // Confidentiality
+    "2.16.840.1.113883.5.50", // Ethnicity
+    "2.16.840.1.113883.5.60", // LanguageAbilityMode
+    "2.16.840.1.113883.5.61", // LanguageAbilityProficiency
+    "2.16.840.1.113883.5.83", // ObservationInterpretation
+    "2.16.840.1.113883.5.88", // ParticipationFunction
+    "2.16.840.1.113883.5.89", // ParticipationSignature
+    "2.16.840.1.113883.5.90", // ParticipationType
+    "2.16.840.1.113883.5.104", // Race
+    "2.16.840.1.113883.5.110", // RoleClass
+    "2.16.840.1.113883.5.111", // RoleCode
+    "2.16.840.1.113883.5.112", // RouteOfAdministration
+    "2.16.840.1.113883.5.1001", // ActMood
+    "2.16.840.1.113883.5.1008", // NullFlavor
+    "2.16.840.1.113883.5.1063", // ObservationValue
+    "2.16.840.1.113883.5.1076", // ReligiousAffiliation
+    "2.16.840.1.113883.5.1119", // AddressUse
+    // Identifier roots
+    "2.16.840.1.113883.1.3", // HL7 registered models (typeId)
+    "2.16.840.1.113883.4.1", // SSN
+    "2.16.840.1.113883.4.6", // NPI
+    "2.16.840.1.113883.19", // HL7 example
+    "1.3.6.1.4.1.19376.1.5.3.1.3.1", // IHE
+    // C-CDA document and section templates
+    "2.16.840.1.113883.10.20.22.1.1",
+    "2.16.840.1.113883.10.20.22.1.2",
+    "2.16.840.1.113883.10.20.22.2.1.1",
+    "2.16.840.1.113883.10.20.22.2.2",
+    "2.16.840.1.113883.10.20.22.2.2.1",
+    "2.16.840.1.113883.10.20.22.2.3.1",
+    "2.16.840.1.113883.10.20.22.2.4.1",
+    "2.16.840.1.113883.10.20.22.2.5.1",
+    "2.16.840.1.113883.10.20.22.2.6.1",
+    "2.16.840.1.113883.10.20.22.2.7.1",
+    "2.16.840.1.113883.10.20.22.2.8",
+    "2.16.840.1.113883.10.20.22.2.10",
+    "2.16.840.1.113883.10.20.22.2.14",
+    "2.16.840.1.113883.10.20.22.2.17",
+    "2.16.840.1.113883.10.20.22.2.22.1",
+    "2.16.840.1.113883.10.20.22.2.23",
+    "2.16.840.1.113883.10.20.22.2.56",
+    "2.16.840.1.113883.10.20.22.2.58",
+    "2.16.840.1.113883.10.20.22.2.60",
+    // C-CDA entry templates
+    "2.16.840.1.113883.10.20.22.4.1",
+    "2.16.840.1.113883.10.20.22.4.2",
+    "2.16.840.1.113883.10.20.22.4.3",
+    "2.16.840.1.113883.10.20.22.4.4",
+    "2.16.840.1.113883.10.20.22.4.6",
+    "2.16.840.1.113883.10.20.22.4.7",
+    "2.16.840.1.113883.10.20.22.4.8",
+    "2.16.840.1.113883.10.20.22.4.9",
+    "2.16.840.1.113883.10.20.22.4.14",
+    "2.16.840.1.113883.10.20.22.4.16",
+    "2.16.840.1.113883.10.20.22.4.17",
+    "2.16.840.1.113883.10.20.22.4.19",
+    "2.16.840.1.113883.10.20.22.4.20",
+    "2.16.840.1.113883.10.20.22.4.23",
+    "2.16.840.1.113883.10.20.22.4.26",
+    "2.16.840.1.113883.10.20.22.4.27",
+    "2.16.840.1.113883.10.20.22.4.30",
+    "2.16.840.1.113883.10.20.22.4.32",
+    "2.16.840.1.113883.10.20.22.4.44",
+    "2.16.840.1.113883.10.20.22.4.49",
+    "2.16.840.1.113883.10.20.22.4.52",
+    "2.16.840.1.113883.10.20.22.4.54",
+    "2.16.840.1.113883.10.20.22.4.78",
+    "2.16.840.1.113883.10.20.22.4.80",
+    "2.16.840.1.113883.10.20.22.4.119",
+    "2.16.840.1.113883.10.20.22.4.132",
+    "2.16.840.1.113883.10.20.22.4.200",
+    // Code system names
+    "LOINC", "LN", "SNOMED CT", "SNOMED-CT", "SNOMEDCT", "RxNorm", "CVX", "NDC", "CPT-4", "ICD-10-CM", "ICD-9-CM",
+    "ActCode", "ActClass", "ActStatus", "HL7ActCode", "ObservationInterpretation", "AdministrativeGender",
+    "Confidentiality", "NCI Thesaurus", "Healthcare Provider Taxonomy (HIPAA)", "CDC Race and Ethnicity",
+    // nullFlavors
+    "NI", "NA", "UNK", "ASKU", "NAV", "NASK", "MSK", "OTH", "NINF", "PINF", "NP", "TRC",
+    // Status and other codes
+    "completed", "active", "aborted", "cancelled", "held", "new", "nullified", "obsolete", "suspended",
+    "CONC", "ASSERTION", "SEV", "N", "H", "L", "A", "F", "M", "US", "en-US", "en"
+  };
+
+  private static final Map<String, String> SHARED;
+  private static final String[] TABLE;
+
+  static {
+    final Map<String, String> shared = new HashMap<>(WELL_KNOWN.length * 2);
+    for (final String value : WELL_KNOWN) {
+      shared.put(value, value);
+    }
+    SHARED = Map.copyOf(shared);
+
+    final int size = Integer.getInteger(TABLE_SIZE_PROPERTY, 8192);
+    TABLE = new String[Integer.highestOneBit(Math.max(1, size - 1)) << 1];
+  }
+
+  private StringInterner() {
+  }
+
+  /**
+   * @param value A value from a CCD
+   * @return An equal String shared with other CCD's when possible, otherwise the value passed in
+   */
+  public static String intern(final String value) {
+    if (value == null || value.length() > MAX_LENGTH) {
+      return value;
+    }
+
+    final String shared = SHARED.get(value);
+    if (shared != null) {
+      return shared;
+    }
+
+    // Strings are immutable so a racy read only ever misses, it never sees a partly built String
+    final int hash = value.hashCode();
+    final int slot = (hash ^ (hash >>> 16)) & (TABLE.length - 1);
+    final String current = TABLE[slot];
+    if (value.equals(current)) {
+      return current;
+    }
+    TABLE[slot] = value;
+    return value;
+  }
+}
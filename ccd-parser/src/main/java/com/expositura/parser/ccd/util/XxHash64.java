@@ -0,0 +1,117 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * The xxHash64 non-cryptographic hash, used to recognize byte for byte identical CCD's without comparing or keeping
+ * their bytes. It reads 8 bytes at a time so hashing a CCD costs a small fraction of parsing it.
+ *
+ * @author Sean Smith
+ */
+public final class XxHash64 {
+
+  private static final long P1 = 0x9E3779B185EBCA87L;
+  private static final long P2 = 0xC2B2AE3D27D4EB4FL;
+  private static final long P3 = 0x165667B19E3779F9L;
+  private static final long P4 = 0x85EBCA77C2B2AE63L;
+  private static final long P5 = 0x27D4EB2F165667C5L;
+
+  private XxHash64() {
+  }
+
+  /**
+   * @param bytes The bytes to hash
+   * @return The hash with a seed of 0
+   */
+  public static long hash(final byte[] bytes) {
+    return hash(ByteBuffer.wrap(bytes), 0);
+  }
+
+  /**
+   * @param buffer The bytes from the buffer's position to its limit are hashed, the position is not changed
+   * @param seed The seed
+   * @return The hash
+   */
+  public static long hash(final ByteBuffer buffer, final long seed) {
+    final ByteBuffer in = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    final int length = in.remaining();
+    final int end = in.limit();
+    int i = in.position();
+    long hash;
+
+    if (length >= 32) {
+      long v1 = seed + P1 + P2;
+      long v2 = seed + P2;
+      long v3 = seed;
+      long v4 = seed - P1;
+      final int limit = end - 32;
+      do {
+        v1 = round(v1, in.getLong(i));
+        v2 = round(v2, in.getLong(i + 8));
+        v3 = round(v3, in.getLong(i + 16));
+        v4 = round(v4, in.getLong(i + 24));
+        i += 32;
+      } while (i <= limit);
+
+      hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+      hash = mergeRound(hash, v1);
+      hash = mergeRound(hash, v2);
+      hash = mergeRound(hash, v3);
+      hash = mergeRound(hash, v4);
+    } else {
+      hash = seed + P5;
+    }
+
+    hash += length;
+
+    while (i + 8 <= end) {
+      hash ^= round(0, in.getLong(i));
+      hash = Long.rotateLeft(hash, 27) * P1 + P4;
+      i += 8;
+    }
+    if (i + 4 <= end) {
+      hash ^= (in.getInt(i) & 0xFFFFFFFFL) * P1;
+      hash = Long.rotateLeft(hash, 23) * P2 + P3;
+      i += 4;
+    }
+    while (i < end) {
+      hash ^= (in.get(i) & 0xFFL) * P5;
+      hash = Long.rotateLeft(hash, 11) * P1;
+      i++;
+    }
+
+    hash ^= hash >>> 33;
+    hash *= P2;
+    hash ^= hash >>> 29;
+    hash *= P3;
+    hash ^= hash >>> 32;
+    return hash;
+  }
+
+  private static long round(long acc, final long input) {
+    acc += input * P2;
+    acc = Long.rotateLeft(acc, 31);
+    return acc * P1;
+  }
+
+  private static long mergeRound(long acc, final long value) {
+    acc ^= round(0, value);
+    return acc * P1 + P4;
+  }
+}
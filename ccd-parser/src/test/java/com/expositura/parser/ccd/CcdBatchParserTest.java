@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd;
+
+import com.expositura.parser.ccd.util.DocumentBuilderPool;
+import com.expositura.parser.ccd.util.ParseProfile;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Provides Unit tests for the CCD batch parser.
+ * 
+ * @author Sean Smith
+ */
+public class CcdBatchParserTest {
+  
+  /**
+   * Test that an ordered batch on virtual threads returns every result in order and that failures don't stop the batch.
+   */
+  @Test
+  public void testParse_OrderedVirtualThreads() throws Exception {
+    System.out.println("parse ordered");
+    final List<Path> ccdFiles = CcdCorpus.files();
+    
+    // Count the CCD's the DOM parser fails on one at a time
+    int expectedFailures = 0;
+    for (final Path ccdFile : ccdFiles) {
+      try (InputStream ccdStream = Files.newInputStream(ccdFile)) {
+        CcdParser.parseFromCcd(new InputSource(ccdStream));
+      } catch (Exception e) {
+        expectedFailures++;
+      }
+    }
+    
+    final List<CcdSource> sources = Stream.concat(ccdFiles.stream().map(CcdSource::of),
+            Stream.of(CcdSource.of("not a ccd".getBytes(StandardCharsets.UTF_8)))).toList();
+    
+    final List<CcdBatchResult> results;
+    try (CcdBatchParser parser = CcdBatchParser.builder().virtualThreads().parallelism(16).build()) {
+      results = parser.parse(sources.stream()).toList();
+    }
+    
+    assertEquals(sources.size(), results.size());
+    int failures = 0;
+    for (int i = 0; i < results.size(); i++) {
+      assertEquals(i, results.get(i).getIndex());
+      assertEquals(sources.get(i), results.get(i).getSource());
+      if (!results.get(i).isSuccess()) {
+        failures++;
+      }
+    }
+    assertEquals(expectedFailures + 1, failures);
+    assertInstanceOf(SAXException.class, results.get(results.size() - 1).getException());
+    
+    // However many virtual threads parse at once no more DocumentBuilders than the pool size are created
+    final DocumentBuilderPool pool = CcdParser.getDocumentBuilderPool();
+    assertTrue(pool.getCreatedCount() <= pool.getSize());
+    assertEquals(0, pool.getInUse());
+  }
+  
+  /**
+   * Test that an unordered batch on platform threads using the streaming parser returns every CCD.
+   */
+  @Test
+  public void testParse_UnorderedStreaming() throws Exception {
+    System.out.println("parse unordered");
+    final List<Path> ccdFiles = CcdCorpus.files();
+    
+    final Set<Long> indexes = new HashSet<>();
+    try (CcdBatchParser parser = CcdBatchParser.builder().parallelism(4).ordered(false).profile(ParseProfile.HEADER)
+            .build()) {
+      parser.parse(ccdFiles.stream().map(CcdSource::of).iterator()).forEachRemaining(result -> {
+        assertTrue(result.isSuccess(), result.getSource() + " " + result.getException());
+        assertFalse(indexes.contains(result.getIndex()));
+        indexes.add(result.getIndex());
+      });
+    }
+    
+    assertEquals(ccdFiles.size(), indexes.size());
+  }
+  
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd;
+
+import com.expositura.model.ccd.ClinicalDocument;
+import com.expositura.parser.ccd.util.CcdObjectMappers;
+import com.expositura.parser.ccd.util.ParseProfile;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Provides Unit tests for the binary CCD format.
+ * 
+ * @author Sean Smith
+ */
+public class CcdBinaryCodecTest {
+  
+  private static final ObjectMapper mapper = new ObjectMapper(new JsonFactoryBuilder().streamReadConstraints(
+      StreamReadConstraints.builder().maxStringLength(Integer.MAX_VALUE).build()).build())
+      .setDefaultPropertyInclusion(JsonInclude.Include.NON_NULL);
+  
+  private static List<ClinicalDocument> parseAll() throws Exception {
+    final List<ClinicalDocument> ccds = new ArrayList<>();
+    for (final Path ccdFile : CcdCorpus.files()) {
+      ccds.add(CcdParser.parseStreaming(ccdFile, ParseProfile.FULL));
+    }
+    return ccds;
+  }
+  
+  /**
+   * Test that every sample CCD comes back exactly the same, one per stream and all in one stream.
+   */
+  @Test
+  public void testRoundTrip() throws Exception {
+    System.out.println("binary round trip");
+    final List<ClinicalDocument> ccds = parseAll();
+    
+    long jsonSize = 0;
+    long binarySize = 0;
+    final ByteArrayOutputStream batch = new ByteArrayOutputStream();
+    try (CcdBinaryWriter writer = new CcdBinaryWriter(batch)) {
+      for (final ClinicalDocument ccd : ccds) {
+        final String json = mapper.writeValueAsString(ccd);
+        final byte[] binary = CcdBinaryWriter.encode(ccd);
+        assertEquals(json, mapper.writeValueAsString(CcdBinaryReader.decode(binary)));
+        
+        jsonSize += json.getBytes(StandardCharsets.UTF_8).length;
+        binarySize += binary.length;
+        writer.write(ccd);
+      }
+    }
+    System.out.println("json " + jsonSize + " bytes, binary " + binarySize + " bytes, batch " + batch.size() + " bytes");
+    assertTrue(binarySize < jsonSize);
+    assertTrue(batch.size() < binarySize);
+    
+    try (CcdBinaryReader reader = new CcdBinaryReader(new ByteArrayInputStream(batch.toByteArray()))) {
+      for (final ClinicalDocument ccd : ccds) {
+        assertEquals(mapper.writeValueAsString(ccd), mapper.writeValueAsString(reader.read()));
+      }
+      assertNull(reader.read());
+    }
+  }
+  
+  /**
+   * Test that every sample CCD comes back exactly the same thru the Smile and CBOR mappers.
+   */
+  @Test
+  public void testRoundTrip_SmileAndCbor() throws Exception {
+    System.out.println("smile and cbor round trip");
+    final ObjectMapper json = CcdObjectMappers.json();
+    final ObjectMapper smile = CcdObjectMappers.smile();
+    final ObjectMapper cbor = CcdObjectMappers.cbor();
+    
+    long jsonSize = 0;
+    long smileSize = 0;
+    long cborSize = 0;
+    for (final ClinicalDocument ccd : parseAll()) {
+      final byte[] jsonBytes = json.writeValueAsBytes(ccd);
+      final byte[] smileBytes = smile.writeValueAsBytes(ccd);
+      final byte[] cborBytes = cbor.writeValueAsBytes(ccd);
+      assertEquals(mapper.writeValueAsString(json.readValue(jsonBytes, ClinicalDocument.class)),
+              mapper.writeValueAsString(smile.readValue(smileBytes, ClinicalDocument.class)));
+      assertEquals(mapper.writeValueAsString(json.readValue(jsonBytes, ClinicalDocument.class)),
+              mapper.writeValueAsString(cbor.readValue(cborBytes, ClinicalDocument.class)));
+      
+      jsonSize += jsonBytes.length;
+      smileSize += smileBytes.length;
+      cborSize += cborBytes.length;
+    }
+    System.out.println("json " + jsonSize + " bytes, smile " + smileSize + " bytes, cbor " + cborSize + " bytes");
+    assertTrue(smileSize < jsonSize);
+    assertTrue(cborSize < jsonSize);
+  }
+  
+  /**
+   * Test that something other than the binary format is rejected.
+   */
+  @Test
+  public void testRead_NotBinary() throws Exception {
+    System.out.println("binary not binary");
+    assertThrows(StreamCorruptedException.class,
+            () -> CcdBinaryReader.decode("<ClinicalDocument/>".getBytes(StandardCharsets.UTF_8)));
+    
+    final Path ccdFile = Path.of(CcdBinaryCodecTest.class.getResource(
+            "/ccds/360_Oncology/Alice_Newman_health_summary Delegate.xml").toURI());
+    final byte[] binary = CcdBinaryWriter.encode(CcdParser.parseStreaming(ccdFile, ParseProfile.FULL));
+    binary[4] = 99;
+    assertThrows(StreamCorruptedException.class, () -> CcdBinaryReader.decode(binary));
+  }
+  
+}
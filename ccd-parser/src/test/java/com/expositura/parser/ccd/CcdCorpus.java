@@ -0,0 +1,43 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * The sample CCD's the tests run against, from the ccds folder of the test resources.
+ *
+ * @author Sean Smith
+ */
+final class CcdCorpus {
+
+  private CcdCorpus() {
+  }
+
+  /**
+   * @return Every sample CCD file, sorted by path so tests go thru them in the same order each run
+   */
+  static List<Path> files() throws IOException, URISyntaxException {
+    try (Stream<Path> paths = Files.walk(Path.of(CcdCorpus.class.getResource("/ccds").toURI()))) {
+      return paths.filter(p -> p.toString().endsWith(".xml")).sorted().toList();
+    }
+  }
+}
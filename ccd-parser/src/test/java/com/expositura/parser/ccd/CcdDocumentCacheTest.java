@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd;
+
+import com.expositura.model.ccd.ClinicalDocument;
+import com.expositura.parser.ccd.util.ParseProfile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Provides Unit tests for the parsed CCD cache.
+ * 
+ * @author Sean Smith
+ */
+public class CcdDocumentCacheTest {
+  
+  /**
+   * Test that identical bytes are only parsed once, even by threads asking at the same time, and the bounds are kept.
+   */
+  @Test
+  public void testParse() throws Exception {
+    System.out.println("parse cached");
+    final List<byte[]> ccds = new ArrayList<>();
+    for (final Path ccdFile : CcdCorpus.files().subList(0, 20)) {
+      ccds.add(Files.readAllBytes(ccdFile));
+    }
+    
+    final CcdDocumentCache cache = CcdDocumentCache.builder().maximumSize(10).profile(ParseProfile.FULL).build();
+    
+    // A copy of the same bytes is a hit
+    final ClinicalDocument first = cache.parse(ccds.get(0));
+    assertSame(first, cache.parse(ccds.get(0).clone()));
+    assertEquals(1, cache.getMissCount());
+    assertEquals(1, cache.getHitCount());
+    
+    // Many threads asking for the same CCD at once only parse it once
+    final byte[] ccd = ccds.get(1);
+    try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+      final List<Future<ClinicalDocument>> results = new ArrayList<>();
+      for (int i = 0; i < 32; i++) {
+        results.add(executor.submit(() -> cache.parse(ccd)));
+      }
+      final ClinicalDocument shared = results.get(0).get();
+      for (final Future<ClinicalDocument> result : results) {
+        assertSame(shared, result.get());
+      }
+    }
+    assertEquals(2, cache.getMissCount());
+    assertEquals(32, cache.getHitCount());
+    
+    // Filling the cache past its size evicts the least recently used
+    for (final byte[] other : ccds) {
+      cache.parse(other);
+    }
+    assertEquals(10, cache.getSize());
+    assertTrue(cache.getEvictionCount() >= 10);
+    assertNotSame(first, cache.parse(ccds.get(0)));
+    
+    long weight = 0;
+    for (final byte[] cached : ccds.subList(ccds.size() - 9, ccds.size())) {
+      weight += cached.length;
+    }
+    assertEquals(weight + ccds.get(0).length, cache.getWeight());
+  }
+  
+}
@@ -16,6 +16,13 @@
 package com.expositura.parser.ccd;
 
 import com.expositura.model.ccd.ClinicalDocument;
+import com.expositura.model.ccd.Component3;
+import com.expositura.model.ccd.Ii;
+import com.expositura.model.ccd.Section;
+import com.expositura.model.ccd.StructuredBody;
+import com.expositura.parser.ccd.util.CcdElement;
+import com.expositura.parser.ccd.util.ModelFreezer;
+import com.expositura.parser.ccd.util.ParseProfile;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonFactoryBuilder;
 import com.fasterxml.jackson.core.StreamReadConstraints;
@@ -23,9 +30,27 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
 import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
 
 /**
  * Provides Unit tests for the CCD parser.
@@ -45,13 +70,30 @@ public class CcdParserTest {
    * Test of parseFromCcd method passing the ccd as a string.
    */
   @Test
-  public void testParseFromCcd_String() {
+  public void testParseFromCcd_String() throws Exception {
     System.out.println("parseFromCcd");
-    String ccdAsString = "";
-    ClinicalDocument expResult = null;
-    ClinicalDocument result = CcdParser.parseFromCcd(ccdAsString);
-    // TODO review the generated test code 
+    assertNull(CcdParser.parseFromCcd((String) null));
+    assertNull(CcdParser.parseFromCcd(""));
     
+    final String ccd;
+    try (InputStream ccdStream = CcdParserTest.class.getResourceAsStream(
+            "/ccds/360_Oncology/Alice_Newman_health_summary Delegate.xml")) {
+      ccd = new String(ccdStream.readAllBytes(), StandardCharsets.UTF_8);
+    }
+    final String expected = mapper.writeValueAsString(CcdParser.parseFromCcd(new InputSource(new StringReader(ccd))));
+    assertEquals(expected, mapper.writeValueAsString(CcdParser.parseFromCcd(ccd)));
+    
+    // A slice of a larger buffer
+    final StringBuilder message = new StringBuilder("{\"content\":\"").append(ccd).append("\"}");
+    final int start = message.indexOf("<");
+    final int end = message.lastIndexOf(">") + 1;
+    assertEquals(expected, mapper.writeValueAsString(CcdParser.parseFromCcd(message, start, end)));
+    assertNull(CcdParser.parseFromCcd(message, start, start));
+    assertThrows(NullPointerException.class, () -> CcdParser.parseFromCcd(null, 0, 0));
+    assertThrows(IndexOutOfBoundsException.class, () -> CcdParser.parseFromCcd(message, -1, -1));
+    assertThrows(IndexOutOfBoundsException.class, () -> CcdParser.parseFromCcd(message, end, start));
+    assertThrows(IndexOutOfBoundsException.class,
+            () -> CcdParser.parseFromCcd(message, message.length() + 1, message.length() + 1));
   }
 
   /**
@@ -66,4 +108,296 @@ public class CcdParserTest {
     System.out.println("result = \n" + mapper.writerWithDefaultPrettyPrinter().writeValueAsString(result));
   }
   
+  /**
+   * Test that the streaming parser produces the same ClinicalDocument as the DOM parser for every sample CCD.
+   */
+  @Test
+  public void testParseStreaming_MatchesDom() throws Exception {
+    System.out.println("parseStreaming");
+    final List<Path> ccdFiles = CcdCorpus.files();
+    assertFalse(ccdFiles.isEmpty());
+    
+    int compared = 0;
+    for (final Path ccdFile : ccdFiles) {
+      final ClinicalDocument domResult;
+      try (InputStream ccdStream = Files.newInputStream(ccdFile)) {
+        domResult = CcdParser.parseFromCcd(new InputSource(ccdStream));
+      }
+      
+      final ClinicalDocument streamResult;
+      try (InputStream ccdStream = Files.newInputStream(ccdFile)) {
+        streamResult = CcdParser.parseStreaming(ccdStream);
+      }
+      
+      assertEquals(mapper.writeValueAsString(domResult), mapper.writeValueAsString(streamResult), ccdFile.toString());
+      compared++;
+    }
+    assertEquals(ccdFiles.size(), compared);
+  }
+  
+  /**
+   * Test that including the body parses the sections of every sample CCD without changing the header.
+   */
+  @Test
+  public void testParseStreaming_IncludeBody() throws Exception {
+    System.out.println("parseStreaming includeBody");
+    final List<Path> ccdFiles = CcdCorpus.files();
+    assertFalse(ccdFiles.isEmpty());
+    
+    int entries = 0;
+    for (final Path ccdFile : ccdFiles) {
+      final ClinicalDocument headerOnly;
+      try (InputStream ccdStream = Files.newInputStream(ccdFile)) {
+        headerOnly = CcdParser.parseStreaming(ccdStream);
+      }
+      
+      final ClinicalDocument withBody;
+      try (InputStream ccdStream = Files.newInputStream(ccdFile)) {
+        withBody = CcdParser.parseStreaming(ccdStream, ParseProfile.FULL);
+      }
+      
+      if (Files.readString(ccdFile).contains("structuredBody")) {
+        final StructuredBody body = withBody.getComponent().getStructuredBody();
+        assertFalse(body.getComponent().isEmpty(), ccdFile.toString());
+        for (final Component3 component : body.getComponent()) {
+          if (component.getSection() != null && component.getSection().getEntry() != null) {
+            entries += component.getSection().getEntry().size();
+          }
+        }
+      }
+      
+      withBody.setComponent(null);
+      assertEquals(mapper.writeValueAsString(headerOnly), mapper.writeValueAsString(withBody), ccdFile.toString());
+    }
+    assertTrue(entries > 0);
+    System.out.println("parsed " + entries + " entries from " + ccdFiles.size() + " CCDs");
+  }
+  
+  /**
+   * Test that a narrative block with prefixed attributes is kept as XML that parses on its own.
+   */
+  @Test
+  public void testParseStreaming_NarrativePrefixes() throws Exception {
+    System.out.println("parseStreaming narrative prefixes");
+    final String ccd = """
+        <ClinicalDocument xmlns="urn:hl7-org:v3" xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"
+            xmlns:sdtc="urn:hl7-org:sdtc">
+          <id root="2.16.840.1.113883.19.5" extension="DOC-1"/>
+          <component>
+            <structuredBody>
+              <component>
+                <section>
+                  <text><paragraph xml:lang="en" sdtc:caption="Note"><content xsi:type="ST" ID="c1">A &amp; B</content></paragraph></text>
+                </section>
+              </component>
+            </structuredBody>
+          </component>
+        </ClinicalDocument>
+        """;
+    final ClinicalDocument result = CcdParser.parseStreaming(
+            new ByteArrayInputStream(ccd.getBytes(StandardCharsets.UTF_8)), ParseProfile.FULL);
+    final String narrative = result.getComponent().getStructuredBody().getComponent().get(0).getSection().getText()
+            .getXmlText();
+    assertEquals("<paragraph xml:lang=\"en\" sdtc:caption=\"Note\" xmlns:sdtc=\"urn:hl7-org:sdtc\">"
+            + "<content xsi:type=\"ST\" ID=\"c1\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\">A &amp; B"
+            + "</content></paragraph>", narrative);
+    
+    final XMLInputFactory factory = XMLInputFactory.newFactory();
+    factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+    final XMLStreamReader reader = factory.createXMLStreamReader(new StringReader("<text>" + narrative + "</text>"));
+    while (reader.hasNext()) {
+      reader.next();
+    }
+  }
+  
+  /**
+   * Test that a profile only parses the elements it includes and parses them the same as a full parse.
+   */
+  @Test
+  public void testParseStreaming_Profile() throws Exception {
+    System.out.println("parseStreaming profile");
+    final List<Path> ccdFiles = CcdCorpus.files();
+    
+    final ParseProfile patientOnly = ParseProfile.builder()
+            .include(CcdElement.RECORD_TARGET, CcdElement.PATIENT_ROLE, CcdElement.PATIENT)
+            .include(CcdElement.CUSTODIAN)
+            .build();
+    
+    for (final Path ccdFile : ccdFiles) {
+      final ClinicalDocument full;
+      try (InputStream ccdStream = Files.newInputStream(ccdFile)) {
+        full = CcdParser.parseStreaming(ccdStream);
+      }
+      
+      final ClinicalDocument demographics;
+      try (InputStream ccdStream = Files.newInputStream(ccdFile)) {
+        demographics = CcdParser.parseStreaming(ccdStream, ParseProfile.DEMOGRAPHICS);
+      }
+      assertEquals(mapper.writeValueAsString(full.getRecordTarget()),
+              mapper.writeValueAsString(demographics.getRecordTarget()), ccdFile.toString());
+      assertEquals(mapper.writeValueAsString(full.getAuthor()), mapper.writeValueAsString(demographics.getAuthor()),
+              ccdFile.toString());
+      assertEquals(mapper.writeValueAsString(full.getCustodian()),
+              mapper.writeValueAsString(demographics.getCustodian()), ccdFile.toString());
+      assertNull(demographics.getId(), ccdFile.toString());
+      assertNull(demographics.getDocumentationOf(), ccdFile.toString());
+      
+      final ClinicalDocument patient;
+      try (InputStream ccdStream = Files.newInputStream(ccdFile)) {
+        patient = CcdParser.parseStreaming(ccdStream, patientOnly);
+      }
+      assertEquals(mapper.writeValueAsString(full.getRecordTarget().get(0).getPatientRole().getPatient()),
+              mapper.writeValueAsString(patient.getRecordTarget().get(0).getPatientRole().getPatient()),
+              ccdFile.toString());
+      assertNull(patient.getRecordTarget().get(0).getPatientRole().getId(), ccdFile.toString());
+      assertNull(patient.getAuthor(), ccdFile.toString());
+      assertEquals(mapper.writeValueAsString(full.getCustodian()), mapper.writeValueAsString(patient.getCustodian()),
+              ccdFile.toString());
+    }
+  }
+  
+  /**
+   * Test that parsing out of a direct ByteBuffer or a memory mapped file gives the same result as parsing a stream.
+   */
+  @Test
+  public void testParse_ByteBufferAndPath() throws Exception {
+    System.out.println("parse ByteBuffer and Path");
+    final Path ccdFile = Path.of(CcdParserTest.class.getResource(
+            "/ccds/360_Oncology/Alice_Newman_health_summary Delegate.xml").toURI());
+    final byte[] bytes = Files.readAllBytes(ccdFile);
+    final ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+    
+    final String dom = mapper.writeValueAsString(CcdParser.parseFromCcd(new InputSource(new ByteArrayInputStream(bytes))));
+    assertEquals(dom, mapper.writeValueAsString(CcdParser.parseFromCcd(buffer)));
+    assertEquals(dom, mapper.writeValueAsString(CcdParser.parseFromCcd(ccdFile)));
+    
+    final String stream = mapper.writeValueAsString(
+            CcdParser.parseStreaming(new ByteArrayInputStream(bytes), ParseProfile.FULL));
+    assertEquals(stream, mapper.writeValueAsString(CcdParser.parseStreaming(buffer, ParseProfile.FULL)));
+    assertEquals(stream, mapper.writeValueAsString(CcdParser.parseStreaming(ccdFile, ParseProfile.FULL)));
+    
+    // The buffer is read through a duplicate so it can be parsed again
+    assertEquals(0, buffer.position());
+    assertEquals(bytes.length, buffer.limit());
+  }
+  
+  /**
+   * Test that coded values are shared between documents rather than copied into each one.
+   */
+  @Test
+  public void testParse_InternsCodes() throws Exception {
+    System.out.println("parse interns codes");
+    final Path ccdFile = Path.of(CcdParserTest.class.getResource(
+            "/ccds/360_Oncology/Alice_Newman_health_summary Delegate.xml").toURI());
+    final ClinicalDocument first = CcdParser.parseFromCcd(ccdFile);
+    final ClinicalDocument second = CcdParser.parseStreaming(ccdFile, ParseProfile.HEADER);
+    
+    assertSame(first.getCode().getCodeSystem(), second.getCode().getCodeSystem());
+    assertSame(first.getTypeId().getRoot(), second.getTypeId().getRoot());
+    assertSame(first.getTemplateId().get(0).getRoot(), second.getTemplateId().get(0).getRoot());
+  }
+  
+  /**
+   * Test that with flyweights on recurring identifiers and codes are shared and the documents are otherwise the same.
+   */
+  @Test
+  public void testParse_Flyweights() throws Exception {
+    System.out.println("parse flyweights");
+    final List<Path> ccdFiles = CcdCorpus.files();
+    final Path ccdFile = Path.of(CcdParserTest.class.getResource(
+            "/ccds/360_Oncology/Alice_Newman_health_summary Delegate.xml").toURI());
+    final String expected = mapper.writeValueAsString(CcdParser.parseStreaming(ccdFile, ParseProfile.FULL));
+    
+    final CcdParserOptions defaults = CcdParser.getOptions();
+    try {
+      final int registered = CcdFlyweights.warm(ccdFiles.stream().map(CcdSource::of).toList(), 20);
+      System.out.println("registered " + registered + " flyweights");
+      assertTrue(registered > 0);
+      CcdParser.configure(CcdParserOptions.builder().flyweights(true).build());
+      
+      final ClinicalDocument first = CcdParser.parseStreaming(ccdFile, ParseProfile.FULL);
+      final ClinicalDocument second = CcdParser.parseFromCcd(ccdFile);
+      assertEquals(expected, mapper.writeValueAsString(first));
+      assertSame(first.getTypeId(), second.getTypeId());
+      assertSame(first.getTemplateId().get(0), second.getTemplateId().get(0));
+      assertThrows(UnsupportedOperationException.class, () -> first.getTypeId().setRoot("1.2.3"));
+    } finally {
+      CcdParser.configure(defaults);
+      CcdFlyweights.clear();
+    }
+  }
+  
+  /**
+   * Test that a frozen document is the same as an unfrozen one but its lists can't be changed.
+   */
+  @Test
+  public void testParse_Freeze() throws Exception {
+    System.out.println("parse freeze");
+    final Path ccdFile = Path.of(CcdParserTest.class.getResource(
+            "/ccds/360_Oncology/Alice_Newman_health_summary Delegate.xml").toURI());
+    final String expected = mapper.writeValueAsString(CcdParser.parseStreaming(ccdFile, ParseProfile.FULL));
+    
+    final CcdParserOptions defaults = CcdParser.getOptions();
+    CcdParser.configure(CcdParserOptions.builder().freeze(true).build());
+    try {
+      final ClinicalDocument frozen = CcdParser.parseStreaming(ccdFile, ParseProfile.FULL);
+      assertEquals(expected, mapper.writeValueAsString(frozen));
+      assertTrue(ModelFreezer.isFrozen(frozen.getTemplateId()));
+      assertThrows(UnsupportedOperationException.class, () -> frozen.addTemplateId(new Ii()));
+      
+      final Section section = frozen.getComponent().getStructuredBody().getComponent().get(0).getSection();
+      assertTrue(ModelFreezer.isFrozen(section.getEntry()));
+      assertThrows(UnsupportedOperationException.class, () -> section.getEntry().clear());
+    } finally {
+      CcdParser.configure(defaults);
+    }
+    
+    // Trimming keeps the document changeable
+    final ClinicalDocument trimmed = ModelFreezer.trim(CcdParser.parseStreaming(ccdFile, ParseProfile.FULL));
+    assertEquals(expected, mapper.writeValueAsString(trimmed));
+    assertFalse(ModelFreezer.isFrozen(trimmed.getTemplateId()));
+    trimmed.addTemplateId(new Ii());
+  }
+  
+  /**
+   * Test that a DOCTYPE, and so any entity it declares, is rejected by default by both parsers.
+   */
+  @Test
+  public void testParse_RejectsDoctype() {
+    System.out.println("parse rejects DOCTYPE");
+    final String ccd = "<?xml version=\"1.0\"?>\n"
+            + "<!DOCTYPE ClinicalDocument [<!ENTITY xxe SYSTEM \"file:///etc/passwd\">]>\n"
+            + "<ClinicalDocument xmlns=\"urn:hl7-org:v3\"><title>&xxe;</title></ClinicalDocument>";
+    
+    assertThrows(SAXException.class, () -> CcdParser.parseFromCcd(new InputSource(new StringReader(ccd))));
+    assertThrows(XMLStreamException.class,
+            () -> CcdParser.parseStreaming(new ByteArrayInputStream(ccd.getBytes(StandardCharsets.UTF_8))));
+  }
+  
+  /**
+   * Test that both parsers enforce the element depth limit.
+   */
+  @Test
+  public void testParse_MaxElementDepth() throws Exception {
+    System.out.println("parse maxElementDepth");
+    final byte[] ccd;
+    try (InputStream ccdStream = CcdParserTest.class.getResourceAsStream(
+            "/ccds/360_Oncology/Alice_Newman_health_summary Delegate.xml")) {
+      ccd = ccdStream.readAllBytes();
+    }
+    
+    final CcdParserOptions defaults = CcdParser.getOptions();
+    CcdParser.configure(CcdParserOptions.builder().maxElementDepth(4).build());
+    try {
+      assertThrows(SAXException.class, () -> CcdParser.parseFromCcd(new InputSource(new ByteArrayInputStream(ccd))));
+      assertThrows(XMLStreamException.class,
+              () -> CcdParser.parseStreaming(new ByteArrayInputStream(ccd), ParseProfile.FULL));
+    } finally {
+      CcdParser.configure(defaults);
+    }
+    
+    assertNotNull(CcdParser.parseFromCcd(new InputSource(new ByteArrayInputStream(ccd))));
+    assertNotNull(CcdParser.parseStreaming(new ByteArrayInputStream(ccd), ParseProfile.FULL));
+  }
+  
 }
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd;
+
+import com.expositura.model.Patient;
+import com.expositura.parser.ccd.util.ParseProfile;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Path;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Provides Unit tests for mapping CCD's to the patient data model.
+ * 
+ * @author Sean Smith
+ */
+public class CcdToPatientMapperTest {
+  
+  private static final ObjectMapper mapper = new ObjectMapper()
+      .setDefaultPropertyInclusion(JsonInclude.Include.NON_NULL);
+  
+  /**
+   * Test the patient of a known CCD.
+   */
+  @Test
+  public void testMap() throws Exception {
+    System.out.println("map patient");
+    final Path ccdFile = Path.of(CcdToPatientMapperTest.class.getResource(
+            "/ccds/360_Oncology/Alice_Newman_health_summary Delegate.xml").toURI());
+    final List<Patient> patients = CcdToPatientMapper.map(CcdParser.parseStreaming(ccdFile, ParseProfile.DEMOGRAPHICS));
+    assertEquals(1, patients.size());
+    
+    final Patient patient = patients.get(0);
+    assertEquals("urn:oid:2.16.840.1.113883.4.1", patient.getIdentifier().get(0).getSystem());
+    assertEquals("T-10118", patient.getIdentifier().get(0).getValue());
+    assertEquals("female", patient.getGender());
+    assertEquals("1970-05-01", patient.getBirthDate().getValue());
+    assertEquals("19700501", patient.getBirthDate().getOriginalText());
+    assertEquals("M", patient.getMaritalStatus().getCoding().get(0).getCode());
+    
+    assertEquals(2, patient.getName().size());
+    assertEquals("usual", patient.getName().get(0).getUse());
+    assertEquals("Newman", patient.getName().get(0).getFamily());
+    assertEquals(List.of("Alice", "Jones"), patient.getName().get(0).getGiven());
+    
+    assertEquals("home", patient.getAddress().get(0).getUse());
+    assertEquals(List.of("1357 Amber Dr"), patient.getAddress().get(0).getLine());
+    assertEquals("Beaverton", patient.getAddress().get(0).getCity());
+    assertEquals("97006", patient.getAddress().get(0).getPostalCode());
+    
+    assertEquals(3, patient.getTelecom().size());
+    assertEquals("mobile", patient.getTelecom().get(0).getUse());
+    assertEquals("phone", patient.getTelecom().get(0).getSystem());
+    assertEquals("+1(555)-777-1234", patient.getTelecom().get(0).getValue());
+    assertEquals("email", patient.getTelecom().get(2).getSystem());
+    assertEquals("360mu.alice.newman@gmail.com", patient.getTelecom().get(2).getValue());
+  }
+  
+  /**
+   * Test that mapping while streaming gives the same patients as mapping a parsed CCD for every sample CCD.
+   */
+  @Test
+  public void testMapStreaming() throws Exception {
+    System.out.println("map patient streaming");
+    int mapped = 0;
+    for (final Path ccdFile : CcdCorpus.files()) {
+      final List<Patient> expected = CcdToPatientMapper.map(CcdParser.parseFromCcd(ccdFile));
+      final List<Patient> streamed = CcdToPatientMapper.mapStreaming(ccdFile);
+      assertEquals(mapper.writeValueAsString(expected), mapper.writeValueAsString(streamed), ccdFile.toString());
+      mapped += streamed.size();
+    }
+    System.out.println("mapped " + mapped + " patients");
+    assertFalse(mapped == 0);
+  }
+  
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 Sean Smith.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expositura.parser.ccd.util;
+
+import com.expositura.parser.ccd.util.Hl7Timestamp.Precision;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Provides Unit tests for the HL7 TS decoder.
+ * 
+ * @author Sean Smith
+ */
+public class Hl7TimestampTest {
+  
+  /**
+   * Test each precision, fractions of a second and offsets.
+   */
+  @Test
+  public void testParse() {
+    System.out.println("hl7 timestamp parse");
+    assertEquals(Precision.YEAR, Hl7Timestamp.getPrecision(Hl7Timestamp.parse("1970")));
+    assertEquals("1970", Hl7Timestamp.toIsoString(Hl7Timestamp.parse("1970")));
+    assertEquals("1970-01-01", Hl7Timestamp.toIsoDateString(Hl7Timestamp.parse("1970")));
+    assertEquals("1970-05", Hl7Timestamp.toIsoString(Hl7Timestamp.parse("197005")));
+    assertEquals("1970-05-01", Hl7Timestamp.toIsoString(Hl7Timestamp.parse(" 19700501 ")));
+    assertEquals("2015-06-22T10:00:00-05:00", Hl7Timestamp.toIsoString(Hl7Timestamp.parse("201506221000-0500")));
+    assertEquals("2015-06-22T10:00:00+05:30", Hl7Timestamp.toIsoString(Hl7Timestamp.parse("2015062210+0530")));
+    assertEquals("2015-06-22T10:30:15", Hl7Timestamp.toIsoString(Hl7Timestamp.parse("20150622103015")));
+    assertEquals("2015-06-22T10:30:15.120", Hl7Timestamp.toIsoString(Hl7Timestamp.parse("20150622103015.12")));
+    assertEquals("2015-06-22T10:30:15.123Z", Hl7Timestamp.toOffsetDateTime(
+            Hl7Timestamp.parse("20150622103015.1234+0000"), ZoneOffset.UTC).toString());
+    
+    final long packed = Hl7Timestamp.parse("20240229235959.999-1000");
+    assertEquals(Precision.MILLISECOND, Hl7Timestamp.getPrecision(packed));
+    assertEquals(2024, Hl7Timestamp.getYear(packed));
+    assertEquals(2, Hl7Timestamp.getMonth(packed));
+    assertEquals(29, Hl7Timestamp.getDayOfMonth(packed));
+    assertEquals(-600, Hl7Timestamp.getOffsetMinutes(packed));
+    assertEquals(OffsetDateTime.parse("2024-02-29T23:59:59.999-10:00"),
+            Hl7Timestamp.toOffsetDateTime(packed, ZoneOffset.UTC));
+    assertEquals(OffsetDateTime.parse("2024-02-29T23:59:59.999-10:00").toInstant().toEpochMilli(),
+            Hl7Timestamp.getEpochMillis(packed));
+    assertEquals(LocalDate.of(1, 1, 1), Hl7Timestamp.toLocalDate(Hl7Timestamp.parse("0001")));
+  }
+  
+  /**
+   * Test values that are not HL7 timestamps or not real dates.
+   */
+  @Test
+  public void testParse_Invalid() {
+    System.out.println("hl7 timestamp invalid");
+    for (final String value : new String[] {null, "", "197", "abcd", "1970-05-01", "1970051", "19700230", "19701301",
+            "19700500", "2015062224", "201506221060", "20150622103060", "2015062210.5", "20150622103015.",
+            "2015062210+05:00", "2015062210+1900", "2015062210+05 x"}) {
+      assertFalse(Hl7Timestamp.isValid(Hl7Timestamp.parse(value)), String.valueOf(value));
+    }
+    assertNull(Hl7Timestamp.toIsoString(Hl7Timestamp.INVALID));
+    assertNull(Hl7Timestamp.toLocalDate(Hl7Timestamp.INVALID));
+  }
+  
+  /**
+   * Test that dates and years between them agree with java.time over several centuries.
+   */
+  @Test
+  public void testDates() {
+    System.out.println("hl7 timestamp dates");
+    final LocalDate today = LocalDate.of(2026, 10, 18);
+    for (LocalDate date = LocalDate.of(1800, 1, 1); date.getYear() < 2200; date = date.plusDays(1)) {
+      final long packed = Hl7Timestamp.parse(String.format("%04d%02d%02d", date.getYear(), date.getMonthValue(),
+              date.getDayOfMonth()));
+      assertTrue(Hl7Timestamp.hasDay(packed));
+      assertEquals(date.toEpochDay(), Hl7Timestamp.getEpochDay(packed));
+      assertEquals(date, Hl7Timestamp.toLocalDate(packed));
+      assertEquals(date.toString(), Hl7Timestamp.toIsoString(packed));
+      assertEquals(date.until(today, ChronoUnit.YEARS), Hl7Timestamp.yearsUntil(packed, today));
+    }
+  }
+  
+}
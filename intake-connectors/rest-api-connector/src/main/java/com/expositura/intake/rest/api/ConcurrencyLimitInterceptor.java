@@ -0,0 +1,71 @@
+package com.expositura.intake.rest.api;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Limits how many intake requests are handled at once with a semaphore. With platform threads Tomcat's thread pool
+ * was the limit, with virtual threads there's a thread for every connection so this is what stops a burst of requests
+ * from all reading their bodies and spooling their contents at once. The interceptor runs before the body is read, a
+ * request that can't get a permit within the timeout is answered 503 with a Retry-After.
+ *
+ * @author Sean Smith
+ */
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+  private final int maxConcurrent;
+  private final Semaphore permits;
+  private final long timeoutMilli;
+  private final int retryAfterSeconds;
+
+  /**
+   * @param maxConcurrent How many requests may be handled at once
+   * @param timeoutMilli How long a request waits for a permit
+   * @param retryAfterSeconds What the Retry-After header says when a request is turned away
+   */
+  public ConcurrencyLimitInterceptor(final int maxConcurrent, final long timeoutMilli, final int retryAfterSeconds) {
+    if (maxConcurrent < 1) {
+      throw new IllegalArgumentException("maxConcurrent must be at least 1");
+    }
+    this.maxConcurrent = maxConcurrent;
+    this.permits = new Semaphore(maxConcurrent);
+    this.timeoutMilli = timeoutMilli;
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  @Override
+  public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response,
+          final Object handler) throws Exception {
+    try {
+      if (permits.tryAcquire(timeoutMilli, TimeUnit.MILLISECONDS)) {
+        return true;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    response.setHeader(HttpHeaders.RETRY_AFTER, Integer.toString(retryAfterSeconds));
+    response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Intake is busy, try again later");
+    return false;
+  }
+
+  /**
+   * Only called for requests that got a permit.
+   */
+  @Override
+  public void afterCompletion(final HttpServletRequest request, final HttpServletResponse response,
+          final Object handler, final Exception ex) {
+    permits.release();
+  }
+
+  /**
+   * @return How many requests are being handled
+   */
+  public int getActiveCount() {
+    return maxConcurrent - permits.availablePermits();
+  }
+}
@@ -3,24 +3,140 @@ package com.expositura.intake.rest.api;
 import com.expositura.intake.rest.api.model.LegacyIntakeParsedResponse;
 import com.expositura.intake.rest.api.model.LegacyIntakeRequest;
 import com.expositura.intake.rest.api.model.LegacyIntakeResponse;
+import com.expositura.intake.rest.api.model.LegacyIntakeResponseInner;
+import com.expositura.intake.rest.pipeline.IntakeItem;
+import com.expositura.intake.rest.pipeline.IntakePipeline;
+import com.expositura.model.ccd.ClinicalDocument;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 /**
- * Intake Rest Connector API's
+ * Intake Rest Connector API's. Requests are answered as soon as their contents are queued in the
+ * {@link IntakePipeline}, each content gets an id in the response that it's stored under once it's thru the pipeline.
  */
 @RestController
 public class IntakeController implements IntakeApi {
 
+  private final IntakePipeline pipeline;
+  private final long parsedResponseTimeoutMilli;
+  private final int retryAfterSeconds;
+
+  /**
+   * @param pipeline The pipeline the contents are queued in
+   * @param parsedResponseTimeoutMilli How long a request for the parsed response waits for the parse
+   * @param retryAfterSeconds What the Retry-After header says when intake can't take a request
+   */
+  public IntakeController(final IntakePipeline pipeline,
+          @Value("${intake.parsedResponseTimeoutMilli:30000}") final long parsedResponseTimeoutMilli,
+          @Value("${intake.retryAfterSeconds:5}") final int retryAfterSeconds) {
+    this.pipeline = pipeline;
+    this.parsedResponseTimeoutMilli = parsedResponseTimeoutMilli;
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
   @Override
-  public ResponseEntity<LegacyIntakeParsedResponse> legacyIntakeWithParsedResponse(LegacyIntakeRequest legacyIntakeRequest) {
-    return IntakeApi.super.legacyIntakeWithParsedResponse(legacyIntakeRequest); // Generated from nbfs://nbhost/SystemFileSystem/Templates/Classes/Code/OverriddenMethodBody
+  public ResponseEntity<LegacyIntakeParsedResponse> legacyIntakeWithParsedResponse(
+          LegacyIntakeRequest legacyIntakeRequest) {
+    final List<IntakeItem> items = accept(legacyIntakeRequest);
+
+    // The first CCD is the one parsed for the response, otherwise the first content
+    final IntakeItem item = items.stream().filter(IntakeItem::isCcd).findFirst().orElse(items.get(0));
+    if (item.getStatus() == IntakeItem.Status.REJECTED) {
+      return withRetryAfter(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE))
+              .body(new LegacyIntakeParsedResponse().importStatus(toResponse(item)));
+    }
+
+    ClinicalDocument document = null;
+    try {
+      document = item.getParsed().get(parsedResponseTimeoutMilli, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while parsing", e);
+    } catch (ExecutionException e) {
+      // The item's status and message say why it failed, anything else isn't a parse that can be answered
+      if (item.getStatus() == IntakeItem.Status.FAILED) {
+        final HttpStatus status = failedStatus(item);
+        final ResponseEntity.BodyBuilder response = ResponseEntity.status(status);
+        return (status == HttpStatus.SERVICE_UNAVAILABLE ? withRetryAfter(response) : response)
+                .body(new LegacyIntakeParsedResponse().importStatus(toResponse(item)));
+      } else {
+        throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Content " + item.getContentIndex()
+                + " (" + item.getId() + ") could not be parsed", e.getCause());
+      }
+    } catch (TimeoutException e) {
+      throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Timed out waiting for content "
+              + item.getContentIndex() + " (" + item.getId() + ") to be parsed", e);
+    }
+
+    return ResponseEntity.ok(new LegacyIntakeParsedResponse().importStatus(toResponse(item)).parsedResponse(document));
   }
 
   @Override
   public ResponseEntity<LegacyIntakeResponse> legacyIntake(LegacyIntakeRequest legacyIntakeRequest) {
-    return IntakeApi.super.legacyIntake(legacyIntakeRequest); // Generated from nbfs://nbhost/SystemFileSystem/Templates/Classes/Code/OverriddenMethodBody
+    final List<IntakeItem> items = accept(legacyIntakeRequest);
+
+    final LegacyIntakeResponse response = new LegacyIntakeResponse();
+    boolean anyAccepted = false;
+    for (final IntakeItem item : items) {
+      response.add(toResponse(item));
+      anyAccepted |= item.getStatus() != IntakeItem.Status.REJECTED;
+    }
+
+    // Nothing got in, tell the sender to try the whole request again later
+    if (!anyAccepted) {
+      return withRetryAfter(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)).body(response);
+    }
+    return ResponseEntity.ok(response);
+  }
+
+  /**
+   * Queues each content of the request, in order.
+   */
+  private List<IntakeItem> accept(final LegacyIntakeRequest request) {
+    if (request == null || request.getContents() == null || request.getContents().isEmpty()) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The request has no contents");
+    }
+
+    final List<IntakeItem> items = new ArrayList<>(request.getContents().size());
+    for (int i = 0; i < request.getContents().size(); i++) {
+      final IntakeItem item = new IntakeItem(request, i);
+      pipeline.accept(item);
+      items.add(item);
+    }
+    return items;
+  }
+
+  private LegacyIntakeResponseInner toResponse(final IntakeItem item) {
+    return new LegacyIntakeResponseInner()
+            .contentIndex(item.getContentIndex())
+            .id(item.getId())
+            .status(item.getStatus().name())
+            .message(item.getMessage());
+  }
+
+  /**
+   * Content that isn't base64 is a bad request, content that decoded but couldn't be parsed or mapped can't be
+   * processed, and intake stopping before the item was done is on this end. Requests read by the
+   * {@link LegacyIntakeRequestConverter} are decoded as they're read, bad base64 in those is a 400 before they get here.
+   */
+  private static HttpStatus failedStatus(final IntakeItem item) {
+    return switch (item.getFailure()) {
+      case STOPPED -> HttpStatus.SERVICE_UNAVAILABLE;
+      case DECODE -> HttpStatus.BAD_REQUEST;
+      case PARSE, MAP, PERSIST -> HttpStatus.UNPROCESSABLE_CONTENT;
+    };
+  }
+
+  private ResponseEntity.BodyBuilder withRetryAfter(final ResponseEntity.BodyBuilder builder) {
+    return builder.header(HttpHeaders.RETRY_AFTER, Integer.toString(retryAfterSeconds));
   }
-  
-  
 }
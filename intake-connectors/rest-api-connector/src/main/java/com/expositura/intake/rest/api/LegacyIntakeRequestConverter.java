@@ -0,0 +1,199 @@
+package com.expositura.intake.rest.api;
+
+import com.expositura.intake.rest.api.model.LegacyIntakeRequest;
+import com.expositura.intake.rest.api.model.LegacyIntakeRequestContentsInner;
+import com.expositura.intake.rest.pipeline.ContentSpool;
+import com.expositura.intake.rest.pipeline.SpooledContent;
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+/**
+ * Reads a LegacyIntakeRequest off the request body a token at a time instead of binding the whole JSON. Each
+ * {@code content} is base64 decoded straight from the body into a {@link ContentSpool}, so the base64 string is never
+ * built and a large CCD goes to a spool file instead of the heap. The contents come back as {@link SpooledContent}s,
+ * everything else in the request is bound the same as the ObjectMapper would.
+ *
+ * @author Sean Smith
+ */
+public class LegacyIntakeRequestConverter extends AbstractHttpMessageConverter<LegacyIntakeRequest> {
+
+  // Senders wrap their base64 in line breaks and don't always pad it
+  private static final Base64Variant BASE64 = Base64Variants.MIME_NO_LINEFEEDS
+          .withReadPadding(Base64Variant.PaddingReadBehaviour.PADDING_ALLOWED);
+
+  private static final TypeReference<Map<String, Object>> ATTRIBUTES = new TypeReference<>() {
+  };
+
+  private final ObjectMapper mapper;
+  private final int spoolThreshold;
+  private final Path spoolDirectory;
+
+  /**
+   * @param mapper Binds everything but the contents, and its parser factory reads the body
+   * @param spoolThreshold How many decoded bytes of a content are kept in memory before moving it to a file
+   * @param spoolDirectory Where the spool files are created
+   */
+  public LegacyIntakeRequestConverter(final ObjectMapper mapper, final int spoolThreshold, final Path spoolDirectory) {
+    super(MediaType.APPLICATION_JSON);
+    this.mapper = mapper;
+    this.spoolThreshold = spoolThreshold;
+    this.spoolDirectory = spoolDirectory;
+  }
+
+  @Override
+  protected boolean supports(final Class<?> clazz) {
+    return LegacyIntakeRequest.class == clazz;
+  }
+
+  @Override
+  protected boolean canWrite(final MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  protected LegacyIntakeRequest readInternal(final Class<? extends LegacyIntakeRequest> clazz,
+          final HttpInputMessage inputMessage) throws IOException {
+    try {
+      return read(inputMessage.getBody());
+    } catch (JsonProcessingException e) {
+      throw new HttpMessageNotReadableException("Could not read the intake request: " + e.getOriginalMessage(), e,
+              inputMessage);
+    }
+  }
+
+  @Override
+  protected void writeInternal(final LegacyIntakeRequest request, final HttpOutputMessage outputMessage) {
+    throw new UnsupportedOperationException("Intake requests are only read");
+  }
+
+  /**
+   * Reads a request, any spool already written is deleted if the request can't be read.
+   *
+   * @param body The JSON request body, not closed
+   * @return The request with its contents spooled
+   * @throws IOException If the body isn't a valid request or couldn't be read
+   */
+  public LegacyIntakeRequest read(final InputStream body) throws IOException {
+    final List<LegacyIntakeRequestContentsInner> contents = new ArrayList<>();
+    try (JsonParser parser = mapper.getFactory().createParser(body)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw MismatchedInputException.from(parser, LegacyIntakeRequest.class, "The request must be a JSON object");
+      }
+
+      // Everything but the contents is small, gather it up and bind it at the end
+      final ObjectNode fields = mapper.createObjectNode();
+      boolean hasContents = false;
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final String name = parser.currentName();
+        parser.nextToken();
+        if ("contents".equals(name)) {
+          hasContents = readContents(parser, contents);
+        } else {
+          fields.set(name, mapper.readTree(parser));
+        }
+      }
+
+      final LegacyIntakeRequest request = mapper.treeToValue(fields, LegacyIntakeRequest.class);
+      request.setContents(hasContents ? contents : null);
+      return request;
+    } catch (IOException | RuntimeException e) {
+      for (final LegacyIntakeRequestContentsInner content : contents) {
+        if (content instanceof SpooledContent spooled && spooled.getSpool() != null) {
+          spooled.getSpool().close();
+        }
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * @return False if the contents were null
+   */
+  private boolean readContents(final JsonParser parser, final List<LegacyIntakeRequestContentsInner> contents)
+          throws IOException {
+    if (parser.currentToken() == JsonToken.VALUE_NULL) {
+      return false;
+    }
+    if (parser.currentToken() != JsonToken.START_ARRAY) {
+      throw MismatchedInputException.from(parser, List.class, "contents must be an array");
+    }
+
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      if (parser.currentToken() == JsonToken.VALUE_NULL) {
+        contents.add(null);
+      } else if (parser.currentToken() == JsonToken.START_OBJECT) {
+        final SpooledContent content = new SpooledContent();
+        contents.add(content);
+        readContent(parser, content);
+      } else {
+        throw MismatchedInputException.from(parser, LegacyIntakeRequestContentsInner.class,
+                "Each of the contents must be an object");
+      }
+    }
+    return true;
+  }
+
+  private void readContent(final JsonParser parser, final SpooledContent content) throws IOException {
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String name = parser.currentName();
+      final JsonToken value = parser.nextToken();
+      switch (name) {
+        case "content" -> {
+          if (value == JsonToken.VALUE_STRING) {
+            final ContentSpool spool = ContentSpool.create(spoolThreshold, spoolDirectory);
+            content.setSpool(spool);
+            try (OutputStream out = spool.openOutputStream()) {
+              parser.readBinaryValue(BASE64, out);
+            }
+          } else if (value != JsonToken.VALUE_NULL) {
+            throw MismatchedInputException.from(parser, String.class, "content must be a base64 string");
+          }
+        }
+        case "otherAttributes" -> {
+          if (value != JsonToken.VALUE_NULL) {
+            content.setOtherAttributes(mapper.readValue(parser, ATTRIBUTES));
+          }
+        }
+        case "processedLevel" -> {
+          if (value != JsonToken.VALUE_NULL) {
+            try {
+              content.setProcessedLevel(
+                      LegacyIntakeRequestContentsInner.ProcessedLevelEnum.fromValue(parser.getValueAsString()));
+            } catch (IllegalArgumentException e) {
+              throw InvalidFormatException.from(parser, e.getMessage(), parser.getValueAsString(),
+                      LegacyIntakeRequestContentsInner.ProcessedLevelEnum.class);
+            }
+          }
+        }
+        default -> {
+          if (mapper.isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)) {
+            throw UnrecognizedPropertyException.from(parser, LegacyIntakeRequestContentsInner.class, name, null);
+          }
+          parser.skipChildren();
+        }
+      }
+    }
+  }
+}
@@ -1,6 +1,13 @@
 package com.expositura.intake.rest.app.config;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import com.expositura.intake.rest.api.ConcurrencyLimitInterceptor;
+import com.expositura.intake.rest.api.IntakeApi;
+import com.expositura.intake.rest.api.LegacyIntakeRequestConverter;
+import com.expositura.intake.rest.pipeline.ElasticsearchBulkIntakeSink;
+import com.expositura.intake.rest.pipeline.IntakePipeline;
+import com.expositura.intake.rest.pipeline.IntakeSink;
+import com.expositura.intake.rest.pipeline.S3ArchiveSink;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonFactoryBuilder;
 import com.fasterxml.jackson.core.StreamReadConstraints;
@@ -10,14 +17,21 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
@@ -25,7 +39,7 @@ import software.amazon.awssdk.services.s3.S3Client;
 
 @ComponentScan({"com.expositura"})
 @Configuration
-public class Config {
+public class Config implements WebMvcConfigurer {
 
   @Value("${aws.accessKey:null}")
   private String awsAccessKey;
@@ -53,6 +67,88 @@ public class Config {
   
   @Value("${isLocal:false}")
   private Boolean isLocal;
+
+  // Boot's own switch, which also puts Tomcat's request handling on virtual threads
+  @Value("${spring.threads.virtual.enabled:false}")
+  private boolean virtualThreads;
+
+  @Value("${intake.maxConcurrentRequests:200}")
+  private int intakeMaxConcurrentRequests;
+
+  @Value("${intake.retryAfterSeconds:5}")
+  private int intakeRetryAfterSeconds;
+
+  @Value("${intake.esIndex:clinical-messages}")
+  private String intakeEsIndex;
+
+  @Value("${intake.decodeThreads:2}")
+  private int intakeDecodeThreads;
+
+  @Value("${intake.parseThreads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+  private int intakeParseThreads;
+
+  @Value("${intake.mapThreads:2}")
+  private int intakeMapThreads;
+
+  @Value("${intake.persistThreads:4}")
+  private int intakePersistThreads;
+
+  @Value("${intake.queueCapacity:256}")
+  private int intakeQueueCapacity;
+
+  @Value("${intake.acceptTimeoutMilli:1000}")
+  private long intakeAcceptTimeoutMilli;
+
+  @Value("${intake.bulkMaxOperations:1000}")
+  private int intakeBulkMaxOperations;
+
+  @Value("${intake.bulkMaxBytes:5242880}")
+  private long intakeBulkMaxBytes;
+
+  @Value("${intake.bulkLingerMilli:1000}")
+  private long intakeBulkLingerMilli;
+
+  @Value("${intake.bulkConcurrentRequests:2}")
+  private int intakeBulkConcurrentRequests;
+
+  @Value("${intake.bulkMaxRetries:5}")
+  private int intakeBulkMaxRetries;
+
+  @Value("${intake.bulkRetryDelayMilli:100}")
+  private long intakeBulkRetryDelayMilli;
+
+  @Value("${intake.archiveBucket:}")
+  private String intakeArchiveBucket;
+
+  @Value("${intake.archivePrefix:raw/}")
+  private String intakeArchivePrefix;
+
+  @Value("${intake.archiveMultipartThresholdBytes:16777216}")
+  private long intakeArchiveMultipartThresholdBytes;
+
+  @Value("${intake.archivePartSizeBytes:8388608}")
+  private int intakeArchivePartSizeBytes;
+
+  @Value("${intake.archiveBatchMaxCount:0}")
+  private int intakeArchiveBatchMaxCount;
+
+  @Value("${intake.archiveBatchMaxBytes:16777216}")
+  private long intakeArchiveBatchMaxBytes;
+
+  @Value("${intake.archiveBatchLingerMilli:5000}")
+  private long intakeArchiveBatchLingerMilli;
+
+  @Value("${intake.archiveBatchItemMaxBytes:262144}")
+  private long intakeArchiveBatchItemMaxBytes;
+
+  @Value("${intake.archiveMaxConcurrentUploads:16}")
+  private int intakeArchiveMaxConcurrentUploads;
+
+  @Value("${intake.spoolThresholdBytes:1048576}")
+  private int intakeSpoolThresholdBytes;
+
+  @Value("${intake.spoolDirectory:${java.io.tmpdir}}")
+  private String intakeSpoolDirectory;
   
   @Bean
   public ElasticsearchClient esClient() {
@@ -87,6 +183,82 @@ public class Config {
         .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
   }
 
+  /**
+   * Intake requests are read with the streaming reader so their base64 contents are spooled instead of bound to
+   * strings, it goes ahead of the default JSON converter.
+   */
+  @Override
+  public void configureMessageConverters(final HttpMessageConverters.ServerBuilder builder) {
+    builder.addCustomConverter(new LegacyIntakeRequestConverter(objectMapper(), intakeSpoolThresholdBytes,
+        Path.of(intakeSpoolDirectory)));
+  }
+
+  /**
+   * Limits how many intake requests are handled at once, which with virtual threads Tomcat's thread pool no longer
+   * does.
+   */
+  @Override
+  public void addInterceptors(final InterceptorRegistry registry) {
+    registry.addInterceptor(new ConcurrencyLimitInterceptor(intakeMaxConcurrentRequests, intakeAcceptTimeoutMilli,
+        intakeRetryAfterSeconds))
+        .addPathPatterns(IntakeApi.PATH_LEGACY_INTAKE, IntakeApi.PATH_LEGACY_INTAKE_WITH_PARSED_RESPONSE);
+  }
+
+  @Bean(destroyMethod = "close")
+  public ElasticsearchBulkIntakeSink intakeSink(final ElasticsearchClient esClient) {
+    return ElasticsearchBulkIntakeSink.builder()
+        .client(esClient)
+        .index(intakeEsIndex)
+        .maxOperations(intakeBulkMaxOperations)
+        .maxBytes(intakeBulkMaxBytes)
+        .linger(Duration.ofMillis(intakeBulkLingerMilli))
+        .concurrentRequests(intakeBulkConcurrentRequests)
+        .maxRetries(intakeBulkMaxRetries)
+        .retryDelay(Duration.ofMillis(intakeBulkRetryDelayMilli))
+        .build();
+  }
+
+  /**
+   * Only when intake.archiveBucket is set, batching only when intake.archiveBatchMaxCount is more than 0.
+   */
+  @Bean(destroyMethod = "close")
+  @ConditionalOnProperty("intake.archiveBucket")
+  public S3ArchiveSink archiveSink(final S3Client s3Client) {
+    final S3ArchiveSink.Builder builder = S3ArchiveSink.builder()
+        .client(s3Client)
+        .bucket(intakeArchiveBucket)
+        .prefix(intakeArchivePrefix)
+        .multipartThreshold(intakeArchiveMultipartThresholdBytes)
+        .partSize(intakeArchivePartSizeBytes)
+        .batchItemMaxBytes(intakeArchiveBatchItemMaxBytes)
+        .maxConcurrentUploads(intakeArchiveMaxConcurrentUploads);
+    if (intakeArchiveBatchMaxCount > 0) {
+      builder.batch(intakeArchiveBatchMaxCount, intakeArchiveBatchMaxBytes,
+          Duration.ofMillis(intakeArchiveBatchLingerMilli));
+    }
+    return builder.build();
+  }
+
+  @Bean(destroyMethod = "close")
+  public IntakePipeline intakePipeline(final ElasticsearchBulkIntakeSink intakeSink,
+      final ObjectProvider<S3ArchiveSink> archiveSink) {
+    // Archived first so the indexed document says where the raw content is
+    final S3ArchiveSink archive = archiveSink.getIfAvailable();
+    final IntakeSink sink = archive == null ? intakeSink : archive.andThen(intakeSink);
+    final IntakePipeline.Builder builder = IntakePipeline.builder()
+        .decodeThreads(intakeDecodeThreads)
+        .parseThreads(intakeParseThreads)
+        .mapThreads(intakeMapThreads)
+        .persistThreads(intakePersistThreads)
+        .queueCapacity(intakeQueueCapacity)
+        .acceptTimeout(Duration.ofMillis(intakeAcceptTimeoutMilli))
+        .sink(sink);
+    if (virtualThreads) {
+      builder.virtualThreads();
+    }
+    return builder.build();
+  }
+
   @Bean
   public S3Client s3Client() {
     if (isLocal) {
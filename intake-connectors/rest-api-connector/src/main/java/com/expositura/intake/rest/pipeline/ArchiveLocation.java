@@ -0,0 +1,22 @@
+package com.expositura.intake.rest.pipeline;
+
+/**
+ * Where a content's raw bytes were archived in S3. A content archived on its own is the whole object, one archived in
+ * a batch is the gzip member at offset for length bytes, which a range GET reads without the rest of the batch.
+ *
+ * @param bucket The bucket
+ * @param key The object key
+ * @param offset Where the content starts in the object
+ * @param length How many bytes of the object are the content
+ * @param compressed True if those bytes are gzipped
+ * @author Sean Smith
+ */
+public record ArchiveLocation(String bucket, String key, long offset, long length, boolean compressed) {
+
+  /**
+   * @return The HTTP range header value covering the content
+   */
+  public String range() {
+    return "bytes=" + offset + "-" + (offset + length - 1);
+  }
+}
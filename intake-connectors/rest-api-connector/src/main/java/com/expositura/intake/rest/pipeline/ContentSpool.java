@@ -0,0 +1,153 @@
+package com.expositura.intake.rest.pipeline;
+
+import com.expositura.parser.ccd.util.ByteBufferInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Holds the decoded bytes of one content while it's in the pipeline. Small contents are kept in memory, once a content
+ * grows past the memory threshold it's moved to a temporary file so a multi-megabyte CCD isn't held in the heap while
+ * it waits to be parsed. The file is memory mapped when read and deleted when the spool is closed.
+ *
+ * @author Sean Smith
+ */
+public final class ContentSpool implements Closeable {
+
+  private final int memoryThreshold;
+  private final Path directory;
+
+  private byte[] memory;
+  private Path file;
+  private long size;
+  private boolean writing;
+
+  private ContentSpool(final int memoryThreshold, final Path directory, final byte[] memory, final long size) {
+    this.memoryThreshold = memoryThreshold;
+    this.directory = directory;
+    this.memory = memory;
+    this.size = size;
+  }
+
+  /**
+   * @param bytes Content that is already in memory, not copied
+   * @return A spool holding the bytes
+   */
+  public static ContentSpool of(final byte[] bytes) {
+    return new ContentSpool(Integer.MAX_VALUE, null, bytes, bytes.length);
+  }
+
+  /**
+   * @param memoryThreshold How many bytes are kept in memory before moving to a file
+   * @param directory Where the file is created
+   * @return An empty spool to write to with {@link #openOutputStream()}
+   */
+  public static ContentSpool create(final int memoryThreshold, final Path directory) {
+    if (memoryThreshold < 0) {
+      throw new IllegalArgumentException("memoryThreshold must not be negative");
+    }
+    return new ContentSpool(memoryThreshold, directory, new byte[Math.min(memoryThreshold, 8192)], 0);
+  }
+
+  /**
+   * @return A stream that writes the content, it can only be opened once and must be closed before reading
+   */
+  public OutputStream openOutputStream() {
+    if (writing || size > 0 || memory == null) {
+      throw new IllegalStateException("The spool has already been written");
+    }
+    writing = true;
+    return new SpoolOutputStream();
+  }
+
+  /**
+   * @return A new stream of the content
+   * @throws IOException If the spool file can't be read
+   */
+  public InputStream open() throws IOException {
+    if (writing) {
+      throw new IllegalStateException("The spool is still being written");
+    }
+    if (file != null) {
+      return ByteBufferInputStream.mapped(file);
+    }
+    if (memory == null) {
+      throw new IllegalStateException("The spool is closed");
+    }
+    return new ByteArrayInputStream(memory, 0, (int) size);
+  }
+
+  /**
+   * @return How many bytes the content is
+   */
+  public long size() {
+    return size;
+  }
+
+  /**
+   * @return True if the content is held in memory rather than in a file
+   */
+  public boolean isInMemory() {
+    return file == null;
+  }
+
+  /**
+   * Drops the content, deleting the file if there is one.
+   */
+  @Override
+  public void close() throws IOException {
+    memory = null;
+    if (file != null) {
+      final Path spoolFile = file;
+      file = null;
+      Files.deleteIfExists(spoolFile);
+    }
+  }
+
+  private final class SpoolOutputStream extends OutputStream {
+
+    private OutputStream fileStream;
+
+    @Override
+    public void write(final int b) throws IOException {
+      write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+      if (fileStream == null && size + length > memoryThreshold) {
+        // Past the threshold, everything so far and from now on goes to the file
+        file = Files.createTempFile(directory, "intake-", ".spool");
+        fileStream = Files.newOutputStream(file);
+        fileStream.write(memory, 0, (int) size);
+        memory = null;
+      }
+
+      if (fileStream != null) {
+        fileStream.write(bytes, offset, length);
+      } else {
+        if (size + length > memory.length) {
+          memory = Arrays.copyOf(memory, (int) Math.min(memoryThreshold, Math.max(size + length, memory.length * 2L)));
+        }
+        System.arraycopy(bytes, offset, memory, (int) size, length);
+      }
+      size += length;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (!writing) {
+        return;
+      }
+      writing = false;
+      if (fileStream != null) {
+        fileStream.close();
+      }
+    }
+  }
+}
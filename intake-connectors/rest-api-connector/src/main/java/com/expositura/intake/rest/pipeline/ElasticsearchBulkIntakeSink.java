@@ -0,0 +1,306 @@
+package com.expositura.intake.rest.pipeline;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._helpers.bulk.BulkIngester;
+import co.elastic.clients.elasticsearch._helpers.bulk.BulkListener;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.transport.BackoffPolicy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Indexes intake items into Elasticsearch with bulk requests instead of a request per item. Items are batched until
+ * there are max operations of them, they add up to max bytes or the oldest has waited the linger time, and up to
+ * concurrent requests batches are sent at once. Items Elasticsearch turns away for being too busy (429) are retried on
+ * their own with an exponential backoff, anything else an item fails with is final and fails just that item. Once the
+ * batches in flight and the one being filled are all full, {@link #persistAsync(IntakeItem)} blocks, which backs up
+ * the pipeline.
+ * <p>
+ * The documents are the same as {@link ElasticsearchIntakeSink}'s, with the item id as the document id so a retried
+ * item replaces itself. Close the sink to send what's left and wait for it.
+ *
+ * @author Sean Smith
+ */
+public class ElasticsearchBulkIntakeSink implements IntakeSink, AutoCloseable {
+
+  private static final Logger log = LogManager.getLogger(ElasticsearchBulkIntakeSink.class);
+
+  private final String index;
+  private final BulkIngester<CompletableFuture<Void>> ingester;
+
+  private final LongAdder indexed = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder retries = new LongAdder();
+
+  private ElasticsearchBulkIntakeSink(final Builder builder) {
+    index = builder.index;
+    ingester = BulkIngester.of(b -> b
+            .client(builder.client)
+            .maxOperations(builder.maxOperations)
+            .maxSize(builder.maxBytes)
+            .flushInterval(builder.linger.toMillis(), TimeUnit.MILLISECONDS)
+            .maxConcurrentRequests(builder.concurrentRequests)
+            .backoffPolicy(BackoffPolicy.wrap(
+                    BackoffPolicy.exponentialBackoff(builder.retryDelay.toMillis(), builder.maxRetries),
+                    retries::increment))
+            .listener(new Listener()));
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Indexes the item, the same as {@link #persistAsync(IntakeItem)} but waiting for its batch to be answered.
+   */
+  @Override
+  public void persist(final IntakeItem item) throws Exception {
+    try {
+      persistAsync(item).join();
+    } catch (CompletionException e) {
+      throw e.getCause() instanceof Exception cause ? cause : e;
+    }
+  }
+
+  @Override
+  public CompletableFuture<Void> persistAsync(final IntakeItem item) {
+    final CompletableFuture<Void> result = new CompletableFuture<>();
+    try {
+      final Object document = ElasticsearchIntakeSink.toDocument(item);
+      ingester.add(op -> op.index(i -> i.index(index).id(item.getId()).document(document)), result);
+    } catch (RuntimeException e) {
+      // Such as the document not serializing or the sink being closed
+      failed.increment();
+      result.completeExceptionally(e);
+    }
+    return result;
+  }
+
+  @Override
+  public void flush() {
+    ingester.flush();
+  }
+
+  /**
+   * @return How many items are waiting for their batch to be sent
+   */
+  public int getPendingCount() {
+    return ingester.pendingOperations();
+  }
+
+  /**
+   * @return About how many bytes the items waiting for their batch to be sent add up to
+   */
+  public long getPendingBytes() {
+    return ingester.pendingOperationsSize();
+  }
+
+  /**
+   * @return How many bulk requests have been sent and not yet answered
+   */
+  public int getInFlightRequestCount() {
+    return ingester.pendingRequests();
+  }
+
+  /**
+   * @return How many bulk requests have been sent, retries included
+   */
+  public long getRequestCount() {
+    return ingester.requestCount();
+  }
+
+  /**
+   * @return How many items have been indexed
+   */
+  public long getIndexedCount() {
+    return indexed.sum();
+  }
+
+  /**
+   * @return How many items couldn't be indexed, after any retries
+   */
+  public long getFailedCount() {
+    return failed.sum();
+  }
+
+  /**
+   * @return How many times an item was retried for Elasticsearch being too busy
+   */
+  public long getRetryCount() {
+    return retries.sum();
+  }
+
+  /**
+   * Sends what's left and waits for every batch to be answered.
+   */
+  @Override
+  public void close() {
+    ingester.close();
+  }
+
+  /**
+   * Finishes each item once its bulk request is answered. Items being retried aren't in a response until they succeed
+   * or run out of retries.
+   */
+  private final class Listener implements BulkListener<CompletableFuture<Void>> {
+
+    @Override
+    public void beforeBulk(final long executionId, final BulkRequest request,
+            final List<CompletableFuture<Void>> contexts) {
+    }
+
+    @Override
+    public void afterBulk(final long executionId, final BulkRequest request,
+            final List<CompletableFuture<Void>> contexts, final BulkResponse response) {
+      final List<BulkResponseItem> items = response.items();
+      for (int i = 0; i < contexts.size(); i++) {
+        final CompletableFuture<Void> result = contexts.get(i);
+        final BulkResponseItem responseItem = i < items.size() ? items.get(i) : null;
+        if (responseItem != null && responseItem.error() == null) {
+          indexed.increment();
+          result.complete(null);
+        } else {
+          final String reason = responseItem == null ? "no response for the item"
+                  : responseItem.status() + " " + responseItem.error().type() + ": " + responseItem.error().reason();
+          failed.increment();
+          result.completeExceptionally(new IOException("Elasticsearch did not index the item, " + reason));
+        }
+      }
+    }
+
+    @Override
+    public void afterBulk(final long executionId, final BulkRequest request,
+            final List<CompletableFuture<Void>> contexts, final Throwable failure) {
+      log.warn("Bulk request {} of {} items to {} failed", executionId, contexts.size(), index, failure);
+      for (final CompletableFuture<Void> result : contexts) {
+        failed.increment();
+        result.completeExceptionally(failure);
+      }
+    }
+  }
+
+  public static class Builder {
+
+    private ElasticsearchClient client;
+    private String index;
+    private int maxOperations = 1000;
+    private long maxBytes = 5 * 1024 * 1024;
+    private Duration linger = Duration.ofSeconds(1);
+    private int concurrentRequests = 2;
+    private int maxRetries = 5;
+    private Duration retryDelay = Duration.ofMillis(100);
+
+    private Builder() {
+    }
+
+    /**
+     * @param client The Elasticsearch client, required
+     * @return This builder
+     */
+    public Builder client(final ElasticsearchClient client) {
+      this.client = client;
+      return this;
+    }
+
+    /**
+     * @param index The index the items are written to, required
+     * @return This builder
+     */
+    public Builder index(final String index) {
+      this.index = index;
+      return this;
+    }
+
+    /**
+     * @param maxOperations The most items in one bulk request, defaults to 1000
+     * @return This builder
+     */
+    public Builder maxOperations(final int maxOperations) {
+      if (maxOperations < 1) {
+        throw new IllegalArgumentException("maxOperations must be at least 1");
+      }
+      this.maxOperations = maxOperations;
+      return this;
+    }
+
+    /**
+     * @param maxBytes About the most bytes of documents in one bulk request, defaults to 5MB
+     * @return This builder
+     */
+    public Builder maxBytes(final long maxBytes) {
+      if (maxBytes < 1) {
+        throw new IllegalArgumentException("maxBytes must be at least 1");
+      }
+      this.maxBytes = maxBytes;
+      return this;
+    }
+
+    /**
+     * @param linger The longest an item waits for its batch to fill up before it's sent anyway, defaults to 1 second
+     * @return This builder
+     */
+    public Builder linger(final Duration linger) {
+      if (linger == null || linger.toMillis() < 1) {
+        throw new IllegalArgumentException("linger must be at least 1 millisecond");
+      }
+      this.linger = linger;
+      return this;
+    }
+
+    /**
+     * @param concurrentRequests How many bulk requests may be in flight at once, defaults to 2
+     * @return This builder
+     */
+    public Builder concurrentRequests(final int concurrentRequests) {
+      if (concurrentRequests < 1) {
+        throw new IllegalArgumentException("concurrentRequests must be at least 1");
+      }
+      this.concurrentRequests = concurrentRequests;
+      return this;
+    }
+
+    /**
+     * @param maxRetries How many times an item Elasticsearch was too busy for is retried, defaults to 5
+     * @return This builder
+     */
+    public Builder maxRetries(final int maxRetries) {
+      if (maxRetries < 0) {
+        throw new IllegalArgumentException("maxRetries must not be negative");
+      }
+      this.maxRetries = maxRetries;
+      return this;
+    }
+
+    /**
+     * @param retryDelay How long before the first retry, growing exponentially for each one after, defaults to 100
+     * milliseconds
+     * @return This builder
+     */
+    public Builder retryDelay(final Duration retryDelay) {
+      if (retryDelay == null || retryDelay.isNegative()) {
+        throw new IllegalArgumentException("retryDelay must not be negative");
+      }
+      this.retryDelay = retryDelay;
+      return this;
+    }
+
+    public ElasticsearchBulkIntakeSink build() {
+      if (client == null) {
+        throw new IllegalArgumentException("client is required");
+      }
+      if (index == null || index.isBlank()) {
+        throw new IllegalArgumentException("index is required");
+      }
+      return new ElasticsearchBulkIntakeSink(this);
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package com.expositura.intake.rest.pipeline;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import com.expositura.intake.rest.api.model.LegacyIntakeRequest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Indexes each intake item into Elasticsearch as one document: the request's meta-data, and for CCD's the parsed
+ * document and the patients mapped from it. The item's id is the document id so a retried item replaces itself.
+ *
+ * @author Sean Smith
+ */
+public class ElasticsearchIntakeSink implements IntakeSink {
+
+  private final ElasticsearchClient client;
+  private final String index;
+
+  /**
+   * @param client The Elasticsearch client
+   * @param index The index the items are written to
+   */
+  public ElasticsearchIntakeSink(final ElasticsearchClient client, final String index) {
+    this.client = client;
+    this.index = index;
+  }
+
+  @Override
+  public void persist(final IntakeItem item) throws Exception {
+    client.index(i -> i.index(index).id(item.getId()).document(toDocument(item)));
+  }
+
+  /**
+   * @return The item as the document that is indexed
+   */
+  static Map<String, Object> toDocument(final IntakeItem item) {
+    final LegacyIntakeRequest request = item.getRequest();
+    final Map<String, Object> document = new LinkedHashMap<>();
+    document.put("id", item.getId());
+    document.put("receivedTime", item.getReceivedTime().toString());
+    document.put("contentIndex", item.getContentIndex());
+    document.put("clinicalMessageType", request.getClinicalMessageType());
+    document.put("processedLevel", item.getContent().getProcessedLevel());
+    document.put("eventType", request.getEventType());
+    document.put("resultType", request.getResultType());
+    document.put("messageDate", request.getMessageDate());
+    document.put("patientId", request.getPatientId());
+    document.put("patientIdAa", request.getPatientIdAa());
+    document.put("patientMpiId", request.getPatientMpiId());
+    document.put("patientMpiIdsOld", request.getPatientMpiIdsOld());
+    document.put("sendingApplication", request.getSendingApplication());
+    document.put("receivingApplication", request.getReceivingApplication());
+    document.put("sourceFacility", request.getSourceFacility());
+    document.put("sourceFacilityId", request.getSourceFacilityId());
+    document.put("sourceLastUpdatedTime", request.getSourceLastUpdatedTime());
+    document.put("sourceMessageId", request.getSourceMessageId());
+    document.put("timeZoneId", request.getTimeZoneId());
+    document.put("otherAttributes", request.getOtherAttributes());
+    document.put("contentAttributes", item.getContent().getOtherAttributes());
+    document.put("contentLength", item.getData() == null ? null : item.getData().size());
+    document.put("rawArchive", item.getArchiveLocation());
+    document.put("patients", item.getPatients());
+    document.put("clinicalDocument", item.getDocument());
+
+    // Leave out what the request didn't have rather than indexing nulls
+    document.values().removeIf(value -> value == null || (value instanceof Map<?, ?> map && map.isEmpty()));
+    return document;
+  }
+}
@@ -0,0 +1,224 @@
+package com.expositura.intake.rest.pipeline;
+
+import com.expositura.intake.rest.api.model.LegacyIntakeRequest;
+import com.expositura.intake.rest.api.model.LegacyIntakeRequestContentsInner;
+import com.expositura.model.Patient;
+import com.expositura.model.ccd.ClinicalDocument;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * One content of an intake request as it moves thru the pipeline. Each stage fills in what it produces and drops what
+ * the later stages no longer need so a queued item holds as little as possible.
+ *
+ * @author Sean Smith
+ */
+public class IntakeItem {
+
+  private static final Logger log = LogManager.getLogger(IntakeItem.class);
+
+  public enum Status {
+    ACCEPTED, REJECTED, PERSISTED, FAILED
+  }
+
+  /**
+   * Why an item failed, set along with the FAILED status.
+   */
+  public enum Failure {
+    /** The content couldn't be decoded */
+    DECODE,
+    /** The content couldn't be parsed as a CCD */
+    PARSE,
+    /** The CCD couldn't be mapped to patients */
+    MAP,
+    /** The sink couldn't store the item */
+    PERSIST,
+    /** Intake stopped before the item was done */
+    STOPPED
+  }
+
+  private final String id = UUID.randomUUID().toString();
+  private final Instant receivedTime = Instant.now();
+  private final int contentIndex;
+  private final LegacyIntakeRequest request;
+  private final LegacyIntakeRequestContentsInner content;
+  private final CompletableFuture<ClinicalDocument> parsed = new CompletableFuture<>();
+  private final CompletableFuture<IntakeItem> done = new CompletableFuture<>();
+
+  private volatile Status status = Status.ACCEPTED;
+  private volatile String message;
+  private volatile Failure failure;
+  private ContentSpool data;
+  private ClinicalDocument document;
+  private List<Patient> patients;
+  private volatile ArchiveLocation archiveLocation;
+
+  /**
+   * @param request The request the content came in on, for its meta-data
+   * @param contentIndex Which of the request's contents this is
+   */
+  public IntakeItem(final LegacyIntakeRequest request, final int contentIndex) {
+    this.request = request;
+    this.contentIndex = contentIndex;
+    this.content = request.getContents().get(contentIndex);
+    if (content instanceof SpooledContent spooled) {
+      this.data = spooled.getSpool();
+    }
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public Instant getReceivedTime() {
+    return receivedTime;
+  }
+
+  public int getContentIndex() {
+    return contentIndex;
+  }
+
+  public LegacyIntakeRequest getRequest() {
+    return request;
+  }
+
+  public LegacyIntakeRequestContentsInner getContent() {
+    return content;
+  }
+
+  /**
+   * @return True if the content was decoded while the request was read
+   */
+  public boolean isSpooled() {
+    return content instanceof SpooledContent;
+  }
+
+  /**
+   * @return True if the content is a CCD, requests that don't say what they are are taken to be CCD's
+   */
+  public boolean isCcd() {
+    return request.getClinicalMessageType() == null
+            || request.getClinicalMessageType() == LegacyIntakeRequest.ClinicalMessageTypeEnum.CCD;
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  public String getMessage() {
+    return message;
+  }
+
+  /**
+   * @return Why the item failed, null unless its status is FAILED
+   */
+  public Failure getFailure() {
+    return failure;
+  }
+
+  /**
+   * @return The decoded content, null until decoded. Contents read by the streaming request reader are decoded as the
+   * request is read.
+   */
+  public ContentSpool getData() {
+    return data;
+  }
+
+  /**
+   * @return The parsed CCD, null until parsed or if the content isn't a CCD
+   */
+  public ClinicalDocument getDocument() {
+    return document;
+  }
+
+  /**
+   * @return The patients mapped from the CCD, null until mapped or if the content isn't a CCD
+   */
+  public List<Patient> getPatients() {
+    return patients;
+  }
+
+  /**
+   * @return Where the raw content was archived, null until archived or if it isn't
+   */
+  public ArchiveLocation getArchiveLocation() {
+    return archiveLocation;
+  }
+
+  /**
+   * @return Completes with the parsed CCD (null if the content isn't a CCD) or the reason it couldn't be parsed
+   */
+  public CompletableFuture<ClinicalDocument> getParsed() {
+    return parsed;
+  }
+
+  /**
+   * @return Completes once the item is persisted, failed or rejected
+   */
+  public CompletableFuture<IntakeItem> getDone() {
+    return done;
+  }
+
+  /**
+   * Sets the decoded content and drops the base64 from the request, it's a third bigger than the bytes.
+   */
+  void decoded(final ContentSpool data) {
+    this.data = data;
+    content.setContent(null);
+  }
+
+  void parsed(final ClinicalDocument document) {
+    this.document = document;
+    parsed.complete(document);
+  }
+
+  void mapped(final List<Patient> patients) {
+    this.patients = patients;
+  }
+
+  void archived(final ArchiveLocation archiveLocation) {
+    this.archiveLocation = archiveLocation;
+  }
+
+  void persisted() {
+    status = Status.PERSISTED;
+    release();
+    parsed.complete(null);
+    done.complete(this);
+  }
+
+  void rejected(final String message) {
+    finish(Status.REJECTED, message, null);
+  }
+
+  void failed(final Failure failure, final String message, final Throwable cause) {
+    this.failure = failure;
+    finish(Status.FAILED, message, cause);
+  }
+
+  private void finish(final Status status, final String message, final Throwable cause) {
+    this.status = status;
+    this.message = message;
+    release();
+    parsed.completeExceptionally(cause == null ? new IllegalStateException(message) : cause);
+    done.complete(this);
+  }
+
+  /**
+   * Deletes the spooled content once nothing else will read it.
+   */
+  private void release() {
+    if (data != null) {
+      try {
+        data.close();
+      } catch (IOException e) {
+        log.warn("Could not delete the spooled content of {}", id, e);
+      }
+    }
+  }
+}
@@ -0,0 +1,345 @@
+package com.expositura.intake.rest.pipeline;
+
+import com.expositura.model.ccd.ClinicalDocument;
+import com.expositura.parser.ccd.CcdParser;
+import com.expositura.parser.ccd.CcdToPatientMapper;
+import com.expositura.parser.ccd.util.ParseProfile;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Takes the contents of intake requests thru decode, parse, map and persist stages after the request has been
+ * answered. Each stage has its own threads and a bounded queue in front of them:
+ * <ul>
+ * <li>decode: base64 to bytes, unless the content was already decoded as the request was read</li>
+ * <li>parse: bytes to a ClinicalDocument, CCD's only</li>
+ * <li>map: ClinicalDocument to the patient data model, CCD's only</li>
+ * <li>persist: hands the item to the {@link IntakeSink}, which may finish it later such as once a batch is sent</li>
+ * </ul>
+ * A full stage makes the stage before it wait, all the way back to {@link #accept(IntakeItem)} which only waits the
+ * accept timeout before rejecting the item. So when the sink falls behind, senders are told to retry rather than the
+ * service running out of memory.
+ *
+ * @author Sean Smith
+ */
+public class IntakePipeline implements AutoCloseable {
+
+  private static final Logger log = LogManager.getLogger(IntakePipeline.class);
+
+  private final IntakeStage decode;
+  private final IntakeStage parse;
+  private final IntakeStage map;
+  private final IntakeStage persist;
+  private final long acceptTimeoutNanos;
+  private final ParseProfile profile;
+  private final IntakeSink sink;
+
+  private final LongAdder accepted = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final LongAdder persisted = new LongAdder();
+  private final LongAdder persistFailed = new LongAdder();
+
+  // Items handed to the sink that it hasn't finished yet
+  private final Set<IntakeItem> persisting = ConcurrentHashMap.newKeySet();
+
+  private IntakePipeline(final Builder builder) {
+    acceptTimeoutNanos = builder.acceptTimeout.toNanos();
+    profile = builder.profile;
+    sink = builder.sink;
+
+    // Created last to first as each stage hands on to the next
+    persist = new IntakeStage("persist", IntakeItem.Failure.PERSIST, builder.persistThreads, builder.queueCapacity,
+            builder.virtualThreads, this::persist);
+    map = new IntakeStage("map", IntakeItem.Failure.MAP, builder.mapThreads, builder.queueCapacity,
+            builder.virtualThreads, this::map);
+    parse = new IntakeStage("parse", IntakeItem.Failure.PARSE, builder.parseThreads, builder.queueCapacity,
+            builder.virtualThreads, this::parse);
+    decode = new IntakeStage("decode", IntakeItem.Failure.DECODE, builder.decodeThreads, builder.queueCapacity,
+            builder.virtualThreads, this::decode);
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Queues an item for intake, waiting at most the accept timeout for room. The item's status says whether it was
+   * accepted and {@link IntakeItem#getDone()} completes once it's thru the pipeline.
+   *
+   * @param item The item
+   * @return True if the item was accepted, false if it was rejected
+   */
+  public boolean accept(final IntakeItem item) {
+    final boolean empty = item.isSpooled() ? item.getData() == null || item.getData().size() == 0
+            : item.getContent() == null || item.getContent().getContent() == null
+            || item.getContent().getContent().isEmpty();
+    if (empty) {
+      rejected.increment();
+      item.rejected("Content is empty");
+      return false;
+    }
+
+    try {
+      if (decode.offer(item, acceptTimeoutNanos, TimeUnit.NANOSECONDS)) {
+        accepted.increment();
+        return true;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    rejected.increment();
+    item.rejected("Intake is busy, try again later");
+    return false;
+  }
+
+  /**
+   * @return How many items have been accepted
+   */
+  public long getAcceptedCount() {
+    return accepted.sum();
+  }
+
+  /**
+   * @return How many items have been rejected, for being empty or because intake was busy
+   */
+  public long getRejectedCount() {
+    return rejected.sum();
+  }
+
+  /**
+   * @return How many items have been persisted
+   */
+  public long getPersistedCount() {
+    return persisted.sum();
+  }
+
+  /**
+   * @return How many accepted items failed in one of the stages
+   */
+  public long getFailedCount() {
+    return decode.getFailedCount() + parse.getFailedCount() + map.getFailedCount() + persist.getFailedCount()
+            + persistFailed.sum();
+  }
+
+  /**
+   * @return How many items the sink has been handed but not yet finished
+   */
+  public int getPersistingCount() {
+    return persisting.size();
+  }
+
+  /**
+   * @return How many items are waiting in each stage's queue, by stage name in pipeline order
+   */
+  public Map<String, Integer> getQueueDepths() {
+    final Map<String, Integer> depths = new LinkedHashMap<>();
+    for (final IntakeStage stage : List.of(decode, parse, map, persist)) {
+      depths.put(stage.getName(), stage.getQueueDepth());
+    }
+    return depths;
+  }
+
+  /**
+   * Stops accepting items and waits for the ones already accepted to make it thru.
+   */
+  @Override
+  public void close() {
+    // First to last so each stage's queue is drained into a stage that is still running
+    decode.close();
+    parse.close();
+    map.close();
+    persist.close();
+
+    // Then have the sink send what it's holding and wait for it
+    sink.flush();
+    while (!persisting.isEmpty()) {
+      for (final IntakeItem item : List.copyOf(persisting)) {
+        item.getDone().join();
+      }
+      Thread.onSpinWait();
+    }
+  }
+
+  private void decode(final IntakeItem item) throws InterruptedException {
+    // The MIME decoder allows line breaks, which some senders wrap their base64 with
+    if (!item.isSpooled()) {
+      item.decoded(ContentSpool.of(Base64.getMimeDecoder().decode(item.getContent().getContent())));
+    }
+    if (item.isCcd()) {
+      parse.put(item);
+    } else {
+      item.parsed(null);
+      persist.put(item);
+    }
+  }
+
+  private void parse(final IntakeItem item) throws Exception {
+    final ClinicalDocument document;
+    try (InputStream ccd = item.getData().open()) {
+      document = CcdParser.parseStreaming(ccd, profile);
+    }
+    item.parsed(document);
+    map.put(item);
+  }
+
+  private void map(final IntakeItem item) throws InterruptedException {
+    item.mapped(CcdToPatientMapper.map(item.getDocument()));
+    persist.put(item);
+  }
+
+  private void persist(final IntakeItem item) {
+    persisting.add(item);
+    final CompletableFuture<Void> result;
+    try {
+      result = sink.persistAsync(item);
+    } catch (Throwable e) {
+      // The stage fails the item, it just can't still count as being persisted
+      persisting.remove(item);
+      throw e;
+    }
+    result.whenComplete((nothing, e) -> {
+      if (e == null) {
+        persisted.increment();
+        item.persisted();
+      } else {
+        persistFailed.increment();
+        log.warn("Content {} ({}) failed in the persist stage", item.getContentIndex(), item.getId(), e);
+        item.failed(IntakeItem.Failure.PERSIST, "Failed in the persist stage: " + e.getMessage(), e);
+      }
+      persisting.remove(item);
+    });
+  }
+
+  public static class Builder {
+
+    private int decodeThreads = 2;
+    private int parseThreads = Runtime.getRuntime().availableProcessors();
+    private int mapThreads = 2;
+    private int persistThreads = 4;
+    private int queueCapacity = 256;
+    private Duration acceptTimeout = Duration.ofSeconds(1);
+    private ParseProfile profile = ParseProfile.FULL;
+    private IntakeSink sink;
+    private boolean virtualThreads;
+
+    private Builder() {
+    }
+
+    /**
+     * @param decodeThreads How many contents are base64 decoded at once, defaults to 2
+     * @return This builder
+     */
+    public Builder decodeThreads(final int decodeThreads) {
+      this.decodeThreads = atLeastOne(decodeThreads, "decodeThreads");
+      return this;
+    }
+
+    /**
+     * @param parseThreads How many CCD's are parsed at once, defaults to the number of processors
+     * @return This builder
+     */
+    public Builder parseThreads(final int parseThreads) {
+      this.parseThreads = atLeastOne(parseThreads, "parseThreads");
+      return this;
+    }
+
+    /**
+     * @param mapThreads How many CCD's are mapped to patients at once, defaults to 2
+     * @return This builder
+     */
+    public Builder mapThreads(final int mapThreads) {
+      this.mapThreads = atLeastOne(mapThreads, "mapThreads");
+      return this;
+    }
+
+    /**
+     * @param persistThreads How many items are handed to the sink at once, defaults to 4
+     * @return This builder
+     */
+    public Builder persistThreads(final int persistThreads) {
+      this.persistThreads = atLeastOne(persistThreads, "persistThreads");
+      return this;
+    }
+
+    /**
+     * @param queueCapacity How many items may wait in front of each stage, defaults to 256
+     * @return This builder
+     */
+    public Builder queueCapacity(final int queueCapacity) {
+      this.queueCapacity = atLeastOne(queueCapacity, "queueCapacity");
+      return this;
+    }
+
+    /**
+     * @param acceptTimeout How long a request waits for room in the pipeline before the item is rejected, defaults to
+     * 1 second
+     * @return This builder
+     */
+    public Builder acceptTimeout(final Duration acceptTimeout) {
+      if (acceptTimeout == null || acceptTimeout.isNegative()) {
+        throw new IllegalArgumentException("acceptTimeout must not be negative");
+      }
+      this.acceptTimeout = acceptTimeout;
+      return this;
+    }
+
+    /**
+     * @param profile Which parts of each CCD to parse, defaults to {@link ParseProfile#FULL}
+     * @return This builder
+     */
+    public Builder profile(final ParseProfile profile) {
+      if (profile == null) {
+        throw new IllegalArgumentException("profile must not be null");
+      }
+      this.profile = profile;
+      return this;
+    }
+
+    /**
+     * Works on each item on its own virtual thread instead of each stage having a pool of platform threads, the
+     * threads settings then only limit how many items each stage works on at once. Worthwhile when the sink blocks on
+     * I/O as the persist threads can be set to what the sink's services can take rather than what platform threads
+     * cost.
+     *
+     * @return This builder
+     */
+    public Builder virtualThreads() {
+      this.virtualThreads = true;
+      return this;
+    }
+
+    /**
+     * @param sink Where the items are persisted, required
+     * @return This builder
+     */
+    public Builder sink(final IntakeSink sink) {
+      this.sink = sink;
+      return this;
+    }
+
+    public IntakePipeline build() {
+      if (sink == null) {
+        throw new IllegalArgumentException("sink is required");
+      }
+      return new IntakePipeline(this);
+    }
+
+    private static int atLeastOne(final int value, final String name) {
+      if (value < 1) {
+        throw new IllegalArgumentException(name + " must be at least 1");
+      }
+      return value;
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package com.expositura.intake.rest.pipeline;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Where the last stage of the {@link IntakePipeline} puts each item. Called from the pipeline's persist threads, so
+ * implementations must be thread safe, and may block as the pipeline only has so many items in flight.
+ *
+ * @author Sean Smith
+ */
+@FunctionalInterface
+public interface IntakeSink {
+
+  /**
+   * @param item The item with its decoded bytes, and for CCD's the parsed document and mapped patients
+   * @throws Exception If the item couldn't be persisted, the item is marked failed
+   */
+  void persist(IntakeItem item) throws Exception;
+
+  /**
+   * Starts persisting an item, for sinks that batch items and finish them later. The pipeline only blocks on this as
+   * long as the sink makes it, so a batching sink must block once it has as much as it's willing to hold. By default
+   * the item is persisted before returning.
+   *
+   * @param item The item
+   * @return Completes once the item is persisted, or exceptionally if it couldn't be
+   */
+  default CompletableFuture<Void> persistAsync(final IntakeItem item) {
+    try {
+      persist(item);
+      return CompletableFuture.completedFuture(null);
+    } catch (Exception e) {
+      if (e instanceof InterruptedException) {
+        Thread.currentThread().interrupt();
+      }
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  /**
+   * Sends whatever the sink is holding on to without waiting for its batch to fill up, does nothing by default.
+   */
+  default void flush() {
+  }
+
+  /**
+   * @param next The sink each item goes to once this sink has persisted it
+   * @return A sink that persists each item to this sink and then to the next, an item this sink fails never reaches
+   * the next
+   */
+  default IntakeSink andThen(final IntakeSink next) {
+    final IntakeSink first = this;
+    return new IntakeSink() {
+
+      @Override
+      public void persist(final IntakeItem item) throws Exception {
+        first.persist(item);
+        next.persist(item);
+      }
+
+      @Override
+      public CompletableFuture<Void> persistAsync(final IntakeItem item) {
+        return first.persistAsync(item).thenCompose(nothing -> next.persistAsync(item));
+      }
+
+      @Override
+      public void flush() {
+        first.flush();
+        next.flush();
+      }
+    };
+  }
+}
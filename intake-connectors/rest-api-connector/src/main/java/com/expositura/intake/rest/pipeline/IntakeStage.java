@@ -0,0 +1,248 @@
+package com.expositura.intake.rest.pipeline;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * One step of the {@link IntakePipeline}: a bounded queue of items and the threads that work on them. Handing an item
+ * to a stage whose queue is full blocks, so a slow stage slows the stages before it instead of letting items pile up
+ * in memory.
+ * <p>
+ * With platform threads the stage has a fixed set of them each taking items from the queue. With virtual threads one
+ * thread takes items from the queue and starts a virtual thread for each, with a semaphore limiting how many are
+ * worked on at once instead of the number of threads. Items that block on I/O then cost a permit rather than a
+ * platform thread, so the limit can be set for what the downstream service can take.
+ *
+ * @author Sean Smith
+ */
+final class IntakeStage implements AutoCloseable {
+
+  private static final Logger log = LogManager.getLogger(IntakeStage.class);
+
+  /**
+   * What the stage does to each item, including handing it on to the next stage.
+   */
+  @FunctionalInterface
+  interface Work {
+
+    void process(IntakeItem item) throws Exception;
+  }
+
+  private final String name;
+  private final IntakeItem.Failure failure;
+  private final BlockingQueue<IntakeItem> queue;
+  private final Work work;
+  private final List<Thread> workers;
+  private final int threads;
+  private final Semaphore permits;
+  private final ThreadFactory itemThreads;
+  private final AtomicInteger live;
+  private final LongAdder processed = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private volatile boolean running = true;
+
+  /**
+   * @param name The stage name, used for its threads and in failure messages
+   * @param failure What an item that fails in this stage is failed as
+   * @param threads How many items are worked on at once
+   * @param capacity How many items may wait for a thread
+   * @param virtualThreads True to work on each item on its own virtual thread
+   * @param work What to do to each item
+   */
+  IntakeStage(final String name, final IntakeItem.Failure failure, final int threads, final int capacity,
+          final boolean virtualThreads, final Work work) {
+    this.name = name;
+    this.failure = failure;
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.work = work;
+    this.threads = threads;
+
+    if (virtualThreads) {
+      this.permits = new Semaphore(threads);
+      this.itemThreads = Thread.ofVirtual().name("intake-" + name + "-", 0).factory();
+      this.live = new AtomicInteger(1);
+      this.workers = List.of(Thread.ofVirtual().name("intake-" + name + "-dispatch").start(this::dispatch));
+    } else {
+      this.permits = null;
+      this.itemThreads = null;
+      this.live = new AtomicInteger(threads);
+      final ThreadFactory factory = Thread.ofPlatform().name("intake-" + name + "-", 0).daemon(true).factory();
+      this.workers = new ArrayList<>(threads);
+      for (int i = 0; i < threads; i++) {
+        final Thread worker = factory.newThread(this::run);
+        workers.add(worker);
+        worker.start();
+      }
+    }
+  }
+
+  String getName() {
+    return name;
+  }
+
+  /**
+   * @return How many items are waiting for a thread
+   */
+  int getQueueDepth() {
+    return queue.size();
+  }
+
+  long getProcessedCount() {
+    return processed.sum();
+  }
+
+  long getFailedCount() {
+    return failed.sum();
+  }
+
+  /**
+   * Hands an item to the stage, waiting at most the timeout for room.
+   *
+   * @return False if the stage stayed full for the whole timeout
+   */
+  boolean offer(final IntakeItem item, final long timeout, final TimeUnit unit) throws InterruptedException {
+    return running && queue.offer(item, timeout, unit);
+  }
+
+  /**
+   * Hands an item to the stage, waiting as long as it takes for room.
+   */
+  void put(final IntakeItem item) throws InterruptedException {
+    queue.put(item);
+  }
+
+  /**
+   * Stops taking new items and waits for the threads to finish what's already queued.
+   */
+  @Override
+  public void close() {
+    running = false;
+    boolean interrupted = false;
+    for (final Thread worker : workers) {
+      while (true) {
+        try {
+          worker.join();
+          break;
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void run() {
+    try {
+      while (running || !queue.isEmpty()) {
+        final IntakeItem item;
+        try {
+          item = queue.poll(100, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+          return;
+        }
+        if (item != null && !process(item)) {
+          return;
+        }
+      }
+    } finally {
+      stopped();
+    }
+  }
+
+  /**
+   * Starts a virtual thread for each item once there's a permit for it, then waits for the last of them. The permit is
+   * taken before the item so an interrupt never leaves one taken from the queue without a thread.
+   */
+  private void dispatch() {
+    try {
+      while (running || !queue.isEmpty()) {
+        try {
+          permits.acquire();
+        } catch (InterruptedException e) {
+          break;
+        }
+        final IntakeItem item;
+        try {
+          item = queue.poll(100, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+          permits.release();
+          break;
+        }
+        if (item == null) {
+          permits.release();
+          continue;
+        }
+
+        itemThreads.newThread(() -> {
+          try {
+            process(item);
+          } finally {
+            permits.release();
+          }
+        }).start();
+      }
+      permits.acquireUninterruptibly(threads);
+      permits.release(threads);
+    } finally {
+      stopped();
+    }
+  }
+
+  /**
+   * Fails whatever is still queued once the stage's last thread stops. After a normal close the queue is already
+   * empty, it's only when the threads were interrupted that items are left behind.
+   */
+  private void stopped() {
+    if (live.decrementAndGet() > 0) {
+      return;
+    }
+    final List<IntakeItem> pending = new ArrayList<>();
+    queue.drainTo(pending);
+    for (final IntakeItem item : pending) {
+      failed.increment();
+      item.failed(IntakeItem.Failure.STOPPED, "Intake stopped while in the " + name + " stage", null);
+    }
+  }
+
+  /**
+   * Works on an item, failing it on anything thrown so it's always finished. Errors other than the JVM's own are the
+   * item's problem, not the thread's, so the thread carries on with the next item.
+   *
+   * @return False if the thread was interrupted and should stop
+   */
+  private boolean process(final IntakeItem item) {
+    try {
+      work.process(item);
+      processed.increment();
+      return true;
+    } catch (InterruptedException e) {
+      failed.increment();
+      item.failed(IntakeItem.Failure.STOPPED, "Intake stopped while in the " + name + " stage", e);
+      return false;
+    } catch (Exception e) {
+      failed.increment();
+      log.warn("Content {} ({}) failed in the {} stage", item.getContentIndex(), item.getId(), name, e);
+      item.failed(failure, "Failed in the " + name + " stage: " + e.getMessage(), e);
+      return true;
+    } catch (Throwable e) {
+      failed.increment();
+      log.error("Content {} ({}) failed in the {} stage", item.getContentIndex(), item.getId(), name, e);
+      item.failed(failure, "Failed in the " + name + " stage: " + e, e);
+      if (e instanceof VirtualMachineError) {
+        throw e;
+      }
+      return true;
+    }
+  }
+}
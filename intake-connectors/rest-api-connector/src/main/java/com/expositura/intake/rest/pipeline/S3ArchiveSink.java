@@ -0,0 +1,537 @@
+package com.expositura.intake.rest.pipeline;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+/**
+ * Archives the raw decoded bytes of each intake item to S3 and records where on the item, so the Elasticsearch document
+ * says where the original is. Contents are streamed from their spool, as a multipart upload once they're past the
+ * multipart threshold so a large content is never held in memory whole.
+ * <p>
+ * Optionally small contents are batched instead of being put one at a time. Each is gzipped as its own gzip member and
+ * appended to the batch object, so the object as a whole is a valid .gz and any one content can be read back with a
+ * range GET of its member. Next to each batch object is an index object listing every content's id, offset and length.
+ * A batch is put once it has batch max count contents, batch max bytes or its oldest content has waited the linger
+ * time, and the items in it complete then.
+ * <pre>
+ * raw/2026/10/18/14/{item id}
+ * raw/batches/2026/10/18/14/{batch id}.gz
+ * raw/batches/2026/10/18/14/{batch id}.index.json
+ * </pre>
+ *
+ * @author Sean Smith
+ */
+public class S3ArchiveSink implements IntakeSink, AutoCloseable {
+
+  private static final Logger log = LogManager.getLogger(S3ArchiveSink.class);
+
+  private static final DateTimeFormatter KEY_HOUR = DateTimeFormatter.ofPattern("yyyy/MM/dd/HH/")
+          .withZone(ZoneOffset.UTC);
+  private static final ObjectMapper mapper = new ObjectMapper();
+
+  private final S3Client client;
+  private final String bucket;
+  private final String prefix;
+  private final long multipartThreshold;
+  private final int partSize;
+  private final int batchMaxCount;
+  private final long batchMaxBytes;
+  private final long batchItemMaxBytes;
+  private final Duration batchLinger;
+  private final ScheduledExecutorService lingerScheduler;
+  private final Semaphore uploadPermits;
+
+  private final Object batchLock = new Object();
+  private Batch batch;
+
+  private final LongAdder archived = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder batches = new LongAdder();
+  private final LongAdder multipartUploads = new LongAdder();
+
+  private S3ArchiveSink(final Builder builder) {
+    client = builder.client;
+    bucket = builder.bucket;
+    prefix = builder.prefix;
+    multipartThreshold = builder.multipartThreshold;
+    partSize = builder.partSize;
+    batchMaxCount = builder.batchMaxCount;
+    batchMaxBytes = builder.batchMaxBytes;
+    batchItemMaxBytes = builder.batchItemMaxBytes;
+    batchLinger = builder.batchLinger;
+    uploadPermits = new Semaphore(builder.maxConcurrentUploads);
+    lingerScheduler = batchMaxCount > 0 ? Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("intake-archive-linger").daemon(true).factory()) : null;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Archives the item, waiting for its batch to be put if it's batched.
+   */
+  @Override
+  public void persist(final IntakeItem item) throws Exception {
+    if (!isBatched(item)) {
+      putSingle(item);
+      return;
+    }
+    try {
+      persistAsync(item).join();
+    } catch (CompletionException e) {
+      throw e.getCause() instanceof Exception cause ? cause : e;
+    }
+  }
+
+  /**
+   * Archives the item, the content is put before returning unless it's batched.
+   */
+  @Override
+  public CompletableFuture<Void> persistAsync(final IntakeItem item) {
+    if (!isBatched(item)) {
+      return IntakeSink.super.persistAsync(item);
+    }
+
+    try {
+      final byte[] member = gzip(item);
+      final CompletableFuture<Void> result = new CompletableFuture<>();
+      final Batch full;
+      synchronized (batchLock) {
+        if (batch == null) {
+          final Batch created = new Batch();
+          batch = created;
+          lingerScheduler.schedule(() -> flush(created), batchLinger.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        batch.add(item, member, result);
+        full = batch.isFull() ? take(batch) : null;
+      }
+      if (full != null) {
+        put(full);
+      }
+      return result;
+    } catch (IOException | RuntimeException e) {
+      failed.increment();
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  /**
+   * Puts the batch being filled without waiting for it to fill up.
+   */
+  @Override
+  public void flush() {
+    final Batch current;
+    synchronized (batchLock) {
+      current = batch == null ? null : take(batch);
+    }
+    if (current != null) {
+      put(current);
+    }
+  }
+
+  /**
+   * Reads an archived content back.
+   *
+   * @param location Where the content was archived
+   * @return The content as it was archived, ungzipped if it was in a batch
+   * @throws IOException If the content couldn't be read
+   */
+  public InputStream read(final ArchiveLocation location) throws IOException {
+    final InputStream object = client.getObject(g -> g.bucket(location.bucket()).key(location.key())
+            .range(location.range()));
+    return location.compressed() ? new GZIPInputStream(object) : object;
+  }
+
+  /**
+   * @return How many items have been archived
+   */
+  public long getArchivedCount() {
+    return archived.sum();
+  }
+
+  /**
+   * @return How many items couldn't be archived
+   */
+  public long getFailedCount() {
+    return failed.sum();
+  }
+
+  /**
+   * @return How many batch objects have been put
+   */
+  public long getBatchCount() {
+    return batches.sum();
+  }
+
+  /**
+   * @return How many objects were put with a multipart upload
+   */
+  public long getMultipartUploadCount() {
+    return multipartUploads.sum();
+  }
+
+  /**
+   * @return How many items are waiting in the batch being filled
+   */
+  public int getPendingCount() {
+    synchronized (batchLock) {
+      return batch == null ? 0 : batch.items.size();
+    }
+  }
+
+  /**
+   * Puts the batch being filled and stops the linger timer.
+   */
+  @Override
+  public void close() {
+    flush();
+    if (lingerScheduler != null) {
+      lingerScheduler.shutdownNow();
+    }
+  }
+
+  private boolean isBatched(final IntakeItem item) {
+    return batchMaxCount > 0 && item.getData() != null && item.getData().size() <= batchItemMaxBytes;
+  }
+
+  /**
+   * Puts the content as its own object.
+   */
+  private void putSingle(final IntakeItem item) throws IOException {
+    if (item.getData() == null) {
+      throw new IllegalStateException("The content has not been decoded");
+    }
+    final String key = prefix + KEY_HOUR.format(item.getReceivedTime()) + item.getId();
+    try (InputStream content = item.getData().open()) {
+      upload(key, content, item.getData().size(), "application/octet-stream");
+      item.archived(new ArchiveLocation(bucket, key, 0, item.getData().size(), false));
+      archived.increment();
+    } catch (IOException | RuntimeException e) {
+      failed.increment();
+      throw e;
+    }
+  }
+
+  private void flush(final Batch lingering) {
+    final Batch current;
+    synchronized (batchLock) {
+      current = batch == lingering ? take(batch) : null;
+    }
+    if (current != null) {
+      put(current);
+    }
+  }
+
+  /**
+   * Takes the batch being filled so the next item starts a new one, call holding the batch lock.
+   */
+  private Batch take(final Batch current) {
+    batch = null;
+    return current;
+  }
+
+  /**
+   * Puts the batch object then its index, and completes its items.
+   */
+  private void put(final Batch full) {
+    final String key = prefix + "batches/" + KEY_HOUR.format(full.created) + full.id;
+    try {
+      upload(key + ".gz", new ByteArrayInputStream(full.bytes.toByteArray()), full.bytes.size(), "application/gzip");
+      final byte[] index = mapper.writeValueAsBytes(full.index(key + ".gz"));
+      upload(key + ".index.json", new ByteArrayInputStream(index), index.length, "application/json");
+    } catch (IOException | RuntimeException e) {
+      log.warn("Failed to archive batch {} of {} contents", key, full.items.size(), e);
+      failed.add(full.items.size());
+      for (final CompletableFuture<Void> result : full.results) {
+        result.completeExceptionally(e);
+      }
+      return;
+    }
+
+    batches.increment();
+    for (int i = 0; i < full.items.size(); i++) {
+      full.items.get(i).archived(full.locations.get(i).withKey(bucket, key + ".gz"));
+      archived.increment();
+      full.results.get(i).complete(null);
+    }
+  }
+
+  /**
+   * Puts an object once there's a permit for it, so however many threads are persisting only so many uploads are in
+   * flight at once.
+   */
+  private void upload(final String key, final InputStream content, final long length, final String contentType)
+          throws IOException {
+    try {
+      uploadPermits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted waiting to put " + key);
+    }
+    try {
+      putObject(key, content, length, contentType);
+    } finally {
+      uploadPermits.release();
+    }
+  }
+
+  /**
+   * Puts an object, with a multipart upload if it's past the multipart threshold.
+   */
+  private void putObject(final String key, final InputStream content, final long length, final String contentType)
+          throws IOException {
+    if (length < multipartThreshold) {
+      client.putObject(p -> p.bucket(bucket).key(key).contentType(contentType).contentLength(length),
+              RequestBody.fromInputStream(content, length));
+      return;
+    }
+
+    final String uploadId = client.createMultipartUpload(c -> c.bucket(bucket).key(key).contentType(contentType))
+            .uploadId();
+    try {
+      final List<CompletedPart> parts = new ArrayList<>();
+      final byte[] part = new byte[partSize];
+      int read;
+      while ((read = content.readNBytes(part, 0, part.length)) > 0) {
+        final int partNumber = parts.size() + 1;
+        final long partLength = read;
+        final UploadPartResponse response = client.uploadPart(u -> u.bucket(bucket).key(key).uploadId(uploadId)
+                .partNumber(partNumber).contentLength(partLength),
+                RequestBody.fromInputStream(new ByteArrayInputStream(part, 0, read), partLength));
+        parts.add(CompletedPart.builder().partNumber(partNumber).eTag(response.eTag()).build());
+      }
+      client.completeMultipartUpload(c -> c.bucket(bucket).key(key).uploadId(uploadId)
+              .multipartUpload(m -> m.parts(parts)));
+      multipartUploads.increment();
+    } catch (IOException | RuntimeException e) {
+      // Otherwise the parts already uploaded are kept, and paid for, until a lifecycle rule removes them
+      try {
+        client.abortMultipartUpload(a -> a.bucket(bucket).key(key).uploadId(uploadId));
+      } catch (RuntimeException abortFailure) {
+        e.addSuppressed(abortFailure);
+      }
+      throw e;
+    }
+  }
+
+  private static byte[] gzip(final IntakeItem item) throws IOException {
+    final ByteArrayOutputStream member = new ByteArrayOutputStream((int) Math.min(item.getData().size(), 65536));
+    try (InputStream content = item.getData().open(); OutputStream out = new GZIPOutputStream(member)) {
+      content.transferTo(out);
+    }
+    return member.toByteArray();
+  }
+
+  /**
+   * The batch being filled: the gzip members appended one after another and where each one is.
+   */
+  private final class Batch {
+
+    private final String id = UUID.randomUUID().toString();
+    private final Instant created = Instant.now();
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final List<IntakeItem> items = new ArrayList<>();
+    private final List<BatchEntry> locations = new ArrayList<>();
+    private final List<CompletableFuture<Void>> results = new ArrayList<>();
+
+    private void add(final IntakeItem item, final byte[] member, final CompletableFuture<Void> result) {
+      locations.add(new BatchEntry(item.getId(), bytes.size(), member.length, item.getData().size()));
+      bytes.writeBytes(member);
+      items.add(item);
+      results.add(result);
+    }
+
+    private boolean isFull() {
+      return items.size() >= batchMaxCount || bytes.size() >= batchMaxBytes;
+    }
+
+    private Map<String, Object> index(final String objectKey) {
+      final Map<String, Object> index = new LinkedHashMap<>();
+      index.put("bucket", bucket);
+      index.put("key", objectKey);
+      index.put("created", created.toString());
+      index.put("contents", locations);
+      return index;
+    }
+  }
+
+  /**
+   * One content of a batch as it's listed in the batch's index.
+   *
+   * @param id The item id
+   * @param offset Where its gzip member starts
+   * @param length How long its gzip member is
+   * @param size How long the content is ungzipped
+   */
+  private record BatchEntry(String id, long offset, long length, long size) {
+
+    private ArchiveLocation withKey(final String bucket, final String key) {
+      return new ArchiveLocation(bucket, key, offset, length, true);
+    }
+  }
+
+  public static class Builder {
+
+    private static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    private S3Client client;
+    private String bucket;
+    private String prefix = "raw/";
+    private long multipartThreshold = 16 * 1024 * 1024;
+    private int partSize = 8 * 1024 * 1024;
+    private int batchMaxCount;
+    private long batchMaxBytes = 16 * 1024 * 1024;
+    private long batchItemMaxBytes = 256 * 1024;
+    private Duration batchLinger = Duration.ofSeconds(5);
+    private int maxConcurrentUploads = 16;
+
+    private Builder() {
+    }
+
+    /**
+     * @param client The S3 client, required
+     * @return This builder
+     */
+    public Builder client(final S3Client client) {
+      this.client = client;
+      return this;
+    }
+
+    /**
+     * @param bucket The bucket the contents are archived to, required
+     * @return This builder
+     */
+    public Builder bucket(final String bucket) {
+      this.bucket = bucket;
+      return this;
+    }
+
+    /**
+     * @param prefix What every key starts with, defaults to "raw/"
+     * @return This builder
+     */
+    public Builder prefix(final String prefix) {
+      if (prefix == null) {
+        throw new IllegalArgumentException("prefix must not be null");
+      }
+      this.prefix = prefix.isEmpty() || prefix.endsWith("/") ? prefix : prefix + "/";
+      return this;
+    }
+
+    /**
+     * @param multipartThreshold Objects at least this many bytes are put with a multipart upload, defaults to 16MB
+     * @return This builder
+     */
+    public Builder multipartThreshold(final long multipartThreshold) {
+      if (multipartThreshold < MIN_PART_SIZE) {
+        throw new IllegalArgumentException("multipartThreshold must be at least 5MB");
+      }
+      this.multipartThreshold = multipartThreshold;
+      return this;
+    }
+
+    /**
+     * @param partSize How many bytes each part of a multipart upload is, S3 requires at least 5MB, defaults to 8MB
+     * @return This builder
+     */
+    public Builder partSize(final int partSize) {
+      if (partSize < MIN_PART_SIZE) {
+        throw new IllegalArgumentException("partSize must be at least 5MB");
+      }
+      this.partSize = partSize;
+      return this;
+    }
+
+    /**
+     * Batches small contents instead of putting each on its own.
+     *
+     * @param maxCount The most contents in a batch
+     * @param maxBytes About the most gzipped bytes in a batch
+     * @param linger The longest a content waits for its batch to fill up before the batch is put anyway
+     * @return This builder
+     */
+    public Builder batch(final int maxCount, final long maxBytes, final Duration linger) {
+      if (maxCount < 1) {
+        throw new IllegalArgumentException("maxCount must be at least 1");
+      }
+      if (maxBytes < 1) {
+        throw new IllegalArgumentException("maxBytes must be at least 1");
+      }
+      if (linger == null || linger.toMillis() < 1) {
+        throw new IllegalArgumentException("linger must be at least 1 millisecond");
+      }
+      this.batchMaxCount = maxCount;
+      this.batchMaxBytes = maxBytes;
+      this.batchLinger = linger;
+      return this;
+    }
+
+    /**
+     * @param batchItemMaxBytes Contents bigger than this are put on their own even when batching, defaults to 256KB
+     * @return This builder
+     */
+    public Builder batchItemMaxBytes(final long batchItemMaxBytes) {
+      if (batchItemMaxBytes < 0) {
+        throw new IllegalArgumentException("batchItemMaxBytes must not be negative");
+      }
+      this.batchItemMaxBytes = batchItemMaxBytes;
+      return this;
+    }
+
+    /**
+     * @param maxConcurrentUploads How many objects may be put at once across all the threads persisting, defaults to
+     * 16
+     * @return This builder
+     */
+    public Builder maxConcurrentUploads(final int maxConcurrentUploads) {
+      if (maxConcurrentUploads < 1) {
+        throw new IllegalArgumentException("maxConcurrentUploads must be at least 1");
+      }
+      this.maxConcurrentUploads = maxConcurrentUploads;
+      return this;
+    }
+
+    public S3ArchiveSink build() {
+      if (client == null) {
+        throw new IllegalArgumentException("client is required");
+      }
+      if (bucket == null || bucket.isBlank()) {
+        throw new IllegalArgumentException("bucket is required");
+      }
+      if (multipartThreshold < partSize) {
+        throw new IllegalArgumentException("multipartThreshold must be at least partSize");
+      }
+      return new S3ArchiveSink(this);
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package com.expositura.intake.rest.pipeline;
+
+import com.expositura.intake.rest.api.model.LegacyIntakeRequestContentsInner;
+
+/**
+ * A request content whose base64 was decoded into a {@link ContentSpool} as the request was read, so its
+ * {@code content} string is always null.
+ *
+ * @author Sean Smith
+ */
+public class SpooledContent extends LegacyIntakeRequestContentsInner {
+
+  private ContentSpool spool;
+
+  /**
+   * @return The decoded content, null if the request's content was null
+   */
+  public ContentSpool getSpool() {
+    return spool;
+  }
+
+  public void setSpool(final ContentSpool spool) {
+    this.spool = spool;
+  }
+}
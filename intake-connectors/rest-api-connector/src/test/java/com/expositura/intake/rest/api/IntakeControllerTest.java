@@ -0,0 +1,138 @@
+package com.expositura.intake.rest.api;
+
+import com.expositura.intake.rest.api.model.LegacyIntakeParsedResponse;
+import com.expositura.intake.rest.api.model.LegacyIntakeRequest;
+import com.expositura.intake.rest.api.model.LegacyIntakeRequestContentsInner;
+import com.expositura.intake.rest.pipeline.IntakeItem;
+import com.expositura.intake.rest.pipeline.IntakePipeline;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Provides Unit tests for the intake controller's answers to a content that fails in the pipeline.
+ *
+ * @author Sean Smith
+ */
+public class IntakeControllerTest {
+
+  private static final String CCD = """
+      <ClinicalDocument xmlns="urn:hl7-org:v3">
+        <id root="2.16.840.1.113883.19.5" extension="DOC-1"/>
+        <recordTarget>
+          <patientRole>
+            <id root="2.16.840.1.113883.4.1" extension="T-10118"/>
+            <patient>
+              <name use="L"><given>Alice</given><family>Newman</family></name>
+              <administrativeGenderCode code="F" codeSystem="2.16.840.1.113883.5.1"/>
+            </patient>
+          </patientRole>
+        </recordTarget>
+      </ClinicalDocument>
+      """;
+
+  private static LegacyIntakeRequest request(final String base64) {
+    return new LegacyIntakeRequest().contents(List.of(new LegacyIntakeRequestContentsInner().content(base64)));
+  }
+
+  private static String base64(final String content) {
+    return Base64.getEncoder().encodeToString(content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static void await(final BooleanSupplier condition) throws InterruptedException {
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (!condition.getAsBoolean()) {
+      assertTrue(System.nanoTime() < deadline, "Timed out waiting on the pipeline");
+      Thread.sleep(10);
+    }
+  }
+
+  /**
+   * Test that a content that parses is answered 200 with the parsed CCD, one that isn't base64 400 and one that isn't
+   * a CCD 422.
+   */
+  @Test
+  public void testLegacyIntakeWithParsedResponse() throws Exception {
+    System.out.println("controller parsed response");
+    try (IntakePipeline pipeline = IntakePipeline.builder().sink(item -> { }).build()) {
+      final IntakeController controller = new IntakeController(pipeline, 10000, 5);
+
+      ResponseEntity<LegacyIntakeParsedResponse> response = controller.legacyIntakeWithParsedResponse(
+              request(base64(CCD)));
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      assertNotNull(response.getBody().getParsedResponse());
+
+      response = controller.legacyIntakeWithParsedResponse(request("!!!notbase64"));
+      assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+      assertEquals(IntakeItem.Status.FAILED.name(), response.getBody().getImportStatus().getStatus());
+      assertNull(response.getBody().getParsedResponse());
+
+      response = controller.legacyIntakeWithParsedResponse(request(base64("<notACcd/>")));
+      assertEquals(HttpStatus.UNPROCESSABLE_CONTENT, response.getStatusCode());
+      assertEquals(IntakeItem.Status.FAILED.name(), response.getBody().getImportStatus().getStatus());
+    }
+  }
+
+  /**
+   * Test that a content still waiting to be parsed when intake stops is answered 503 with a Retry-After.
+   */
+  @Test
+  public void testLegacyIntakeWithParsedResponse_Stopped() throws Exception {
+    System.out.println("controller parsed response stopped");
+    final CountDownLatch sinking = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final IntakePipeline pipeline = IntakePipeline.builder()
+            .decodeThreads(1).parseThreads(1).mapThreads(1).persistThreads(1)
+            .queueCapacity(1)
+            .acceptTimeout(Duration.ofSeconds(10))
+            .sink(item -> {
+              sinking.countDown();
+              release.await();
+            })
+            .build();
+    try {
+      // Back the pipeline up from the stuck sink until the parse thread is waiting for room in the map stage
+      final IntakeItem persisting = new IntakeItem(request(base64(CCD)), 0);
+      pipeline.accept(persisting);
+      await(() -> sinking.getCount() == 0);
+      pipeline.accept(new IntakeItem(request(base64(CCD)), 0));
+      await(() -> pipeline.getQueueDepths().get("persist") == 1);
+      final IntakeItem mapped = new IntakeItem(request(base64(CCD)), 0);
+      pipeline.accept(mapped);
+      await(() -> mapped.getPatients() != null);
+      pipeline.accept(new IntakeItem(request(base64(CCD)), 0));
+      await(() -> pipeline.getQueueDepths().get("map") == 1);
+      final IntakeItem parsed = new IntakeItem(request(base64(CCD)), 0);
+      pipeline.accept(parsed);
+      await(() -> parsed.getParsed().isDone());
+
+      // The request's content waits in the parse stage's queue while its thread is interrupted
+      final IntakeController controller = new IntakeController(pipeline, 10000, 5);
+      final CompletableFuture<ResponseEntity<LegacyIntakeParsedResponse>> response = CompletableFuture.supplyAsync(
+              () -> controller.legacyIntakeWithParsedResponse(request(base64(CCD))));
+      await(() -> pipeline.getQueueDepths().get("parse") == 1);
+      Thread.getAllStackTraces().keySet().stream().filter(thread -> thread.getName().equals("intake-parse-0"))
+              .forEach(Thread::interrupt);
+
+      assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.get(10, TimeUnit.SECONDS).getStatusCode());
+      assertEquals("5", response.get().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+      assertEquals(IntakeItem.Status.FAILED.name(), response.get().getBody().getImportStatus().getStatus());
+    } finally {
+      release.countDown();
+      pipeline.close();
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package com.expositura.intake.rest.api;
+
+import com.expositura.intake.rest.api.model.LegacyIntakeRequest;
+import com.expositura.intake.rest.api.model.LegacyIntakeRequestContentsInner;
+import com.expositura.intake.rest.pipeline.ContentSpool;
+import com.expositura.intake.rest.pipeline.IntakeItem;
+import com.expositura.intake.rest.pipeline.IntakePipeline;
+import com.expositura.intake.rest.pipeline.SpooledContent;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Provides Unit tests for the streaming intake request reader.
+ *
+ * @author Sean Smith
+ */
+public class LegacyIntakeRequestConverterTest {
+
+  private static final String CCD = """
+      <ClinicalDocument xmlns="urn:hl7-org:v3">
+        <id root="2.16.840.1.113883.19.5" extension="DOC-1"/>
+        <recordTarget>
+          <patientRole>
+            <id root="2.16.840.1.113883.4.1" extension="T-10118"/>
+            <patient>
+              <name use="L"><given>Alice</given><family>Newman</family></name>
+              <administrativeGenderCode code="F" codeSystem="2.16.840.1.113883.5.1"/>
+            </patient>
+          </patientRole>
+        </recordTarget>
+      </ClinicalDocument>
+      """;
+
+  private static final ObjectMapper mapper = new ObjectMapper()
+          .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
+
+  @TempDir
+  Path spoolDirectory;
+
+  private LegacyIntakeRequest read(final int threshold, final String json) throws Exception {
+    final LegacyIntakeRequestConverter converter = new LegacyIntakeRequestConverter(mapper, threshold, spoolDirectory);
+    return converter.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private static long spoolFiles(final Path directory) throws Exception {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.count();
+    }
+  }
+
+  /**
+   * Test that contents are decoded into spools, in memory or in a file depending on size, and the rest of the request
+   * is bound as usual.
+   */
+  @Test
+  public void testRead() throws Exception {
+    System.out.println("intake request read");
+    final byte[] small = "MSH|^~\\&|".getBytes(StandardCharsets.UTF_8);
+    final byte[] large = CCD.getBytes(StandardCharsets.UTF_8);
+    final LegacyIntakeRequest request = read(100, """
+        {"patientId": "12345", "clinicalMessageType": "CCD", "contents": [
+          {"content": "%s", "processedLevel": "RAW", "otherAttributes": {"a": "b"}},
+          {"content": "%s"},
+          {"content": null}
+        ], "otherAttributes": {"x": 1}}
+        """.formatted(Base64.getEncoder().encodeToString(small), Base64.getMimeEncoder().encodeToString(large)
+            .replace("\r\n", "\\r\\n")));
+
+    assertEquals("12345", request.getPatientId());
+    assertEquals(LegacyIntakeRequest.ClinicalMessageTypeEnum.CCD, request.getClinicalMessageType());
+    assertEquals(1, request.getOtherAttributes().get("x"));
+    assertEquals(3, request.getContents().size());
+
+    final SpooledContent first = (SpooledContent) request.getContents().get(0);
+    assertNull(first.getContent());
+    assertEquals(LegacyIntakeRequestContentsInner.ProcessedLevelEnum.RAW, first.getProcessedLevel());
+    assertEquals("b", first.getOtherAttributes().get("a"));
+    assertTrue(first.getSpool().isInMemory());
+    try (InputStream in = first.getSpool().open()) {
+      assertArrayEquals(small, in.readAllBytes());
+    }
+
+    final ContentSpool second = ((SpooledContent) request.getContents().get(1)).getSpool();
+    assertFalse(second.isInMemory());
+    assertEquals(large.length, second.size());
+    try (InputStream in = second.open()) {
+      assertArrayEquals(large, in.readAllBytes());
+    }
+    assertEquals(1, spoolFiles(spoolDirectory));
+    assertNull(((SpooledContent) request.getContents().get(2)).getSpool());
+
+    second.close();
+    assertEquals(0, spoolFiles(spoolDirectory));
+  }
+
+  /**
+   * Test that a bad request is rejected and leaves no spool files behind.
+   */
+  @Test
+  public void testRead_Invalid() throws Exception {
+    System.out.println("intake request read invalid");
+    final String content = Base64.getEncoder().encodeToString(CCD.getBytes(StandardCharsets.UTF_8));
+    assertThrows(Exception.class, () -> read(10, "[]"));
+    assertThrows(Exception.class, () -> read(10, "{\"contents\": [{\"content\": \"%s\"}, {\"bogus\": 1}]}"
+            .formatted(content)));
+    assertThrows(Exception.class, () -> read(10, "{\"contents\": [{\"content\": \"%s\"}], \"bogus\": 1}"
+            .formatted(content)));
+    assertThrows(Exception.class, () -> read(10, "{\"contents\": [{\"content\": \"not*base64\"}]}"));
+    assertEquals(0, spoolFiles(spoolDirectory));
+  }
+
+  /**
+   * Test that a spooled CCD is parsed straight from its spool file, which is deleted once persisted.
+   */
+  @Test
+  public void testRead_Pipeline() throws Exception {
+    System.out.println("intake request read pipeline");
+    final LegacyIntakeRequest request = read(10, "{\"contents\": [{\"content\": \"%s\"}]}"
+            .formatted(Base64.getEncoder().encodeToString(CCD.getBytes(StandardCharsets.UTF_8))));
+    try (IntakePipeline pipeline = IntakePipeline.builder().sink(item -> assertNotNull(item.getDocument())).build()) {
+      final IntakeItem item = new IntakeItem(request, 0);
+      assertTrue(item.isSpooled());
+      assertTrue(pipeline.accept(item));
+      assertEquals(IntakeItem.Status.PERSISTED, item.getDone().get(10, TimeUnit.SECONDS).getStatus());
+      assertEquals("female", item.getPatients().get(0).getGender());
+    }
+    assertEquals(0, spoolFiles(spoolDirectory));
+  }
+}
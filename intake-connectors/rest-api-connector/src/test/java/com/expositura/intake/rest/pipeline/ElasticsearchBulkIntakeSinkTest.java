@@ -0,0 +1,177 @@
+package com.expositura.intake.rest.pipeline;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import com.expositura.intake.rest.api.model.LegacyIntakeRequest;
+import com.expositura.intake.rest.api.model.LegacyIntakeRequestContentsInner;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Provides Unit tests for the Elasticsearch bulk sink against a stand-in for the bulk API.
+ *
+ * @author Sean Smith
+ */
+public class ElasticsearchBulkIntakeSinkTest {
+
+  private static final ObjectMapper mapper = new ObjectMapper();
+
+  private HttpServer server;
+  private ElasticsearchClient client;
+
+  // What the stand-in was sent, and which document ids it answers with an error
+  private final Queue<Integer> bulkSizes = new ConcurrentLinkedQueue<>();
+  private final Set<String> indexedIds = ConcurrentHashMap.newKeySet();
+  private final Set<String> busyOnceIds = ConcurrentHashMap.newKeySet();
+  private final Set<String> badIds = ConcurrentHashMap.newKeySet();
+
+  @BeforeEach
+  public void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/_bulk", this::bulk);
+    server.start();
+    final URI host = URI.create("http://localhost:" + server.getAddress().getPort());
+    client = ElasticsearchClient.of(e -> e.hosts(List.of(host)));
+  }
+
+  @AfterEach
+  public void stopServer() throws IOException {
+    client.close();
+    server.stop(0);
+  }
+
+  private void bulk(final HttpExchange exchange) throws IOException {
+    final String[] lines = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8).split("\n");
+    final ObjectNode response = mapper.createObjectNode().put("took", 1);
+    final ArrayNode items = response.putArray("items");
+    boolean errors = false;
+    for (int i = 0; i + 1 < lines.length; i += 2) {
+      final JsonNode action = mapper.readTree(lines[i]).get("index");
+      final String id = action.get("_id").asText();
+      final ObjectNode item = items.addObject().putObject("index").put("_index", action.get("_index").asText())
+              .put("_id", id);
+      if (busyOnceIds.remove(id)) {
+        errors = true;
+        item.put("status", 429).putObject("error").put("type", "es_rejected_execution_exception").put("reason", "busy");
+      } else if (badIds.contains(id)) {
+        errors = true;
+        item.put("status", 400).putObject("error").put("type", "document_parsing_exception").put("reason", "bad");
+      } else {
+        indexedIds.add(id);
+        item.put("status", 201).put("result", "created");
+      }
+    }
+    response.put("errors", errors);
+    bulkSizes.add(lines.length / 2);
+
+    final byte[] body = mapper.writeValueAsBytes(response);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.getResponseHeaders().add("X-Elastic-Product", "Elasticsearch");
+    exchange.sendResponseHeaders(200, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  private static IntakeItem item() {
+    final LegacyIntakeRequest request = new LegacyIntakeRequest()
+            .clinicalMessageType(LegacyIntakeRequest.ClinicalMessageTypeEnum.HL7_V2).patientId("12345")
+            .contents(List.of(new LegacyIntakeRequestContentsInner()
+                    .content(Base64.getEncoder().encodeToString("MSH|^~\\&|".getBytes(StandardCharsets.UTF_8)))));
+    return new IntakeItem(request, 0);
+  }
+
+  /**
+   * Test that items are sent in batches, an item Elasticsearch is too busy for is retried on its own and an item it
+   * can't index fails without failing the rest.
+   */
+  @Test
+  public void testPersistAsync() throws Exception {
+    System.out.println("bulk sink persist");
+    final List<IntakeItem> items = new ArrayList<>();
+    final List<CompletableFuture<Void>> results = new ArrayList<>();
+    try (ElasticsearchBulkIntakeSink sink = ElasticsearchBulkIntakeSink.builder().client(client).index("intake")
+            .maxOperations(10).linger(Duration.ofMillis(50)).retryDelay(Duration.ofMillis(10)).build()) {
+      for (int i = 0; i < 25; i++) {
+        items.add(item());
+      }
+      busyOnceIds.add(items.get(3).getId());
+      badIds.add(items.get(7).getId());
+      for (final IntakeItem item : items) {
+        results.add(sink.persistAsync(item));
+      }
+
+      for (int i = 0; i < items.size(); i++) {
+        if (i == 7) {
+          final ExecutionException e = assertThrows(ExecutionException.class,
+                  () -> results.get(7).get(10, TimeUnit.SECONDS));
+          assertTrue(e.getCause().getMessage().contains("400 document_parsing_exception"), e.getCause().getMessage());
+        } else {
+          results.get(i).get(10, TimeUnit.SECONDS);
+        }
+      }
+
+      assertEquals(24, sink.getIndexedCount());
+      assertEquals(1, sink.getFailedCount());
+      assertEquals(1, sink.getRetryCount());
+      assertEquals(0, sink.getPendingCount());
+      assertEquals(24, indexedIds.size());
+    }
+
+    // 25 in batches of at most 10, plus the retry which goes with whichever batch is next
+    assertTrue(bulkSizes.stream().allMatch(size -> size <= 10), bulkSizes.toString());
+    assertEquals(26, bulkSizes.stream().mapToInt(Integer::intValue).sum());
+  }
+
+  /**
+   * Test that the pipeline finishes items as their batches are answered, and waits for the last batch when closed.
+   */
+  @Test
+  public void testPipeline() throws Exception {
+    System.out.println("bulk sink pipeline");
+    final List<IntakeItem> items = new ArrayList<>();
+    try (ElasticsearchBulkIntakeSink sink = ElasticsearchBulkIntakeSink.builder().client(client).index("intake")
+            .maxOperations(50).linger(Duration.ofMinutes(1)).build()) {
+      final IntakePipeline pipeline = IntakePipeline.builder().sink(sink).build();
+      for (int i = 0; i < 120; i++) {
+        final IntakeItem item = item();
+        assertTrue(pipeline.accept(item));
+        items.add(item);
+      }
+
+      // Two full batches go right away, the rest would wait for the linger if closing didn't flush it
+      pipeline.close();
+      assertEquals(120, pipeline.getPersistedCount());
+      assertEquals(0, pipeline.getPersistingCount());
+      for (final IntakeItem item : items) {
+        assertEquals(IntakeItem.Status.PERSISTED, item.getStatus());
+      }
+      assertEquals(List.of(50, 50, 20), List.copyOf(bulkSizes));
+    }
+  }
+}
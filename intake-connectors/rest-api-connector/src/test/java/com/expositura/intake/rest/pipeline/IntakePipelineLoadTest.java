@@ -0,0 +1,112 @@
+package com.expositura.intake.rest.pipeline;
+
+import com.expositura.intake.rest.api.model.LegacyIntakeRequest;
+import com.expositura.intake.rest.api.model.LegacyIntakeRequestContentsInner;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Load tests the intake pipeline with platform and with virtual threads, against a sink that blocks the way a call to
+ * S3 or Elasticsearch does. The throughput comparison is tagged "load" and only runs with the load-tests profile, its
+ * timings and thread counts depend too much on the machine for every build.
+ *
+ * @author Sean Smith
+ */
+public class IntakePipelineLoadTest {
+
+  private static final int ITEMS = 2000;
+  private static final long SINK_LATENCY_MILLI = 10;
+
+  private static final String CCD = """
+      <ClinicalDocument xmlns="urn:hl7-org:v3">
+        <id root="2.16.840.1.113883.19.5" extension="DOC-1"/>
+        <recordTarget>
+          <patientRole>
+            <id root="2.16.840.1.113883.4.1" extension="T-10118"/>
+            <patient>
+              <name use="L"><given>Alice</given><family>Newman</family></name>
+              <administrativeGenderCode code="F" codeSystem="2.16.840.1.113883.5.1"/>
+            </patient>
+          </patientRole>
+        </recordTarget>
+      </ClinicalDocument>
+      """;
+
+  private record Result(double itemsPerSecond, int peakPlatformThreads) {
+  }
+
+  private static Result run(final String mode, final int count, final IntakePipeline.Builder builder)
+          throws Exception {
+    final String content = Base64.getEncoder().encodeToString(CCD.getBytes(StandardCharsets.UTF_8));
+    final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    threads.resetPeakThreadCount();
+
+    final List<IntakeItem> items = new ArrayList<>(count);
+    final long start = System.nanoTime();
+    try (IntakePipeline pipeline = builder.queueCapacity(count).acceptTimeout(Duration.ofSeconds(10))
+            .sink(item -> Thread.sleep(SINK_LATENCY_MILLI)).build()) {
+      for (int i = 0; i < count; i++) {
+        final LegacyIntakeRequest request = new LegacyIntakeRequest()
+                .contents(List.of(new LegacyIntakeRequestContentsInner().content(content)));
+        final IntakeItem item = new IntakeItem(request, 0);
+        assertTrue(pipeline.accept(item));
+        items.add(item);
+      }
+      for (final IntakeItem item : items) {
+        assertEquals(IntakeItem.Status.PERSISTED, item.getDone().get(60, TimeUnit.SECONDS).getStatus());
+      }
+    }
+    final double seconds = (System.nanoTime() - start) / 1e9;
+
+    final Result result = new Result(count / seconds, threads.getPeakThreadCount());
+    System.out.printf("%-28s %8.0f items/s, peak %d platform threads%n", mode, result.itemsPerSecond(),
+            result.peakPlatformThreads());
+    return result;
+  }
+
+  /**
+   * Test that every item is persisted under load with platform and with virtual threads.
+   */
+  @Test
+  public void testPersisted() throws Exception {
+    System.out.println("intake load persisted");
+    run("platform, 8 persist threads", 200, IntakePipeline.builder().persistThreads(8));
+    run("virtual, 64 persist permits", 200, IntakePipeline.builder().virtualThreads().persistThreads(64));
+  }
+
+  /**
+   * Test that with virtual threads the persist stage can have as many items in flight as the sink's service can take
+   * without a platform thread for each, and how that compares to platform threads.
+   */
+  @Test
+  @Tag("load")
+  public void testThroughput() throws Exception {
+    System.out.println("intake load " + ITEMS + " items, sink blocks " + SINK_LATENCY_MILLI + "ms");
+
+    // Warm up the parser so the first mode measured isn't paying for it
+    run("warm up", ITEMS, IntakePipeline.builder().virtualThreads().persistThreads(256));
+
+    final Result platform = run("platform, 8 persist threads", ITEMS, IntakePipeline.builder().persistThreads(8));
+    final Result platformWide = run("platform, 256 persist threads", ITEMS,
+            IntakePipeline.builder().persistThreads(256));
+    final Result virtual = run("virtual, 256 persist permits", ITEMS,
+            IntakePipeline.builder().virtualThreads().persistThreads(256));
+
+    // A sized pool is bound by the sink's latency, virtual threads by the permits
+    assertTrue(virtual.itemsPerSecond() > platform.itemsPerSecond() * 2,
+            virtual.itemsPerSecond() + " vs " + platform.itemsPerSecond());
+    // Matching that with platform threads takes a platform thread per item in flight
+    assertTrue(virtual.peakPlatformThreads() < platformWide.peakPlatformThreads(),
+            virtual.peakPlatformThreads() + " vs " + platformWide.peakPlatformThreads());
+  }
+}
@@ -0,0 +1,194 @@
+package com.expositura.intake.rest.pipeline;
+
+import com.expositura.intake.rest.api.model.LegacyIntakeRequest;
+import com.expositura.intake.rest.api.model.LegacyIntakeRequestContentsInner;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Provides Unit tests for the intake pipeline.
+ *
+ * @author Sean Smith
+ */
+public class IntakePipelineTest {
+
+  private static final String CCD = """
+      <ClinicalDocument xmlns="urn:hl7-org:v3">
+        <id root="2.16.840.1.113883.19.5" extension="DOC-1"/>
+        <recordTarget>
+          <patientRole>
+            <id root="2.16.840.1.113883.4.1" extension="T-10118"/>
+            <patient>
+              <name use="L"><given>Alice</given><family>Newman</family></name>
+              <administrativeGenderCode code="F" codeSystem="2.16.840.1.113883.5.1"/>
+              <birthTime value="19700501"/>
+            </patient>
+          </patientRole>
+        </recordTarget>
+      </ClinicalDocument>
+      """;
+
+  private static LegacyIntakeRequest request(final LegacyIntakeRequest.ClinicalMessageTypeEnum type,
+          final String... contents) {
+    final LegacyIntakeRequest request = new LegacyIntakeRequest().clinicalMessageType(type).patientId("12345");
+    final List<LegacyIntakeRequestContentsInner> inners = new ArrayList<>();
+    for (final String content : contents) {
+      inners.add(new LegacyIntakeRequestContentsInner().content(content == null ? null
+              : Base64.getEncoder().encodeToString(content.getBytes(StandardCharsets.UTF_8))));
+    }
+    return request.contents(inners);
+  }
+
+  /**
+   * Test that contents make it thru every stage, and a bad one fails without holding up the rest.
+   */
+  @Test
+  public void testAccept() throws Exception {
+    System.out.println("intake accept");
+    final Queue<IntakeItem> persisted = new ConcurrentLinkedQueue<>();
+    try (IntakePipeline pipeline = IntakePipeline.builder().sink(persisted::add).build()) {
+      final LegacyIntakeRequest request = request(LegacyIntakeRequest.ClinicalMessageTypeEnum.CCD, CCD,
+              "<notACcd/>", null);
+      final List<IntakeItem> items = new ArrayList<>();
+      for (int i = 0; i < request.getContents().size(); i++) {
+        final IntakeItem item = new IntakeItem(request, i);
+        pipeline.accept(item);
+        items.add(item);
+      }
+
+      final IntakeItem ccd = items.get(0).getDone().get(10, TimeUnit.SECONDS);
+      assertEquals(IntakeItem.Status.PERSISTED, ccd.getStatus());
+      assertNotNull(ccd.getDocument());
+      assertEquals("female", ccd.getPatients().get(0).getGender());
+      assertNull(ccd.getContent().getContent());
+
+      assertEquals(IntakeItem.Status.FAILED, items.get(1).getDone().get(10, TimeUnit.SECONDS).getStatus());
+      assertEquals(IntakeItem.Failure.PARSE, items.get(1).getFailure());
+      assertTrue(items.get(1).getParsed().isCompletedExceptionally());
+      assertEquals(IntakeItem.Status.REJECTED, items.get(2).getStatus());
+
+      assertEquals(List.of(ccd), List.copyOf(persisted));
+      assertEquals(2, pipeline.getAcceptedCount());
+      assertEquals(1, pipeline.getRejectedCount());
+      assertEquals(1, pipeline.getPersistedCount());
+      assertEquals(1, pipeline.getFailedCount());
+
+      // Anything but a CCD skips parse and map
+      final IntakeItem hl7 = new IntakeItem(request(LegacyIntakeRequest.ClinicalMessageTypeEnum.HL7_V2, "MSH|^~\\&|"),
+              0);
+      assertTrue(pipeline.accept(hl7));
+      assertEquals(IntakeItem.Status.PERSISTED, hl7.getDone().get(10, TimeUnit.SECONDS).getStatus());
+      assertNull(hl7.getDocument());
+      assertEquals("12345", ElasticsearchIntakeSink.toDocument(hl7).get("patientId"));
+    }
+  }
+
+  /**
+   * Test that an Error thrown while working on an item fails it and the stage's only thread goes on to the next.
+   */
+  @Test
+  public void testAccept_Error() throws Exception {
+    System.out.println("intake error");
+    final AtomicBoolean thrown = new AtomicBoolean();
+    try (IntakePipeline pipeline = IntakePipeline.builder().persistThreads(1).sink(item -> {
+      if (thrown.compareAndSet(false, true)) {
+        throw new NoClassDefFoundError("com/example/Missing");
+      }
+    }).build()) {
+      final IntakeItem first = new IntakeItem(request(LegacyIntakeRequest.ClinicalMessageTypeEnum.CCD, CCD), 0);
+      assertTrue(pipeline.accept(first));
+      assertEquals(IntakeItem.Status.FAILED, first.getDone().get(10, TimeUnit.SECONDS).getStatus());
+      assertEquals(IntakeItem.Failure.PERSIST, first.getFailure());
+      assertTrue(first.getMessage().startsWith("Failed in the persist stage"), first.getMessage());
+
+      final IntakeItem second = new IntakeItem(request(LegacyIntakeRequest.ClinicalMessageTypeEnum.CCD, CCD), 0);
+      assertTrue(pipeline.accept(second));
+      assertEquals(IntakeItem.Status.PERSISTED, second.getDone().get(10, TimeUnit.SECONDS).getStatus());
+      assertEquals(1, pipeline.getFailedCount());
+    }
+  }
+
+  /**
+   * Test that interrupting a stage's threads fails the item being worked on and the ones still queued, rather than
+   * leaving them unfinished.
+   */
+  @Test
+  public void testStage_Interrupted() throws Exception {
+    System.out.println("intake stage interrupted");
+    final CountDownLatch started = new CountDownLatch(1);
+    final List<IntakeItem> items = new ArrayList<>();
+    try (IntakeStage stage = new IntakeStage("stuck", IntakeItem.Failure.PARSE, 1, 4, false, item -> {
+      started.countDown();
+      new CountDownLatch(1).await();
+    })) {
+      for (int i = 0; i < 3; i++) {
+        final IntakeItem item = new IntakeItem(request(LegacyIntakeRequest.ClinicalMessageTypeEnum.CCD, CCD), 0);
+        stage.put(item);
+        items.add(item);
+      }
+      assertTrue(started.await(10, TimeUnit.SECONDS));
+      Thread.getAllStackTraces().keySet().stream().filter(thread -> thread.getName().equals("intake-stuck-0"))
+              .forEach(Thread::interrupt);
+
+      for (final IntakeItem item : items) {
+        assertEquals(IntakeItem.Status.FAILED, item.getDone().get(10, TimeUnit.SECONDS).getStatus());
+        assertEquals(IntakeItem.Failure.STOPPED, item.getFailure());
+        assertEquals("Intake stopped while in the stuck stage", item.getMessage());
+      }
+      assertEquals(3, stage.getFailedCount());
+    }
+  }
+
+  /**
+   * Test that a stuck sink backs the pipeline up until items are rejected, and that they all finish once it's not.
+   */
+  @Test
+  public void testAccept_Backpressure() throws Exception {
+    System.out.println("intake backpressure");
+    final CountDownLatch release = new CountDownLatch(1);
+    final IntakePipeline pipeline = IntakePipeline.builder()
+            .decodeThreads(1).parseThreads(1).mapThreads(1).persistThreads(1)
+            .queueCapacity(2)
+            .acceptTimeout(Duration.ofMillis(50))
+            .sink(item -> release.await())
+            .build();
+
+    final List<IntakeItem> accepted = new ArrayList<>();
+    int rejected = 0;
+    for (int i = 0; i < 100; i++) {
+      final IntakeItem item = new IntakeItem(request(LegacyIntakeRequest.ClinicalMessageTypeEnum.CCD, CCD), 0);
+      if (pipeline.accept(item)) {
+        accepted.add(item);
+      } else {
+        assertEquals(IntakeItem.Status.REJECTED, item.getStatus());
+        rejected++;
+      }
+    }
+
+    // Each stage holds one item being worked on plus a full queue
+    assertTrue(accepted.size() <= 4 * 3, "accepted " + accepted.size());
+    assertEquals(100 - accepted.size(), rejected);
+    assertEquals(2, pipeline.getQueueDepths().get("decode"));
+
+    release.countDown();
+    pipeline.close();
+    for (final IntakeItem item : accepted) {
+      assertEquals(IntakeItem.Status.PERSISTED, item.getStatus());
+    }
+    assertFalse(pipeline.accept(new IntakeItem(request(LegacyIntakeRequest.ClinicalMessageTypeEnum.CCD, CCD), 0)));
+  }
+}
@@ -0,0 +1,263 @@
+package com.expositura.intake.rest.pipeline;
+
+import com.expositura.intake.rest.api.model.LegacyIntakeRequest;
+import com.expositura.intake.rest.api.model.LegacyIntakeRequestContentsInner;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.checksums.RequestChecksumCalculation;
+import software.amazon.awssdk.core.checksums.ResponseChecksumValidation;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+
+/**
+ * Provides Unit tests for the S3 archive sink against a local stand-in for the parts of S3 it uses.
+ *
+ * @author Sean Smith
+ */
+public class S3ArchiveSinkTest {
+
+  private static final ObjectMapper mapper = new ObjectMapper();
+  private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d+)");
+
+  private HttpServer server;
+  private S3Client client;
+
+  // The stand-in's objects by "bucket/key", and the parts of multipart uploads still in progress by upload id
+  private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+  private final Map<String, Map<Integer, byte[]>> uploads = new ConcurrentHashMap<>();
+  private final AtomicInteger uploadIds = new AtomicInteger();
+  private final AtomicInteger rangeGets = new AtomicInteger();
+
+  @BeforeEach
+  public void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/", this::s3);
+    server.start();
+    client = S3Client.builder()
+            .endpointOverride(URI.create("http://localhost:" + server.getAddress().getPort()))
+            .region(Region.US_EAST_1)
+            .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+            .forcePathStyle(true)
+            .serviceConfiguration(S3Configuration.builder().chunkedEncodingEnabled(false).build())
+            .requestChecksumCalculation(RequestChecksumCalculation.WHEN_REQUIRED)
+            .responseChecksumValidation(ResponseChecksumValidation.WHEN_REQUIRED)
+            .build();
+  }
+
+  @AfterEach
+  public void stopServer() {
+    client.close();
+    server.stop(0);
+  }
+
+  private void s3(final HttpExchange exchange) throws IOException {
+    final String object = exchange.getRequestURI().getPath().substring(1);
+    final String query = exchange.getRequestURI().getQuery() == null ? "" : exchange.getRequestURI().getQuery();
+    final byte[] body = exchange.getRequestBody().readAllBytes();
+    final String uploadId = param(query, "uploadId");
+
+    switch (exchange.getRequestMethod()) {
+      case "POST" -> {
+        if (query.startsWith("uploads")) {
+          final String id = "upload-" + uploadIds.incrementAndGet();
+          uploads.put(id, new TreeMap<>());
+          respond(exchange, 200, "<InitiateMultipartUploadResult><UploadId>" + id
+                  + "</UploadId></InitiateMultipartUploadResult>");
+        } else {
+          final ByteArrayOutputStream whole = new ByteArrayOutputStream();
+          uploads.remove(uploadId).values().forEach(whole::writeBytes);
+          objects.put(object, whole.toByteArray());
+          respond(exchange, 200, "<CompleteMultipartUploadResult><ETag>\"done\"</ETag></CompleteMultipartUploadResult>");
+        }
+      }
+      case "PUT" -> {
+        if (uploadId != null) {
+          uploads.get(uploadId).put(Integer.valueOf(param(query, "partNumber")), body);
+        } else {
+          objects.put(object, body);
+        }
+        exchange.getResponseHeaders().add("ETag", "\"" + Arrays.hashCode(body) + "\"");
+        respond(exchange, 200, null);
+      }
+      case "DELETE" -> {
+        uploads.remove(uploadId);
+        exchange.sendResponseHeaders(204, -1);
+        exchange.close();
+      }
+      default -> {
+        byte[] content = objects.get(object);
+        if (content == null) {
+          respond(exchange, 404, "<Error><Code>NoSuchKey</Code></Error>");
+          return;
+        }
+        final String range = exchange.getRequestHeaders().getFirst("Range");
+        int status = 200;
+        if (range != null) {
+          final Matcher matcher = RANGE.matcher(range);
+          assertTrue(matcher.matches(), range);
+          final int start = Integer.parseInt(matcher.group(1));
+          final int end = Integer.parseInt(matcher.group(2));
+          exchange.getResponseHeaders().add("Content-Range", "bytes " + start + "-" + end + "/" + content.length);
+          content = Arrays.copyOfRange(content, start, end + 1);
+          status = 206;
+          rangeGets.incrementAndGet();
+        }
+        exchange.sendResponseHeaders(status, content.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+          out.write(content);
+        }
+      }
+    }
+  }
+
+  private static String param(final String query, final String name) {
+    for (final String pair : query.split("&")) {
+      if (pair.startsWith(name + "=")) {
+        return pair.substring(name.length() + 1);
+      }
+    }
+    return null;
+  }
+
+  private static void respond(final HttpExchange exchange, final int status, final String xml) throws IOException {
+    final byte[] body = xml == null ? new byte[0] : xml.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/xml");
+    exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  private static IntakeItem item(final byte[] content) {
+    final LegacyIntakeRequest request = new LegacyIntakeRequest()
+            .clinicalMessageType(LegacyIntakeRequest.ClinicalMessageTypeEnum.HL7_V2)
+            .contents(List.of(new LegacyIntakeRequestContentsInner()));
+    final IntakeItem item = new IntakeItem(request, 0);
+    item.decoded(ContentSpool.of(content));
+    return item;
+  }
+
+  private static byte[] readAll(final InputStream in) throws IOException {
+    try (in) {
+      return in.readAllBytes();
+    }
+  }
+
+  /**
+   * Test that a small content is put as one object and a large one as a multipart upload, and both read back.
+   */
+  @Test
+  public void testPersist() throws Exception {
+    System.out.println("archive persist");
+    final byte[] small = "MSH|^~\\&|".getBytes(StandardCharsets.UTF_8);
+    final byte[] large = new byte[13 * 1024 * 1024];
+    new Random(7).nextBytes(large);
+
+    try (S3ArchiveSink sink = S3ArchiveSink.builder().client(client).bucket("archive").prefix("raw")
+            .multipartThreshold(5 * 1024 * 1024).partSize(5 * 1024 * 1024).build()) {
+      final IntakeItem smallItem = item(small);
+      final IntakeItem largeItem = item(large);
+      sink.persistAsync(smallItem).get(10, TimeUnit.SECONDS);
+      sink.persist(largeItem);
+
+      final ArchiveLocation location = largeItem.getArchiveLocation();
+      assertEquals("archive", location.bucket());
+      assertTrue(location.key().startsWith("raw/") && location.key().endsWith(largeItem.getId()), location.key());
+      assertFalse(location.compressed());
+      assertArrayEquals(large, objects.get("archive/" + location.key()));
+      assertArrayEquals(large, readAll(sink.read(location)));
+      assertArrayEquals(small, readAll(sink.read(smallItem.getArchiveLocation())));
+
+      assertEquals(2, sink.getArchivedCount());
+      assertEquals(1, sink.getMultipartUploadCount());
+      assertTrue(uploads.isEmpty());
+    }
+  }
+
+  /**
+   * Test that small contents are put together in gzipped batches with an index, and each reads back on its own with a
+   * range GET, while a content too big to batch is put on its own.
+   */
+  @Test
+  public void testPersist_Batched() throws Exception {
+    System.out.println("archive persist batched");
+    final List<IntakeItem> items = new ArrayList<>();
+    final List<CompletableFuture<Void>> results = new ArrayList<>();
+    try (S3ArchiveSink sink = S3ArchiveSink.builder().client(client).bucket("archive")
+            .batch(10, 1024 * 1024, Duration.ofMillis(100)).batchItemMaxBytes(1024).build()) {
+      for (int i = 0; i < 25; i++) {
+        final IntakeItem item = item(("MSH|^~\\&|message " + i).getBytes(StandardCharsets.UTF_8));
+        items.add(item);
+        results.add(sink.persistAsync(item));
+      }
+      final IntakeItem tooBig = item(new byte[2048]);
+      sink.persist(tooBig);
+      assertFalse(tooBig.getArchiveLocation().compressed());
+
+      // Two full batches went right away, the last five go once they've lingered
+      for (final CompletableFuture<Void> result : results) {
+        result.get(10, TimeUnit.SECONDS);
+      }
+      assertEquals(3, sink.getBatchCount());
+      assertEquals(26, sink.getArchivedCount());
+      assertEquals(0, sink.getPendingCount());
+
+      for (int i = 0; i < items.size(); i++) {
+        final ArchiveLocation location = items.get(i).getArchiveLocation();
+        assertTrue(location.compressed());
+        assertTrue(location.key().startsWith("raw/batches/") && location.key().endsWith(".gz"), location.key());
+        assertEquals("MSH|^~\\&|message " + i, new String(readAll(sink.read(location)), StandardCharsets.UTF_8));
+      }
+      assertEquals(25, rangeGets.get());
+
+      // The batch object is a whole .gz, and its index says where each content is
+      final ArchiveLocation first = items.get(0).getArchiveLocation();
+      final String batch = new String(readAll(new GZIPInputStream(client.getObject(
+              g -> g.bucket("archive").key(first.key())))), StandardCharsets.UTF_8);
+      assertTrue(batch.startsWith("MSH|^~\\&|message 0MSH|^~\\&|message 1"), batch);
+
+      final JsonNode index = mapper.readTree(objects.get("archive/" + first.key().replace(".gz", ".index.json")));
+      assertEquals(first.key(), index.get("key").asText());
+      assertEquals(10, index.get("contents").size());
+      final JsonNode entry = index.get("contents").get(3);
+      assertEquals(items.get(3).getId(), entry.get("id").asText());
+      assertEquals(items.get(3).getArchiveLocation().offset(), entry.get("offset").asLong());
+      assertEquals(items.get(3).getArchiveLocation().length(), entry.get("length").asLong());
+      assertNotNull(ElasticsearchIntakeSink.toDocument(items.get(3)).get("rawArchive"));
+    }
+  }
+}